@@ -0,0 +1,74 @@
+package pe.edu.pucp.fasticket.benchmark;
+
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import javax.imageio.ImageIO;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.google.zxing.BarcodeFormat;
+import com.google.zxing.WriterException;
+import com.google.zxing.common.BitMatrix;
+import com.google.zxing.qrcode.QRCodeWriter;
+
+import pe.edu.pucp.fasticket.services.tickets.QrCodeEngine;
+
+/**
+ * Imágenes QR por segundo: {@link QrCodeEngine} (PNG de 1 bit escrito directamente) contra el
+ * codificador que usaba el checkout (BufferedImage de 200x200 + setRGB + ImageIO).
+ *
+ * <p>Ejecutar con: mvn -Pjmh test-compile exec:exec -Djmh.args="QrCodeBenchmark -prof gc".
+ * Con {@code -prof gc} JMH reporta además los bytes asignados por imagen.</p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class QrCodeBenchmark {
+
+    private static final int LADO_PX = 200;
+
+    private final QRCodeWriter writer = new QRCodeWriter();
+    private QrCodeEngine engine;
+    private String codigo;
+
+    @Setup
+    public void setUp() {
+        engine = new QrCodeEngine(6);
+        codigo = UUID.randomUUID().toString();
+    }
+
+    @Benchmark
+    public byte[] bufferedImageConImageIO() throws WriterException, IOException {
+        BitMatrix matrix = writer.encode(codigo, BarcodeFormat.QR_CODE, LADO_PX, LADO_PX);
+        BufferedImage image = new BufferedImage(LADO_PX, LADO_PX, BufferedImage.TYPE_INT_RGB);
+        for (int x = 0; x < LADO_PX; x++) {
+            for (int y = 0; y < LADO_PX; y++) {
+                image.setRGB(x, y, matrix.get(x, y) ? 0xFF000000 : 0xFFFFFFFF);
+            }
+        }
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        ImageIO.write(image, "png", baos);
+        return baos.toByteArray();
+    }
+
+    @Benchmark
+    public byte[] qrCodeEngine() {
+        return engine.png(codigo);
+    }
+}
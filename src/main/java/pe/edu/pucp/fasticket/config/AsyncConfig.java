@@ -3,6 +3,7 @@ package pe.edu.pucp.fasticket.config;
 import java.util.concurrent.Executor;
 
 import org.springframework.aop.interceptor.AsyncUncaughtExceptionHandler;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.scheduling.annotation.AsyncConfigurer;
@@ -65,6 +66,26 @@ public class AsyncConfig implements AsyncConfigurer {
         return executor;
     }
 
+    /**
+     * Executor acotado para renderizar las imágenes QR de los tickets fuera del checkout.
+     * 
+     * Es trabajo de CPU, por eso usa pocos hilos. Si la cola se llena la tarea se descarta:
+     * la imagen se genera igual la primera vez que alguien la pide.
+     */
+    @Bean(name = "qrExecutor")
+    public Executor qrExecutor(@Value("${fasticket.qr.hilos:2}") int hilos,
+                               @Value("${fasticket.qr.cola:1000}") int cola) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(hilos);
+        executor.setMaxPoolSize(hilos);
+        executor.setQueueCapacity(cola);
+        executor.setThreadNamePrefix("qr-render-");
+        executor.setRejectedExecutionHandler(new java.util.concurrent.ThreadPoolExecutor.AbortPolicy());
+        executor.setWaitForTasksToCompleteOnShutdown(false);
+        executor.initialize();
+        return executor;
+    }
+
     /**
      * Manejador global de excepciones no capturadas en tareas asíncronas.
      * 
@@ -0,0 +1,24 @@
+package pe.edu.pucp.fasticket.config;
+
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.filter.ShallowEtagHeaderFilter;
+
+/**
+ * ETag por hash del cuerpo para los GET del catálogo que no lo ponen por versión (eventos, con su
+ * aforo disponible). Si el ETag coincide con el {@code If-None-Match} responde 304 sin cuerpo.
+ * Respeta el ETag que ya puso el controlador, y los streams SSE lo desactivan solos.
+ */
+@Configuration
+public class CacheHttpConfig {
+
+    @Bean
+    public FilterRegistrationBean<ShallowEtagHeaderFilter> etagCatalogo() {
+        FilterRegistrationBean<ShallowEtagHeaderFilter> registro =
+                new FilterRegistrationBean<>(new ShallowEtagHeaderFilter());
+        registro.addUrlPatterns("/api/v1/eventos/*", "/api/v1/locales/*", "/api/v1/zonas/*", "/api/v1/tipos-ticket/*");
+        registro.setName("etagCatalogo");
+        return registro;
+    }
+}
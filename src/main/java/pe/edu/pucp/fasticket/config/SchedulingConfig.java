@@ -0,0 +1,13 @@
+package pe.edu.pucp.fasticket.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Habilita las tareas programadas (@Scheduled): liberación de reservas expiradas
+ * y volcado y realineación del inventario en memoria con la base de datos.
+ */
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
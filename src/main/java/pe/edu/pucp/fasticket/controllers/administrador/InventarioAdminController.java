@@ -0,0 +1,56 @@
+package pe.edu.pucp.fasticket.controllers.administrador;
+
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.CrossOrigin;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import pe.edu.pucp.fasticket.dto.StandardResponse;
+import pe.edu.pucp.fasticket.services.inventario.InventarioService;
+
+@Tag(
+    name = "Inventario - Administrador",
+    description = "Operaciones de mantenimiento del inventario de tickets. Requiere rol ADMINISTRADOR."
+)
+@RestController
+@RequestMapping("/api/v1/admin/inventario")
+@CrossOrigin(origins = {"http://localhost:4200", "https://fasticket.com"})
+@RequiredArgsConstructor
+@Slf4j
+public class InventarioAdminController {
+
+    private final InventarioService inventarioService;
+
+    @Operation(
+        summary = "Recalcular el inventario desde el diario",
+        description = """
+            Recalcula cantidadDisponible y cantidadVendida de cada tipo de ticket y el aforo disponible
+            de cada evento sumando los movimientos del diario de inventario desde su apertura, y recarga
+            los contadores en memoria. Usar tras un incidente en que los contadores se desalinearon.
+            """,
+        security = @SecurityRequirement(name = "Bearer Authentication")
+    )
+    @ApiResponses({
+        @ApiResponse(responseCode = "200", description = "Inventario recalculado; devuelve las filas actualizadas."),
+        @ApiResponse(responseCode = "401", description = "Token JWT no válido o ausente."),
+        @ApiResponse(responseCode = "403", description = "Usuario no tiene rol ADMINISTRADOR.")
+    })
+    @PostMapping("/reproyectar")
+    @PreAuthorize("hasRole('ADMINISTRADOR')")
+    public ResponseEntity<StandardResponse<Integer>> reproyectar() {
+        log.info("POST /api/v1/admin/inventario/reproyectar");
+
+        int filas = inventarioService.reproyectar();
+
+        return ResponseEntity.ok(StandardResponse.success("Inventario recalculado desde el diario.", filas));
+    }
+}
@@ -9,6 +9,7 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
@@ -31,8 +32,9 @@ import pe.edu.pucp.fasticket.exception.ErrorResponse;
 import pe.edu.pucp.fasticket.exception.ResourceNotFoundException;
 import pe.edu.pucp.fasticket.model.compra.OrdenCompra;
 import pe.edu.pucp.fasticket.repository.compra.OrdenCompraRepositorio;
-import pe.edu.pucp.fasticket.repository.eventos.TipoTicketRepositorio;
 import pe.edu.pucp.fasticket.services.compra.OrdenServicio;
+import pe.edu.pucp.fasticket.services.eventos.IndiceCatalogo;
+import pe.edu.pucp.fasticket.services.idempotencia.IdempotenciaService;
 
 @Tag(
         name = "Órdenes de Compra",
@@ -47,11 +49,13 @@ public class OrdenController {
 
     private final OrdenServicio ordenServicio;
     private final OrdenCompraRepositorio ordenCompraRepositorio;
-    private final TipoTicketRepositorio tipoTicketRepositorio;
+    private final IndiceCatalogo indiceCatalogo;
+    private final IdempotenciaService idempotenciaService;
 
     @Operation(
             summary = "Crear nueva orden (Checkout directo)",
-            description = "Crea una orden PENDIENTE y reserva tickets. Requiere rol CLIENTE.",
+            description = "Crea una orden PENDIENTE y reserva tickets. Requiere rol CLIENTE. "
+                    + "Con el header Idempotency-Key, los reintentos devuelven la orden ya creada.",
             security = @SecurityRequirement(name = "Bearer Authentication")
     )
     @ApiResponses({
@@ -61,17 +65,23 @@ public class OrdenController {
             ),
             @ApiResponse(responseCode = "400", description = "Datos inválidos o stock insuficiente", content = @Content(schema = @Schema(implementation = ErrorResponse.class))),
             @ApiResponse(responseCode = "401", description = "No autenticado"),
-            @ApiResponse(responseCode = "403", description = "Sin permisos")
+            @ApiResponse(responseCode = "403", description = "Sin permisos"),
+            @ApiResponse(responseCode = "409", description = "Idempotency-Key reutilizada con otros datos o aún en proceso", content = @Content(schema = @Schema(implementation = ErrorResponse.class)))
     })
     @PostMapping
     @PreAuthorize("hasRole('CLIENTE')")
-    public ResponseEntity<StandardResponse<OrdenResumenDTO>> crearOrden(@Valid @RequestBody CrearOrdenDTO crearOrdenDTO) {
+    public ResponseEntity<StandardResponse<OrdenResumenDTO>> crearOrden(
+            @Parameter(description = "Clave única del intento de compra; los reintentos deben repetirla")
+            @RequestHeader(value = IdempotenciaService.HEADER, required = false) String idempotencyKey,
+            @Valid @RequestBody CrearOrdenDTO crearOrdenDTO) {
         log.info("POST /api/v1/ordenes - Cliente: {}", crearOrdenDTO.getIdCliente());
-        OrdenCompra nuevaOrden = ordenServicio.crearOrden(crearOrdenDTO);
-        OrdenResumenDTO resumenDTO = new OrdenResumenDTO(nuevaOrden, tipoTicketRepositorio);
-        return ResponseEntity
-                .status(HttpStatus.CREATED)
-                .body(StandardResponse.success("Proceso iniciado correctamente.", resumenDTO));
+        return idempotenciaService.ejecutar(idempotencyKey, "crear-orden", crearOrdenDTO, OrdenResumenDTO.class, () -> {
+            OrdenCompra nuevaOrden = ordenServicio.crearOrden(crearOrdenDTO);
+            OrdenResumenDTO resumenDTO = new OrdenResumenDTO(nuevaOrden, indiceCatalogo);
+            return ResponseEntity
+                    .status(HttpStatus.CREATED)
+                    .body(StandardResponse.success("Proceso iniciado correctamente.", resumenDTO));
+        });
     }
 
     @Operation(
@@ -94,7 +104,7 @@ public class OrdenController {
         log.info("GET /api/v1/ordenes/{}", id);
         OrdenCompra orden = ordenCompraRepositorio.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Orden no encontrada con ID: " + id));
-        OrdenResumenDTO resumen = new OrdenResumenDTO(orden, tipoTicketRepositorio);
+        OrdenResumenDTO resumen = new OrdenResumenDTO(orden, indiceCatalogo);
         return ResponseEntity.ok(StandardResponse.success("Proceso iniciado correctamente.", resumen));
     }
 
@@ -162,7 +172,7 @@ public class OrdenController {
 
         OrdenCompra orden = ordenServicio.comprarDesdeCarrito(idCarrito);
 
-        OrdenResumenDTO resumen = new OrdenResumenDTO(orden, tipoTicketRepositorio);
+        OrdenResumenDTO resumen = new OrdenResumenDTO(orden, indiceCatalogo);
 
         return ResponseEntity.ok(StandardResponse.success(
                 "Carrito comprado correctamente.",
@@ -0,0 +1,153 @@
+package pe.edu.pucp.fasticket.controllers.compra;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.CrossOrigin;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import pe.edu.pucp.fasticket.dto.StandardResponse;
+import pe.edu.pucp.fasticket.dto.compra.TurnoSalaEsperaDTO;
+import pe.edu.pucp.fasticket.exception.ErrorResponse;
+import pe.edu.pucp.fasticket.security.UserDetailsImpl;
+import pe.edu.pucp.fasticket.services.salaespera.SalaEsperaService;
+
+@Tag(
+        name = "Sala de Espera",
+        description = "Cola de admisión para preventas de alta demanda."
+)
+@RestController
+@RequestMapping("/api/v1/sala-espera")
+@CrossOrigin(origins = {"http://localhost:4200", "https://fasticket.com"})
+@RequiredArgsConstructor
+@Slf4j
+public class SalaEsperaController {
+
+    private final SalaEsperaService salaEsperaService;
+
+    @Operation(
+            summary = "Ingresar a la sala de espera de un evento",
+            description = "Entrega un turno en la cola FIFO del evento con su posición y tiempo estimado. "
+                    + "El turno solo vale para el usuario que lo pidió.",
+            security = @SecurityRequirement(name = "Bearer Authentication")
+    )
+    @ApiResponses({
+            @ApiResponse(
+                    responseCode = "201", description = "Turno asignado",
+                    content = @Content(schema = @Schema(implementation = TurnoSalaEsperaDTO.class))
+            ),
+            @ApiResponse(responseCode = "404", description = "El evento no tiene sala de espera activa", content = @Content(schema = @Schema(implementation = ErrorResponse.class)))
+    })
+    @PostMapping("/eventos/{idEvento}/turnos")
+    @PreAuthorize("hasRole('CLIENTE')")
+    public ResponseEntity<StandardResponse<TurnoSalaEsperaDTO>> ingresar(
+            @Parameter(description = "ID del evento", required = true)
+            @PathVariable Integer idEvento,
+            @AuthenticationPrincipal UserDetailsImpl usuario) {
+
+        log.info("POST /api/v1/sala-espera/eventos/{}/turnos", idEvento);
+        TurnoSalaEsperaDTO turno = salaEsperaService.ingresar(idEvento, usuario.getIdPersona());
+        return ResponseEntity
+                .status(HttpStatus.CREATED)
+                .body(StandardResponse.success("Turno asignado.", turno));
+    }
+
+    @Operation(
+            summary = "Consultar un turno",
+            description = "Devuelve la posición en la cola, el tiempo estimado y si el turno ya fue admitido. "
+                    + "Debe consultarse periódicamente; los turnos que dejan de consultar se descartan.",
+            security = @SecurityRequirement(name = "Bearer Authentication")
+    )
+    @ApiResponses({
+            @ApiResponse(
+                    responseCode = "200", description = "Estado del turno",
+                    content = @Content(schema = @Schema(implementation = TurnoSalaEsperaDTO.class))
+            ),
+            @ApiResponse(responseCode = "404", description = "Turno inexistente, expirado o de otro usuario", content = @Content(schema = @Schema(implementation = ErrorResponse.class)))
+    })
+    @GetMapping("/turnos/{token}")
+    @PreAuthorize("hasRole('CLIENTE')")
+    public ResponseEntity<StandardResponse<TurnoSalaEsperaDTO>> consultar(
+            @Parameter(description = "Token del turno", required = true)
+            @PathVariable String token,
+            @AuthenticationPrincipal UserDetailsImpl usuario) {
+
+        return ResponseEntity.ok(StandardResponse.success("Estado del turno.",
+                salaEsperaService.consultar(token, usuario.getIdPersona())));
+    }
+
+    @Operation(
+            summary = "Abandonar la sala de espera",
+            description = "Libera el turno y, si estaba admitido, cede su cupo al siguiente de la cola.",
+            security = @SecurityRequirement(name = "Bearer Authentication")
+    )
+    @ApiResponse(responseCode = "200", description = "Turno liberado")
+    @DeleteMapping("/turnos/{token}")
+    @PreAuthorize("hasRole('CLIENTE')")
+    public ResponseEntity<StandardResponse<Void>> abandonar(
+            @Parameter(description = "Token del turno", required = true)
+            @PathVariable String token,
+            @AuthenticationPrincipal UserDetailsImpl usuario) {
+
+        log.info("DELETE /api/v1/sala-espera/turnos/{}", token);
+        salaEsperaService.liberar(token, usuario.getIdPersona());
+        return ResponseEntity.ok(StandardResponse.success("Turno liberado.", null));
+    }
+
+    @Operation(
+            summary = "Activar la sala de espera de un evento",
+            description = "Desde este momento las compras del evento requieren un turno admitido. "
+                    + "La capacidad es la cantidad de compradores admitidos a la vez.",
+            security = @SecurityRequirement(name = "Bearer Authentication")
+    )
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Sala activada"),
+            @ApiResponse(responseCode = "404", description = "Evento no encontrado", content = @Content(schema = @Schema(implementation = ErrorResponse.class)))
+    })
+    @PutMapping("/eventos/{idEvento}")
+    @PreAuthorize("hasRole('ADMINISTRADOR')")
+    public ResponseEntity<StandardResponse<Void>> activar(
+            @Parameter(description = "ID del evento", required = true)
+            @PathVariable Integer idEvento,
+            @Parameter(description = "Compradores admitidos a la vez (por defecto fasticket.sala-espera.capacidad-por-defecto)")
+            @RequestParam(required = false) Integer capacidad) {
+
+        log.info("PUT /api/v1/sala-espera/eventos/{} - capacidad: {}", idEvento, capacidad);
+        salaEsperaService.activar(idEvento, capacidad);
+        return ResponseEntity.ok(StandardResponse.success("Sala de espera activada.", null));
+    }
+
+    @Operation(
+            summary = "Desactivar la sala de espera de un evento",
+            security = @SecurityRequirement(name = "Bearer Authentication")
+    )
+    @ApiResponse(responseCode = "200", description = "Sala desactivada")
+    @DeleteMapping("/eventos/{idEvento}")
+    @PreAuthorize("hasRole('ADMINISTRADOR')")
+    public ResponseEntity<StandardResponse<Void>> desactivar(
+            @Parameter(description = "ID del evento", required = true)
+            @PathVariable Integer idEvento) {
+
+        log.info("DELETE /api/v1/sala-espera/eventos/{}", idEvento);
+        salaEsperaService.desactivar(idEvento);
+        return ResponseEntity.ok(StandardResponse.success("Sala de espera desactivada.", null));
+    }
+}
@@ -0,0 +1,84 @@
+package pe.edu.pucp.fasticket.controllers.eventos;
+
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.CrossOrigin;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import pe.edu.pucp.fasticket.dto.StandardResponse;
+import pe.edu.pucp.fasticket.dto.eventos.ResultadosBusquedaDTO;
+import pe.edu.pucp.fasticket.exception.ErrorResponse;
+import pe.edu.pucp.fasticket.services.busqueda.BusquedaService;
+
+@Tag(
+        name = "Búsqueda",
+        description = "Búsqueda de texto sobre eventos y locales activos. Endpoints públicos."
+)
+@RestController
+@RequestMapping("/api/v1/busqueda")
+@CrossOrigin(origins = {"http://localhost:4200", "https://fasticket.com"})
+@RequiredArgsConstructor
+@Slf4j
+public class BusquedaController {
+
+    private final BusquedaService busquedaService;
+
+    @Operation(
+            summary = "Buscar eventos y locales",
+            description = "Busca en el nombre, la descripción y las restricciones de los eventos y en el nombre, "
+                    + "la dirección y el distrito de los locales. Ignora tildes, mayúsculas y plurales; "
+                    + "devuelve los que contienen todas las palabras, los más relevantes primero."
+    )
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Resultados de la búsqueda"),
+            @ApiResponse(
+                    responseCode = "400",
+                    description = "Consulta vacía o límite fuera de rango",
+                    content = @Content(schema = @Schema(implementation = ErrorResponse.class))
+            )
+    })
+    @GetMapping
+    public ResponseEntity<StandardResponse<ResultadosBusquedaDTO>> buscar(
+            @Parameter(description = "Texto a buscar", example = "concierto rock")
+            @RequestParam String q,
+            @Parameter(description = "Resultados por tipo (1-50, por defecto 10)")
+            @RequestParam(required = false) Integer limite) {
+
+        log.info("GET /api/v1/busqueda?q={}", q);
+        return ResponseEntity.ok(StandardResponse.success("Búsqueda realizada exitosamente", busquedaService.buscar(q, limite)));
+    }
+
+    @Operation(
+            summary = "Autocompletar la búsqueda",
+            description = "Como la búsqueda, pero la última palabra puede estar incompleta: \"conci\" encuentra "
+                    + "\"Concierto\". Pensado para llamarse mientras el usuario escribe."
+    )
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Sugerencias"),
+            @ApiResponse(
+                    responseCode = "400",
+                    description = "Consulta vacía o límite fuera de rango",
+                    content = @Content(schema = @Schema(implementation = ErrorResponse.class))
+            )
+    })
+    @GetMapping("/sugerencias")
+    public ResponseEntity<StandardResponse<ResultadosBusquedaDTO>> sugerir(
+            @Parameter(description = "Texto escrito hasta el momento", example = "rock en li")
+            @RequestParam String q,
+            @Parameter(description = "Sugerencias por tipo (1-50, por defecto 10)")
+            @RequestParam(required = false) Integer limite) {
+
+        return ResponseEntity.ok(StandardResponse.success("Sugerencias obtenidas exitosamente", busquedaService.sugerir(q, limite)));
+    }
+}
@@ -8,6 +8,7 @@ import java.util.List;
 
 import org.springframework.core.io.ByteArrayResource;
 import org.springframework.core.io.Resource;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
@@ -23,7 +24,9 @@ import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -36,15 +39,20 @@ import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import pe.edu.pucp.fasticket.dto.PaginaCursor;
 import pe.edu.pucp.fasticket.dto.StandardResponse;
+import pe.edu.pucp.fasticket.dto.eventos.BusquedaEventosDTO;
 import pe.edu.pucp.fasticket.dto.eventos.EventoCreateDTO;
 import pe.edu.pucp.fasticket.dto.eventos.EventoResponseDTO;
+import pe.edu.pucp.fasticket.dto.eventos.PortadaCatalogoDTO;
 import pe.edu.pucp.fasticket.exception.ErrorResponse;
 import pe.edu.pucp.fasticket.exception.ResourceNotFoundException;
 import pe.edu.pucp.fasticket.model.eventos.EstadoEvento;
 import pe.edu.pucp.fasticket.model.eventos.TipoEvento;
 import pe.edu.pucp.fasticket.services.S3Service;
+import pe.edu.pucp.fasticket.services.disponibilidad.DisponibilidadEnVivoService;
 import pe.edu.pucp.fasticket.services.eventos.EventoService;
+import pe.edu.pucp.fasticket.services.portada.PortadaCatalogoService;
 
 @Tag(
         name = "Eventos",
@@ -61,23 +69,34 @@ public class EventoController {
 
     private final EventoService eventoService;
     private final S3Service s3Service;
+    private final DisponibilidadEnVivoService disponibilidadEnVivoService;
+    private final RespuestaCondicional respuestaCondicional;
+    private final PortadaCatalogoService portadaCatalogoService;
 
     @Operation(
             summary = "Listar todos los eventos",
-            description = "Obtiene lista de eventos. Endpoint público."
+            description = "Obtiene lista de eventos. Endpoint público. Con soloActivos=false devuelve una página "
+                    + "ordenada por ID, sin descripción; la cabecera X-Siguiente-Cursor trae el cursor de la siguiente."
     )
     @ApiResponse(responseCode = "200", description = "Lista obtenida exitosamente")
     @GetMapping
     public ResponseEntity<StandardResponse<List<EventoResponseDTO>>> listar(
             @Parameter(description = "Mostrar solo activos")
-            @RequestParam(defaultValue = "true") boolean soloActivos) {
+            @RequestParam(defaultValue = "true") boolean soloActivos,
+            @Parameter(description = "Cursor de la cabecera X-Siguiente-Cursor de la página anterior")
+            @RequestParam(required = false) String cursor,
+            @Parameter(description = "Elementos por página (1-200, por defecto 50)")
+            @RequestParam(required = false) Integer limite) {
 
         log.info("GET /api/v1/eventos?soloActivos={}", soloActivos);
-        List<EventoResponseDTO> eventos = soloActivos
-                ? eventoService.listarActivos()
-                : eventoService.listarTodos();
-        StandardResponse<List<EventoResponseDTO>> response = StandardResponse.success("Eventos obtenidos exitosamente", eventos);
-        return ResponseEntity.ok(response);
+        if (soloActivos) {
+            return respuestaCondicional.segunContenido(
+                    ResponseEntity.ok(StandardResponse.success("Eventos obtenidos exitosamente", eventoService.listarActivos())));
+        }
+        PaginaCursor<EventoResponseDTO> pagina = eventoService.listarTodos(cursor, limite);
+        return respuestaCondicional.segunContenido(ResponseEntity.ok()
+                .headers(pagina.cabeceras())
+                .body(StandardResponse.success("Eventos obtenidos exitosamente", pagina.elementos())));
     }
 
     @Operation(
@@ -90,7 +109,79 @@ public class EventoController {
         log.info("GET /api/v1/eventos/proximos");
         List<EventoResponseDTO> eventos = eventoService.listarProximos();
         StandardResponse<List<EventoResponseDTO>> response = StandardResponse.success("Eventos próximos obtenidos exitosamente", eventos);
-        return ResponseEntity.ok(response);
+        return respuestaCondicional.segunContenido(ResponseEntity.ok(response));
+    }
+
+    @Operation(
+            summary = "Portada del catálogo",
+            description = "Próximos eventos, destacados (con imagen y entradas disponibles) y eventos por distrito, "
+                    + "armados en segundo plano. Puede estar atrasada hasta la siguiente reconstrucción. Endpoint público."
+    )
+    @ApiResponse(responseCode = "200", description = "Portada obtenida",
+            content = @Content(schema = @Schema(implementation = PortadaCatalogoDTO.class)))
+    @GetMapping("/portada")
+    public ResponseEntity<byte[]> obtenerPortada(WebRequest request) {
+        log.info("GET /api/v1/eventos/portada");
+        PortadaCatalogoService.Documento portada = portadaCatalogoService.obtener();
+        return respuestaCondicional.segunEtag(request, portada.etag(), () -> {
+            portadaCatalogoService.registrarEnvio(portada);
+            return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(portada.json());
+        });
+    }
+
+    @Operation(
+            summary = "Buscar eventos",
+            description = "Búsqueda combinada de eventos activos por tipo, rango de fechas, distrito, rango de precio "
+                    + "y disponibilidad. Los criterios omitidos no filtran. Precio y disponibilidad se evalúan sobre "
+                    + "un mismo tipo de ticket. Devuelve una página sin descripción; la cabecera X-Siguiente-Cursor "
+                    + "trae el cursor de la siguiente. Endpoint público."
+    )
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Eventos encontrados"),
+            @ApiResponse(
+                    responseCode = "400",
+                    description = "Rango de fechas o de precio inválido",
+                    content = @Content(schema = @Schema(implementation = ErrorResponse.class))
+            )
+    })
+    @GetMapping("/buscar")
+    public ResponseEntity<StandardResponse<List<EventoResponseDTO>>> buscar(
+            @Parameter(description = "Tipo de evento", example = "CONCIERTO")
+            @RequestParam(required = false) TipoEvento tipo,
+            @Parameter(description = "Fecha mínima (yyyy-MM-dd)", example = "2025-12-01")
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate desde,
+            @Parameter(description = "Fecha máxima (yyyy-MM-dd)", example = "2025-12-31")
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate hasta,
+            @Parameter(description = "ID del distrito del local", example = "1")
+            @RequestParam(required = false) Integer distrito,
+            @Parameter(description = "Precio mínimo", example = "50.0")
+            @RequestParam(required = false) Double precioMin,
+            @Parameter(description = "Precio máximo", example = "200.0")
+            @RequestParam(required = false) Double precioMax,
+            @Parameter(description = "Solo eventos con entradas disponibles")
+            @RequestParam(required = false) Boolean conDisponibilidad,
+            @Parameter(description = "Orden: FECHA, FECHA_DESC, NOMBRE o PRECIO (por defecto FECHA)")
+            @RequestParam(required = false) BusquedaEventosDTO.Orden orden,
+            @Parameter(description = "Cursor de la cabecera X-Siguiente-Cursor de la página anterior")
+            @RequestParam(required = false) String cursor,
+            @Parameter(description = "Elementos por página (1-200, por defecto 50)")
+            @RequestParam(required = false) Integer limite) {
+
+        BusquedaEventosDTO criterios = BusquedaEventosDTO.builder()
+                .tipo(tipo)
+                .desde(desde)
+                .hasta(hasta)
+                .idDistrito(distrito)
+                .precioMin(precioMin)
+                .precioMax(precioMax)
+                .conDisponibilidad(conDisponibilidad)
+                .orden(orden)
+                .build();
+        log.info("GET /api/v1/eventos/buscar {}", criterios);
+        PaginaCursor<EventoResponseDTO> pagina = eventoService.buscar(criterios, cursor, limite);
+        return respuestaCondicional.segunContenido(ResponseEntity.ok()
+                .headers(pagina.cabeceras())
+                .body(StandardResponse.success("Búsqueda de eventos realizada exitosamente", pagina.elementos())));
     }
 
     @Operation(
@@ -106,7 +197,7 @@ public class EventoController {
         log.info("GET /api/v1/eventos/estado/{}", estado);
         List<EventoResponseDTO> eventos = eventoService.listarPorEstado(estado);
         StandardResponse<List<EventoResponseDTO>> response = StandardResponse.success("Eventos filtrados por estado obtenidos exitosamente", eventos);
-        return ResponseEntity.ok(response);
+        return respuestaCondicional.segunContenido(ResponseEntity.ok(response));
     }
 
     @Operation(
@@ -133,7 +224,7 @@ public class EventoController {
         log.info("GET /api/v1/eventos/{}", id);
         EventoResponseDTO evento = eventoService.obtenerPorId(id);
         StandardResponse<EventoResponseDTO> response = StandardResponse.success("Evento obtenido exitosamente", evento);
-        return ResponseEntity.ok(response);
+        return respuestaCondicional.segunContenido(ResponseEntity.ok(response));
     }
 
     @Operation(
@@ -342,13 +433,14 @@ public class EventoController {
 
         try {
             var detalle = eventoService.obtenerDetalleParaCompra(id);
-            return ResponseEntity.ok().body(
-                    java.util.Map.of(
+            // Claves en orden fijo: el ETag es un hash del cuerpo y debe coincidir entre instancias
+            return respuestaCondicional.revalidando(ResponseEntity.ok().body(
+                    new java.util.TreeMap<>(java.util.Map.of(
                             "success", true,
                             "mensajeAviso", "Detalle de evento obtenido exitosamente",
                             "data", detalle
-                    )
-            );
+                    ))
+            ));
         } catch (RuntimeException ex) {
             log.error("Error al obtener detalle de evento {}: {}", id, ex.getMessage());
             return ResponseEntity.status(HttpStatus.NOT_FOUND).body(
@@ -360,6 +452,28 @@ public class EventoController {
         }
     }
 
+    @Operation(
+            summary = "Stream de disponibilidad del evento",
+            description = "Server-Sent Events con la cantidad disponible por tipo de ticket. Al conectarse llega un "
+                    + "mensaje 'disponibilidad' con todos los tipos; después, mensajes 'cambio' con solo los que "
+                    + "cambiaron, como mucho uno cada 250 ms. Endpoint público."
+    )
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Stream abierto (text/event-stream)"),
+            @ApiResponse(
+                    responseCode = "404",
+                    description = "Evento no encontrado o inactivo",
+                    content = @Content(schema = @Schema(implementation = ErrorResponse.class))
+            )
+    })
+    @GetMapping("/{id}/disponibilidad")
+    public SseEmitter streamDisponibilidad(
+            @Parameter(description = "ID del evento", required = true, example = "1")
+            @PathVariable Integer id) {
+        log.debug("GET /api/v1/eventos/{}/disponibilidad", id);
+        return disponibilidadEnVivoService.suscribir(id);
+    }
+
     @Operation(
             summary = "Subir imagen de evento",
             description = "Sube una imagen para un evento específico. Solo administradores.",
@@ -15,6 +15,7 @@ import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.multipart.MultipartFile;
 
 import io.swagger.v3.oas.annotations.Operation;
@@ -28,6 +29,7 @@ import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import pe.edu.pucp.fasticket.dto.PaginaCursor;
 import pe.edu.pucp.fasticket.dto.StandardResponse;
 import pe.edu.pucp.fasticket.dto.eventos.LocalCreateDTO;
 import pe.edu.pucp.fasticket.dto.eventos.LocalResponseDTO;
@@ -49,10 +51,12 @@ public class LocalController {
 
     private final LocalService localService;
     private final S3Service s3Service;
+    private final RespuestaCondicional respuestaCondicional;
 
     @Operation(
         summary = "Listar todos los locales",
-        description = "Obtiene lista de locales activos o todos según el parámetro"
+        description = "Obtiene lista de locales activos o todos según el parámetro. Con soloActivos=false devuelve "
+            + "una página ordenada por ID; la cabecera X-Siguiente-Cursor trae el cursor de la siguiente."
     )
     @ApiResponse(
         responseCode = "200",
@@ -61,14 +65,23 @@ public class LocalController {
     @GetMapping
     public ResponseEntity<StandardResponse<List<LocalResponseDTO>>> listar(
             @Parameter(description = "Mostrar solo activos")
-            @RequestParam(defaultValue = "true") boolean soloActivos) {
+            @RequestParam(defaultValue = "true") boolean soloActivos,
+            @Parameter(description = "Cursor de la cabecera X-Siguiente-Cursor de la página anterior")
+            @RequestParam(required = false) String cursor,
+            @Parameter(description = "Elementos por página (1-200, por defecto 50)")
+            @RequestParam(required = false) Integer limite,
+            WebRequest request) {
         
         log.info("GET /api/v1/locales?soloActivos={}", soloActivos);
-        List<LocalResponseDTO> locales = soloActivos 
-            ? localService.listarActivos() 
-            : localService.listarTodos();
-        StandardResponse<List<LocalResponseDTO>> response = StandardResponse.success("Locales obtenidos exitosamente", locales);
-        return ResponseEntity.ok(response);
+        return respuestaCondicional.segunVersion(request, () -> {
+            if (soloActivos) {
+                return ResponseEntity.ok(StandardResponse.success("Locales obtenidos exitosamente", localService.listarActivos()));
+            }
+            PaginaCursor<LocalResponseDTO> pagina = localService.listarTodos(cursor, limite);
+            return ResponseEntity.ok()
+                .headers(pagina.cabeceras())
+                .body(StandardResponse.success("Locales obtenidos exitosamente", pagina.elementos()));
+        });
     }
 
     @Operation(
@@ -90,12 +103,15 @@ public class LocalController {
     @GetMapping("/{id}")
     public ResponseEntity<StandardResponse<LocalResponseDTO>> obtenerPorId(
             @Parameter(description = "ID del local", required = true, example = "1")
-            @PathVariable Integer id) {
+            @PathVariable Integer id,
+            WebRequest request) {
         
         log.info("GET /api/v1/locales/{}", id);
-        LocalResponseDTO local = localService.obtenerPorId(id);
-        StandardResponse<LocalResponseDTO> response = StandardResponse.success("Local obtenido exitosamente", local);
-        return ResponseEntity.ok(response);
+        return respuestaCondicional.segunVersion(request, () -> {
+            LocalResponseDTO local = localService.obtenerPorId(id);
+            StandardResponse<LocalResponseDTO> response = StandardResponse.success("Local obtenido exitosamente", local);
+            return ResponseEntity.ok(response);
+        });
     }
 
     @Operation(
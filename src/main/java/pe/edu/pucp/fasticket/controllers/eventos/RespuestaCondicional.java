@@ -0,0 +1,123 @@
+package pe.edu.pucp.fasticket.controllers.eventos;
+
+import java.time.Duration;
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+import org.springframework.web.context.request.WebRequest;
+
+import pe.edu.pucp.fasticket.services.eventos.AlmacenCatalogo;
+
+/**
+ * Respuestas condicionales (ETag + Cache-Control) de los GET públicos del catálogo.
+ *
+ * <p>Locales, zonas y tipos de ticket solo cambian con un
+ * {@link pe.edu.pucp.fasticket.events.CatalogoModificadoEvent}, que cambia la versión de
+ * {@link AlmacenCatalogo}; su ETag es esa versión, así que un {@code If-None-Match} vigente se
+ * responde con 304 antes de llamar al servicio. Los eventos llevan el aforo disponible, que cambia
+ * con cada reserva: su ETag es un hash del cuerpo que calcula {@code ShallowEtagHeaderFilter}
+ * (ver {@link pe.edu.pucp.fasticket.config.CacheHttpConfig}), así que el 304 ahorra la
+ * transferencia pero no la consulta.</p>
+ *
+ * <p>Solo se marcan las respuestas 2xx: los errores no se guardan en el ALB/CDN ni en el navegador.</p>
+ */
+@Component
+public class RespuestaCondicional {
+
+    private final AlmacenCatalogo almacen;
+    private final CacheControl cacheControl;
+
+    public RespuestaCondicional(AlmacenCatalogo almacen,
+                                @Value("${fasticket.catalogo.http.max-age-segundos:30}") long maxAgeSegundos) {
+        this.almacen = almacen;
+        this.cacheControl = CacheControl.maxAge(Duration.ofSeconds(maxAgeSegundos)).cachePublic();
+    }
+
+    /**
+     * Responde 304 si el cliente ya tiene la versión vigente del catálogo; si no, arma la respuesta
+     * y le agrega la versión como ETag. Sin versión (almacén caído) responde siempre completo.
+     *
+     * @param respuesta Solo se llama si hace falta el cuerpo
+     */
+    public <T> ResponseEntity<T> segunVersion(WebRequest request, Supplier<ResponseEntity<T>> respuesta) {
+        String version = almacen.version();
+        if (version == null) {
+            return segunContenido(respuesta.get());
+        }
+        return segunEtag(request, "W/\"catalogo-" + version + "\"", respuesta);
+    }
+
+    /**
+     * Responde 304 si el cliente ya tiene el ETag; si no, arma la respuesta y se lo agrega. Para
+     * documentos que ya conocen su ETag sin armar el cuerpo, como la portada del catálogo.
+     *
+     * @param respuesta Solo se llama si hace falta el cuerpo
+     */
+    public <T> ResponseEntity<T> segunEtag(WebRequest request, String etag, Supplier<ResponseEntity<T>> respuesta) {
+        if (coincide(request.getHeader(HttpHeaders.IF_NONE_MATCH), etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).cacheControl(cacheControl).build();
+        }
+        ResponseEntity<T> completa = respuesta.get();
+        if (!completa.getStatusCode().is2xxSuccessful()) {
+            return completa;
+        }
+        return ResponseEntity.status(completa.getStatusCode())
+                .headers(completa.getHeaders())
+                .eTag(etag)
+                .cacheControl(cacheControl)
+                .body(completa.getBody());
+    }
+
+    /**
+     * Agrega el Cache-Control del catálogo; el ETag lo pone el filtro a partir del cuerpo.
+     */
+    public <T> ResponseEntity<T> segunContenido(ResponseEntity<T> respuesta) {
+        return conCacheControl(respuesta, cacheControl);
+    }
+
+    /**
+     * Como {@link #segunContenido}, pero el cliente y el CDN revalidan en cada uso: para lo que
+     * tiene que estar al día, como el detalle de compra.
+     */
+    public <T> ResponseEntity<T> revalidando(ResponseEntity<T> respuesta) {
+        return conCacheControl(respuesta, CacheControl.noCache().cachePublic());
+    }
+
+    private static <T> ResponseEntity<T> conCacheControl(ResponseEntity<T> respuesta, CacheControl cacheControl) {
+        if (!respuesta.getStatusCode().is2xxSuccessful()) {
+            return respuesta;
+        }
+        return ResponseEntity.status(respuesta.getStatusCode())
+                .headers(respuesta.getHeaders())
+                .cacheControl(cacheControl)
+                .body(respuesta.getBody());
+    }
+
+    /**
+     * Comparación débil (RFC 9110 §13.1.2): ignora el prefijo {@code W/}. {@code *} no coincide,
+     * porque antes de llamar al servicio no se sabe si el recurso existe.
+     */
+    static boolean coincide(String ifNoneMatch, String etag) {
+        if (!StringUtils.hasText(ifNoneMatch)) {
+            return false;
+        }
+        String buscado = sinDebil(etag);
+        for (String candidato : ifNoneMatch.split(",")) {
+            String valor = candidato.trim();
+            if (sinDebil(valor).equals(buscado)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static String sinDebil(String etag) {
+        return etag.startsWith("W/") ? etag.substring(2) : etag;
+    }
+}
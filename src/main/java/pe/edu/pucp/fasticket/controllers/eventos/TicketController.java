@@ -3,6 +3,8 @@ package pe.edu.pucp.fasticket.controllers.eventos;
 // Imports de Spring y Lombok
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.CacheControl;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.Authentication;
@@ -16,9 +18,13 @@ import io.swagger.v3.oas.annotations.tags.Tag;
 // Imports de tu proyecto
 import pe.edu.pucp.fasticket.dto.StandardResponse;
 import pe.edu.pucp.fasticket.dto.compra.TransferenciaResponseDTO;
+import pe.edu.pucp.fasticket.security.UserDetailsImpl;
 import pe.edu.pucp.fasticket.services.compra.TransferenciaEntradaServicio;
+import pe.edu.pucp.fasticket.services.tickets.QrTicketService;
 
+import java.nio.charset.StandardCharsets;
 import java.util.List;
+import java.util.concurrent.TimeUnit;
 
 @RestController
 @RequestMapping("/api/v1/tickets") // <--- ESTA ES LA RUTA BASE
@@ -29,6 +35,8 @@ import java.util.List;
 public class TicketController {
 
     private final TransferenciaEntradaServicio transferenciaService;
+    private final QrTicketService qrTicketService;
+
     @Operation(summary = "Ver historial de transferencias de un ticket",
             description = "Muestra todos los dueños anteriores de un ticket específico.")
     @GetMapping("/{idTicket}/historial")
@@ -41,4 +49,31 @@ public class TicketController {
 
         return ResponseEntity.ok(StandardResponse.success("Historial de ticket obtenido", historial));
     }
-}
\ No newline at end of file
+
+    @Operation(summary = "Obtener la imagen QR de un ticket",
+            description = "Devuelve el código QR como PNG (por defecto) o SVG. Si el PNG aún no se generó, se renderiza en ese momento.")
+    @GetMapping(value = "/{idTicket}/qr", produces = {MediaType.IMAGE_PNG_VALUE, "image/svg+xml"})
+    @PreAuthorize("hasRole('CLIENTE') or hasRole('ADMINISTRADOR')")
+    public ResponseEntity<byte[]> obtenerQr(
+            @PathVariable Integer idTicket,
+            @RequestParam(defaultValue = "png") String formato,
+            Authentication authentication) {
+        log.info("GET /api/v1/tickets/{}/qr?formato={}", idTicket, formato);
+        UserDetailsImpl usuario = (UserDetailsImpl) authentication.getPrincipal();
+        boolean esAdministrador = authentication.getAuthorities().stream()
+                .anyMatch(a -> "ROLE_ADMINISTRADOR".equals(a.getAuthority()));
+
+        ResponseEntity.BodyBuilder respuesta = ResponseEntity.ok()
+                .cacheControl(CacheControl.maxAge(1, TimeUnit.HOURS).cachePrivate());
+        if ("svg".equalsIgnoreCase(formato)) {
+            String svg = qrTicketService.obtenerSvg(idTicket, usuario.getIdPersona(), esAdministrador);
+            return respuesta.contentType(MediaType.parseMediaType("image/svg+xml"))
+                    .body(svg.getBytes(StandardCharsets.UTF_8));
+        }
+        if (!"png".equalsIgnoreCase(formato)) {
+            throw new IllegalArgumentException("Formato de QR no soportado: " + formato);
+        }
+        return respuesta.contentType(MediaType.IMAGE_PNG)
+                .body(qrTicketService.obtenerPng(idTicket, usuario.getIdPersona(), esAdministrador));
+    }
+}
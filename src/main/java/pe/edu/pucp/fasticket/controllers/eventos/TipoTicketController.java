@@ -15,6 +15,7 @@ import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -27,6 +28,7 @@ import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import pe.edu.pucp.fasticket.dto.PaginaCursor;
 import pe.edu.pucp.fasticket.dto.StandardResponse;
 import pe.edu.pucp.fasticket.dto.eventos.ActualizarTipoTicketRequestDTO;
 import pe.edu.pucp.fasticket.dto.eventos.CrearTipoTicketRequestDTO;
@@ -47,6 +49,7 @@ import pe.edu.pucp.fasticket.services.eventos.TipoTicketServicio;
 public class TipoTicketController {
 
     private final TipoTicketServicio tipoTicketServicio;
+    private final RespuestaCondicional respuestaCondicional;
 
     @Operation(
             summary = "Listar tipos de ticket",
@@ -88,7 +91,12 @@ public class TipoTicketController {
             @Parameter(description = "ID de la zona para filtrar tipos de ticket específicos", example = "1")
             @RequestParam(required = false) Integer zona,
             @Parameter(description = "Filtrar solo tipos de ticket activos", example = "true")
-            @RequestParam(required = false, defaultValue = "false") Boolean activos) {
+            @RequestParam(required = false, defaultValue = "false") Boolean activos,
+            @Parameter(description = "Cursor de la cabecera X-Siguiente-Cursor de la página anterior")
+            @RequestParam(required = false) String cursor,
+            @Parameter(description = "Elementos por página (1-200, por defecto 50)")
+            @RequestParam(required = false) Integer limite,
+            WebRequest request) {
         
         log.info("GET /api/v1/tipos-ticket?zona={}&activos={}", zona, activos);
         
@@ -99,25 +107,29 @@ public class TipoTicketController {
                 .body(StandardResponse.error("El ID de zona debe ser un número positivo"));
         }
         
-        List<TipoTicketDTO> tiposTicket;
-        String mensaje;
-        
-        if (zona != null) {
-            // Filtrar por zona
-            if (activos) {
-                tiposTicket = tipoTicketServicio.listarPorZonaActivos(zona);
-                mensaje = String.format("Lista de tipos de ticket activos para zona %d obtenida exitosamente", zona);
+        return respuestaCondicional.segunVersion(request, () -> {
+            List<TipoTicketDTO> tiposTicket;
+            String mensaje;
+            
+            if (zona != null) {
+                // Filtrar por zona
+                if (activos) {
+                    tiposTicket = tipoTicketServicio.listarPorZonaActivos(zona);
+                    mensaje = String.format("Lista de tipos de ticket activos para zona %d obtenida exitosamente", zona);
+                } else {
+                    tiposTicket = tipoTicketServicio.listarPorZona(zona);
+                    mensaje = String.format("Lista de tipos de ticket para zona %d obtenida exitosamente", zona);
+                }
             } else {
-                tiposTicket = tipoTicketServicio.listarPorZona(zona);
-                mensaje = String.format("Lista de tipos de ticket para zona %d obtenida exitosamente", zona);
+                // Listar todos, por páginas
+                PaginaCursor<TipoTicketDTO> pagina = tipoTicketServicio.listarTodos(cursor, limite);
+                return ResponseEntity.ok()
+                    .headers(pagina.cabeceras())
+                    .body(StandardResponse.success("Lista de tipos de ticket obtenida exitosamente", pagina.elementos()));
             }
-        } else {
-            // Listar todos
-            tiposTicket = tipoTicketServicio.listarTodos();
-            mensaje = "Lista de tipos de ticket obtenida exitosamente";
-        }
-            
-        return ResponseEntity.ok(StandardResponse.success(mensaje, tiposTicket));
+                
+            return ResponseEntity.ok(StandardResponse.success(mensaje, tiposTicket));
+        });
     }
 
     @Operation(
@@ -139,10 +151,13 @@ public class TipoTicketController {
     @GetMapping("/{id}")
     public ResponseEntity<StandardResponse<TipoTicketDTO>> obtenerPorId(
             @Parameter(description = "ID del tipo de ticket", required = true, example = "1")
-            @PathVariable Integer id) {
+            @PathVariable Integer id,
+            WebRequest request) {
         log.info("GET /api/v1/tipos-ticket/{}", id);
-        TipoTicketDTO tipoTicket = tipoTicketServicio.obtenerPorId(id);
-        return ResponseEntity.ok(StandardResponse.success("Tipo de ticket obtenido exitosamente", tipoTicket));
+        return respuestaCondicional.segunVersion(request, () -> {
+            TipoTicketDTO tipoTicket = tipoTicketServicio.obtenerPorId(id);
+            return ResponseEntity.ok(StandardResponse.success("Tipo de ticket obtenido exitosamente", tipoTicket));
+        });
     }
 
     @Operation(
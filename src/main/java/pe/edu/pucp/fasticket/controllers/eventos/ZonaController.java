@@ -16,6 +16,7 @@ import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.multipart.MultipartFile;
 
 import io.swagger.v3.oas.annotations.Operation;
@@ -52,6 +53,7 @@ public class ZonaController {
     private final ZonaServicio zonaServicio;
     private final ZonaMapper zonaMapper;
     private final S3Service s3Service;
+    private final RespuestaCondicional respuestaCondicional;
 
     @Operation(
         summary = "Listar zonas",
@@ -61,27 +63,29 @@ public class ZonaController {
     @GetMapping
     public ResponseEntity<StandardResponse<List<ZonaDTO>>> listar(
             @Parameter(description = "ID del local para filtrar zonas (opcional)")
-            @RequestParam(required = false) Integer local) {
+            @RequestParam(required = false) Integer local,
+            WebRequest request) {
         
         log.info("GET /api/v1/zonas?local={}", local);
-        
-        List<Zona> zonas;
-        if (local != null) {
-            zonas = zonaServicio.buscarPorLocal(local);
-        } else {
-            zonas = zonaServicio.listarTodas();
-        }
-        
-        List<ZonaDTO> zonasDTO = zonas.stream()
-                .map(zonaMapper::toDTO)
-                .collect(Collectors.toList());
-        
-        String mensaje = local != null 
-            ? String.format("Zonas del local %d obtenidas exitosamente", local)
-            : "Zonas obtenidas exitosamente";
+        return respuestaCondicional.segunVersion(request, () -> {
+            List<Zona> zonas;
+            if (local != null) {
+                zonas = zonaServicio.buscarPorLocal(local);
+            } else {
+                zonas = zonaServicio.listarTodas();
+            }
             
-        StandardResponse<List<ZonaDTO>> response = StandardResponse.success(mensaje, zonasDTO);
-        return ResponseEntity.ok(response);
+            List<ZonaDTO> zonasDTO = zonas.stream()
+                    .map(zonaMapper::toDTO)
+                    .collect(Collectors.toList());
+            
+            String mensaje = local != null 
+                ? String.format("Zonas del local %d obtenidas exitosamente", local)
+                : "Zonas obtenidas exitosamente";
+                
+            StandardResponse<List<ZonaDTO>> response = StandardResponse.success(mensaje, zonasDTO);
+            return ResponseEntity.ok(response);
+        });
     }
 
     @Operation(
@@ -103,16 +107,17 @@ public class ZonaController {
     @GetMapping("/{id}")
     public ResponseEntity<StandardResponse<ZonaDTO>> obtenerPorId(
             @Parameter(description = "ID de la zona")
-            @PathVariable Integer id) {
+            @PathVariable Integer id,
+            WebRequest request) {
         
         log.info("GET /api/v1/zonas/{}", id);
-        return zonaServicio.buscarPorId(id)
+        return respuestaCondicional.segunVersion(request, () -> zonaServicio.buscarPorId(id)
                 .map(zona -> {
                     ZonaDTO zonaDTO = zonaMapper.toDTO(zona);
                     StandardResponse<ZonaDTO> response = StandardResponse.success("Zona obtenida exitosamente", zonaDTO);
                     return ResponseEntity.ok(response);
                 })
-                .orElse(ResponseEntity.notFound().build());
+                .orElse(ResponseEntity.notFound().build()));
     }
 
     @Operation(
@@ -13,6 +13,7 @@ import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 import io.swagger.v3.oas.annotations.Operation;
@@ -26,6 +27,7 @@ import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import pe.edu.pucp.fasticket.dto.PaginaCursor;
 import pe.edu.pucp.fasticket.dto.StandardResponse;
 import pe.edu.pucp.fasticket.dto.fidelizacion.*;
 import pe.edu.pucp.fasticket.exception.ErrorResponse;
@@ -278,7 +280,8 @@ public class FidelizacionAdminController {
             - Stock disponible
             - Cantidad permitida por cliente
             
-            Los códigos pueden estar vigentes o expirados.
+            Los códigos pueden estar vigentes o expirados. Devuelve una página ordenada por ID;
+            la cabecera X-Siguiente-Cursor trae el cursor de la siguiente página.
             """,
         security = @SecurityRequirement(name = "Bearer Authentication")
     )
@@ -293,12 +296,18 @@ public class FidelizacionAdminController {
     })
     @GetMapping("/codigos-promocionales")
     @PreAuthorize("hasRole('ADMINISTRADOR')")
-    public ResponseEntity<StandardResponse<List<CodigoPromocionalDTO>>> listarCodigosPromocionales() {
+    public ResponseEntity<StandardResponse<List<CodigoPromocionalDTO>>> listarCodigosPromocionales(
+        @Parameter(description = "Cursor de la cabecera X-Siguiente-Cursor de la página anterior")
+        @RequestParam(required = false) String cursor,
+        @Parameter(description = "Elementos por página (1-200, por defecto 50)")
+        @RequestParam(required = false) Integer limite) {
         log.info("GET /api/v1/admin/fidelizacion/codigos-promocionales");
         
-        List<CodigoPromocionalDTO> codigos = fidelizacionService.listarCodigosPromocionales();
+        PaginaCursor<CodigoPromocionalDTO> pagina = fidelizacionService.listarCodigosPromocionales(cursor, limite);
         
-        return ResponseEntity.ok(StandardResponse.success("Códigos obtenidos exitosamente.", codigos));
+        return ResponseEntity.ok()
+            .headers(pagina.cabeceras())
+            .body(StandardResponse.success("Códigos obtenidos exitosamente.", pagina.elementos()));
     }
 
     @Operation(
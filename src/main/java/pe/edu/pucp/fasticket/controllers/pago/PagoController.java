@@ -1,6 +1,7 @@
 package pe.edu.pucp.fasticket.controllers.pago;
 
 import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
@@ -17,6 +18,7 @@ import pe.edu.pucp.fasticket.dto.pago.ComprobanteDTO;
 import pe.edu.pucp.fasticket.dto.pago.RegistrarPagoDTO;
 import pe.edu.pucp.fasticket.dto.StandardResponse;
 import pe.edu.pucp.fasticket.exception.ErrorResponse;
+import pe.edu.pucp.fasticket.services.idempotencia.IdempotenciaService;
 import pe.edu.pucp.fasticket.services.pago.PagoServicio;
 
 @Tag(
@@ -31,10 +33,12 @@ import pe.edu.pucp.fasticket.services.pago.PagoServicio;
 public class PagoController {
 
     private final PagoServicio pagoServicio;
+    private final IdempotenciaService idempotenciaService;
 
     @Operation(
         summary = "Registrar pago",
-        description = "Procesa el pago de una orden de compra y genera comprobante",
+        description = "Procesa el pago de una orden de compra y genera comprobante. "
+            + "Con el header Idempotency-Key, los reintentos devuelven el comprobante ya generado.",
         security = @SecurityRequirement(name = "Bearer Authentication")
     )
     @ApiResponses({
@@ -48,15 +52,25 @@ public class PagoController {
             description = "Datos de pago inválidos",
             content = @Content(schema = @Schema(implementation = ErrorResponse.class))
         ),
-        @ApiResponse(responseCode = "401", description = "No autenticado")
+        @ApiResponse(responseCode = "401", description = "No autenticado"),
+        @ApiResponse(
+            responseCode = "409",
+            description = "Idempotency-Key reutilizada con otros datos o aún en proceso",
+            content = @Content(schema = @Schema(implementation = ErrorResponse.class))
+        )
     })
     @PostMapping("/registrar")
     @PreAuthorize("hasRole('CLIENTE')")
-    public ResponseEntity<StandardResponse<ComprobanteDTO>> registrarPago(@Valid @RequestBody RegistrarPagoDTO dto) {
+    public ResponseEntity<StandardResponse<ComprobanteDTO>> registrarPago(
+            @Parameter(description = "Clave única del intento de pago; los reintentos deben repetirla")
+            @RequestHeader(value = IdempotenciaService.HEADER, required = false) String idempotencyKey,
+            @Valid @RequestBody RegistrarPagoDTO dto) {
         log.info("POST /api/v1/pagos/registrar - Orden: {}", dto.getIdOrden());
-        ComprobanteDTO comprobante = pagoServicio.registrarPagoFinal(dto);
-        StandardResponse<ComprobanteDTO> response = StandardResponse.success("Pago registrado exitosamente", comprobante);
-        return ResponseEntity.ok(response);
+        return idempotenciaService.ejecutar(idempotencyKey, "registrar-pago", dto, ComprobanteDTO.class, () -> {
+            ComprobanteDTO comprobante = pagoServicio.registrarPagoFinal(dto);
+            StandardResponse<ComprobanteDTO> response = StandardResponse.success("Pago registrado exitosamente", comprobante);
+            return ResponseEntity.ok(response);
+        });
     }
 }
 
@@ -19,6 +19,7 @@ import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import pe.edu.pucp.fasticket.dto.PaginaCursor;
 import pe.edu.pucp.fasticket.dto.StandardResponse;
 import pe.edu.pucp.fasticket.dto.usuario.ClientePerfilEditDTO;
 import pe.edu.pucp.fasticket.dto.usuario.ClientePerfilUpdateDTO;
@@ -254,7 +255,8 @@ public class ClienteController {
 
     @Operation(
             summary = "Lista de clientes",
-            description = "Lista a todos los clientes. Solo administradores.",
+            description = "Lista a todos los clientes por páginas ordenadas por ID; la cabecera X-Siguiente-Cursor "
+                    + "trae el cursor de la siguiente página. Solo administradores.",
             security = @SecurityRequirement(name = "Bearer Authentication")
     )
     @ApiResponses({
@@ -273,11 +275,17 @@ public class ClienteController {
     })
     @GetMapping("/listar")
     @PreAuthorize("hasRole('ADMINISTRADOR')")
-    public ResponseEntity<StandardResponse<List<ClientePerfilResponseDTO>>> listarClientes() {
+    public ResponseEntity<StandardResponse<List<ClientePerfilResponseDTO>>> listarClientes(
+            @Parameter(description = "Cursor de la cabecera X-Siguiente-Cursor de la página anterior")
+            @RequestParam(required = false) String cursor,
+            @Parameter(description = "Elementos por página (1-200, por defecto 50)")
+            @RequestParam(required = false) Integer limite) {
 
         log.info("GET /api/v1/clientes/listar");
-        List<ClientePerfilResponseDTO> listaClientes = clienteService.listarTodos();
-        return ResponseEntity.ok(StandardResponse.success("Lista de clientes obtenida exitosamente", listaClientes));
+        PaginaCursor<ClientePerfilResponseDTO> pagina = clienteService.listarTodos(cursor, limite);
+        return ResponseEntity.ok()
+                .headers(pagina.cabeceras())
+                .body(StandardResponse.success("Lista de clientes obtenida exitosamente", pagina.elementos()));
     }
 
     @Operation(
@@ -0,0 +1,98 @@
+package pe.edu.pucp.fasticket.dto;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.List;
+import java.util.function.Function;
+
+import org.springframework.data.domain.Limit;
+import org.springframework.http.HttpHeaders;
+
+/**
+ * Página de un listado paginado por keyset (cursor).
+ *
+ * <p>Los listados se ordenan por su ID y cada página pide las filas con ID mayor que el cursor, así
+ * que el costo de una página no depende de cuántas filas haya antes. El cursor es opaco para el
+ * cliente: se devuelve en la cabecera {@value #HEADER} y se envía tal cual en el parámetro
+ * {@code cursor} para pedir la siguiente página. Sin cabecera no hay más páginas.</p>
+ *
+ * @param elementos Filas de la página
+ * @param siguienteCursor Cursor de la siguiente página, o null si es la última
+ */
+public record PaginaCursor<T>(List<T> elementos, String siguienteCursor) {
+
+    public static final String HEADER = "X-Siguiente-Cursor";
+    public static final int LIMITE_POR_DEFECTO = 50;
+    public static final int LIMITE_MAXIMO = 200;
+
+    /**
+     * ID a partir del cual se lee la página (exclusivo), o su posición en los listados paginados con
+     * {@link #porPosicion}; 0 para la primera página.
+     *
+     * @throws IllegalArgumentException si el cursor no es uno emitido por la API
+     */
+    public static int desde(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return 0;
+        }
+        try {
+            return Integer.parseInt(new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Cursor de paginación inválido");
+        }
+    }
+
+    /**
+     * Filas a leer para una página de {@code limite} elementos: una más, para saber si hay otra página.
+     */
+    public static Limit filas(Integer limite) {
+        return Limit.of(tamano(limite) + 1);
+    }
+
+    /**
+     * Arma la página con las filas leídas con {@link #filas(Integer)}.
+     */
+    public static <T> PaginaCursor<T> de(List<T> filas, Integer limite, Function<T, Integer> id) {
+        int tamano = tamano(limite);
+        if (filas.size() <= tamano) {
+            return new PaginaCursor<>(filas, null);
+        }
+        List<T> elementos = filas.subList(0, tamano);
+        return new PaginaCursor<>(List.copyOf(elementos), codificar(id.apply(elementos.get(tamano - 1))));
+    }
+
+    /**
+     * Arma la página de un listado sin orden por ID (la búsqueda de eventos): el cursor guarda la
+     * posición de la siguiente página en vez del último ID.
+     */
+    public static <T> PaginaCursor<T> porPosicion(List<T> filas, Integer limite, int desde) {
+        int tamano = tamano(limite);
+        if (filas.size() <= tamano) {
+            return new PaginaCursor<>(filas, null);
+        }
+        return new PaginaCursor<>(List.copyOf(filas.subList(0, tamano)), codificar(desde + tamano));
+    }
+
+    public HttpHeaders cabeceras() {
+        HttpHeaders cabeceras = new HttpHeaders();
+        if (siguienteCursor != null) {
+            cabeceras.set(HEADER, siguienteCursor);
+        }
+        return cabeceras;
+    }
+
+    private static String codificar(int valor) {
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(String.valueOf(valor).getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static int tamano(Integer limite) {
+        if (limite == null) {
+            return LIMITE_POR_DEFECTO;
+        }
+        if (limite < 1 || limite > LIMITE_MAXIMO) {
+            throw new IllegalArgumentException("El límite debe estar entre 1 y " + LIMITE_MAXIMO);
+        }
+        return limite;
+    }
+}
@@ -7,8 +7,7 @@ import java.util.stream.Collectors;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import pe.edu.pucp.fasticket.model.compra.OrdenCompra;
-import pe.edu.pucp.fasticket.model.eventos.Evento;
-import pe.edu.pucp.fasticket.repository.eventos.TipoTicketRepositorio;
+import pe.edu.pucp.fasticket.services.eventos.IndiceCatalogo;
 
 @Data
 @NoArgsConstructor
@@ -23,22 +22,20 @@ public class OrdenResumenDTO {
     private double subtotal;
     private double total;
 
-    public OrdenResumenDTO(OrdenCompra orden, TipoTicketRepositorio tipoTicketRepositorio) {
+    public OrdenResumenDTO(OrdenCompra orden, IndiceCatalogo indiceCatalogo) {
         this.idOrden = orden.getIdOrdenCompra();
         this.fecha = orden.getFechaOrden();
         this.total = orden.getTotal();
         this.estado = orden.getEstado().toString();
         if (orden.getItems() != null && !orden.getItems().isEmpty()) {
-            // Obtener evento a través del repositorio
-            Evento evento = tipoTicketRepositorio.findEventoByTipoTicket(orden.getItems().get(0).getTipoTicket().getIdTipoTicket())
-                    .orElse(null);
-
-            if (evento != null) {
-                this.nombreEvento = evento.getNombre();
-                this.fecha = evento.getFechaEvento();
-                this.hora = evento.getHoraInicio();
-                this.nombreLocal = evento.getLocal().getNombre();
-            }
+            // Datos del evento desde el índice de catálogo
+            indiceCatalogo.buscar(orden.getItems().get(0).getTipoTicket().getIdTipoTicket())
+                    .ifPresent(entrada -> {
+                        this.nombreEvento = entrada.nombreEvento();
+                        this.fecha = entrada.fechaEvento();
+                        this.hora = entrada.horaInicio();
+                        this.nombreLocal = entrada.nombreLocal();
+                    });
 
             this.items = orden.getItems().stream().map(item -> {
                 ItemResumenDTO itemDTO = new ItemResumenDTO();
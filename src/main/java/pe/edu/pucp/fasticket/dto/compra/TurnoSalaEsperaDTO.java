@@ -0,0 +1,34 @@
+package pe.edu.pucp.fasticket.dto.compra;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Estado de un turno en la sala de espera de un evento")
+public class TurnoSalaEsperaDTO {
+
+    @Schema(description = "Token del turno. Enviarlo en la cabecera X-Turno-Sala-Espera al comprar",
+            example = "12.6f1c0b7e-2f0a-4b8e-9a55-1d2c3e4f5a6b")
+    private String token;
+
+    @Schema(description = "ID del evento", example = "12")
+    private Integer idEvento;
+
+    @Schema(description = "Indica si el turno ya puede comprar", example = "false")
+    private boolean admitido;
+
+    @Schema(description = "Personas delante en la cola (0 si ya fue admitido)", example = "350")
+    private long posicion;
+
+    @Schema(description = "Tiempo estimado de espera en segundos", example = "420")
+    private long etaSegundos;
+
+    @Schema(description = "Epoch millis hasta el que dura la admisión (0 si aún espera)", example = "1735689600000")
+    private long admitidoHasta;
+}
@@ -0,0 +1,52 @@
+package pe.edu.pucp.fasticket.dto.eventos;
+
+import java.time.LocalDate;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import pe.edu.pucp.fasticket.model.eventos.TipoEvento;
+
+/**
+ * Criterios de la búsqueda combinada de eventos. Los criterios nulos no filtran.
+ */
+@Schema(description = "Criterios de búsqueda de eventos")
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BusquedaEventosDTO {
+
+    public enum Orden {
+        FECHA,
+        FECHA_DESC,
+        NOMBRE,
+        PRECIO
+    }
+
+    @Schema(description = "Tipo de evento", example = "CONCIERTO")
+    private TipoEvento tipo;
+
+    @Schema(description = "Fecha mínima del evento", example = "2025-12-01")
+    private LocalDate desde;
+
+    @Schema(description = "Fecha máxima del evento", example = "2025-12-31")
+    private LocalDate hasta;
+
+    @Schema(description = "ID del distrito del local", example = "1")
+    private Integer idDistrito;
+
+    @Schema(description = "Precio mínimo de algún tipo de ticket activo", example = "50.0")
+    private Double precioMin;
+
+    @Schema(description = "Precio máximo de algún tipo de ticket activo", example = "200.0")
+    private Double precioMax;
+
+    @Schema(description = "Solo eventos con algún tipo de ticket con entradas disponibles", example = "true")
+    private Boolean conDisponibilidad;
+
+    @Schema(description = "Orden de los resultados", example = "FECHA")
+    private Orden orden;
+}
@@ -15,6 +15,9 @@ public class CrearTipoTicketRequestDTO {
     @NotNull(message = "El ID de la zona es obligatorio")
     private Integer idZona;
 
+    @Schema(description = "ID del evento. Obligatorio si el evento emite tickets bajo demanda", example = "1")
+    private Integer idEvento;
+
     @Schema(description = "Nombre del tipo de ticket", example = "VIP", requiredMode = Schema.RequiredMode.REQUIRED)
     @NotBlank(message = "El nombre es obligatorio")
     @Size(min = 2, max = 100, message = "El nombre debe tener entre 2 y 100 caracteres")
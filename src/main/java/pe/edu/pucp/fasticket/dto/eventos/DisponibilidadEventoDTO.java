@@ -0,0 +1,27 @@
+package pe.edu.pucp.fasticket.dto.eventos;
+
+import java.util.Map;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Mensaje del stream de disponibilidad de un evento. El primero trae todos los tipos de ticket;
+ * los siguientes, solo los que cambiaron desde el mensaje anterior.
+ */
+@Schema(description = "Cantidad disponible por tipo de ticket de un evento")
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class DisponibilidadEventoDTO {
+
+    @Schema(description = "ID del evento", example = "1")
+    private Integer idEvento;
+
+    @Schema(description = "Cantidad disponible por ID de tipo de ticket", example = "{\"5\": 37, \"6\": 0}")
+    private Map<Integer, Integer> disponibles;
+}
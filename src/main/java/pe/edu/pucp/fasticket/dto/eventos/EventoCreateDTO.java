@@ -13,6 +13,7 @@ import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import pe.edu.pucp.fasticket.model.eventos.EstadoEvento;
+import pe.edu.pucp.fasticket.model.eventos.ModoEmisionTicket;
 import pe.edu.pucp.fasticket.model.eventos.TipoEvento;
 
 @Schema(description = "Datos para crear un nuevo evento")
@@ -58,5 +59,8 @@ public class EventoCreateDTO {
 
     @Schema(description = "ID del local", example = "1")
     private Integer idLocal;
+
+    @Schema(description = "Modo de emisión de tickets (por defecto PRECREADO)", example = "BAJO_DEMANDA")
+    private ModoEmisionTicket modoEmisionTicket;
 }
 
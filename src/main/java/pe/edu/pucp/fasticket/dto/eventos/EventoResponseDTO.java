@@ -6,6 +6,7 @@ import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import pe.edu.pucp.fasticket.model.eventos.EstadoEvento;
+import pe.edu.pucp.fasticket.model.eventos.ModoEmisionTicket;
 import pe.edu.pucp.fasticket.model.eventos.TipoEvento;
 
 import java.time.LocalDate;
@@ -44,6 +45,9 @@ public class EventoResponseDTO {
     
     @Schema(description = "Estado del evento", example = "ACTIVO")
     private EstadoEvento estadoEvento;
+
+    @Schema(description = "Modo de emisión de tickets", example = "PRECREADO")
+    private ModoEmisionTicket modoEmisionTicket;
     
     @Schema(description = "Aforo disponible", example = "5000")
     private Integer aforoDisponible;
@@ -0,0 +1,26 @@
+package pe.edu.pucp.fasticket.dto.eventos;
+
+import java.util.List;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Schema(description = "Próximos eventos de un distrito")
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class EventosDistritoDTO {
+
+    @Schema(description = "ID del distrito", example = "1")
+    private Integer idDistrito;
+
+    @Schema(description = "Nombre del distrito", example = "Miraflores")
+    private String nombreDistrito;
+
+    @Schema(description = "Próximos eventos del distrito, por fecha")
+    private List<EventoResponseDTO> eventos;
+}
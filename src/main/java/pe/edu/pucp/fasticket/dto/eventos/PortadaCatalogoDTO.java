@@ -0,0 +1,31 @@
+package pe.edu.pucp.fasticket.dto.eventos;
+
+import java.util.List;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Portada del catálogo: se arma en segundo plano y se sirve ya serializada, así que puede estar
+ * atrasada hasta la siguiente reconstrucción. Sin marca de tiempo, para que la misma portada tenga
+ * el mismo ETag en cada reconstrucción y en cada instancia.
+ */
+@Schema(description = "Portada del catálogo: eventos próximos, destacados y por distrito")
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class PortadaCatalogoDTO {
+
+    @Schema(description = "Próximos eventos, por fecha")
+    private List<EventoResponseDTO> proximos;
+
+    @Schema(description = "Próximos eventos con imagen y entradas disponibles, por fecha")
+    private List<EventoResponseDTO> destacados;
+
+    @Schema(description = "Próximos eventos agrupados por distrito del local, por nombre de distrito")
+    private List<EventosDistritoDTO> porDistrito;
+}
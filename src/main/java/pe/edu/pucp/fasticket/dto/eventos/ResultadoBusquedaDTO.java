@@ -0,0 +1,32 @@
+package pe.edu.pucp.fasticket.dto.eventos;
+
+import java.time.LocalDate;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Schema(description = "Evento o local encontrado por la búsqueda de texto")
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ResultadoBusquedaDTO {
+
+    @Schema(description = "ID del evento o del local", example = "1")
+    private Integer id;
+
+    @Schema(description = "Nombre del evento o del local", example = "Concierto de Rock en Vivo")
+    private String nombre;
+
+    @Schema(description = "Local del evento, o distrito del local", example = "Estadio Nacional")
+    private String detalle;
+
+    @Schema(description = "Fecha del evento; null para locales", example = "2025-12-15")
+    private LocalDate fecha;
+
+    @Schema(description = "Relevancia del resultado (mayor es más relevante)", example = "7.31")
+    private Double puntaje;
+}
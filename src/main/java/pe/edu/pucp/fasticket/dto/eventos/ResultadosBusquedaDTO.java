@@ -0,0 +1,27 @@
+package pe.edu.pucp.fasticket.dto.eventos;
+
+import java.util.List;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Resultados de la búsqueda de texto, por separado para eventos y locales: cada índice
+ * puntúa con sus propias estadísticas, así que los puntajes no se comparan entre listas.
+ */
+@Schema(description = "Resultados de la búsqueda de texto")
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ResultadosBusquedaDTO {
+
+    @Schema(description = "Eventos encontrados, los más relevantes primero")
+    private List<ResultadoBusquedaDTO> eventos;
+
+    @Schema(description = "Locales encontrados, los más relevantes primero")
+    private List<ResultadoBusquedaDTO> locales;
+}
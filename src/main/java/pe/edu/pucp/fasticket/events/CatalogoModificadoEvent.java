@@ -0,0 +1,18 @@
+package pe.edu.pucp.fasticket.events;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Evento publicado cuando se crea, modifica o elimina un evento o un tipo de ticket.
+ *
+ * Patrón Observer: IndiceCatalogo lo escucha tras el commit para reconstruir
+ * el índice de catálogo que usan el checkout y el carrito, y CacheCatalogoEventos
+ * para descartar los listados de eventos guardados.
+ */
+@Getter
+@AllArgsConstructor
+public class CatalogoModificadoEvent {
+
+    private final String motivo;
+}
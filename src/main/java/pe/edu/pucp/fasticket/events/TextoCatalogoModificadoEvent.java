@@ -0,0 +1,31 @@
+package pe.edu.pucp.fasticket.events;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Evento publicado cuando se crea, modifica o desactiva un evento o un local.
+ *
+ * Patrón Observer: BusquedaService lo escucha tras el commit para volver a indexar
+ * solo ese documento en el índice de búsqueda de texto.
+ */
+@Getter
+@AllArgsConstructor
+public class TextoCatalogoModificadoEvent {
+
+    public enum Documento {
+        EVENTO,
+        LOCAL
+    }
+
+    private final Documento documento;
+    private final Integer id;
+
+    public static TextoCatalogoModificadoEvent deEvento(Integer idEvento) {
+        return new TextoCatalogoModificadoEvent(Documento.EVENTO, idEvento);
+    }
+
+    public static TextoCatalogoModificadoEvent deLocal(Integer idLocal) {
+        return new TextoCatalogoModificadoEvent(Documento.LOCAL, idLocal);
+    }
+}
@@ -7,6 +7,7 @@ import pe.edu.pucp.fasticket.dto.eventos.EventoResponseDTO;
 import pe.edu.pucp.fasticket.model.eventos.EstadoEvento;
 import pe.edu.pucp.fasticket.model.eventos.Evento;
 import pe.edu.pucp.fasticket.model.eventos.Local;
+import pe.edu.pucp.fasticket.repository.eventos.EventoResumen;
 
 import java.time.LocalDate;
 
@@ -32,6 +33,7 @@ public class EventoMapper {
                 .imagenUrl(evento.getImagenUrl())
                 .tipoEvento(evento.getTipoEvento())
                 .estadoEvento(evento.getEstadoEvento())
+                .modoEmisionTicket(evento.getModoEmisionTicket())
                 .aforoDisponible(evento.getAforoDisponible())
                 .activo(evento.getActivo())
                 .idLocal(evento.getLocal() != null ? evento.getLocal().getIdLocal() : null)
@@ -40,6 +42,28 @@ public class EventoMapper {
                 .build();
     }
 
+    /**
+     * Evento de un listado; la descripción no se carga en los listados.
+     */
+    public EventoResponseDTO toResumenResponseDTO(EventoResumen evento) {
+        return EventoResponseDTO.builder()
+                .idEvento(evento.idEvento())
+                .nombre(evento.nombre())
+                .fechaEvento(evento.fechaEvento())
+                .horaInicio(evento.horaInicio())
+                .horaFin(evento.horaFin())
+                .imagenUrl(evento.imagenUrl())
+                .tipoEvento(evento.tipoEvento())
+                .estadoEvento(evento.estadoEvento())
+                .modoEmisionTicket(evento.modoEmisionTicket())
+                .aforoDisponible(evento.aforoDisponible())
+                .activo(evento.activo())
+                .idLocal(evento.idLocal())
+                .nombreLocal(evento.nombreLocal())
+                .fechaCreacion(evento.fechaCreacion())
+                .build();
+    }
+
     public Evento toEntity(EventoCreateDTO dto, Local local) {
         Evento evento = new Evento();
         evento.setNombre(dto.getNombre());
@@ -51,6 +75,9 @@ public class EventoMapper {
         evento.setTipoEvento(dto.getTipoEvento());
         evento.setEstadoEvento(dto.getEstadoEvento() != null ? dto.getEstadoEvento() : EstadoEvento.ACTIVO);
         evento.setAforoDisponible(dto.getAforoDisponible());
+        if (dto.getModoEmisionTicket() != null) {
+            evento.setModoEmisionTicket(dto.getModoEmisionTicket());
+        }
         evento.setLocal(local);
         evento.setActivo(true);
         evento.setFechaCreacion(LocalDate.now());
@@ -69,6 +96,9 @@ public class EventoMapper {
             evento.setEstadoEvento(dto.getEstadoEvento());
         }
         evento.setAforoDisponible(dto.getAforoDisponible());
+        if (dto.getModoEmisionTicket() != null) {
+            evento.setModoEmisionTicket(dto.getModoEmisionTicket());
+        }
         if (local != null) {
             evento.setLocal(local);
         }
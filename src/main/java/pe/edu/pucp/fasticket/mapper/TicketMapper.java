@@ -29,7 +29,7 @@ public interface TicketMapper {
     // --- CORRECCIÓN: 'codigoQr' (lowercase q) SÍ existe ---
     @Mapping(target = "codigoQr", ignore = true) // Ignoramos porque se genera después
     // --- FIN CORRECCIÓN ---
-    @Mapping(target = "qrImage", ignore = true)        // Ignorar campo extra
+    @Mapping(target = "qrRef", ignore = true)          // Ignorar campo extra
     @Mapping(target = "asiento", ignore = true)         // Ignorar, se asignará después si aplica
     @Mapping(target = "fila", ignore = true)            // Ignorar, se asignará después si aplica
     @Mapping(target = "estado", ignore = true)         // Se asigna en el Service ("DISPONIBLE")
@@ -21,5 +21,7 @@ public interface TipoTicketMapper {
     @Mapping(target = "fechaInicioVenta", ignore = true)
     @Mapping(target = "fechaFinVenta", ignore = true)
     @Mapping(target = "tickets", ignore = true)
+    @Mapping(target = "ultimoNumeroAsignado", ignore = true)
+    @Mapping(target = "version", ignore = true)
     TipoTicket toEntity(TipoTicketDTO dto);
 }
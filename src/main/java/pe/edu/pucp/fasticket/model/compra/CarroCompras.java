@@ -40,6 +40,10 @@ public class CarroCompras {
     @Column(name = "fecha_actualizacion")
     private LocalDateTime fechaActualizacion;
 
+    /** Vencimiento de la reserva de los tickets del carrito; null si no retiene tickets. */
+    @Column(name = "fecha_expiracion")
+    private LocalDateTime fechaExpiracion;
+
     @Column(name = "subtotal")
     private Double subtotal = 0.0;
 
@@ -14,6 +14,7 @@ import jakarta.persistence.Id;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.OneToMany;
+import jakarta.persistence.SequenceGenerator;
 import jakarta.persistence.Table;
 import lombok.Data;
 import lombok.EqualsAndHashCode;
@@ -31,7 +32,8 @@ import pe.edu.pucp.fasticket.model.eventos.TipoTicket;
 public class ItemCarrito {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "item_carrito_seq")
+    @SequenceGenerator(name = "item_carrito_seq", sequenceName = "item_carrito_seq", allocationSize = 50)
     @Column(name = "idItemCarrito")
     private Integer idItemCarrito;
 
@@ -65,7 +67,8 @@ public class ItemCarrito {
     @JoinColumn(name = "idTipoTicket", nullable = false)
     private TipoTicket tipoTicket;
 
-    @OneToMany(mappedBy = "itemCarrito", cascade = CascadeType.ALL, fetch = FetchType.LAZY,orphanRemoval = true)
+    // Sin REMOVE ni orphanRemoval: los tickets precreados sobreviven al item y vuelven al inventario
+    @OneToMany(mappedBy = "itemCarrito", cascade = {CascadeType.PERSIST, CascadeType.MERGE}, fetch = FetchType.LAZY)
     private List<Ticket> tickets = new ArrayList<>();
 
     public void calcularPrecioFinal() {
@@ -18,6 +18,7 @@ import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.OneToMany;
 import jakarta.persistence.OneToOne;
+import jakarta.persistence.SequenceGenerator;
 import jakarta.persistence.Table;
 import lombok.Data;
 import lombok.EqualsAndHashCode;
@@ -36,7 +37,8 @@ import pe.edu.pucp.fasticket.model.usuario.Cliente;
 public class OrdenCompra {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "orden_compra_seq")
+    @SequenceGenerator(name = "orden_compra_seq", sequenceName = "orden_compra_seq", allocationSize = 50)
     @Column(name = "idOrdenCompra")
     private Integer idOrdenCompra;  //
 
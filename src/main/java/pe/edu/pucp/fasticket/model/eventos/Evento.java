@@ -14,11 +14,13 @@ import jakarta.persistence.FetchType;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.Lob;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.OneToMany;
 import jakarta.persistence.Table;
+import jakarta.persistence.Version;
 import lombok.Data;
 import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
@@ -29,7 +31,11 @@ import lombok.ToString;
 @EqualsAndHashCode(exclude = {"local", "tickets", "tiposTicket"})
 @ToString(exclude = {"local", "tickets", "tiposTicket"})
 @Entity
-@Table(name = "Evento")
+@Table(name = "Evento", indexes = {
+        @Index(name = "idx_evento_activo_fecha", columnList = "activo, fechaEvento"),
+        @Index(name = "idx_evento_tipo_fecha", columnList = "tipoEvento, activo, fechaEvento"),
+        @Index(name = "idx_evento_local_fecha", columnList = "idLocal, activo, fechaEvento")
+})
 public class Evento {
 
     @Id
@@ -53,9 +59,15 @@ public class Evento {
     @Column(name = "horaFin")
     private LocalTime horaFin;
 
-    @Column(name = "aforoDisponible")
+    // Proyección del diario de inventario: solo se escribe en el INSERT; después la mantiene InventarioService
+    @Column(name = "aforoDisponible", updatable = false)
     private Integer aforoDisponible;
 
+    // Bloqueo optimista: las escrituras concurrentes fallan en vez de pisarse (ver @ReintentarConflicto)
+    @Version
+    @Column(name = "version", nullable = false, columnDefinition = "BIGINT DEFAULT 0")
+    private Long version;
+
     @Column(name = "imagenUrl", length = 500)
     private String imagenUrl;
 
@@ -92,6 +104,13 @@ public class Evento {
     @Column(name = "horas_cooldown_transferencia", columnDefinition = "INT DEFAULT 12")
     private Integer horasCooldownTransferencia = 1;
 
+    /**
+     * Modo de emisión de tickets. Null en eventos antiguos equivale a PRECREADO.
+     */
+    @Column(name = "modoEmisionTicket", length = 20)
+    @Enumerated(EnumType.STRING)
+    private ModoEmisionTicket modoEmisionTicket = ModoEmisionTicket.PRECREADO;
+
     @Column(name = "activo")
     private Boolean activo = true;
 
@@ -116,4 +135,8 @@ public class Evento {
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "idLocal")
     private Local local;
+
+    public boolean isEmisionBajoDemanda() {
+        return modoEmisionTicket == ModoEmisionTicket.BAJO_DEMANDA;
+    }
 }
@@ -10,6 +10,7 @@ import jakarta.persistence.FetchType;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.OneToMany;
@@ -33,7 +34,9 @@ import pe.edu.pucp.fasticket.model.geografia.Distrito;
 @EqualsAndHashCode(exclude = {"distrito", "zonas"})
 @ToString(exclude = {"distrito", "zonas"})
 @Entity
-@Table(name = "Local")
+@Table(name = "Local", indexes = {
+        @Index(name = "idx_local_distrito", columnList = "idDistrito")
+})
 public class Local {
 
     @Id
@@ -0,0 +1,11 @@
+package pe.edu.pucp.fasticket.model.eventos;
+
+/**
+ * Cómo se obtienen las filas Ticket al reservar entradas de un evento.
+ */
+public enum ModoEmisionTicket {
+    /** Las filas Ticket se crean de antemano en estado DISPONIBLE y la compra las reclama. */
+    PRECREADO,
+    /** Las filas Ticket se crean al reservar, numeradas por tipo de ticket. */
+    BAJO_DEMANDA
+}
@@ -23,16 +23,17 @@ import java.util.List;
 public class Ticket {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "ticket_seq")
+    @SequenceGenerator(name = "ticket_seq", sequenceName = "ticket_seq", allocationSize = 50)
     @Column(name = "idTicket")
     private Integer idTicket;
 
     @Column(name = "codigoQr", unique = true, length = 255)
     private String codigoQr;
 
-    @Lob
-    @Column(name = "qrImage")
-    private byte[] qrImage;
+    // Referencia (SHA-256) de la imagen QR en el AlmacenQr; la imagen no se guarda en la fila
+    @Column(name = "qrRef", length = 64)
+    private String qrRef;
 
     @Column(name = "asiento", length = 50)
     private String asiento;
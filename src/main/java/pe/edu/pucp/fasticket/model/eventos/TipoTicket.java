@@ -11,10 +11,12 @@ import jakarta.persistence.FetchType;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.OneToMany;
 import jakarta.persistence.Table;
+import jakarta.persistence.Version;
 import lombok.Data;
 import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
@@ -25,7 +27,9 @@ import lombok.ToString;
 @EqualsAndHashCode(exclude = {"zona", "tickets"})
 @ToString(exclude = {"zona", "tickets"})
 @Entity
-@Table(name = "TipoTicket")
+@Table(name = "TipoTicket", indexes = {
+        @Index(name = "idx_tipoticket_evento_precio", columnList = "idEvento, activo, precio")
+})
 public class TipoTicket {
 
     @Id
@@ -46,12 +50,17 @@ public class TipoTicket {
     @Column(name = "stock", nullable = false)
     private Integer stock;
 
-    @Column(name = "cantidadDisponible", nullable = false)
+    // Los contadores solo se escriben en el INSERT; después los mantiene InventarioService
+    @Column(name = "cantidadDisponible", nullable = false, updatable = false)
     private Integer cantidadDisponible;
 
-    @Column(name = "cantidadVendida")
+    @Column(name = "cantidadVendida", updatable = false)
     private Integer cantidadVendida = 0;
 
+    // Último número reservado por AsignadorNumeros para la emisión bajo demanda; solo se escribe desde allí
+    @Column(name = "ultimoNumeroAsignado", updatable = false)
+    private Integer ultimoNumeroAsignado = 0;
+
     @Column(name = "fechaInicioVenta")
     private LocalDateTime fechaInicioVenta;
 
@@ -64,6 +73,11 @@ public class TipoTicket {
     @Column(name = "limitePorPersona")
     private Integer limitePorPersona;
 
+    // Bloqueo optimista: las escrituras concurrentes fallan en vez de pisarse (ver @ReintentarConflicto)
+    @Version
+    @Column(name = "version", nullable = false, columnDefinition = "BIGINT DEFAULT 0")
+    private Long version;
+
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "idZona")
     private Zona zona;
@@ -9,6 +9,7 @@ import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
 import jakarta.persistence.Table;
+import jakarta.persistence.Version;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
@@ -45,6 +46,11 @@ public class CodigoPromocional {
     @Column(name = "stock")
     private Integer stock;
 
+    // Bloqueo optimista: las escrituras concurrentes fallan en vez de pisarse (ver @ReintentarConflicto)
+    @Version
+    @Column(name = "version", nullable = false, columnDefinition = "BIGINT DEFAULT 0")
+    private Long version;
+
     @Column(name = "cantidadPorCliente")
     private Integer cantidadPorCliente;
 
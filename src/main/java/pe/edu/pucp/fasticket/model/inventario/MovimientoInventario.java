@@ -0,0 +1,77 @@
+package pe.edu.pucp.fasticket.model.inventario;
+
+import java.time.LocalDateTime;
+
+import org.hibernate.annotations.Immutable;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.SequenceGenerator;
+import jakarta.persistence.Table;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.ToString;
+
+/**
+ * Entrada del diario de inventario: un cambio de stock de un tipo de ticket o del aforo de un evento.
+ *
+ * <p>Las filas solo se insertan. Los contadores de TipoTicket y el aforoDisponible de Evento son
+ * proyecciones de este diario: la suma de los deltas de un tipo de ticket (o de un evento) desde
+ * su APERTURA da su valor actual. Un movimiento sin idTipoTicket afecta solo al aforo del evento.</p>
+ */
+@Getter
+@NoArgsConstructor
+@ToString
+@Entity
+@Immutable
+@Table(name = "MovimientoInventario", indexes = {
+        @Index(name = "idx_movimiento_tipo_ticket", columnList = "idTipoTicket"),
+        @Index(name = "idx_movimiento_evento", columnList = "idEvento")
+})
+public class MovimientoInventario {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "movimiento_inventario_seq")
+    @SequenceGenerator(name = "movimiento_inventario_seq", sequenceName = "movimiento_inventario_seq", allocationSize = 50)
+    @Column(name = "idMovimiento")
+    private Long idMovimiento;
+
+    @Column(name = "tipo", nullable = false, length = 20)
+    @Enumerated(EnumType.STRING)
+    private TipoMovimientoInventario tipo;
+
+    @Column(name = "idTipoTicket")
+    private Integer idTipoTicket;
+
+    @Column(name = "idEvento")
+    private Integer idEvento;
+
+    @Column(name = "cantidad", nullable = false)
+    private Integer cantidad;
+
+    @Column(name = "deltaDisponible", nullable = false)
+    private Integer deltaDisponible;
+
+    @Column(name = "deltaVendida", nullable = false)
+    private Integer deltaVendida;
+
+    @Column(name = "fecha", nullable = false)
+    private LocalDateTime fecha;
+
+    public MovimientoInventario(TipoMovimientoInventario tipo, Integer idTipoTicket, Integer idEvento,
+                                int cantidad, int deltaDisponible, int deltaVendida) {
+        this.tipo = tipo;
+        this.idTipoTicket = idTipoTicket;
+        this.idEvento = idEvento;
+        this.cantidad = cantidad;
+        this.deltaDisponible = deltaDisponible;
+        this.deltaVendida = deltaVendida;
+        this.fecha = LocalDateTime.now();
+    }
+}
@@ -0,0 +1,12 @@
+package pe.edu.pucp.fasticket.model.inventario;
+
+/**
+ * Tipo de un {@link MovimientoInventario}.
+ *
+ * <p>APERTURA fija el saldo inicial de un tipo de ticket o del aforo de un evento; las demás
+ * proyecciones se suman a partir de ella. VENTA y TRANSFERENCIA no mueven contadores (la reserva
+ * ya cuenta como vendida) y quedan solo como registro.</p>
+ */
+public enum TipoMovimientoInventario {
+    APERTURA, RESERVA, LIBERACION, AJUSTE, VENTA, TRANSFERENCIA
+}
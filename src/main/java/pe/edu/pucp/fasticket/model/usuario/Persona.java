@@ -17,6 +17,7 @@ import jakarta.persistence.InheritanceType;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.Table;
+import jakarta.persistence.Version;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import pe.edu.pucp.fasticket.model.geografia.Distrito;
@@ -64,6 +65,10 @@ public class Persona {
      * @return Edad en años, o null si no tiene fecha de nacimiento
      */
     public Integer calcularEdad() {
+        return calcularEdad(fechaNacimiento);
+    }
+
+    public static Integer calcularEdad(LocalDate fechaNacimiento) {
         if (fechaNacimiento == null) {
             return null;
         }
@@ -80,6 +85,11 @@ public class Persona {
     @Column(name = "activo")
     private Boolean activo = true;
     
+    // Bloqueo optimista; va en la raíz de la jerarquía y cubre Cliente.puntosAcumulados (ver @ReintentarConflicto)
+    @Version
+    @Column(name = "version", nullable = false, columnDefinition = "BIGINT DEFAULT 0")
+    private Long version;
+    
     @JsonProperty("usuario_creacion")
     @Column(name = "usuarioCreacion")
     private Integer usuarioCreacion;
@@ -1,10 +1,15 @@
 package pe.edu.pucp.fasticket.repository.compra;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import pe.edu.pucp.fasticket.model.compra.CarroCompras;
 import pe.edu.pucp.fasticket.model.usuario.Cliente;
 
+import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
@@ -14,5 +19,20 @@ public interface CarroComprasRepository extends JpaRepository<CarroCompras, Inte
     
     Optional<CarroCompras> findByCliente_IdPersona(Integer idCliente);
     Optional<CarroCompras> findByCliente_IdPersonaAndActivoTrue(Integer idCliente);
-}
 
+    /**
+     * Pares (idCarro, fechaExpiracion) de los carritos que retienen tickets.
+     */
+    @Query("SELECT c.idCarro, c.fechaExpiracion FROM CarroCompras c WHERE c.fechaExpiracion IS NOT NULL")
+    List<Object[]> findVencimientos();
+
+    /**
+     * Marca el carrito como expirado si su reserva ya venció. Solo una instancia gana el reclamo.
+     *
+     * @return 1 si el carrito se marcó, 0 si ya no estaba vencido
+     */
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE CarroCompras c SET c.fechaExpiracion = NULL " +
+           "WHERE c.idCarro = :idCarro AND c.fechaExpiracion <= :ahora")
+    int marcarExpirado(@Param("idCarro") Integer idCarro, @Param("ahora") LocalDateTime ahora);
+}
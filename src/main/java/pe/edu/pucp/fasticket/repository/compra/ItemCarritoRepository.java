@@ -1,10 +1,19 @@
 package pe.edu.pucp.fasticket.repository.compra;
 
+import java.util.List;
+
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import pe.edu.pucp.fasticket.model.compra.ItemCarrito;
 
 @Repository
 public interface ItemCarritoRepository extends JpaRepository<ItemCarrito, Integer> {
-}
 
+    /**
+     * IDs de los tipos de ticket de los items del carrito, sin cargar los items.
+     */
+    @Query("SELECT DISTINCT i.tipoTicket.idTipoTicket FROM ItemCarrito i WHERE i.carroCompra.idCarro = :idCarro")
+    List<Integer> findIdsTipoTicketByCarro(@Param("idCarro") Integer idCarro);
+}
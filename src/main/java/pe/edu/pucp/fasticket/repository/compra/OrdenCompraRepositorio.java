@@ -1,15 +1,57 @@
 package pe.edu.pucp.fasticket.repository.compra;
 
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import pe.edu.pucp.fasticket.model.compra.EstadoCompra;
 import pe.edu.pucp.fasticket.model.compra.OrdenCompra;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface OrdenCompraRepositorio extends JpaRepository<OrdenCompra, Integer> {
     List<OrdenCompra> findByEstadoAndFechaExpiracionBefore(EstadoCompra estado, LocalDateTime fechaExpiracion);
     List<OrdenCompra> findByItems_TipoTicket_Evento_IdEventoAndEstado(Integer idEvento, EstadoCompra estado);
-}
\ No newline at end of file
+
+    /**
+     * Pares (idOrdenCompra, fechaExpiracion) de las órdenes en el estado indicado que tienen vencimiento.
+     */
+    @Query("SELECT o.idOrdenCompra, o.fechaExpiracion FROM OrdenCompra o " +
+           "WHERE o.estado = :estado AND o.fechaExpiracion IS NOT NULL")
+    List<Object[]> findVencimientosByEstado(@Param("estado") EstadoCompra estado);
+
+    /**
+     * Carga la orden con bloqueo de escritura, para que la liberación de vencidas (que salta las
+     * órdenes bloqueadas) no la procese al mismo tiempo.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT o FROM OrdenCompra o WHERE o.idOrdenCompra = :id")
+    Optional<OrdenCompra> findByIdParaActualizar(@Param("id") Integer id);
+
+    /**
+     * Bloquea las órdenes de la lista que siguen PENDIENTE y ya vencieron.
+     * Usa FOR UPDATE SKIP LOCKED: las que otra instancia está liberando se saltan.
+     *
+     * @return IDs de las órdenes bloqueadas por la transacción actual
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2"))
+    @Query("SELECT o.idOrdenCompra FROM OrdenCompra o WHERE o.idOrdenCompra IN :ids " +
+           "AND o.estado = pe.edu.pucp.fasticket.model.compra.EstadoCompra.PENDIENTE " +
+           "AND o.fechaExpiracion <= :ahora")
+    List<Integer> bloquearExpiradas(@Param("ids") Collection<Integer> ids, @Param("ahora") LocalDateTime ahora);
+
+    @Modifying
+    @Query("UPDATE OrdenCompra o SET o.estado = pe.edu.pucp.fasticket.model.compra.EstadoCompra.RECHAZADO " +
+           "WHERE o.idOrdenCompra IN :ids")
+    int rechazar(@Param("ids") Collection<Integer> ids);
+}
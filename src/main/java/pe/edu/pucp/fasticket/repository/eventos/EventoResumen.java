@@ -0,0 +1,29 @@
+package pe.edu.pucp.fasticket.repository.eventos;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+
+import pe.edu.pucp.fasticket.model.eventos.EstadoEvento;
+import pe.edu.pucp.fasticket.model.eventos.ModoEmisionTicket;
+import pe.edu.pucp.fasticket.model.eventos.TipoEvento;
+
+/**
+ * Proyección de Evento para listados: solo las columnas que se muestran en una lista,
+ * sin la descripción ({@code @Lob}) ni las colecciones.
+ */
+public record EventoResumen(
+        Integer idEvento,
+        String nombre,
+        LocalDate fechaEvento,
+        LocalTime horaInicio,
+        LocalTime horaFin,
+        String imagenUrl,
+        TipoEvento tipoEvento,
+        EstadoEvento estadoEvento,
+        ModoEmisionTicket modoEmisionTicket,
+        Integer aforoDisponible,
+        Boolean activo,
+        Integer idLocal,
+        String nombreLocal,
+        LocalDate fechaCreacion) {
+}
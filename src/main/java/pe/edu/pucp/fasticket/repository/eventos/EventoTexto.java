@@ -0,0 +1,16 @@
+package pe.edu.pucp.fasticket.repository.eventos;
+
+import java.time.LocalDate;
+
+/**
+ * Proyección de Evento para el índice de búsqueda de texto: los campos que se indexan y los que
+ * se muestran en un resultado.
+ */
+public record EventoTexto(
+        Integer idEvento,
+        String nombre,
+        String descripcion,
+        String restricciones,
+        LocalDate fechaEvento,
+        String nombreLocal) {
+}
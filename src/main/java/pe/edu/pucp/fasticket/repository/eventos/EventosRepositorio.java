@@ -2,12 +2,18 @@ package pe.edu.pucp.fasticket.repository.eventos;
 
 import java.time.LocalDate;
 import java.util.List;
+import java.util.Optional;
 
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import jakarta.persistence.LockModeType;
 import pe.edu.pucp.fasticket.model.eventos.EstadoEvento;
 import pe.edu.pucp.fasticket.model.eventos.Evento;
 
@@ -16,7 +22,16 @@ import pe.edu.pucp.fasticket.model.eventos.Evento;
  * Implementa queries personalizadas para búsqueda y filtrado según requerimientos funcionales.
  */
 @Repository
-public interface EventosRepositorio extends JpaRepository<Evento, Integer> {
+public interface EventosRepositorio extends JpaRepository<Evento, Integer>, EventosRepositorioBusqueda {
+
+    /**
+     * Página de eventos con ID mayor que {@code despues}, sin cargar la descripción.
+     */
+    @Query("SELECT new pe.edu.pucp.fasticket.repository.eventos.EventoResumen(" +
+           "e.idEvento, e.nombre, e.fechaEvento, e.horaInicio, e.horaFin, e.imagenUrl, e.tipoEvento, " +
+           "e.estadoEvento, e.modoEmisionTicket, e.aforoDisponible, e.activo, l.idLocal, l.nombre, e.fechaCreacion) " +
+           "FROM Evento e LEFT JOIN e.local l WHERE e.idEvento > :despues ORDER BY e.idEvento")
+    List<EventoResumen> findResumenes(@Param("despues") int despues, Limit limite);
     
     List<Evento> findByActivoTrue();
     
@@ -46,4 +61,59 @@ public interface EventosRepositorio extends JpaRepository<Evento, Integer> {
     
     @Query("SELECT e FROM Evento e WHERE e.fechaEvento >= :fecha AND e.activo = true ORDER BY e.fechaEvento ASC")
     List<Evento> findEventosProximos(@Param("fecha") LocalDate fecha);
+
+    /**
+     * Eventos activos desde la fecha con su local y distrito, para armar la portada en una sola consulta.
+     */
+    @Query("SELECT e FROM Evento e LEFT JOIN FETCH e.local l LEFT JOIN FETCH l.distrito " +
+           "WHERE e.fechaEvento >= :fecha AND e.activo = true ORDER BY e.fechaEvento ASC, e.idEvento ASC")
+    List<Evento> findPortada(@Param("fecha") LocalDate fecha);
+
+    /**
+     * Aplica al aforo disponible los cambios acumulados por el motor de inventario, como incremento relativo.
+     */
+    @Transactional
+    @Modifying
+    @Query("UPDATE Evento e SET e.aforoDisponible = COALESCE(e.aforoDisponible, 0) + :delta WHERE e.idEvento = :id")
+    int aplicarDeltaAforo(@Param("id") Integer id, @Param("delta") int delta);
+
+    /**
+     * Fija el aforo disponible con el valor proyectado desde el diario de inventario.
+     */
+    @Modifying
+    @Query("UPDATE Evento e SET e.aforoDisponible = :aforo WHERE e.idEvento = :id")
+    int fijarAforo(@Param("id") Integer id, @Param("aforo") int aforo);
+
+    /**
+     * Eventos cuyo aforo aún no tiene APERTURA en el diario de inventario, bloqueados como
+     * {@link TipoTicketRepositorio#findSinAperturaParaActualizar()}.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT e FROM Evento e WHERE NOT EXISTS (SELECT m FROM MovimientoInventario m " +
+           "WHERE m.idEvento = e.idEvento AND m.idTipoTicket IS NULL " +
+           "AND m.tipo = pe.edu.pucp.fasticket.model.inventario.TipoMovimientoInventario.APERTURA)")
+    List<Evento> findSinAperturaParaActualizar();
+
+    /**
+     * Devuelve [Evento, TipoTicket] por cada tipo de ticket activo de las zonas del local del evento,
+     * con el local y su distrito ya cargados, en una sola consulta. Si no hay tipos de ticket
+     * devuelve una fila con TipoTicket en null; si el evento no existe, ninguna.
+     */
+    @Query("SELECT e, t FROM Evento e LEFT JOIN FETCH e.local l LEFT JOIN FETCH l.distrito " +
+           "LEFT JOIN l.zonas z LEFT JOIN TipoTicket t ON t.zona = z AND t.activo = true " +
+           "WHERE e.idEvento = :idEvento ORDER BY z.idZona, t.idTipoTicket")
+    List<Object[]> findDetalleCompra(@Param("idEvento") Integer idEvento);
+
+    String CONSULTA_TEXTO = "SELECT new pe.edu.pucp.fasticket.repository.eventos.EventoTexto(" +
+           "e.idEvento, e.nombre, e.descripcion, e.restricciones, e.fechaEvento, l.nombre) " +
+           "FROM Evento e LEFT JOIN e.local l";
+
+    /**
+     * Eventos activos con los campos que indexa la búsqueda de texto, en orden de ID.
+     */
+    @Query(CONSULTA_TEXTO + " WHERE e.activo = true ORDER BY e.idEvento")
+    List<EventoTexto> findTextos();
+
+    @Query(CONSULTA_TEXTO + " WHERE e.idEvento = :idEvento AND e.activo = true")
+    Optional<EventoTexto> findTextoById(@Param("idEvento") Integer idEvento);
 }
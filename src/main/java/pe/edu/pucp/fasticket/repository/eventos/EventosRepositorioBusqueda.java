@@ -0,0 +1,17 @@
+package pe.edu.pucp.fasticket.repository.eventos;
+
+import java.util.List;
+
+import pe.edu.pucp.fasticket.dto.eventos.BusquedaEventosDTO;
+
+/**
+ * Búsqueda combinada de eventos con una consulta armada según los criterios presentes.
+ */
+public interface EventosRepositorioBusqueda {
+
+    /**
+     * Eventos activos que cumplen todos los criterios, en el orden pedido y a partir de la
+     * posición {@code desde}.
+     */
+    List<EventoResumen> buscar(BusquedaEventosDTO criterios, int desde, int filas);
+}
@@ -0,0 +1,82 @@
+package pe.edu.pucp.fasticket.repository.eventos;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.TypedQuery;
+import pe.edu.pucp.fasticket.dto.eventos.BusquedaEventosDTO;
+
+/**
+ * Arma la consulta de {@link EventosRepositorioBusqueda} con solo los filtros presentes, para que el
+ * planificador elija el índice compuesto que corresponde (ver los índices de Evento, Local y TipoTicket).
+ * Precio y disponibilidad se evalúan sobre un mismo tipo de ticket: el evento debe tener algún tipo
+ * activo dentro del rango de precio y, si se pide, con entradas disponibles.
+ */
+class EventosRepositorioBusquedaImpl implements EventosRepositorioBusqueda {
+
+    private static final String PRECIO_MINIMO =
+            "(SELECT MIN(p.precio) FROM TipoTicket p WHERE p.evento = e AND p.activo = true)";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<EventoResumen> buscar(BusquedaEventosDTO criterios, int desde, int filas) {
+        StringBuilder jpql = new StringBuilder(
+                "SELECT new pe.edu.pucp.fasticket.repository.eventos.EventoResumen(" +
+                "e.idEvento, e.nombre, e.fechaEvento, e.horaInicio, e.horaFin, e.imagenUrl, e.tipoEvento, " +
+                "e.estadoEvento, e.modoEmisionTicket, e.aforoDisponible, e.activo, l.idLocal, l.nombre, e.fechaCreacion) " +
+                "FROM Evento e LEFT JOIN e.local l WHERE e.activo = true");
+        Map<String, Object> parametros = new HashMap<>();
+
+        if (criterios.getTipo() != null) {
+            jpql.append(" AND e.tipoEvento = :tipo");
+            parametros.put("tipo", criterios.getTipo());
+        }
+        if (criterios.getDesde() != null) {
+            jpql.append(" AND e.fechaEvento >= :desde");
+            parametros.put("desde", criterios.getDesde());
+        }
+        if (criterios.getHasta() != null) {
+            jpql.append(" AND e.fechaEvento <= :hasta");
+            parametros.put("hasta", criterios.getHasta());
+        }
+        if (criterios.getIdDistrito() != null) {
+            jpql.append(" AND l.distrito.idDistrito = :distrito");
+            parametros.put("distrito", criterios.getIdDistrito());
+        }
+
+        boolean porPrecio = criterios.getPrecioMin() != null || criterios.getPrecioMax() != null;
+        if (porPrecio || Boolean.TRUE.equals(criterios.getConDisponibilidad())) {
+            jpql.append(" AND EXISTS (SELECT 1 FROM TipoTicket t WHERE t.evento = e AND t.activo = true");
+            if (criterios.getPrecioMin() != null) {
+                jpql.append(" AND t.precio >= :precioMin");
+                parametros.put("precioMin", criterios.getPrecioMin());
+            }
+            if (criterios.getPrecioMax() != null) {
+                jpql.append(" AND t.precio <= :precioMax");
+                parametros.put("precioMax", criterios.getPrecioMax());
+            }
+            if (Boolean.TRUE.equals(criterios.getConDisponibilidad())) {
+                jpql.append(" AND t.cantidadDisponible > 0");
+            }
+            jpql.append(")");
+        }
+
+        // El ID desempata para que las páginas no repitan ni salten eventos
+        BusquedaEventosDTO.Orden orden = criterios.getOrden() != null ? criterios.getOrden() : BusquedaEventosDTO.Orden.FECHA;
+        jpql.append(switch (orden) {
+            case FECHA -> " ORDER BY e.fechaEvento ASC, e.idEvento ASC";
+            case FECHA_DESC -> " ORDER BY e.fechaEvento DESC, e.idEvento DESC";
+            case NOMBRE -> " ORDER BY e.nombre ASC, e.idEvento ASC";
+            case PRECIO -> " ORDER BY " + PRECIO_MINIMO + " ASC NULLS LAST, e.idEvento ASC";
+        });
+
+        TypedQuery<EventoResumen> consulta = entityManager.createQuery(jpql.toString(), EventoResumen.class);
+        parametros.forEach(consulta::setParameter);
+        return consulta.setFirstResult(desde).setMaxResults(filas).getResultList();
+    }
+}
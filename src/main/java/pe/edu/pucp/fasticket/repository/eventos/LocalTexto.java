@@ -0,0 +1,11 @@
+package pe.edu.pucp.fasticket.repository.eventos;
+
+/**
+ * Proyección de Local para el índice de búsqueda de texto.
+ */
+public record LocalTexto(
+        Integer idLocal,
+        String nombre,
+        String direccion,
+        String nombreDistrito) {
+}
@@ -1,10 +1,15 @@
 package pe.edu.pucp.fasticket.repository.eventos;
 
 import java.util.List;
+import java.util.Optional;
 
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import pe.edu.pucp.fasticket.dto.eventos.LocalResponseDTO;
 import pe.edu.pucp.fasticket.model.eventos.Local;
 
 @Repository
@@ -14,5 +19,24 @@ public interface LocalesRepositorio extends JpaRepository<Local, Integer> {
     
     boolean existsByNombreIgnoreCase(String nombre);
     
-    List<Local> findByNombreContainingIgnoreCase(String nombre);
+    /**
+     * Página de locales con ID mayor que {@code despues}, proyectada al DTO de respuesta.
+     */
+    @Query("SELECT new pe.edu.pucp.fasticket.dto.eventos.LocalResponseDTO(" +
+           "l.idLocal, l.nombre, l.direccion, l.urlMapa, l.aforoTotal, l.activo, d.idDistrito, d.nombre, " +
+           "l.fechaCreacion, l.imagenUrl) " +
+           "FROM Local l LEFT JOIN l.distrito d WHERE l.idLocal > :despues ORDER BY l.idLocal")
+    List<LocalResponseDTO> findResumenes(@Param("despues") int despues, Limit limite);
+
+    String CONSULTA_TEXTO = "SELECT new pe.edu.pucp.fasticket.repository.eventos.LocalTexto(" +
+           "l.idLocal, l.nombre, l.direccion, d.nombre) FROM Local l LEFT JOIN l.distrito d";
+
+    /**
+     * Locales activos con los campos que indexa la búsqueda de texto, en orden de ID.
+     */
+    @Query(CONSULTA_TEXTO + " WHERE l.activo = true ORDER BY l.idLocal")
+    List<LocalTexto> findTextos();
+
+    @Query(CONSULTA_TEXTO + " WHERE l.idLocal = :idLocal AND l.activo = true")
+    Optional<LocalTexto> findTextoById(@Param("idLocal") Integer idLocal);
 }
\ No newline at end of file
@@ -1,13 +1,20 @@
 package pe.edu.pucp.fasticket.repository.eventos;
 
+import java.util.Collection;
 import java.util.List; // Necesario para limitar resultados
 
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository; // Para la consulta personalizada
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
 import pe.edu.pucp.fasticket.model.eventos.EstadoTicket;
 import pe.edu.pucp.fasticket.model.eventos.Ticket;
 import pe.edu.pucp.fasticket.model.eventos.TipoTicket;
@@ -31,7 +38,105 @@ public interface TicketRepository extends JpaRepository<Ticket, Integer> {
             @Param("estado") EstadoTicket estado,
             Pageable pageable
     );
+
+    /**
+     * Reclama los primeros 'count' tickets disponibles de un tipo bloqueándolos para escritura.
+     * Usa SELECT ... FOR UPDATE SKIP LOCKED: las filas que otra transacción ya tiene
+     * bloqueadas se saltan, de modo que compradores concurrentes reciben conjuntos
+     * de tickets distintos en una sola consulta en lugar de pelear por las mismas filas.
+     * Debe llamarse dentro de una transacción; el bloqueo se libera al confirmar.
+     *
+     * @param tipoTicket El tipo de ticket a reclamar.
+     * @param estado El estado deseado (ej: DISPONIBLE).
+     * @param pageable Objeto Pageable para limitar los resultados (ej: PageRequest.of(0, count)).
+     * @return Lista de tickets bloqueados por la transacción actual, como máximo 'count'.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2"))
+    @Query("SELECT t FROM Ticket t WHERE t.tipoTicket = :tipoTicket AND t.estado = :estado ORDER BY t.idTicket ASC")
+    List<Ticket> claimAvailableTicketsByTypeAndState(
+            @Param("tipoTicket") TipoTicket tipoTicket,
+            @Param("estado") EstadoTicket estado,
+            Pageable pageable
+    );
     
+    /**
+     * Reclama por ID tickets elegidos en el mapa de asientos, saltando los bloqueados por otra transacción.
+     * Devuelve solo los que siguen en el estado indicado.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2"))
+    @Query("SELECT t FROM Ticket t WHERE t.idTicket IN :ids AND t.estado = :estado")
+    List<Ticket> claimAvailableTicketsByIds(@Param("ids") Collection<Integer> ids, @Param("estado") EstadoTicket estado);
+
+    String CONSULTA_ASIENTOS = "SELECT t.tipoTicket.idTipoTicket, t.idTicket, t.fila, t.asiento, t.estado, t.activo " +
+            "FROM Ticket t JOIN t.evento e " +
+            "WHERE t.estado <> pe.edu.pucp.fasticket.model.eventos.EstadoTicket.ANULADA " +
+            "AND (e.modoEmisionTicket IS NULL " +
+            "OR e.modoEmisionTicket <> pe.edu.pucp.fasticket.model.eventos.ModoEmisionTicket.BAJO_DEMANDA)";
+
+    /**
+     * Asientos de los eventos con tickets precreados, para construir los mapas de asientos.
+     *
+     * @return filas {idTipoTicket, idTicket, fila, asiento, estado, activo}
+     */
+    @Query(CONSULTA_ASIENTOS + " AND t.tipoTicket IS NOT NULL")
+    List<Object[]> findAsientos();
+
+    @Query(CONSULTA_ASIENTOS + " AND t.tipoTicket.idTipoTicket = :idTipoTicket")
+    List<Object[]> findAsientosByTipoTicket(@Param("idTipoTicket") Integer idTipoTicket);
+
     @Query("SELECT COUNT(t) FROM Ticket t WHERE t.cliente.idPersona = :idCliente AND t.tipoTicket.idTipoTicket = :idTipoTicket AND t.estado IN ('VENDIDA', 'RESERVADA')")
     Integer countTicketsByClienteAndTipoTicket(@Param("idCliente") Integer idCliente, @Param("idTipoTicket") Integer idTipoTicket);
+
+    /**
+     * Tickets de la lista que tienen código QR pero aún no tienen imagen en el almacén.
+     *
+     * @return filas {idTicket, codigoQr}
+     */
+    @Query("SELECT t.idTicket, t.codigoQr FROM Ticket t WHERE t.idTicket IN :ids AND t.codigoQr IS NOT NULL AND t.qrRef IS NULL")
+    List<Object[]> findCodigosQrSinImagen(@Param("ids") Collection<Integer> ids);
+
+    /**
+     * Asocia la imagen QR guardada solo si el código no cambió desde que se renderizó y nadie la asoció antes.
+     */
+    @Transactional
+    @Modifying
+    @Query("UPDATE Ticket t SET t.qrRef = :qrRef WHERE t.idTicket = :id AND t.codigoQr = :codigoQr AND t.qrRef IS NULL")
+    int guardarQrRef(@Param("id") Integer id, @Param("codigoQr") String codigoQr, @Param("qrRef") String qrRef);
+
+    /**
+     * Tickets RESERVADA de las órdenes indicadas.
+     *
+     * @return filas {idTicket, idTipoTicket, idCliente de la orden}
+     */
+    @Query("SELECT t.idTicket, t.tipoTicket.idTipoTicket, o.cliente.idPersona FROM Ticket t JOIN t.ordenCompra o " +
+           "WHERE o.idOrdenCompra IN :ids AND t.estado = pe.edu.pucp.fasticket.model.eventos.EstadoTicket.RESERVADA")
+    List<Object[]> findReservadosDeOrdenes(@Param("ids") Collection<Integer> ids);
+
+    /**
+     * Anula los tickets RESERVADA de las órdenes que pertenecen a eventos con emisión bajo demanda;
+     * esas filas se crearon para la reserva y no vuelven a venderse.
+     */
+    @Modifying
+    @Query("UPDATE Ticket t SET t.estado = pe.edu.pucp.fasticket.model.eventos.EstadoTicket.ANULADA, " +
+           "t.activo = false, t.itemCarrito = NULL " +
+           "WHERE t.ordenCompra.idOrdenCompra IN :ids " +
+           "AND t.estado = pe.edu.pucp.fasticket.model.eventos.EstadoTicket.RESERVADA " +
+           "AND t.evento.idEvento IN (SELECT e.idEvento FROM Evento e " +
+           "WHERE e.modoEmisionTicket = pe.edu.pucp.fasticket.model.eventos.ModoEmisionTicket.BAJO_DEMANDA)")
+    int anularReservadosBajoDemanda(@Param("ids") Collection<Integer> ids);
+
+    /**
+     * Devuelve a DISPONIBLE los tickets RESERVADA de las órdenes y los desvincula de la orden, del item y
+     * del asistente.
+     * Debe ejecutarse después de {@link #anularReservadosBajoDemanda}.
+     */
+    @Modifying
+    @Query("UPDATE Ticket t SET t.estado = pe.edu.pucp.fasticket.model.eventos.EstadoTicket.DISPONIBLE, " +
+           "t.ordenCompra = NULL, t.itemCarrito = NULL, t.cliente = NULL, t.nombreAsistente = NULL, " +
+           "t.apellidoAsistente = NULL, t.tipoDocumentoAsistente = NULL, t.documentoAsistente = NULL " +
+           "WHERE t.ordenCompra.idOrdenCompra IN :ids " +
+           "AND t.estado = pe.edu.pucp.fasticket.model.eventos.EstadoTicket.RESERVADA")
+    int liberarReservados(@Param("ids") Collection<Integer> ids);
 }
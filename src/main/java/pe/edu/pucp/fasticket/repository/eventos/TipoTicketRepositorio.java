@@ -3,21 +3,99 @@ package pe.edu.pucp.fasticket.repository.eventos;
 import java.util.List;
 import java.util.Optional;
 
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import jakarta.persistence.LockModeType;
+import pe.edu.pucp.fasticket.dto.eventos.TipoTicketDTO;
 import pe.edu.pucp.fasticket.model.eventos.Evento;
 import pe.edu.pucp.fasticket.model.eventos.TipoTicket;
 
 @Repository
 public interface TipoTicketRepositorio extends JpaRepository<TipoTicket, Integer> {
-    
+
+    /**
+     * Página de tipos de ticket con ID mayor que {@code despues}, proyectada al DTO de respuesta.
+     */
+    @Query("SELECT new pe.edu.pucp.fasticket.dto.eventos.TipoTicketDTO(" +
+           "t.idTipoTicket, t.nombre, t.descripcion, t.precio, t.stock, t.activo, z.idZona, z.nombre, t.limitePorPersona) " +
+           "FROM TipoTicket t LEFT JOIN t.zona z WHERE t.idTipoTicket > :despues ORDER BY t.idTipoTicket")
+    List<TipoTicketDTO> findResumenes(@Param("despues") int despues, Limit limite);
+
+    /**
+     * Descuenta {@code qty} de la cantidad disponible solo si alcanza.
+     *
+     * @return 1 si se descontó, 0 si no había stock suficiente
+     */
+    @Transactional
     @Modifying
     @Query("UPDATE TipoTicket t SET t.cantidadDisponible = t.cantidadDisponible - :qty WHERE t.idTipoTicket = :id AND t.cantidadDisponible >= :qty")
     int decreaseStock(@Param("id") Integer id, @Param("qty") int qty);
+
+    /**
+     * Aplica los cambios acumulados por el motor de inventario como incrementos relativos,
+     * sin pisar lo que otra instancia haya volcado en paralelo.
+     */
+    @Transactional
+    @Modifying
+    @Query("UPDATE TipoTicket t SET t.cantidadDisponible = t.cantidadDisponible + :deltaDisponible, " +
+           "t.cantidadVendida = COALESCE(t.cantidadVendida, 0) + :deltaVendida WHERE t.idTipoTicket = :id")
+    int aplicarDeltaInventario(@Param("id") Integer id,
+                               @Param("deltaDisponible") int deltaDisponible,
+                               @Param("deltaVendida") int deltaVendida);
+
+    /**
+     * Fija los contadores con los valores proyectados desde el diario de inventario.
+     */
+    @Modifying
+    @Query("UPDATE TipoTicket t SET t.cantidadDisponible = :disponible, t.cantidadVendida = :vendida " +
+           "WHERE t.idTipoTicket = :id")
+    int fijarContadores(@Param("id") Integer id,
+                        @Param("disponible") int disponible,
+                        @Param("vendida") int vendida);
+
+    /**
+     * Tipos de ticket que aún no tienen APERTURA en el diario de inventario, bloqueados para que
+     * dos instancias que arrancan a la vez no abran el mismo tipo dos veces.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT t FROM TipoTicket t WHERE NOT EXISTS (SELECT m FROM MovimientoInventario m " +
+           "WHERE m.idTipoTicket = t.idTipoTicket " +
+           "AND m.tipo = pe.edu.pucp.fasticket.model.inventario.TipoMovimientoInventario.APERTURA)")
+    List<TipoTicket> findSinAperturaParaActualizar();
+
+    /**
+     * Reserva un bloque de números correlativos para la emisión bajo demanda.
+     * Leer después {@link #findUltimoNumeroAsignado(Integer)} en la misma transacción.
+     */
+    @Modifying
+    @Query("UPDATE TipoTicket t SET t.ultimoNumeroAsignado = COALESCE(t.ultimoNumeroAsignado, 0) + :bloque " +
+           "WHERE t.idTipoTicket = :id")
+    int reservarBloqueNumeros(@Param("id") Integer id, @Param("bloque") int bloque);
+
+    @Query("SELECT t.ultimoNumeroAsignado FROM TipoTicket t WHERE t.idTipoTicket = :id")
+    Integer findUltimoNumeroAsignado(@Param("id") Integer id);
+
+    /**
+     * IDs de los tipos de ticket que se venden para un evento: los de las zonas de su local
+     * y los asociados directamente al evento.
+     */
+    @Query("SELECT t.idTipoTicket FROM TipoTicket t LEFT JOIN t.zona z LEFT JOIN t.evento e " +
+           "WHERE z.local.idLocal = :idLocal OR e.idEvento = :idEvento")
+    List<Integer> findIdsByLocalOrEvento(@Param("idLocal") Integer idLocal, @Param("idEvento") Integer idEvento);
+
+    /**
+     * Devuelve [idTipoTicket, cantidadDisponible, cantidadVendida] de todos los tipos de ticket,
+     * para reconstruir el inventario en memoria sin cargar las entidades.
+     */
+    @Query("SELECT t.idTipoTicket, t.cantidadDisponible, t.cantidadVendida FROM TipoTicket t")
+    List<Object[]> findContadoresInventario();
     
     List<TipoTicket> findByZonaIdZona(Integer idZona);
     
@@ -27,4 +105,18 @@ public interface TipoTicketRepositorio extends JpaRepository<TipoTicket, Integer
     
     @Query("SELECT DISTINCT t.evento FROM Ticket t WHERE t.tipoTicket.idTipoTicket = :idTipoTicket")
     Optional<Evento> findEventoByTipoTicket(@Param("idTipoTicket") Integer idTipoTicket);
+
+    String CONSULTA_CATALOGO = "SELECT t.idTipoTicket, t.nombre, t.precio, t.limitePorPersona, z.idZona, " +
+           "e.idEvento, e.nombre, e.fechaEvento, e.horaInicio, e.edadMinima, e.modoEmisionTicket, l.idLocal, l.nombre " +
+           "FROM TipoTicket t LEFT JOIN t.zona z LEFT JOIN t.evento e LEFT JOIN e.local l";
+
+    /**
+     * Filas de catálogo de todos los tipos de ticket, para {@code IndiceCatalogo}.
+     * Los tipos sin relación directa con su evento traen las columnas del evento en null.
+     */
+    @Query(CONSULTA_CATALOGO)
+    List<Object[]> findCatalogo();
+
+    @Query(CONSULTA_CATALOGO + " WHERE t.idTipoTicket = :idTipoTicket")
+    List<Object[]> findCatalogoById(@Param("idTipoTicket") Integer idTipoTicket);
 }
\ No newline at end of file
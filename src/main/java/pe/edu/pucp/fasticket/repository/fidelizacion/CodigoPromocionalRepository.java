@@ -3,8 +3,12 @@ package pe.edu.pucp.fasticket.repository.fidelizacion;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import pe.edu.pucp.fasticket.dto.fidelizacion.CodigoPromocionalDTO;
 import pe.edu.pucp.fasticket.model.fidelizacion.CodigoPromocional;
 
 @Repository
@@ -12,5 +16,13 @@ public interface CodigoPromocionalRepository extends JpaRepository<CodigoPromoci
     Optional<CodigoPromocional> findByCodigo(String codigo);
     boolean existsByCodigo(String codigo);
     List<CodigoPromocional> findByFechaFinAfter(LocalDateTime fechaActual);
+
+    /**
+     * Página de códigos con ID mayor que {@code despues}, proyectada al DTO de respuesta.
+     */
+    @Query("SELECT new pe.edu.pucp.fasticket.dto.fidelizacion.CodigoPromocionalDTO(" +
+           "c.idCodigoPromocional, c.codigo, c.descripcion, c.fechaFin, c.tipo, c.valor, c.stock, c.cantidadPorCliente) " +
+           "FROM CodigoPromocional c WHERE c.idCodigoPromocional > :despues ORDER BY c.idCodigoPromocional")
+    List<CodigoPromocionalDTO> findResumenes(@Param("despues") int despues, Limit limite);
 }
 
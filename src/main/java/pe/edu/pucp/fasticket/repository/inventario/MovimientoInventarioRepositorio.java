@@ -0,0 +1,41 @@
+package pe.edu.pucp.fasticket.repository.inventario;
+
+import java.util.Collection;
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import pe.edu.pucp.fasticket.model.inventario.MovimientoInventario;
+
+@Repository
+public interface MovimientoInventarioRepositorio extends JpaRepository<MovimientoInventario, Long> {
+
+    /**
+     * Proyección de los contadores de cada tipo de ticket: idTipoTicket, disponible y vendida.
+     */
+    @Query("SELECT m.idTipoTicket, SUM(m.deltaDisponible), SUM(m.deltaVendida) FROM MovimientoInventario m " +
+           "WHERE m.idTipoTicket IS NOT NULL GROUP BY m.idTipoTicket")
+    List<Object[]> sumarPorTipoTicket();
+
+    /**
+     * Proyección del aforo disponible de cada evento: su apertura y ajustes propios,
+     * más las reservas y liberaciones de sus tipos de ticket.
+     */
+    @Query("SELECT m.idEvento, SUM(m.deltaDisponible) FROM MovimientoInventario m " +
+           "WHERE m.idEvento IS NOT NULL AND (m.idTipoTicket IS NULL " +
+           "OR m.tipo IN (pe.edu.pucp.fasticket.model.inventario.TipoMovimientoInventario.RESERVA, " +
+           "pe.edu.pucp.fasticket.model.inventario.TipoMovimientoInventario.LIBERACION)) " +
+           "GROUP BY m.idEvento")
+    List<Object[]> sumarAforoPorEvento();
+
+    @Query("SELECT m.idTipoTicket FROM MovimientoInventario m WHERE m.idTipoTicket IN :ids " +
+           "AND m.tipo = pe.edu.pucp.fasticket.model.inventario.TipoMovimientoInventario.APERTURA")
+    List<Integer> findTiposTicketAbiertos(@Param("ids") Collection<Integer> ids);
+
+    @Query("SELECT m.idEvento FROM MovimientoInventario m WHERE m.idEvento IN :ids AND m.idTipoTicket IS NULL " +
+           "AND m.tipo = pe.edu.pucp.fasticket.model.inventario.TipoMovimientoInventario.APERTURA")
+    List<Integer> findEventosAbiertos(@Param("ids") Collection<Integer> ids);
+}
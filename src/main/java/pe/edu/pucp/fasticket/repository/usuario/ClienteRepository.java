@@ -3,7 +3,10 @@ package pe.edu.pucp.fasticket.repository.usuario;
 import java.util.List;
 import java.util.Optional;
 
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import pe.edu.pucp.fasticket.model.fidelizacion.TipoMembresia;
@@ -16,5 +19,14 @@ public interface ClienteRepository extends JpaRepository<Cliente, Integer> {
     @Override
     Optional<Cliente> findById(Integer id);
     Boolean existsByEmail(String email);
+
+    /**
+     * Página de clientes con ID mayor que {@code despues}, sin contraseña ni colecciones.
+     */
+    @Query("SELECT new pe.edu.pucp.fasticket.repository.usuario.ClienteResumen(" +
+           "c.idPersona, c.tipoDocumento, c.docIdentidad, c.nombres, c.apellidos, c.telefono, c.email, " +
+           "c.fechaNacimiento, c.direccion, c.puntosAcumulados, c.nivel, c.fechaCreacion) " +
+           "FROM Cliente c WHERE c.idPersona > :despues ORDER BY c.idPersona")
+    List<ClienteResumen> findResumenes(@Param("despues") int despues, Limit limite);
 }
 
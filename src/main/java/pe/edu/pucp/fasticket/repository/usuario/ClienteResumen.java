@@ -0,0 +1,24 @@
+package pe.edu.pucp.fasticket.repository.usuario;
+
+import java.time.LocalDate;
+
+import pe.edu.pucp.fasticket.model.fidelizacion.TipoMembresia;
+import pe.edu.pucp.fasticket.model.usuario.TipoDocumento;
+
+/**
+ * Proyección de Cliente para listados: datos de perfil sin contraseña ni colecciones.
+ */
+public record ClienteResumen(
+        Integer idCliente,
+        TipoDocumento tipoDocumento,
+        String docIdentidad,
+        String nombres,
+        String apellidos,
+        String telefono,
+        String email,
+        LocalDate fechaNacimiento,
+        String direccion,
+        Integer puntosAcumulados,
+        TipoMembresia nivel,
+        LocalDate fechaCreacion) {
+}
@@ -0,0 +1,209 @@
+package pe.edu.pucp.fasticket.security;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.HashSet;
+import java.util.Optional;
+import java.util.Set;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import pe.edu.pucp.fasticket.dto.StandardResponse;
+import pe.edu.pucp.fasticket.services.salaespera.SalaEsperaService;
+
+/**
+ * Filtro que exige un turno admitido de la sala de espera para iniciar compras
+ * de eventos con sala activa.
+ *
+ * <p>Solo revisa POST /api/v1/ordenes, POST /api/v1/ordenes/comprar-carrito/{idCarrito} y
+ * POST /api/v1/carrito/items. Si no hay ninguna sala activa la petición pasa sin leer el cuerpo.
+ * Si la hay, busca los idTipoTicket del cuerpo, o de los items del carrito al comprarlo, y, cuando
+ * pertenecen a un evento con sala, rechaza con 429 las peticiones sin un turno admitido del
+ * usuario autenticado en la cabecera {@value #HEADER_TURNO}. Solo la compra del carrito consulta
+ * la base de datos, y solo mientras haya salas activas.</p>
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class SalaEsperaFilter extends OncePerRequestFilter {
+
+    public static final String HEADER_TURNO = "X-Turno-Sala-Espera";
+
+    private static final String RUTA_ORDENES = "/api/v1/ordenes";
+    private static final String RUTA_CARRITO = "/api/v1/carrito/items";
+    private static final String RUTA_COMPRAR_CARRITO = "/api/v1/ordenes/comprar-carrito/";
+
+    private final SalaEsperaService salaEsperaService;
+    private final ObjectMapper objectMapper;
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        if (!"POST".equals(request.getMethod())) {
+            return true;
+        }
+        String ruta = ruta(request);
+        return !RUTA_ORDENES.equals(ruta) && !RUTA_CARRITO.equals(ruta) && !ruta.startsWith(RUTA_COMPRAR_CARRITO);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+
+        if (!salaEsperaService.hayActivas()) {
+            chain.doFilter(request, response);
+            return;
+        }
+
+        String ruta = ruta(request);
+        HttpServletRequest peticion;
+        Optional<Integer> idEvento;
+        if (ruta.startsWith(RUTA_COMPRAR_CARRITO)) {
+            // Sin cuerpo: los tipos de ticket son los de los items del carrito
+            peticion = request;
+            idEvento = idCarro(ruta).flatMap(salaEsperaService::eventoConSalaActivaDelCarrito);
+        } else {
+            CuerpoCacheadoRequest cuerpoCacheado = new CuerpoCacheadoRequest(request);
+            peticion = cuerpoCacheado;
+            idEvento = salaEsperaService.eventoConSalaActiva(idsTipoTicket(cuerpoCacheado.cuerpo));
+        }
+        if (idEvento.isEmpty()) {
+            chain.doFilter(peticion, response);
+            return;
+        }
+
+        String token = request.getHeader(HEADER_TURNO);
+        Integer idPersona = idPersonaAutenticada();
+        if (!salaEsperaService.estaAdmitido(idEvento.get(), token, idPersona)) {
+            log.debug("Compra rechazada por sala de espera del evento {}", idEvento.get());
+            response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+            response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+            response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+            objectMapper.writeValue(response.getWriter(), StandardResponse.error(
+                    "El evento tiene sala de espera activa. Ingresa a la cola y espera tu turno para comprar."));
+            return;
+        }
+
+        chain.doFilter(peticion, response);
+
+        // Una orden creada termina la sesión de compra y cede el cupo al siguiente de la cola
+        if (!RUTA_CARRITO.equals(ruta) && response.getStatus() < 400) {
+            salaEsperaService.liberar(token, idPersona);
+        }
+    }
+
+    private Set<Integer> idsTipoTicket(byte[] cuerpo) {
+        Set<Integer> ids = new HashSet<>();
+        try {
+            JsonNode raiz = objectMapper.readTree(cuerpo);
+            if (raiz != null) {
+                raiz.findValues("idTipoTicket").forEach(nodo -> {
+                    if (nodo.canConvertToInt()) {
+                        ids.add(nodo.asInt());
+                    }
+                });
+            }
+        } catch (IOException e) {
+            // Cuerpo inválido: lo rechazará la validación del controller
+        }
+        return ids;
+    }
+
+    private static Optional<Integer> idCarro(String ruta) {
+        try {
+            return Optional.of(Integer.valueOf(ruta.substring(RUTA_COMPRAR_CARRITO.length())));
+        } catch (NumberFormatException e) {
+            // Ruta inválida: la rechazará el controller
+            return Optional.empty();
+        }
+    }
+
+    // Corre después de la cadena de Spring Security, así que la autenticación ya está resuelta
+    private static Integer idPersonaAutenticada() {
+        Authentication autenticacion = SecurityContextHolder.getContext().getAuthentication();
+        if (autenticacion != null && autenticacion.getPrincipal() instanceof UserDetailsImpl usuario) {
+            return usuario.getIdPersona();
+        }
+        return null;
+    }
+
+    private static String ruta(HttpServletRequest request) {
+        return request.getRequestURI().substring(request.getContextPath().length());
+    }
+
+    /**
+     * Guarda el cuerpo en memoria para poder leerlo aquí y de nuevo en el controller.
+     */
+    private static final class CuerpoCacheadoRequest extends HttpServletRequestWrapper {
+
+        private final byte[] cuerpo;
+
+        private CuerpoCacheadoRequest(HttpServletRequest request) throws IOException {
+            super(request);
+            this.cuerpo = request.getInputStream().readAllBytes();
+        }
+
+        @Override
+        public ServletInputStream getInputStream() {
+            ByteArrayInputStream entrada = new ByteArrayInputStream(cuerpo);
+            return new ServletInputStream() {
+                @Override
+                public int read() {
+                    return entrada.read();
+                }
+
+                @Override
+                public int read(byte[] b, int off, int len) {
+                    return entrada.read(b, off, len);
+                }
+
+                @Override
+                public boolean isFinished() {
+                    return entrada.available() == 0;
+                }
+
+                @Override
+                public boolean isReady() {
+                    return true;
+                }
+
+                @Override
+                public void setReadListener(ReadListener listener) {
+                    // El cuerpo ya está en memoria: todo está disponible desde el principio
+                    try {
+                        if (!isFinished()) {
+                            listener.onDataAvailable();
+                        }
+                        listener.onAllDataRead();
+                    } catch (IOException e) {
+                        listener.onError(e);
+                    }
+                }
+            };
+        }
+
+        @Override
+        public BufferedReader getReader() {
+            return new BufferedReader(new InputStreamReader(getInputStream(), StandardCharsets.UTF_8));
+        }
+    }
+}
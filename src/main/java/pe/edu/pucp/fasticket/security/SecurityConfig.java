@@ -21,6 +21,7 @@ import org.springframework.web.cors.CorsConfigurationSource;
 import org.springframework.web.cors.UrlBasedCorsConfigurationSource;
 
 import lombok.RequiredArgsConstructor;
+import pe.edu.pucp.fasticket.dto.PaginaCursor;
 
 /**
  * Configuración de seguridad de Spring Security con JWT.
@@ -55,6 +56,7 @@ public class SecurityConfig {
                         .requestMatchers(HttpMethod.GET, "/api/v1/locales/**").permitAll()
                         .requestMatchers(HttpMethod.GET, "/api/v1/zonas/**").permitAll()
                         .requestMatchers(HttpMethod.GET, "/api/v1/tipos-ticket/**").permitAll()
+                        .requestMatchers(HttpMethod.GET, "/api/v1/busqueda/**").permitAll()
                         
                         // Endpoints de administración
                         .requestMatchers("/api/v1/admin/**").hasRole("ADMINISTRADOR")
@@ -84,6 +86,7 @@ public class SecurityConfig {
         configuration.setAllowedOrigins(Arrays.asList("http://localhost:4200", "https://fasticket.com"));
         configuration.setAllowedMethods(Arrays.asList("GET", "POST", "PUT", "DELETE", "OPTIONS"));
         configuration.setAllowedHeaders(Arrays.asList("*"));
+        configuration.setExposedHeaders(Arrays.asList(PaginaCursor.HEADER));
         configuration.setAllowCredentials(true);
         configuration.setMaxAge(3600L);
         
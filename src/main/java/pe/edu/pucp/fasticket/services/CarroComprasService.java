@@ -8,4 +8,11 @@ public interface CarroComprasService {
     CarroComprasDTO agregarItemAlCarrito(AddItemRequestDTO request);
     CarroComprasDTO verCarrito(Integer idCliente);
     CarroComprasDTO eliminarItemDelCarrito(Integer idItemCarrito, Integer idCliente);
+
+    /**
+     * Libera los tickets reservados de un carrito cuya reserva venció y lo vacía.
+     *
+     * @return true si el carrito se expiró en esta llamada
+     */
+    boolean expirarCarrito(Integer idCarro);
 }
\ No newline at end of file
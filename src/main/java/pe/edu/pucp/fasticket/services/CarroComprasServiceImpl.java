@@ -1,12 +1,13 @@
 package pe.edu.pucp.fasticket.services;
 
+import java.time.Duration;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 import java.util.stream.Collectors;
 
-import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -29,6 +30,14 @@ import pe.edu.pucp.fasticket.repository.compra.ItemCarritoRepository;
 import pe.edu.pucp.fasticket.repository.eventos.TicketRepository;
 import pe.edu.pucp.fasticket.repository.eventos.TipoTicketRepositorio;
 import pe.edu.pucp.fasticket.repository.usuario.ClienteRepository;
+import pe.edu.pucp.fasticket.services.eventos.EntradaCatalogo;
+import pe.edu.pucp.fasticket.services.eventos.IndiceCatalogo;
+import pe.edu.pucp.fasticket.services.expiracion.ExpiracionReservas;
+import pe.edu.pucp.fasticket.services.inventario.InventarioService;
+import pe.edu.pucp.fasticket.services.inventario.LimiteCompraService;
+import pe.edu.pucp.fasticket.services.reservas.ReservaAsientosService;
+import pe.edu.pucp.fasticket.services.tickets.EmisionTicketService;
+import pe.edu.pucp.fasticket.services.tickets.QrTicketService;
 
 @Service
 @RequiredArgsConstructor
@@ -40,6 +49,13 @@ public class CarroComprasServiceImpl implements CarroComprasService {
     private final TipoTicketRepositorio tipoTicketRepositorio;
     private final ItemCarritoRepository itemCarritoRepository;
     private final TicketRepository ticketRepository;
+    private final InventarioService inventarioService;
+    private final LimiteCompraService limiteCompraService;
+    private final ReservaAsientosService reservaAsientosService;
+    private final EmisionTicketService emisionTicketService;
+    private final QrTicketService qrTicketService;
+    private final ExpiracionReservas expiracionReservas;
+    private final IndiceCatalogo indiceCatalogo;
 
     private static final int LIMITE_MAXIMO_TICKETS_POR_CLIENTE = 10;
     private static final int TIEMPO_RESERVA_MINUTOS = 15;
@@ -54,13 +70,12 @@ public class CarroComprasServiceImpl implements CarroComprasService {
         Cliente cliente = clienteRepository.findById(request.getIdCliente())
                 .orElseThrow(() -> new ResourceNotFoundException("Cliente no encontrado con ID: " + request.getIdCliente()));
         Integer edadCliente = cliente.calcularEdad();
-        // Obtener evento a través del repositorio
-        pe.edu.pucp.fasticket.model.eventos.Evento evento = tipoTicketRepositorio.findEventoByTipoTicket(tipoTicket.getIdTipoTicket())
-                .orElseThrow(() -> new ResourceNotFoundException("Evento no encontrado para el tipo de ticket"));
-        Integer edadMinima = evento.getEdadMinima();
+        // Obtener evento del tipo de ticket
+        EntradaCatalogo entrada = indiceCatalogo.obtener(tipoTicket.getIdTipoTicket());
+        Integer edadMinima = entrada.edadMinima();
         if (edadMinima != null && edadMinima > 0 && edadCliente != null && edadCliente < edadMinima) {
             throw new IllegalArgumentException(
-                    String.format("El evento '%s' requiere una edad mínima de %d años.", evento.getNombre(), edadMinima)
+                    String.format("El evento '%s' requiere una edad mínima de %d años.", entrada.nombreEvento(), edadMinima)
             );
         }
         CarroCompras carro = carroComprasRepository.findByCliente_IdPersona(cliente.getIdPersona())
@@ -76,7 +91,7 @@ public class CarroComprasServiceImpl implements CarroComprasService {
         // Validar que no se puedan agregar items de eventos diferentes
         if (!carro.getItems().isEmpty()) {
             Integer eventoActual = carro.getIdEventoActual();
-            Integer eventoNuevo = evento.getIdEvento();
+            Integer eventoNuevo = entrada.idEvento();
             if (eventoActual != null && !eventoActual.equals(eventoNuevo)) {
                 throw new BusinessException("No puedes agregar tickets de diferentes eventos al mismo carrito");
             }
@@ -90,8 +105,9 @@ public class CarroComprasServiceImpl implements CarroComprasService {
         }
         
         // Validar límite por persona para este tipo de ticket
-        validarLimitePorPersona(tipoTicket, request.getCantidad(), cliente);
-        List<Ticket> ticketsReservados = reservarTickets(tipoTicket, request.getCantidad());
+        limiteCompraService.reservar(tipoTicket, cliente.getIdPersona(), request.getCantidad());
+        List<Ticket> ticketsReservados = reservarTickets(tipoTicket, entrada, request.getCantidad(),
+                cliente.getIdPersona());
         ItemCarrito nuevoItem = new ItemCarrito();
         nuevoItem.setTipoTicket(tipoTicket);
         nuevoItem.setCantidad(request.getCantidad());
@@ -109,30 +125,31 @@ public class CarroComprasServiceImpl implements CarroComprasService {
             ticket.setTipoDocumentoAsistente(asistente.getTipoDocumento());
             ticket.setDocumentoAsistente(asistente.getNumeroDocumento());
             String codigoQr = generarCodigoQrUnico();
-            ticket.setQrImage(generarQrComoBytes(codigoQr));
             ticket.setCodigoQr(codigoQr);
+            ticket.setQrRef(null); // Se renderiza después del commit
             nuevoItem.addTicket(ticket);
         }
+        qrTicketService.programarRenderizado(ticketsReservados);
         carro.addItem(nuevoItem);
-        carro.setIdEventoActual(evento.getIdEvento());
-        carro.setFechaActualizacion(LocalDateTime.now().plusMinutes(TIEMPO_RESERVA_MINUTOS));
+        carro.setIdEventoActual(entrada.idEvento());
+        carro.setFechaActualizacion(LocalDateTime.now());
+        carro.setFechaExpiracion(LocalDateTime.now().plusMinutes(TIEMPO_RESERVA_MINUTOS));
         CarroCompras carroGuardado = carroComprasRepository.save(carro);
         itemCarritoRepository.save(nuevoItem);
+        expiracionReservas.programarCarrito(carroGuardado.getIdCarro(), carroGuardado.getFechaExpiracion());
 
         return convertirADTO(carroGuardado);
     }
 
     @Transactional
-    public List<Ticket> reservarTickets(TipoTicket tipoTicket, int cantidad) {
-        if (tipoTicket.getCantidadDisponible() < cantidad) {
-            throw new BusinessException("Stock insuficiente (contador) para el ticket: " + tipoTicket.getNombre());
-        }
-        List<Ticket> ticketsDisponibles = ticketRepository.findAvailableTicketsByTypeAndState(
-                tipoTicket, EstadoTicket.DISPONIBLE, PageRequest.of(0, cantidad));
+    public List<Ticket> reservarTickets(TipoTicket tipoTicket, EntradaCatalogo entrada, int cantidad, Integer idCliente) {
+        inventarioService.reservar(tipoTicket, cantidad, entrada.emisionBajoDemanda());
+        List<Ticket> ticketsDisponibles = emisionTicketService.obtenerParaReserva(
+                tipoTicket, indiceCatalogo.evento(entrada.idEvento()), entrada.emisionBajoDemanda(), cantidad,
+                idCliente, Duration.ofMinutes(TIEMPO_RESERVA_MINUTOS));
         if (ticketsDisponibles.size() < cantidad) {
             throw new BusinessException("Stock insuficiente (inventario) para el ticket: " + tipoTicket.getNombre());
         }
-        tipoTicket.setCantidadDisponible(tipoTicket.getCantidadDisponible() - cantidad);
 
         return ticketsDisponibles;
     }
@@ -148,27 +165,66 @@ public class CarroComprasServiceImpl implements CarroComprasService {
         }
 
         CarroCompras carro = item.getCarroCompra();
+        liberarItem(item, idCliente);
+        carro.removeItem(item); // Elimina del carrito
+        carro.setFechaActualizacion(LocalDateTime.now());
+        if (carro.getItems().isEmpty()) {
+            carro.setFechaExpiracion(null);
+            expiracionReservas.cancelarCarrito(carro.getIdCarro());
+        }
+        CarroCompras carroGuardado = carroComprasRepository.save(carro);
+        return convertirADTO(carroGuardado);
+    }
+
+    @Override
+    @Transactional
+    public boolean expirarCarrito(Integer idCarro) {
+        if (carroComprasRepository.marcarExpirado(idCarro, LocalDateTime.now()) == 0) {
+            return false;
+        }
+        CarroCompras carro = carroComprasRepository.findById(idCarro).orElse(null);
+        if (carro == null) {
+            return false;
+        }
+        Integer idCliente = carro.getCliente() != null ? carro.getCliente().getIdPersona() : null;
+        for (ItemCarrito item : new ArrayList<>(carro.getItems())) {
+            liberarItem(item, idCliente);
+            carro.removeItem(item);
+        }
+        carro.setIdEventoActual(null);
+        carro.setFechaExpiracion(null);
+        carro.setFechaActualizacion(LocalDateTime.now());
+        carroComprasRepository.save(carro);
+        log.info("Carrito {} expirado y tickets liberados", idCarro);
+        return true;
+    }
+
+    /**
+     * Desvincula los tickets del item antes de eliminarlo y devuelve al inventario los que estaban RESERVADA.
+     */
+    private void liberarItem(ItemCarrito item, Integer idCliente) {
         TipoTicket tipoTicket = item.getTipoTicket();
-        int cantidadLiberada = 0;
+        List<Ticket> ticketsLiberados = new ArrayList<>();
 
-        for (Ticket ticket : item.getTickets()) {
+        for (Ticket ticket : new ArrayList<>(item.getTickets())) {
+            item.removeTicket(ticket);
             if (ticket.getEstado() == EstadoTicket.RESERVADA) {
-                ticket.setEstado(EstadoTicket.DISPONIBLE);
-                ticket.setItemCarrito(null);
+                emisionTicketService.liberar(ticket);
                 ticket.setCliente(null);
                 ticket.setNombreAsistente(null);
                 ticket.setApellidoAsistente(null);
                 ticket.setTipoDocumentoAsistente(null);
                 ticket.setDocumentoAsistente(null);
-                cantidadLiberada++;
+                ticketsLiberados.add(ticket);
             }
         }
-        tipoTicket.setCantidadDisponible(tipoTicket.getCantidadDisponible() + cantidadLiberada);
+        int cantidadLiberada = ticketsLiberados.size();
+        inventarioService.liberar(tipoTicket, cantidadLiberada);
+        if (idCliente != null) {
+            limiteCompraService.liberar(tipoTicket.getIdTipoTicket(), idCliente, cantidadLiberada);
+            reservaAsientosService.liberar(tipoTicket, ticketsLiberados, idCliente);
+        }
         log.info("Liberados {} tickets del tipo {}", cantidadLiberada, tipoTicket.getNombre());
-        carro.removeItem(item); // Elimina del carrito
-        carro.setFechaActualizacion(LocalDateTime.now());
-        CarroCompras carroGuardado = carroComprasRepository.save(carro);
-        return convertirADTO(carroGuardado);
     }
 
     private void validarItemYAsistentes(AddItemRequestDTO item) {
@@ -189,35 +245,6 @@ public class CarroComprasServiceImpl implements CarroComprasService {
         return java.util.UUID.randomUUID().toString();
     }
     
-    private void validarLimitePorPersona(TipoTicket tipoTicket, Integer cantidad, Cliente cliente) {
-        if (tipoTicket.getLimitePorPersona() != null && tipoTicket.getLimitePorPersona() > 0) {
-            // Verificar cuántos tickets de este tipo ha comprado el cliente
-            Integer ticketsComprados = ticketRepository.countTicketsByClienteAndTipoTicket(cliente.getIdPersona(), tipoTicket.getIdTipoTicket());
-            if (ticketsComprados + cantidad > tipoTicket.getLimitePorPersona()) {
-                throw new BusinessException("El límite de tickets por persona para '" + tipoTicket.getNombre() + "' es de " + 
-                    tipoTicket.getLimitePorPersona() + ". Ya has comprado " + ticketsComprados + " tickets de este tipo.");
-            }
-        }
-    }
-
-    private byte[] generarQrComoBytes(String contenido) {
-        try {
-            com.google.zxing.Writer writer = new com.google.zxing.qrcode.QRCodeWriter();
-            var matrix = writer.encode(contenido, com.google.zxing.BarcodeFormat.QR_CODE, 200, 200);
-            java.awt.image.BufferedImage image = new java.awt.image.BufferedImage(200, 200, java.awt.image.BufferedImage.TYPE_INT_RGB);
-            for (int x = 0; x < 200; x++) {
-                for (int y = 0; y < 200; y++) {
-                    image.setRGB(x, y, matrix.get(x, y) ? 0xFF000000 : 0xFFFFFFFF);
-                }
-            }
-            java.io.ByteArrayOutputStream baos = new java.io.ByteArrayOutputStream();
-            javax.imageio.ImageIO.write(image, "png", baos);
-            return baos.toByteArray();
-        } catch (Exception e) {
-            throw new RuntimeException("Error generando QR", e);
-        }
-    }
-
     @Override
     @Transactional(readOnly = true)
     public CarroComprasDTO verCarrito(Integer idCliente) {
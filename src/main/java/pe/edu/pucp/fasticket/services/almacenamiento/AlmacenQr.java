@@ -0,0 +1,49 @@
+package pe.edu.pucp.fasticket.services.almacenamiento;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Optional;
+
+/**
+ * Almacén de imágenes QR direccionado por contenido.
+ * Patrón Strategy: en producción se guarda en S3; en desarrollo y tests, en el sistema de archivos local.
+ *
+ * <p>La referencia de cada imagen es el SHA-256 de sus bytes, que es lo único que guarda la fila Ticket.
+ * Guardar dos veces la misma imagen produce la misma referencia y no duplica datos.</p>
+ */
+public interface AlmacenQr {
+
+    /**
+     * Guarda la imagen si no existe.
+     *
+     * @return referencia para recuperarla
+     */
+    String guardar(byte[] imagen);
+
+    /**
+     * Imagen asociada a la referencia, si existe en el almacén.
+     */
+    Optional<byte[]> leer(String referencia);
+
+    /**
+     * Referencia (SHA-256 en hexadecimal) que corresponde a los bytes de una imagen.
+     */
+    static String referenciaDe(byte[] imagen) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(imagen));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 no disponible", e);
+        }
+    }
+
+    /**
+     * Ruta relativa de la imagen, repartida en subcarpetas por los dos primeros caracteres del hash.
+     */
+    static String rutaDe(String referencia) {
+        if (!referencia.matches("[0-9a-f]{64}")) {
+            throw new IllegalArgumentException("Referencia de QR inválida: " + referencia);
+        }
+        return referencia.substring(0, 2) + "/" + referencia + ".png";
+    }
+}
@@ -0,0 +1,63 @@
+package pe.edu.pucp.fasticket.services.almacenamiento;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Optional;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+
+/**
+ * Almacén de QR en un directorio local. Pensado para desarrollo y tests, o para
+ * un volumen compartido entre instancias.
+ * Escribe en un archivo temporal y lo mueve de forma atómica, así nunca se lee una imagen a medias.
+ */
+@Service
+@ConditionalOnProperty(name = "fasticket.qr.almacen", havingValue = "archivos", matchIfMissing = true)
+public class ArchivosAlmacenQr implements AlmacenQr {
+
+    private final Path directorio;
+
+    public ArchivosAlmacenQr(@Value("${fasticket.qr.directorio:${java.io.tmpdir}/fasticket-qr}") Path directorio) {
+        this.directorio = directorio;
+    }
+
+    @Override
+    public String guardar(byte[] imagen) {
+        String referencia = AlmacenQr.referenciaDe(imagen);
+        Path destino = directorio.resolve(AlmacenQr.rutaDe(referencia));
+        if (Files.exists(destino)) {
+            return referencia;
+        }
+        try {
+            Files.createDirectories(destino.getParent());
+            Path temporal = Files.createTempFile(destino.getParent(), referencia, ".tmp");
+            Files.write(temporal, imagen);
+            try {
+                Files.move(temporal, destino, StandardCopyOption.ATOMIC_MOVE);
+            } catch (FileAlreadyExistsException e) {
+                Files.deleteIfExists(temporal);
+            }
+            return referencia;
+        } catch (IOException e) {
+            throw new UncheckedIOException("No se pudo guardar el QR " + referencia, e);
+        }
+    }
+
+    @Override
+    public Optional<byte[]> leer(String referencia) {
+        try {
+            return Optional.of(Files.readAllBytes(directorio.resolve(AlmacenQr.rutaDe(referencia))));
+        } catch (NoSuchFileException e) {
+            return Optional.empty();
+        } catch (IOException e) {
+            throw new UncheckedIOException("No se pudo leer el QR " + referencia, e);
+        }
+    }
+}
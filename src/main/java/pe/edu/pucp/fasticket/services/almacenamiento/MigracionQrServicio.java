@@ -0,0 +1,148 @@
+package pe.edu.pucp.fasticket.services.almacenamiento;
+
+import java.sql.Blob;
+import java.sql.DatabaseMetaData;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Mueve al {@link AlmacenQr} las imágenes QR que quedaron en la columna antigua {@code ticket.qr_image}.
+ *
+ * <p>La entidad Ticket ya no mapea esa columna, así que se lee con SQL nativo, en lotes de
+ * {@code fasticket.qr.migracion.lote} filas. Cada lote lee las imágenes, las sube al almacén fuera
+ * de transacción y luego escribe {@code qr_ref} y vacía {@code qr_image}. Las filas que ya tenían
+ * {@code qr_ref} solo se vacían. Si la base no tiene la columna (instalaciones nuevas) o ya no
+ * quedan filas, la tarea no hace nada. La columna se puede eliminar a mano
+ * cuando la migración termine.</p>
+ */
+@Service
+@Slf4j
+public class MigracionQrServicio {
+
+    private static final String TABLA = "ticket";
+    private static final String COLUMNA_ANTIGUA = "qr_image";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transaccion;
+    private final AlmacenQr almacenQr;
+    private final boolean habilitada;
+    private final int lote;
+    private volatile boolean terminada;
+
+    public MigracionQrServicio(JdbcTemplate jdbcTemplate,
+                               PlatformTransactionManager transactionManager,
+                               AlmacenQr almacenQr,
+                               @Value("${fasticket.qr.migracion.habilitada:true}") boolean habilitada,
+                               @Value("${fasticket.qr.migracion.lote:200}") int lote) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transaccion = new TransactionTemplate(transactionManager);
+        this.almacenQr = almacenQr;
+        this.habilitada = habilitada;
+        this.lote = lote;
+    }
+
+    @Scheduled(initialDelayString = "${fasticket.qr.migracion.intervalo-ms:60000}",
+               fixedDelayString = "${fasticket.qr.migracion.intervalo-ms:60000}")
+    public void migrarPendientes() {
+        if (!habilitada || terminada) {
+            return;
+        }
+        if (!existeColumnaAntigua()) {
+            return;
+        }
+        int vaciadas = vaciarConReferencia();
+        int total = 0;
+        int migradas;
+        do {
+            migradas = migrarLote();
+            total += migradas;
+        } while (migradas == lote);
+        if (vaciadas > 0) {
+            log.info("Vaciadas {} imágenes QR de tickets que ya tenían referencia", vaciadas);
+        }
+        if (total == 0) {
+            terminada = true;
+            log.info("Migración de imágenes QR completa");
+        } else {
+            log.info("Migradas {} imágenes QR al almacén", total);
+        }
+    }
+
+    /**
+     * Migra hasta {@code lote} imágenes. Las imágenes se suben al almacén fuera de transacción:
+     * la lectura y la escritura del lote son dos transacciones cortas, sin conexión tomada
+     * mientras se espera al almacén.
+     *
+     * @return cantidad de tickets migrados
+     */
+    public int migrarLote() {
+        // En PostgreSQL los large objects solo se leen dentro de una transacción
+        List<Object[]> filas = transaccion.execute(status -> jdbcTemplate.query(
+                "SELECT id_ticket, qr_image FROM ticket WHERE qr_image IS NOT NULL AND qr_ref IS NULL "
+                        + "ORDER BY id_ticket FETCH FIRST " + lote + " ROWS ONLY",
+                (rs, i) -> new Object[] {rs.getInt(1), leerImagen(rs)}));
+        if (filas == null || filas.isEmpty()) {
+            return 0;
+        }
+        List<Object[]> cambios = new ArrayList<>(filas.size());
+        for (Object[] fila : filas) {
+            cambios.add(new Object[] {almacenQr.guardar((byte[]) fila[1]), fila[0]});
+        }
+        // Si el ticket ya recibió una referencia mientras tanto, se conserva; la imagen se vacía igual
+        transaccion.executeWithoutResult(status -> jdbcTemplate.batchUpdate(
+                "UPDATE ticket SET qr_ref = COALESCE(qr_ref, ?), qr_image = NULL WHERE id_ticket = ?", cambios));
+        return cambios.size();
+    }
+
+    /**
+     * Vacía {@code qr_image} en los tickets que ya tienen referencia: el QR se volvió a renderizar
+     * al pedirlo antes de que la migración llegara a esa fila.
+     *
+     * @return cantidad de filas vaciadas
+     */
+    public int vaciarConReferencia() {
+        return jdbcTemplate.update("UPDATE ticket SET qr_image = NULL WHERE qr_image IS NOT NULL AND qr_ref IS NOT NULL");
+    }
+
+    private boolean existeColumnaAntigua() {
+        Boolean existe = jdbcTemplate.execute((ConnectionCallback<Boolean>) conexion -> {
+            DatabaseMetaData metadatos = conexion.getMetaData();
+            for (String tabla : new String[] {TABLA, TABLA.toUpperCase()}) {
+                for (String columna : new String[] {COLUMNA_ANTIGUA, COLUMNA_ANTIGUA.toUpperCase()}) {
+                    try (ResultSet rs = metadatos.getColumns(null, null, tabla, columna)) {
+                        if (rs.next()) {
+                            return true;
+                        }
+                    }
+                }
+            }
+            return false;
+        });
+        return Boolean.TRUE.equals(existe);
+    }
+
+    /**
+     * En PostgreSQL Hibernate guardaba el @Lob como large object (oid); en otras bases, como BLOB o binario.
+     */
+    private static byte[] leerImagen(ResultSet rs) throws SQLException {
+        int tipo = rs.getMetaData().getColumnType(2);
+        if (tipo == Types.BLOB || tipo == Types.BIGINT) {
+            Blob blob = rs.getBlob(2);
+            return blob.getBytes(1, (int) blob.length());
+        }
+        return rs.getBytes(2);
+    }
+}
@@ -0,0 +1,58 @@
+package pe.edu.pucp.fasticket.services.almacenamiento;
+
+import java.util.Optional;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+
+import software.amazon.awssdk.core.sync.RequestBody;
+import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.model.GetObjectRequest;
+import software.amazon.awssdk.services.s3.model.NoSuchKeyException;
+import software.amazon.awssdk.services.s3.model.PutObjectRequest;
+
+/**
+ * Almacén de QR en el bucket de S3 de la aplicación (mismo cliente que S3ServiceImpl), bajo el prefijo {@code qr/}.
+ * Como la clave es el hash del contenido, volver a subir una imagen solo la reemplaza por bytes idénticos.
+ */
+@Service
+@ConditionalOnProperty(name = "fasticket.qr.almacen", havingValue = "s3")
+public class S3AlmacenQr implements AlmacenQr {
+
+    private static final String PREFIJO = "qr/";
+
+    private final S3Client s3Client;
+    private final String bucketName;
+
+    public S3AlmacenQr(S3Client s3Client, @Value("${aws.s3.bucket-name:test-bucket}") String bucketName) {
+        this.s3Client = s3Client;
+        this.bucketName = bucketName;
+    }
+
+    @Override
+    public String guardar(byte[] imagen) {
+        String referencia = AlmacenQr.referenciaDe(imagen);
+        PutObjectRequest request = PutObjectRequest.builder()
+                .bucket(bucketName)
+                .key(PREFIJO + AlmacenQr.rutaDe(referencia))
+                .contentType("image/png")
+                .cacheControl("public, max-age=31536000, immutable")
+                .build();
+        s3Client.putObject(request, RequestBody.fromBytes(imagen));
+        return referencia;
+    }
+
+    @Override
+    public Optional<byte[]> leer(String referencia) {
+        GetObjectRequest request = GetObjectRequest.builder()
+                .bucket(bucketName)
+                .key(PREFIJO + AlmacenQr.rutaDe(referencia))
+                .build();
+        try {
+            return Optional.of(s3Client.getObjectAsBytes(request).asByteArray());
+        } catch (NoSuchKeyException e) {
+            return Optional.empty();
+        }
+    }
+}
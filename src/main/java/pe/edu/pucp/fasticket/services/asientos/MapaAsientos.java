@@ -0,0 +1,203 @@
+package pe.edu.pucp.fasticket.services.asientos;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Ocupación de los asientos de un tipo de ticket, como un bit por asiento.
+ *
+ * <p>Los asientos se ordenan por fila y número de asiento y se guardan contiguos: cada fila ocupa
+ * un rango de posiciones y un bit encendido en {@code libres} indica un asiento disponible. Buscar
+ * N asientos juntos recorre las palabras de 64 bits de cada fila con {@link BitSet#nextSetBit} y
+ * {@link BitSet#nextClearBit}, sin consultar la base de datos.</p>
+ *
+ * <p>Los tickets sin fila ni asiento (entrada general) forman una sola fila ordenada por ID,
+ * que equivale a entregar los tickets de menor ID.</p>
+ */
+public final class MapaAsientos {
+
+    /**
+     * Un ticket del mapa: su ID, fila y asiento tal como están en la fila Ticket, y si está DISPONIBLE.
+     */
+    public record Asiento(Integer idTicket, String fila, String asiento, boolean libre) { }
+
+    private static final Comparator<String> ORDEN_ETIQUETAS = MapaAsientos::compararEtiquetas;
+
+    private final String[] filas;
+    private final int[] inicioFila;
+    private final int[] idsTicket;
+    private final Map<Integer, Integer> posiciones;
+    private final BitSet libres;
+
+    private MapaAsientos(String[] filas, int[] inicioFila, int[] idsTicket, BitSet libres) {
+        this.filas = filas;
+        this.inicioFila = inicioFila;
+        this.idsTicket = idsTicket;
+        this.libres = libres;
+        this.posiciones = new HashMap<>(idsTicket.length * 2);
+        for (int i = 0; i < idsTicket.length; i++) {
+            posiciones.put(idsTicket[i], i);
+        }
+    }
+
+    public static MapaAsientos construir(Collection<Asiento> asientos) {
+        Comparator<Asiento> porAsiento = Comparator.comparing(
+                (Asiento a) -> a.asiento() == null ? "" : a.asiento(), ORDEN_ETIQUETAS)
+                .thenComparing(Asiento::idTicket);
+        TreeMap<String, List<Asiento>> porFila = new TreeMap<>(ORDEN_ETIQUETAS);
+        for (Asiento asiento : asientos) {
+            porFila.computeIfAbsent(asiento.fila() == null ? "" : asiento.fila(), f -> new ArrayList<>()).add(asiento);
+        }
+        String[] filas = new String[porFila.size()];
+        int[] inicioFila = new int[porFila.size() + 1];
+        int[] idsTicket = new int[asientos.size()];
+        BitSet libres = new BitSet(asientos.size());
+        int fila = 0;
+        int posicion = 0;
+        for (Map.Entry<String, List<Asiento>> entrada : porFila.entrySet()) {
+            filas[fila] = entrada.getKey();
+            inicioFila[fila++] = posicion;
+            List<Asiento> asientosFila = entrada.getValue();
+            asientosFila.sort(porAsiento);
+            for (Asiento asiento : asientosFila) {
+                idsTicket[posicion] = asiento.idTicket();
+                libres.set(posicion, asiento.libre());
+                posicion++;
+            }
+        }
+        inicioFila[fila] = posicion;
+        return new MapaAsientos(filas, inicioFila, idsTicket, libres);
+    }
+
+    /**
+     * Mejores {@code cantidad} asientos libres sin ocuparlos: el bloque contiguo más centrado de la
+     * primera fila que lo tenga; si ninguna fila tiene un bloque así, los primeros libres en orden.
+     *
+     * @return IDs de ticket en orden de fila y asiento; menos de {@code cantidad} si no quedan suficientes
+     */
+    public synchronized List<Integer> buscarMejores(int cantidad) {
+        int inicio = mejorBloque(cantidad);
+        List<Integer> ids = new ArrayList<>(cantidad);
+        if (inicio >= 0) {
+            for (int i = inicio; i < inicio + cantidad; i++) {
+                ids.add(idsTicket[i]);
+            }
+            return ids;
+        }
+        for (int i = libres.nextSetBit(0); i >= 0 && ids.size() < cantidad; i = libres.nextSetBit(i + 1)) {
+            ids.add(idsTicket[i]);
+        }
+        return ids;
+    }
+
+    /**
+     * Busca y ocupa en una sola operación los mejores {@code cantidad} asientos libres.
+     *
+     * @see #buscarMejores(int)
+     */
+    public synchronized List<Integer> reservarMejores(int cantidad) {
+        List<Integer> ids = buscarMejores(cantidad);
+        ocupar(ids);
+        return ids;
+    }
+
+    public synchronized void ocupar(Collection<Integer> ids) {
+        marcar(ids, false);
+    }
+
+    public synchronized void liberar(Collection<Integer> ids) {
+        marcar(ids, true);
+    }
+
+    public synchronized int disponibles() {
+        return libres.cardinality();
+    }
+
+    public int capacidad() {
+        return idsTicket.length;
+    }
+
+    public boolean contiene(Integer idTicket) {
+        return posiciones.containsKey(idTicket);
+    }
+
+    private void marcar(Collection<Integer> ids, boolean libre) {
+        for (Integer id : ids) {
+            Integer posicion = posiciones.get(id);
+            if (posicion != null) {
+                libres.set(posicion, libre);
+            }
+        }
+    }
+
+    // Posición inicial del bloque elegido, o -1 si ninguna fila tiene cantidad asientos libres seguidos
+    private int mejorBloque(int cantidad) {
+        if (cantidad <= 0) {
+            return -1;
+        }
+        for (int fila = 0; fila < filas.length; fila++) {
+            int inicio = inicioFila[fila];
+            int fin = inicioFila[fila + 1];
+            if (fin - inicio < cantidad) {
+                continue;
+            }
+            // Doble del centro de la fila, para comparar sin decimales
+            int centro = inicio + fin - 1;
+            int mejor = -1;
+            int mejorDistancia = Integer.MAX_VALUE;
+            for (int i = libres.nextSetBit(inicio); i >= 0 && i <= fin - cantidad; i = libres.nextSetBit(i)) {
+                int finTramo = Math.min(libres.nextClearBit(i), fin);
+                if (finTramo - i >= cantidad) {
+                    // Dentro del tramo, el bloque cuyo centro queda más cerca del centro de la fila
+                    int deseado = (centro - cantidad + 1) / 2;
+                    int candidato = Math.max(i, Math.min(deseado, finTramo - cantidad));
+                    int distancia = Math.abs(2 * candidato + cantidad - 1 - centro);
+                    if (distancia < mejorDistancia) {
+                        mejor = candidato;
+                        mejorDistancia = distancia;
+                    }
+                }
+                if (finTramo >= fin) {
+                    break;
+                }
+                i = finTramo;
+            }
+            if (mejor >= 0) {
+                return mejor;
+            }
+        }
+        return -1;
+    }
+
+    // Números como números ("2" antes que "10"), el resto alfabético; los números van primero
+    private static int compararEtiquetas(String a, String b) {
+        boolean numeroA = esNumero(a);
+        boolean numeroB = esNumero(b);
+        if (numeroA && numeroB) {
+            int porLongitud = Integer.compare(a.length(), b.length());
+            return porLongitud != 0 ? porLongitud : a.compareTo(b);
+        }
+        if (numeroA != numeroB) {
+            return numeroA ? -1 : 1;
+        }
+        return a.compareTo(b);
+    }
+
+    private static boolean esNumero(String etiqueta) {
+        if (etiqueta.isEmpty() || etiqueta.length() > 9) {
+            return false;
+        }
+        for (int i = 0; i < etiqueta.length(); i++) {
+            if (!Character.isDigit(etiqueta.charAt(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,141 @@
+package pe.edu.pucp.fasticket.services.asientos;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import pe.edu.pucp.fasticket.model.eventos.EstadoTicket;
+import pe.edu.pucp.fasticket.repository.eventos.TicketRepository;
+
+/**
+ * Mapas de asientos en memoria por tipo de ticket, para eventos con tickets PRECREADO.
+ *
+ * <p>Los mapas se construyen al iniciar desde las filas Ticket y se resincronizan cada
+ * {@code fasticket.asientos.resincronizacion-ms}; un tipo de ticket que aún no tiene mapa
+ * se carga al primer uso. La ocupación se guarda en el estado de cada fila Ticket al reclamarla:
+ * el mapa solo decide qué filas reclamar, y el bloqueo con SKIP LOCKED sigue siendo la garantía
+ * contra vender dos veces el mismo asiento.</p>
+ *
+ * <p>Ocupar y liberar se aplican de inmediato y se compensan si la transacción se revierte,
+ * igual que el inventario.</p>
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class MapaAsientosService {
+
+    private final TicketRepository ticketRepository;
+
+    private final Map<Integer, MapaAsientos> mapas = new ConcurrentHashMap<>();
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(initialDelayString = "${fasticket.asientos.resincronizacion-ms:300000}",
+               fixedDelayString = "${fasticket.asientos.resincronizacion-ms:300000}")
+    public void reconstruir() {
+        Map<Integer, List<MapaAsientos.Asiento>> porTipo = new HashMap<>();
+        for (Object[] fila : ticketRepository.findAsientos()) {
+            porTipo.computeIfAbsent((Integer) fila[0], id -> new ArrayList<>()).add(asiento(fila));
+        }
+        Map<Integer, MapaAsientos> nuevos = new HashMap<>();
+        porTipo.forEach((idTipoTicket, asientos) -> nuevos.put(idTipoTicket, MapaAsientos.construir(asientos)));
+        mapas.putAll(nuevos);
+        mapas.keySet().retainAll(nuevos.keySet());
+        log.info("Mapas de asientos reconstruidos para {} tipos de ticket", nuevos.size());
+    }
+
+    /**
+     * Mejores {@code cantidad} asientos libres del tipo de ticket, sin ocuparlos.
+     */
+    public List<Integer> buscarMejores(Integer idTipoTicket, int cantidad) {
+        return mapa(idTipoTicket).buscarMejores(cantidad);
+    }
+
+    /**
+     * Ocupa los mejores {@code cantidad} asientos libres del tipo de ticket.
+     *
+     * @return IDs de los tickets a reclamar; menos de {@code cantidad} si el mapa no tiene suficientes
+     */
+    public List<Integer> reservarMejores(Integer idTipoTicket, int cantidad) {
+        MapaAsientos mapa = mapa(idTipoTicket);
+        List<Integer> ids = mapa.reservarMejores(cantidad);
+        alRevertir(() -> mapa.liberar(ids));
+        return ids;
+    }
+
+    /**
+     * Marca como ocupados tickets reclamados sin pasar por el mapa.
+     */
+    public void ocupar(Integer idTipoTicket, Collection<Integer> idsTicket) {
+        MapaAsientos mapa = mapas.get(idTipoTicket);
+        if (mapa == null || idsTicket.isEmpty()) {
+            return;
+        }
+        List<Integer> ids = List.copyOf(idsTicket);
+        mapa.ocupar(ids);
+        alRevertir(() -> mapa.liberar(ids));
+    }
+
+    /**
+     * Devuelve asientos al mapa. Los tipos de ticket sin mapa (emisión bajo demanda) se ignoran.
+     */
+    public void liberar(Integer idTipoTicket, Collection<Integer> idsTicket) {
+        MapaAsientos mapa = mapas.get(idTipoTicket);
+        if (mapa == null || idsTicket.isEmpty()) {
+            return;
+        }
+        List<Integer> ids = List.copyOf(idsTicket);
+        mapa.liberar(ids);
+        alRevertir(() -> mapa.ocupar(ids));
+    }
+
+    /**
+     * Descarta el mapa del tipo de ticket; se vuelve a cargar al siguiente uso.
+     */
+    public void olvidar(Integer idTipoTicket) {
+        mapas.remove(idTipoTicket);
+    }
+
+    private MapaAsientos mapa(Integer idTipoTicket) {
+        MapaAsientos mapa = mapas.get(idTipoTicket);
+        if (mapa != null) {
+            return mapa;
+        }
+        List<MapaAsientos.Asiento> asientos = ticketRepository.findAsientosByTipoTicket(idTipoTicket).stream()
+                .map(MapaAsientosService::asiento)
+                .toList();
+        MapaAsientos nuevo = MapaAsientos.construir(asientos);
+        MapaAsientos existente = mapas.putIfAbsent(idTipoTicket, nuevo);
+        return existente != null ? existente : nuevo;
+    }
+
+    private static MapaAsientos.Asiento asiento(Object[] fila) {
+        boolean libre = fila[4] == EstadoTicket.DISPONIBLE && !Boolean.FALSE.equals(fila[5]);
+        return new MapaAsientos.Asiento((Integer) fila[1], (String) fila[2], (String) fila[3], libre);
+    }
+
+    private void alRevertir(Runnable compensacion) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status == STATUS_ROLLED_BACK) {
+                    compensacion.run();
+                }
+            }
+        });
+    }
+}
@@ -0,0 +1,116 @@
+package pe.edu.pucp.fasticket.services.busqueda;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Convierte texto en español a los términos del índice de búsqueda.
+ *
+ * <p>Pasa a minúsculas, quita tildes y diéresis ("Música" y "musica" son el mismo término), corta en
+ * todo lo que no sea letra o dígito, descarta palabras vacías y reduce cada palabra con un stemmer
+ * liviano que solo quita la vocal final y las terminaciones de plural: "conciertos", "concierto" y
+ * "concierta" quedan en "conciert". Las consultas pasan por el mismo análisis que los documentos.</p>
+ */
+public final class AnalizadorTexto {
+
+    private static final Set<String> PALABRAS_VACIAS = Set.of(
+            "a", "al", "con", "de", "del", "e", "el", "en", "es", "la", "las", "lo", "los", "o", "para",
+            "por", "que", "se", "su", "sus", "u", "un", "una", "unos", "unas", "y");
+
+    private AnalizadorTexto() {
+    }
+
+    /**
+     * Términos del texto, en orden y con repeticiones; vacío si el texto es null.
+     */
+    public static List<String> terminos(String texto) {
+        List<String> terminos = new ArrayList<>();
+        for (String palabra : palabras(texto)) {
+            if (!PALABRAS_VACIAS.contains(palabra)) {
+                terminos.add(raiz(palabra));
+            }
+        }
+        return terminos;
+    }
+
+    /**
+     * Términos de una consulta que se está escribiendo: la última palabra se conserva aunque sea
+     * una palabra vacía ("de" puede ser el inicio de "deporte").
+     */
+    public static List<String> terminosParciales(String texto) {
+        List<String> palabras = palabras(texto);
+        List<String> terminos = new ArrayList<>();
+        for (int i = 0; i < palabras.size(); i++) {
+            String palabra = palabras.get(i);
+            if (i == palabras.size() - 1 || !PALABRAS_VACIAS.contains(palabra)) {
+                terminos.add(raiz(palabra));
+            }
+        }
+        return terminos;
+    }
+
+    static List<String> palabras(String texto) {
+        if (texto == null || texto.isBlank()) {
+            return List.of();
+        }
+        List<String> palabras = new ArrayList<>();
+        StringBuilder palabra = new StringBuilder();
+        for (int i = 0; i < texto.length(); i++) {
+            char c = texto.charAt(i);
+            if (c < 128) {
+                if (Character.isLetterOrDigit(c)) {
+                    palabra.append(Character.toLowerCase(c));
+                    continue;
+                }
+            } else if (Character.isLetterOrDigit(c)) {
+                // Solo los caracteres no ASCII pasan por la descomposición para quitar la tilde
+                for (char base : Normalizer.normalize(String.valueOf(c), Normalizer.Form.NFD).toCharArray()) {
+                    if (Character.getType(base) != Character.NON_SPACING_MARK) {
+                        palabra.append(Character.toLowerCase(base));
+                    }
+                }
+                continue;
+            } else if (Character.getType(c) == Character.NON_SPACING_MARK) {
+                continue;
+            }
+            if (!palabra.isEmpty()) {
+                palabras.add(palabra.toString());
+                palabra.setLength(0);
+            }
+        }
+        if (!palabra.isEmpty()) {
+            palabras.add(palabra.toString());
+        }
+        return palabras;
+    }
+
+    /**
+     * Stemmer liviano para español: palabras de menos de 5 letras quedan igual; si no, quita la
+     * vocal final (a, e, o) o el plural (-as, -es, -os, -eses → -es, -ces → -z).
+     */
+    static String raiz(String palabra) {
+        int n = palabra.length();
+        if (n < 5) {
+            return palabra;
+        }
+        char ultima = palabra.charAt(n - 1);
+        if (ultima == 'a' || ultima == 'e' || ultima == 'o') {
+            return palabra.substring(0, n - 1);
+        }
+        if (ultima == 's') {
+            if (palabra.endsWith("eses")) {
+                return palabra.substring(0, n - 2);
+            }
+            if (palabra.endsWith("ces")) {
+                return palabra.substring(0, n - 3) + "z";
+            }
+            char penultima = palabra.charAt(n - 2);
+            if (penultima == 'a' || penultima == 'e' || penultima == 'o') {
+                return palabra.substring(0, n - 2);
+            }
+        }
+        return palabra;
+    }
+}
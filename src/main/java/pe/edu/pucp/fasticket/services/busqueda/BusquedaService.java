@@ -0,0 +1,189 @@
+package pe.edu.pucp.fasticket.services.busqueda;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import lombok.extern.slf4j.Slf4j;
+import pe.edu.pucp.fasticket.dto.eventos.ResultadoBusquedaDTO;
+import pe.edu.pucp.fasticket.dto.eventos.ResultadosBusquedaDTO;
+import pe.edu.pucp.fasticket.events.TextoCatalogoModificadoEvent;
+import pe.edu.pucp.fasticket.repository.eventos.EventoTexto;
+import pe.edu.pucp.fasticket.repository.eventos.EventosRepositorio;
+import pe.edu.pucp.fasticket.repository.eventos.LocalTexto;
+import pe.edu.pucp.fasticket.repository.eventos.LocalesRepositorio;
+
+/**
+ * Búsqueda de texto sobre eventos y locales activos con un {@link IndiceInvertido} por tipo.
+ *
+ * <p>Los índices se construyen al iniciar y cada {@code fasticket.busqueda.recarga-ms}, para recoger
+ * cambios hechos desde otras instancias; la reconstrucción arma índices nuevos y los reemplaza sin
+ * bloquear las consultas. Los cambios hechos en esta instancia se aplican tras el commit de cada
+ * {@link TextoCatalogoModificadoEvent}, volviendo a indexar solo ese documento; los que llegan
+ * durante una reconstrucción se repiten sobre los índices nuevos. El nombre del local que se
+ * muestra en los resultados de eventos se actualiza con la siguiente reconstrucción.</p>
+ *
+ * <p>Publica los timers {@code fasticket.busqueda.construccion} (etiqueta {@code indice}) y
+ * {@code fasticket.busqueda.consultas} (etiqueta {@code modo}: buscar o sugerir), y el gauge
+ * {@code fasticket.busqueda.documentos} por índice.</p>
+ */
+@Service
+@Slf4j
+public class BusquedaService {
+
+    static final String METRICA_CONSTRUCCION = "fasticket.busqueda.construccion";
+    static final String METRICA_CONSULTAS = "fasticket.busqueda.consultas";
+    static final String METRICA_DOCUMENTOS = "fasticket.busqueda.documentos";
+
+    public static final int LIMITE_POR_DEFECTO = 10;
+    public static final int LIMITE_MAXIMO = 50;
+
+    private static final float PESO_NOMBRE = 3f;
+    private static final float PESO_DESCRIPCION = 1f;
+    private static final float PESO_SECUNDARIO = 0.5f;
+
+    /**
+     * Lo que se guarda con cada documento para armar el resultado sin consultar la base de datos.
+     */
+    private record Ficha(String nombre, String detalle, LocalDate fecha) { }
+
+    private final EventosRepositorio eventosRepositorio;
+    private final LocalesRepositorio localesRepositorio;
+    private final MeterRegistry meterRegistry;
+
+    private volatile IndiceInvertido<Ficha> eventos = new IndiceInvertido<>();
+    private volatile IndiceInvertido<Ficha> locales = new IndiceInvertido<>();
+    private final List<TextoCatalogoModificadoEvent> pendientes = new ArrayList<>();
+    private boolean reconstruyendo;
+
+    public BusquedaService(EventosRepositorio eventosRepositorio,
+                           LocalesRepositorio localesRepositorio,
+                           MeterRegistry meterRegistry) {
+        this.eventosRepositorio = eventosRepositorio;
+        this.localesRepositorio = localesRepositorio;
+        this.meterRegistry = meterRegistry;
+        meterRegistry.gauge(METRICA_DOCUMENTOS, Tags.of("indice", "eventos"), this, s -> s.eventos.tamano());
+        meterRegistry.gauge(METRICA_DOCUMENTOS, Tags.of("indice", "locales"), this, s -> s.locales.tamano());
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(initialDelayString = "${fasticket.busqueda.recarga-ms:600000}",
+               fixedDelayString = "${fasticket.busqueda.recarga-ms:600000}")
+    @Transactional(readOnly = true)
+    public void reconstruir() {
+        synchronized (this) {
+            reconstruyendo = true;
+        }
+        List<TextoCatalogoModificadoEvent> repetir;
+        try {
+            IndiceInvertido<Ficha> nuevosEventos = new IndiceInvertido<>();
+            long inicio = System.nanoTime();
+            eventosRepositorio.findTextos().forEach(evento -> indexar(nuevosEventos, evento));
+            meterRegistry.timer(METRICA_CONSTRUCCION, "indice", "eventos").record(System.nanoTime() - inicio, TimeUnit.NANOSECONDS);
+
+            IndiceInvertido<Ficha> nuevosLocales = new IndiceInvertido<>();
+            inicio = System.nanoTime();
+            localesRepositorio.findTextos().forEach(local -> indexar(nuevosLocales, local));
+            meterRegistry.timer(METRICA_CONSTRUCCION, "indice", "locales").record(System.nanoTime() - inicio, TimeUnit.NANOSECONDS);
+
+            eventos = nuevosEventos;
+            locales = nuevosLocales;
+            log.info("Índice de búsqueda reconstruido con {} eventos y {} locales", nuevosEventos.tamano(), nuevosLocales.tamano());
+        } finally {
+            synchronized (this) {
+                reconstruyendo = false;
+                repetir = List.copyOf(pendientes);
+                pendientes.clear();
+            }
+        }
+        repetir.forEach(this::reindexar);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    @Transactional(propagation = Propagation.REQUIRES_NEW, readOnly = true)
+    public void alModificarTexto(TextoCatalogoModificadoEvent evento) {
+        synchronized (this) {
+            if (reconstruyendo) {
+                pendientes.add(evento);
+            }
+        }
+        reindexar(evento);
+    }
+
+    /**
+     * Eventos y locales que contienen todas las palabras de la consulta, los más relevantes primero.
+     *
+     * @throws IllegalArgumentException si la consulta no tiene palabras o el límite está fuera de rango
+     */
+    public ResultadosBusquedaDTO buscar(String consulta, Integer limite) {
+        return consultar("buscar", consulta, false, limite);
+    }
+
+    /**
+     * Autocompletado: como {@link #buscar}, pero la última palabra puede estar a medio escribir.
+     */
+    public ResultadosBusquedaDTO sugerir(String consulta, Integer limite) {
+        return consultar("sugerir", consulta, true, limite);
+    }
+
+    private ResultadosBusquedaDTO consultar(String modo, String consulta, boolean prefijo, Integer limite) {
+        if (AnalizadorTexto.palabras(consulta).isEmpty()) {
+            throw new IllegalArgumentException("La consulta de búsqueda no puede estar vacía");
+        }
+        int tamano = limite == null ? LIMITE_POR_DEFECTO : limite;
+        if (tamano < 1 || tamano > LIMITE_MAXIMO) {
+            throw new IllegalArgumentException("El límite debe estar entre 1 y " + LIMITE_MAXIMO);
+        }
+        return meterRegistry.timer(METRICA_CONSULTAS, "modo", modo).record(() -> ResultadosBusquedaDTO.builder()
+                .eventos(resultados(eventos.buscar(consulta, prefijo, tamano)))
+                .locales(resultados(locales.buscar(consulta, prefijo, tamano)))
+                .build());
+    }
+
+    private void reindexar(TextoCatalogoModificadoEvent evento) {
+        Integer id = evento.getId();
+        switch (evento.getDocumento()) {
+            case EVENTO -> eventosRepositorio.findTextoById(id)
+                    .ifPresentOrElse(texto -> indexar(eventos, texto), () -> eventos.quitar(id));
+            case LOCAL -> localesRepositorio.findTextoById(id)
+                    .ifPresentOrElse(texto -> indexar(locales, texto), () -> locales.quitar(id));
+        }
+    }
+
+    private static void indexar(IndiceInvertido<Ficha> indice, EventoTexto evento) {
+        indice.indexar(evento.idEvento(), new Ficha(evento.nombre(), evento.nombreLocal(), evento.fechaEvento()), List.of(
+                new IndiceInvertido.Campo(evento.nombre(), PESO_NOMBRE),
+                new IndiceInvertido.Campo(evento.descripcion(), PESO_DESCRIPCION),
+                new IndiceInvertido.Campo(evento.restricciones(), PESO_SECUNDARIO)));
+    }
+
+    private static void indexar(IndiceInvertido<Ficha> indice, LocalTexto local) {
+        indice.indexar(local.idLocal(), new Ficha(local.nombre(), local.nombreDistrito(), null), List.of(
+                new IndiceInvertido.Campo(local.nombre(), PESO_NOMBRE),
+                new IndiceInvertido.Campo(local.direccion(), PESO_DESCRIPCION),
+                new IndiceInvertido.Campo(local.nombreDistrito(), PESO_SECUNDARIO)));
+    }
+
+    private static List<ResultadoBusquedaDTO> resultados(List<IndiceInvertido.Resultado<Ficha>> encontrados) {
+        return encontrados.stream()
+                .map(r -> ResultadoBusquedaDTO.builder()
+                        .id(r.id())
+                        .nombre(r.datos().nombre())
+                        .detalle(r.datos().detalle())
+                        .fecha(r.datos().fecha())
+                        .puntaje(Math.round(r.puntaje() * 100) / 100.0)
+                        .build())
+                .toList();
+    }
+}
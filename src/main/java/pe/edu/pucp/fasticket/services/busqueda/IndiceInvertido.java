@@ -0,0 +1,289 @@
+package pe.edu.pucp.fasticket.services.busqueda;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Índice invertido en memoria: para cada término, los documentos que lo contienen y su frecuencia.
+ *
+ * <p>Cada documento tiene campos con peso (el nombre pesa más que la descripción) y los resultados
+ * se ordenan por BM25. Los términos viven en un {@link TreeMap}, así que los que empiezan con un
+ * prefijo son un rango contiguo: eso sirve el autocompletado sin recorrer el vocabulario. La lista
+ * de cada término son dos arreglos paralelos ordenados por ID de documento, sin objetos por entrada;
+ * la intersección recorre la lista más corta y avanza en las demás por saltos, sin retroceder.</p>
+ *
+ * <p>Es seguro entre hilos: las consultas toman el candado de lectura y solo agregar o quitar
+ * documentos toma el de escritura.</p>
+ */
+public final class IndiceInvertido<T> {
+
+    /**
+     * Un campo de texto del documento con su peso en el puntaje.
+     */
+    public record Campo(String texto, float peso) { }
+
+    /**
+     * Un documento encontrado: su ID, los datos que se guardaron con él y su puntaje.
+     */
+    public record Resultado<T>(int id, T datos, double puntaje) { }
+
+    private static final double K1 = 1.2;
+    private static final double B = 0.75;
+    private static final int MAX_EXPANSION_PREFIJO = 200;
+
+    private record Documento<T>(T datos, String[] terminos, float longitud) { }
+
+    /**
+     * Documentos de un término, ordenados por ID, con la frecuencia ponderada de cada uno.
+     */
+    private static final class Lista {
+        private int[] ids = new int[4];
+        private float[] frecuencias = new float[4];
+        private int tamano;
+
+        int posicion(int id) {
+            return Arrays.binarySearch(ids, 0, tamano, id);
+        }
+
+        /**
+         * Posición de {@code id} buscando desde {@code desde} con saltos exponenciales, para recorrer la
+         * lista en orden creciente de ID; si no está, la posición donde iría codificada como en
+         * {@link Arrays#binarySearch}.
+         */
+        int avanzar(int desde, int id) {
+            int salto = 1;
+            int hasta = desde;
+            while (hasta < tamano && ids[hasta] < id) {
+                desde = hasta + 1;
+                hasta += salto;
+                salto <<= 1;
+            }
+            return Arrays.binarySearch(ids, desde, Math.min(hasta + 1, tamano), id);
+        }
+
+        void poner(int id, float frecuencia) {
+            // La reconstrucción recorre los documentos por ID: casi siempre se agrega al final
+            int posicion = tamano == 0 || ids[tamano - 1] < id ? -(tamano + 1) : posicion(id);
+            if (posicion >= 0) {
+                frecuencias[posicion] = frecuencia;
+                return;
+            }
+            posicion = -(posicion + 1);
+            if (tamano == ids.length) {
+                ids = Arrays.copyOf(ids, tamano * 2);
+                frecuencias = Arrays.copyOf(frecuencias, tamano * 2);
+            }
+            System.arraycopy(ids, posicion, ids, posicion + 1, tamano - posicion);
+            System.arraycopy(frecuencias, posicion, frecuencias, posicion + 1, tamano - posicion);
+            ids[posicion] = id;
+            frecuencias[posicion] = frecuencia;
+            tamano++;
+        }
+
+        void quitar(int id) {
+            int posicion = posicion(id);
+            if (posicion >= 0) {
+                System.arraycopy(ids, posicion + 1, ids, posicion, tamano - posicion - 1);
+                System.arraycopy(frecuencias, posicion + 1, frecuencias, posicion, tamano - posicion - 1);
+                tamano--;
+            }
+        }
+    }
+
+    private final NavigableMap<String, Lista> terminos = new TreeMap<>();
+    private final Map<Integer, Documento<T>> documentos = new HashMap<>();
+    private final ReadWriteLock candado = new ReentrantReadWriteLock();
+    private double longitudTotal;
+
+    /**
+     * Agrega el documento o reemplaza el que tenía el mismo ID.
+     *
+     * @param datos Lo que devuelve la búsqueda para este documento
+     */
+    public void indexar(int id, T datos, List<Campo> campos) {
+        Map<String, Float> frecuencias = new HashMap<>();
+        float longitud = 0;
+        for (Campo campo : campos) {
+            for (String termino : AnalizadorTexto.terminos(campo.texto())) {
+                frecuencias.merge(termino, campo.peso(), Float::sum);
+                longitud += campo.peso();
+            }
+        }
+        Documento<T> documento = new Documento<>(datos, frecuencias.keySet().toArray(String[]::new), longitud);
+
+        candado.writeLock().lock();
+        try {
+            quitarSinCandado(id);
+            documentos.put(id, documento);
+            longitudTotal += longitud;
+            frecuencias.forEach((termino, frecuencia) ->
+                    terminos.computeIfAbsent(termino, t -> new Lista()).poner(id, frecuencia));
+        } finally {
+            candado.writeLock().unlock();
+        }
+    }
+
+    public void quitar(int id) {
+        candado.writeLock().lock();
+        try {
+            quitarSinCandado(id);
+        } finally {
+            candado.writeLock().unlock();
+        }
+    }
+
+    public int tamano() {
+        candado.readLock().lock();
+        try {
+            return documentos.size();
+        } finally {
+            candado.readLock().unlock();
+        }
+    }
+
+    /**
+     * Documentos que contienen todos los términos de la consulta, los de mayor puntaje primero.
+     *
+     * @param ultimoComoPrefijo Si la última palabra de la consulta puede ser el inicio de un término
+     *                          (autocompletado) en vez de un término completo
+     */
+    public List<Resultado<T>> buscar(String consulta, boolean ultimoComoPrefijo, int limite) {
+        List<String> palabras = ultimoComoPrefijo
+                ? AnalizadorTexto.terminosParciales(consulta)
+                : AnalizadorTexto.terminos(consulta);
+        if (palabras.isEmpty() || limite <= 0) {
+            return List.of();
+        }
+
+        candado.readLock().lock();
+        try {
+            // Por cada palabra, los términos que la satisfacen
+            List<List<Lista>> grupos = new ArrayList<>();
+            for (int i = 0; i < palabras.size(); i++) {
+                boolean prefijo = ultimoComoPrefijo && i == palabras.size() - 1;
+                List<Lista> grupo = prefijo ? conPrefijo(palabras.get(i)) : exacto(palabras.get(i));
+                if (grupo.isEmpty()) {
+                    return List.of();
+                }
+                grupos.add(grupo);
+            }
+            return mejores(grupos, limite);
+        } finally {
+            candado.readLock().unlock();
+        }
+    }
+
+    private List<Lista> exacto(String termino) {
+        Lista lista = terminos.get(termino);
+        return lista == null ? List.of() : List.of(lista);
+    }
+
+    private List<Lista> conPrefijo(String prefijo) {
+        List<Lista> listas = new ArrayList<>();
+        for (Lista lista : terminos.subMap(prefijo, true, prefijo + Character.MAX_VALUE, false).values()) {
+            listas.add(lista);
+            if (listas.size() == MAX_EXPANSION_PREFIJO) {
+                break;
+            }
+        }
+        return listas;
+    }
+
+    private List<Resultado<T>> mejores(List<List<Lista>> grupos, int limite) {
+        int total = documentos.size();
+        double longitudMedia = total == 0 ? 1 : longitudTotal / total;
+
+        // Se recorren los candidatos del grupo con menos documentos y se descartan los que faltan en otro
+        grupos.sort(Comparator.comparingInt(IndiceInvertido::documentosDelGrupo));
+        double[][] idf = new double[grupos.size()][];
+        for (int g = 0; g < grupos.size(); g++) {
+            List<Lista> grupo = grupos.get(g);
+            idf[g] = new double[grupo.size()];
+            for (int l = 0; l < grupo.size(); l++) {
+                int conTermino = grupo.get(l).tamano;
+                idf[g][l] = Math.log(1 + (total - conTermino + 0.5) / (conTermino + 0.5));
+            }
+        }
+
+        PriorityQueue<Resultado<T>> mejores = new PriorityQueue<>(Comparator.comparingDouble(Resultado::puntaje));
+        // Un documento puede estar en varias listas del grupo si la palabra es un prefijo
+        Set<Integer> vistos = grupos.get(0).size() > 1 ? new HashSet<>() : null;
+        // Los candidatos de cada lista van en orden de ID, así que en las demás listas se avanza sin retroceder
+        int[][] cursores = new int[grupos.size()][];
+        for (Lista lista : grupos.get(0)) {
+            for (int g = 0; g < grupos.size(); g++) {
+                cursores[g] = new int[grupos.get(g).size()];
+            }
+            for (int i = 0; i < lista.tamano; i++) {
+                int id = lista.ids[i];
+                if (vistos != null && !vistos.add(id)) {
+                    continue;
+                }
+                Documento<T> documento = null;
+                double normalizacion = 0;
+                double puntaje = 0;
+                for (int g = 0; g < grupos.size() && puntaje >= 0; g++) {
+                    List<Lista> grupo = grupos.get(g);
+                    double mejorDelGrupo = 0;
+                    for (int l = 0; l < grupo.size(); l++) {
+                        Lista candidata = grupo.get(l);
+                        int posicion = candidata == lista ? i : candidata.avanzar(cursores[g][l], id);
+                        cursores[g][l] = posicion < 0 ? -(posicion + 1) : posicion;
+                        if (posicion < 0) {
+                            continue;
+                        }
+                        if (documento == null) {
+                            documento = documentos.get(id);
+                            normalizacion = K1 * (1 - B + B * documento.longitud() / longitudMedia);
+                        }
+                        float frecuencia = candidata.frecuencias[posicion];
+                        mejorDelGrupo = Math.max(mejorDelGrupo,
+                                idf[g][l] * frecuencia * (K1 + 1) / (frecuencia + normalizacion));
+                    }
+                    puntaje = mejorDelGrupo == 0 ? -1 : puntaje + mejorDelGrupo;
+                }
+                if (puntaje < 0 || (mejores.size() == limite && puntaje <= mejores.peek().puntaje())) {
+                    continue;
+                }
+                mejores.add(new Resultado<>(id, documento.datos(), puntaje));
+                if (mejores.size() > limite) {
+                    mejores.poll();
+                }
+            }
+        }
+        List<Resultado<T>> resultado = new ArrayList<>(mejores);
+        resultado.sort(Comparator.comparingDouble((Resultado<T> r) -> r.puntaje()).reversed()
+                .thenComparingInt(Resultado::id));
+        return resultado;
+    }
+
+    private static int documentosDelGrupo(List<Lista> grupo) {
+        return grupo.stream().mapToInt(lista -> lista.tamano).sum();
+    }
+
+    private void quitarSinCandado(int id) {
+        Documento<T> anterior = documentos.remove(id);
+        if (anterior == null) {
+            return;
+        }
+        longitudTotal -= anterior.longitud();
+        for (String termino : anterior.terminos()) {
+            Lista lista = terminos.get(termino);
+            lista.quitar(id);
+            if (lista.tamano == 0) {
+                terminos.remove(termino);
+            }
+        }
+    }
+}
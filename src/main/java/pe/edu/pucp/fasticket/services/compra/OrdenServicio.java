@@ -1,15 +1,14 @@
 package pe.edu.pucp.fasticket.services.compra;
 
+import java.time.Duration;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.stream.Collectors;
 
 import org.springframework.context.ApplicationEventPublisher;
-import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -35,45 +34,74 @@ import pe.edu.pucp.fasticket.repository.compra.CarroComprasRepository;
 import pe.edu.pucp.fasticket.repository.compra.ItemCarritoRepository;
 import pe.edu.pucp.fasticket.repository.compra.OrdenCompraRepositorio;
 import pe.edu.pucp.fasticket.repository.eventos.TicketRepository;
-import pe.edu.pucp.fasticket.repository.eventos.TipoTicketRepositorio;
 import pe.edu.pucp.fasticket.repository.usuario.ClienteRepository;
+import pe.edu.pucp.fasticket.services.concurrencia.ReintentarConflicto;
+import pe.edu.pucp.fasticket.services.eventos.EntradaCatalogo;
+import pe.edu.pucp.fasticket.services.eventos.IndiceCatalogo;
+import pe.edu.pucp.fasticket.services.expiracion.ExpiracionReservas;
 import pe.edu.pucp.fasticket.services.fidelizacion.FidelizacionService;
+import pe.edu.pucp.fasticket.services.inventario.InventarioService;
+import pe.edu.pucp.fasticket.services.inventario.LimiteCompraService;
+import pe.edu.pucp.fasticket.services.reservas.ReservaAsientosService;
+import pe.edu.pucp.fasticket.services.tickets.EmisionTicketService;
+import pe.edu.pucp.fasticket.services.tickets.QrTicketService;
 import pe.edu.pucp.fasticket.model.fidelizacion.TipoMembresia;
 
 @Service
 @Slf4j
 public class OrdenServicio {
 
+    private static final int TIEMPO_RESERVA_MINUTOS = 15;
+
     private final OrdenCompraRepositorio ordenCompraRepositorio;
-    private final TipoTicketRepositorio tipoTicketRepositorio;
     private final ClienteRepository clienteRepository;
     private final TicketRepository ticketRepository;
     private final ApplicationEventPublisher eventPublisher;
     private final ItemCarritoRepository itemCarritoRepositorio;
     private final CarroComprasRepository carroComprasRepository;
     private final FidelizacionService fidelizacionService;
+    private final InventarioService inventarioService;
+    private final ReservaAsientosService reservaAsientosService;
+    private final EmisionTicketService emisionTicketService;
+    private final QrTicketService qrTicketService;
+    private final ExpiracionReservas expiracionReservas;
+    private final IndiceCatalogo indiceCatalogo;
+    private final LimiteCompraService limiteCompraService;
 
     public OrdenServicio(
             OrdenCompraRepositorio ordenCompraRepositorio,
-            TipoTicketRepositorio tipoTicketRepositorio,
             ClienteRepository clienteRepository,
             TicketRepository ticketRepository,
             ApplicationEventPublisher eventPublisher,
             ItemCarritoRepository itemCarritoRepositorio,
             CarroComprasRepository carroComprasRepository,
-            FidelizacionService fidelizacionService
+            FidelizacionService fidelizacionService,
+            InventarioService inventarioService,
+            ReservaAsientosService reservaAsientosService,
+            EmisionTicketService emisionTicketService,
+            QrTicketService qrTicketService,
+            ExpiracionReservas expiracionReservas,
+            IndiceCatalogo indiceCatalogo,
+            LimiteCompraService limiteCompraService
     ) {
         this.ordenCompraRepositorio = ordenCompraRepositorio;
-        this.tipoTicketRepositorio = tipoTicketRepositorio;
         this.clienteRepository = clienteRepository;
         this.ticketRepository = ticketRepository;
         this.eventPublisher = eventPublisher;
         this.itemCarritoRepositorio = itemCarritoRepositorio;
         this.carroComprasRepository = carroComprasRepository;
         this.fidelizacionService = fidelizacionService;
+        this.inventarioService = inventarioService;
+        this.reservaAsientosService = reservaAsientosService;
+        this.emisionTicketService = emisionTicketService;
+        this.qrTicketService = qrTicketService;
+        this.expiracionReservas = expiracionReservas;
+        this.indiceCatalogo = indiceCatalogo;
+        this.limiteCompraService = limiteCompraService;
     }
 
     @Transactional
+    @ReintentarConflicto
     public OrdenCompra crearOrden(CrearOrdenDTO datosOrden) {
         Cliente cliente = clienteRepository.findById(datosOrden.getIdCliente())
                 .orElseThrow(() -> new ResourceNotFoundException(
@@ -84,7 +112,7 @@ public class OrdenServicio {
         orden.setCliente(cliente);
         orden.setFechaOrden(LocalDate.now());
         orden.setEstado(EstadoCompra.PENDIENTE);
-        orden.setFechaExpiracion(LocalDateTime.now().plusMinutes(15));
+        orden.setFechaExpiracion(LocalDateTime.now().plusMinutes(TIEMPO_RESERVA_MINUTOS));
         for (ItemCarrito item : items) {
             item.setOrdenCompra(orden);
             for (Ticket ticket : item.getTickets()) {
@@ -99,18 +127,10 @@ public class OrdenServicio {
         // Calcular descuento por membresía
         calcularDescuentoPorMembresia(orden, cliente);
         
+        // Items y tickets se guardan en cascada; los INSERT/UPDATE se agrupan en lotes JDBC al hacer flush
         OrdenCompra ordenGuardada = ordenCompraRepositorio.save(orden);
         
-        // Guardar explícitamente todos los tickets
-        for (ItemCarrito item : ordenGuardada.getItems()) {
-            for (Ticket ticket : item.getTickets()) {
-                ticketRepository.save(ticket);
-            }
-        }
-        
-        // Actualizar el historial de compras del cliente
-        cliente.getOrdenesCompra().add(ordenGuardada);
-        clienteRepository.save(cliente);
+        expiracionReservas.programarOrden(ordenGuardada.getIdOrdenCompra(), ordenGuardada.getFechaExpiracion());
         
         return ordenGuardada;
     }
@@ -166,29 +186,30 @@ public class OrdenServicio {
 
         for (ItemSeleccionadoDTO itemDTO : itemsDTO) {
             validarItemYAsistentes(itemDTO);
-            TipoTicket tipoTicket = tipoTicketRepositorio.findById(itemDTO.getIdTipoTicket())
+            EntradaCatalogo entrada = indiceCatalogo.buscar(itemDTO.getIdTipoTicket())
                     .orElseThrow(() -> new ResourceNotFoundException("Tipo de ticket no encontrado con ID: " + itemDTO.getIdTipoTicket()));
+            TipoTicket tipoTicket = indiceCatalogo.tipoTicket(entrada.idTipoTicket());
             Integer edadCliente = cliente.calcularEdad();
-            // Necesitamos encontrar el evento asociado a este tipo de ticket
-            // Como TipoTicket no tiene relación directa con Evento, necesitamos buscarlo
-            Evento evento = tipoTicketRepositorio.findEventoByTipoTicket(tipoTicket.getIdTipoTicket())
-                    .orElseThrow(() -> new ResourceNotFoundException("Evento no encontrado para el tipo de ticket"));
-            Integer edadMinima = evento.getEdadMinima();
+            Evento evento = indiceCatalogo.evento(entrada.idEvento());
+            Integer edadMinima = entrada.edadMinima();
             if (edadMinima != null && edadMinima > 0 && edadCliente != null && edadCliente < edadMinima) {
                 throw new IllegalArgumentException("El evento '%s' requiere edad mínima...");
             }
             
             // Validar límite por persona
-            validarLimitePorPersona(tipoTicket, itemDTO.getCantidad(), cliente);
-            List<Ticket> ticketsDisponibles = ticketRepository.findAvailableTicketsByTypeAndState(
-                    tipoTicket, EstadoTicket.DISPONIBLE, PageRequest.of(0, itemDTO.getCantidad())
-            );
+            limiteCompraService.reservar(entrada, cliente.getIdPersona(), itemDTO.getCantidad());
+            if (!inventarioService.intentarReservar(tipoTicket, itemDTO.getCantidad(), entrada.emisionBajoDemanda())) {
+                throw new RuntimeException("No hay suficientes tickets disponibles para " + entrada.nombreTipoTicket());
+            }
+            List<Ticket> ticketsDisponibles = emisionTicketService.obtenerParaReserva(tipoTicket, evento,
+                    entrada.emisionBajoDemanda(), itemDTO.getCantidad(), cliente.getIdPersona(),
+                    Duration.ofMinutes(TIEMPO_RESERVA_MINUTOS));
             if (ticketsDisponibles.size() < itemDTO.getCantidad()) {
-                throw new RuntimeException("No hay suficientes tickets disponibles para " + tipoTicket.getNombre());
+                throw new RuntimeException("No hay suficientes tickets disponibles para " + entrada.nombreTipoTicket());
             }
             ItemCarrito item = new ItemCarrito();
             item.setCantidad(itemDTO.getCantidad());
-            item.setPrecio(tipoTicket.getPrecio());
+            item.setPrecio(entrada.precio());
             item.setDescuento(0.0);
             item.setActivo(true);
             item.setFechaAgregado(LocalDate.now());
@@ -211,14 +232,12 @@ public class OrdenServicio {
                 ticket.setApellidoAsistente(asistente.getApellidos());
                 String codigoQr = generarCodigoQrUnico();
                 ticket.setCodigoQr(codigoQr);
-                ticket.setQrImage(generarQrComoBytes(codigoQr));
+                ticket.setQrRef(null); // Se renderiza después del commit
                 tickets.add(ticket);
             }
+            qrTicketService.programarRenderizado(tickets);
             item.setTickets(tickets);
             items.add(item);
-            int cantidadReservada = itemDTO.getCantidad();
-            tipoTicket.setCantidadDisponible(tipoTicket.getCantidadDisponible() - cantidadReservada);
-            tipoTicket.setCantidadVendida(tipoTicket.getCantidadVendida() + cantidadReservada);
         }
         return items;
     }
@@ -229,12 +248,12 @@ public class OrdenServicio {
         double subtotal = 0.0;
 
         for (ItemSeleccionadoDTO item : datosOrden.getItems()) {
-            TipoTicket tipoTicket = tipoTicketRepositorio.findById(item.getIdTipoTicket()).orElseThrow(() -> new RuntimeException("Tipo de ticket no encontrado con id: " + item.getIdTipoTicket()));
+            EntradaCatalogo entrada = indiceCatalogo.obtener(item.getIdTipoTicket());
             ItemResumenDTO itemResumen = new ItemResumenDTO();
-            itemResumen.setNombreTipoTicket(tipoTicket.getNombre());
+            itemResumen.setNombreTipoTicket(entrada.nombreTipoTicket());
             itemResumen.setCantidad(item.getCantidad());
-            itemResumen.setPrecioUnitario(tipoTicket.getPrecio());
-            subtotal += tipoTicket.getPrecio() * item.getCantidad();
+            itemResumen.setPrecioUnitario(entrada.precio());
+            subtotal += entrada.precio() * item.getCantidad();
             resumenItems.add(itemResumen);
         }
         OrdenResumenDTO resumen = new OrdenResumenDTO();
@@ -246,32 +265,23 @@ public class OrdenServicio {
     }
 
     @Transactional
+    @ReintentarConflicto
     public void confirmarPagoOrden(Integer idOrden) {
         OrdenCompra orden = ordenCompraRepositorio.findById(idOrden)
                 .orElseThrow(() -> new RuntimeException("Orden no encontrada"));
 
         orden.setEstado(EstadoCompra.APROBADO);
-        Map<Evento, Integer> cantidadPorEvento = new HashMap<>();
 
+        // El aforo de los eventos ya se descontó al reservar; la venta solo queda en el diario de inventario
         for (ItemCarrito item : orden.getItems()) {
             for (Ticket ticket : item.getTickets()) {
                 ticket.setEstado(EstadoTicket.VENDIDA);
             }
-            // Obtener evento relacionado
-            Evento evento = tipoTicketRepositorio.findEventoByTipoTicket(item.getTipoTicket().getIdTipoTicket())
-                    .orElseThrow(() -> new ResourceNotFoundException("Evento no encontrado para el tipo de ticket"));
-            cantidadPorEvento.merge(evento, item.getCantidad(), Integer::sum);
-        }
-        // Actualizar aforo de los eventos involucrados
-        for (Map.Entry<Evento, Integer> entry : cantidadPorEvento.entrySet()) {
-            Evento evento = entry.getKey();
-            Integer cantidadVendida = entry.getValue();
-
-            if (evento.getAforoDisponible() != null) {
-                evento.setAforoDisponible(Math.max(evento.getAforoDisponible() - cantidadVendida, 0));
-            }
+            reservaAsientosService.liberar(item.getTipoTicket(), item.getTickets(), orden.getCliente().getIdPersona());
+            inventarioService.registrarVenta(item.getTipoTicket(), item.getCantidad());
         }
         ordenCompraRepositorio.save(orden);
+        expiracionReservas.cancelarOrden(idOrden);
         
         // Generar puntos por la compra confirmada
         fidelizacionService.generarPuntosPorCompra(orden.getCliente().getIdPersona(), orden.getTotal(), orden.getIdOrdenCompra());
@@ -280,45 +290,33 @@ public class OrdenServicio {
     }
 
     @Transactional
+    @ReintentarConflicto
     public void cancelarOrden(Integer idOrden) {
-        OrdenCompra orden = ordenCompraRepositorio.findById(idOrden).orElseThrow(() -> new RuntimeException("Orden no encontrada"));
+        OrdenCompra orden = ordenCompraRepositorio.findByIdParaActualizar(idOrden).orElseThrow(() -> new RuntimeException("Orden no encontrada"));
+        // Una orden vencida ya devolvió sus tickets y contadores al liberarse; una pagada se anula, no se cancela
+        if (orden.getEstado() != EstadoCompra.PENDIENTE) {
+            throw new BusinessException("Solo se pueden cancelar órdenes pendientes.");
+        }
         orden.setEstado(EstadoCompra.RECHAZADO);
         for (ItemCarrito item : orden.getItems()) {
             for (Ticket ticket : item.getTickets()) {
-                ticket.setEstado(EstadoTicket.DISPONIBLE);
+                emisionTicketService.liberar(ticket);
                 ticket.setActivo(false);
             }
-            TipoTicket tipo = item.getTipoTicket();
-            tipo.setCantidadDisponible(tipo.getCantidadDisponible() + item.getCantidad());
-            tipoTicketRepositorio.save(tipo);
+            inventarioService.liberar(item.getTipoTicket(), item.getCantidad());
+            if (orden.getCliente() != null) {
+                limiteCompraService.liberar(item.getTipoTicket().getIdTipoTicket(), orden.getCliente().getIdPersona(), item.getCantidad());
+                reservaAsientosService.liberar(item.getTipoTicket(), item.getTickets(), orden.getCliente().getIdPersona());
+            }
         }
         ordenCompraRepositorio.save(orden);
+        expiracionReservas.cancelarOrden(idOrden);
     }
 
     private String generarCodigoQrUnico() {
         return java.util.UUID.randomUUID().toString();
     }
 
-    private byte[] generarQrComoBytes(String contenido) {
-        try {
-            com.google.zxing.Writer writer = new com.google.zxing.qrcode.QRCodeWriter();
-            var matrix = writer.encode(contenido, com.google.zxing.BarcodeFormat.QR_CODE, 200, 200);
-
-            java.awt.image.BufferedImage image =
-                    new java.awt.image.BufferedImage(200, 200, java.awt.image.BufferedImage.TYPE_INT_RGB);
-            for (int x = 0; x < 200; x++) {
-                for (int y = 0; y < 200; y++) {
-                    image.setRGB(x, y, matrix.get(x, y) ? 0xFF000000 : 0xFFFFFFFF);
-                }
-            }
-
-            java.io.ByteArrayOutputStream baos = new java.io.ByteArrayOutputStream();
-            javax.imageio.ImageIO.write(image, "png", baos);
-            return baos.toByteArray();
-        } catch (Exception e) {
-            throw new RuntimeException("Error generando QR", e);
-        }
-    }
 
     private void validarItemYAsistentes(ItemSeleccionadoDTO item) {
         if (item.getAsistentes() == null || item.getAsistentes().size() != item.getCantidad()) {
@@ -334,18 +332,6 @@ public class OrdenServicio {
         }
     }
     
-    private void validarLimitePorPersona(TipoTicket tipoTicket, Integer cantidad, Cliente cliente) {
-        if (tipoTicket.getLimitePorPersona() != null && tipoTicket.getLimitePorPersona() > 0) {
-            // Verificar cuántos tickets de este tipo ha comprado el cliente
-            Integer ticketsComprados = ticketRepository.countTicketsByClienteAndTipoTicket(cliente.getIdPersona(), tipoTicket.getIdTipoTicket());
-            if (ticketsComprados + cantidad > tipoTicket.getLimitePorPersona()) {
-                throw new BusinessException("El límite de tickets por persona para '" + tipoTicket.getNombre() + "' es de " + 
-                    tipoTicket.getLimitePorPersona() + ". Ya has comprado " + ticketsComprados + " tickets de este tipo.");
-            }
-        }
-    }
-
-
     private List<DatosAsistenteDTO> obtenerAsistentesParaItem(ItemCarrito itemCarrito) {
         if (itemCarrito.getTickets() == null || itemCarrito.getTickets().isEmpty()) {
             log.warn("El ItemCarrito ID {} del carrito no tiene tickets asociados.", itemCarrito.getIdItemCarrito());
@@ -365,6 +351,7 @@ public class OrdenServicio {
     }
 
     @Transactional
+    @ReintentarConflicto
     public OrdenCompra comprarDesdeCarrito(Integer idCarrito) {
         log.info("Iniciando conversión de carrito ID: {}", idCarrito);
         CarroCompras carrito = carroComprasRepository.findById(idCarrito)
@@ -376,7 +363,7 @@ public class OrdenServicio {
         orden.setCliente(carrito.getCliente());
         orden.setFechaOrden(LocalDate.now());
         orden.setEstado(EstadoCompra.PENDIENTE);
-        orden.setFechaExpiracion(LocalDateTime.now().plusMinutes(15));
+        orden.setFechaExpiracion(LocalDateTime.now().plusMinutes(TIEMPO_RESERVA_MINUTOS));
         orden.setCarroCompras(carrito);
         for (ItemCarrito item : new ArrayList<>(carrito.getItems())) {
             if (item.getTickets().stream().anyMatch(t -> t.getEstado() != EstadoTicket.RESERVADA)) {
@@ -397,21 +384,20 @@ public class OrdenServicio {
         
         carrito.setActivo(false);
         carrito.setFechaActualizacion(LocalDateTime.now());
+        carrito.setFechaExpiracion(null); // La retención pasa a la orden
         log.info("Guardando nueva orden desde carrito ID {} para cliente ID {}", idCarrito, carrito.getCliente().getIdPersona());
         
+        // Items y tickets se guardan en cascada; los INSERT/UPDATE se agrupan en lotes JDBC al hacer flush
         OrdenCompra ordenGuardada = ordenCompraRepositorio.save(orden);
         
-        // Guardar explícitamente todos los tickets
+        // Las retenciones de los asientos vencen ahora con la orden
+        Duration retencion = Duration.ofMinutes(TIEMPO_RESERVA_MINUTOS);
         for (ItemCarrito item : ordenGuardada.getItems()) {
-            for (Ticket ticket : item.getTickets()) {
-                ticketRepository.save(ticket);
-            }
+            reservaAsientosService.renovar(item.getTipoTicket(), item.getTickets(),
+                    carrito.getCliente().getIdPersona(), retencion);
         }
-        
-        // Actualizar el historial de compras del cliente
-        Cliente cliente = carrito.getCliente();
-        cliente.getOrdenesCompra().add(ordenGuardada);
-        clienteRepository.save(cliente);
+        expiracionReservas.cancelarCarrito(idCarrito);
+        expiracionReservas.programarOrden(ordenGuardada.getIdOrdenCompra(), ordenGuardada.getFechaExpiracion());
         
         return ordenGuardada;
     }
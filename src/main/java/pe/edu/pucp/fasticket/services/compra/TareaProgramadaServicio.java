@@ -1,37 +1,106 @@
 package pe.edu.pucp.fasticket.services.compra;
 
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
+
+import lombok.extern.slf4j.Slf4j;
 import pe.edu.pucp.fasticket.model.compra.EstadoCompra;
-import pe.edu.pucp.fasticket.model.compra.OrdenCompra;
-import pe.edu.pucp.fasticket.model.eventos.EstadoTicket;
+import pe.edu.pucp.fasticket.repository.compra.CarroComprasRepository;
 import pe.edu.pucp.fasticket.repository.compra.OrdenCompraRepositorio;
+import pe.edu.pucp.fasticket.services.CarroComprasService;
+import pe.edu.pucp.fasticket.services.expiracion.ExpiracionReservas;
+import pe.edu.pucp.fasticket.services.expiracion.ExpiracionReservas.Reserva;
+import pe.edu.pucp.fasticket.services.expiracion.ExpiracionReservas.TipoReserva;
+import pe.edu.pucp.fasticket.services.expiracion.LiberacionReservasService;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
 
+/**
+ * Libera las reservas vencidas de órdenes PENDIENTE y de carritos.
+ *
+ * <p>En cada tick pregunta a {@link ExpiracionReservas} qué reservas vencieron y procesa hasta
+ * {@code fasticket.expiracion.lote} de ellas; el resto queda en cola para el tick siguiente.
+ * Las órdenes del lote se liberan juntas con sentencias masivas ({@link LiberacionReservasService})
+ * y los carritos, uno por transacción. Los vencimientos se cargan desde la base de datos al iniciar
+ * y se vuelven a cargar cada {@code fasticket.expiracion.resincronizacion-ms}, para cubrir
+ * reservas creadas por otras instancias.</p>
+ */
 @Service
+@Slf4j
 public class TareaProgramadaServicio {
 
+    private final ExpiracionReservas expiracionReservas;
+    private final LiberacionReservasService liberacionReservasService;
+    private final CarroComprasService carroComprasService;
     private final OrdenCompraRepositorio ordenCompraRepositorio;
-    public TareaProgramadaServicio(OrdenCompraRepositorio ordenCompraRepositorio) {
+    private final CarroComprasRepository carroComprasRepository;
+    private final int lote;
+    private final Queue<Reserva> porLiberar = new ConcurrentLinkedQueue<>();
+
+    public TareaProgramadaServicio(ExpiracionReservas expiracionReservas,
+                                   LiberacionReservasService liberacionReservasService,
+                                   CarroComprasService carroComprasService,
+                                   OrdenCompraRepositorio ordenCompraRepositorio,
+                                   CarroComprasRepository carroComprasRepository,
+                                   @Value("${fasticket.expiracion.lote:100}") int lote) {
+        this.expiracionReservas = expiracionReservas;
+        this.liberacionReservasService = liberacionReservasService;
+        this.carroComprasService = carroComprasService;
         this.ordenCompraRepositorio = ordenCompraRepositorio;
+        this.carroComprasRepository = carroComprasRepository;
+        this.lote = lote;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(initialDelayString = "${fasticket.expiracion.resincronizacion-ms:300000}",
+               fixedDelayString = "${fasticket.expiracion.resincronizacion-ms:300000}")
+    public void cargarVencimientos() {
+        int ordenes = 0;
+        for (Object[] fila : ordenCompraRepositorio.findVencimientosByEstado(EstadoCompra.PENDIENTE)) {
+            expiracionReservas.programarOrden((Integer) fila[0], (LocalDateTime) fila[1]);
+            ordenes++;
+        }
+        int carritos = 0;
+        for (Object[] fila : carroComprasRepository.findVencimientos()) {
+            expiracionReservas.programarCarrito((Integer) fila[0], (LocalDateTime) fila[1]);
+            carritos++;
+        }
+        log.debug("Vencimientos cargados: {} órdenes y {} carritos", ordenes, carritos);
     }
-    @Scheduled(fixedRate = 60000)
-    @Transactional
-    public void liberarOrdenesExpiradas() {
-        List<OrdenCompra> ordenesExpiradas = ordenCompraRepositorio.findByEstadoAndFechaExpiracionBefore(EstadoCompra.PENDIENTE, LocalDateTime.now());
-        for (OrdenCompra orden : ordenesExpiradas) {
-            orden.setEstado(EstadoCompra.RECHAZADO);
-            orden.getItems().forEach(item -> {
-                item.getTickets().forEach(ticket -> {
-                    ticket.setEstado(EstadoTicket.DISPONIBLE);
-                    ticket.setItemCarrito(null);
-                });
-            });
-            ordenCompraRepositorio.save(orden);
-            System.out.println("Orden " + orden.getIdOrdenCompra() + " expirada y tickets liberados.");
+
+    @Scheduled(fixedDelayString = "${fasticket.expiracion.tick-ms:500}")
+    public void liberarReservasExpiradas() {
+        porLiberar.addAll(expiracionReservas.vencidas());
+        List<Integer> ordenes = new ArrayList<>();
+        List<Integer> carritos = new ArrayList<>();
+        Reserva reserva;
+        while (ordenes.size() + carritos.size() < lote && (reserva = porLiberar.poll()) != null) {
+            (reserva.tipo() == TipoReserva.ORDEN ? ordenes : carritos).add(reserva.id());
+        }
+        // Si algo falla, la próxima resincronización vuelve a programar lo que siga vencido
+        if (!ordenes.isEmpty()) {
+            try {
+                liberacionReservasService.liberarOrdenesExpiradas(ordenes);
+            } catch (RuntimeException e) {
+                log.warn("No se pudo liberar el lote de {} órdenes: {}", ordenes.size(), e.getMessage());
+            }
+        }
+        for (Integer idCarro : carritos) {
+            try {
+                carroComprasService.expirarCarrito(idCarro);
+            } catch (RuntimeException e) {
+                log.warn("No se pudo liberar el carrito {}: {}", idCarro, e.getMessage());
+            }
+        }
+        if (!porLiberar.isEmpty()) {
+            log.info("{} reservas vencidas quedan en cola para el siguiente tick", porLiberar.size());
         }
     }
-}
\ No newline at end of file
+}
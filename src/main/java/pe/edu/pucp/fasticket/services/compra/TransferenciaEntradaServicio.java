@@ -19,6 +19,8 @@ import pe.edu.pucp.fasticket.model.usuario.Cliente;
 import pe.edu.pucp.fasticket.repository.compra.TransferenciaRepositorio;
 import pe.edu.pucp.fasticket.repository.eventos.TicketRepository;
 import pe.edu.pucp.fasticket.repository.usuario.ClienteRepository;
+import pe.edu.pucp.fasticket.services.inventario.InventarioService;
+import pe.edu.pucp.fasticket.services.inventario.LimiteCompraService;
 
 import java.time.LocalDateTime;
 import java.util.List;
@@ -32,6 +34,8 @@ public class TransferenciaEntradaServicio {
     private final ClienteRepository clienteRepository;
     private final TransferenciaRepositorio transferenciaRepositorio;
     private final ApplicationEventPublisher eventPublisher;
+    private final LimiteCompraService limiteCompraService;
+    private final InventarioService inventarioService;
 
     @Transactional(readOnly = true)
     public VerificarTransferenciaResponseDTO verificarTransferencia(
@@ -95,6 +99,13 @@ public class TransferenciaEntradaServicio {
         Ticket ticket = ticketRepository.findById(dto.getIdTicket()).get();
         Cliente emisor = clienteRepository.findById(idEmisor).get();
         Cliente receptor = clienteRepository.findByEmail(dto.getEmailDestinatario()).get();
+        if (ticket.getEstado() == EstadoTicket.VENDIDA && ticket.getTipoTicket() != null) {
+            // Una entrada TRANSFERIDA ya no cuenta para el límite por persona de quien la compró
+            limiteCompraService.liberar(ticket.getTipoTicket().getIdTipoTicket(), ticket.getCliente().getIdPersona(), 1);
+        }
+        if (ticket.getTipoTicket() != null) {
+            inventarioService.registrarTransferencia(ticket.getTipoTicket());
+        }
         ticket.setCliente(receptor);
         ticket.setEstado(EstadoTicket.TRANSFERIDA);
         ticket.setContadorTransferencias(ticket.getContadorTransferencias() + 1);
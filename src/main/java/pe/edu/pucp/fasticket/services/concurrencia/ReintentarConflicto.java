@@ -0,0 +1,24 @@
+package pe.edu.pucp.fasticket.services.concurrencia;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Vuelve a ejecutar el método en una transacción nueva si falla por un conflicto de bloqueo
+ * optimista (otra transacción modificó la misma entidad versionada).
+ *
+ * <p>Va en métodos públicos {@code @Transactional} de servicios. Si el método se llama dentro de
+ * una transacción ya abierta no se reintenta: el conflicto sube hasta el método anotado más
+ * externo, que es el que puede repetir la transacción completa. Intentos y esperas se configuran
+ * con {@code fasticket.concurrencia.*}.</p>
+ *
+ * @see ReintentoConflictosAspect
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface ReintentarConflicto {
+}
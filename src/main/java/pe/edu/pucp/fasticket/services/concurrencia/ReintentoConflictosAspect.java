@@ -0,0 +1,129 @@
+package pe.edu.pucp.fasticket.services.concurrencia;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import pe.edu.pucp.fasticket.exception.BusinessException;
+import pe.edu.pucp.fasticket.model.eventos.Evento;
+import pe.edu.pucp.fasticket.model.eventos.TipoTicket;
+import pe.edu.pucp.fasticket.services.eventos.EntradaCatalogo;
+import pe.edu.pucp.fasticket.services.eventos.IndiceCatalogo;
+
+/**
+ * Reintenta los métodos {@link ReintentarConflicto} que fallan por bloqueo optimista.
+ *
+ * <p>Se ejecuta por fuera del interceptor de {@code @Transactional}, así que cada intento abre
+ * su propia transacción; las reservas en memoria del intento fallido ya se compensaron en el
+ * rollback. Entre intentos espera un tiempo aleatorio entre 0 y
+ * {@code espera-inicial-ms * 2^(intento - 1)}, acotado por {@code espera-maxima-ms}. Si se agotan
+ * los intentos lanza {@link BusinessException} (HTTP 409).</p>
+ *
+ * <p>Publica dos contadores con las etiquetas {@code operacion}, {@code entidad} y {@code evento}:
+ * {@code fasticket.conflictos.reintentos} por cada conflicto reintentado y
+ * {@code fasticket.conflictos.agotados} por cada operación que se rindió.</p>
+ */
+@Aspect
+@Component
+@Order(Ordered.LOWEST_PRECEDENCE - 1)
+@Slf4j
+public class ReintentoConflictosAspect {
+
+    static final String METRICA_REINTENTOS = "fasticket.conflictos.reintentos";
+    static final String METRICA_AGOTADOS = "fasticket.conflictos.agotados";
+
+    private static final String SIN_DATO = "ninguno";
+
+    private final MeterRegistry meterRegistry;
+    private final IndiceCatalogo indiceCatalogo;
+    private final int intentos;
+    private final long esperaInicialMs;
+    private final long esperaMaximaMs;
+
+    public ReintentoConflictosAspect(MeterRegistry meterRegistry,
+                                     IndiceCatalogo indiceCatalogo,
+                                     @Value("${fasticket.concurrencia.intentos:4}") int intentos,
+                                     @Value("${fasticket.concurrencia.espera-inicial-ms:20}") long esperaInicialMs,
+                                     @Value("${fasticket.concurrencia.espera-maxima-ms:500}") long esperaMaximaMs) {
+        this.meterRegistry = meterRegistry;
+        this.indiceCatalogo = indiceCatalogo;
+        this.intentos = Math.max(intentos, 1);
+        this.esperaInicialMs = esperaInicialMs;
+        this.esperaMaximaMs = esperaMaximaMs;
+    }
+
+    @Around("@annotation(pe.edu.pucp.fasticket.services.concurrencia.ReintentarConflicto)")
+    public Object reintentar(ProceedingJoinPoint punto) throws Throwable {
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            return punto.proceed();
+        }
+        String operacion = punto.getSignature().getDeclaringType().getSimpleName() + "." + punto.getSignature().getName();
+        for (int intento = 1; ; intento++) {
+            try {
+                return punto.proceed();
+            } catch (OptimisticLockingFailureException e) {
+                String entidad = entidad(e);
+                String evento = evento(e);
+                if (intento >= intentos) {
+                    meterRegistry.counter(METRICA_AGOTADOS, "operacion", operacion, "entidad", entidad, "evento", evento).increment();
+                    log.warn("{} abandonada tras {} conflictos de concurrencia en {} (evento {})", operacion, intento, entidad, evento);
+                    throw new BusinessException("Otra operación modificó los mismos datos al mismo tiempo. Inténtalo nuevamente.", e);
+                }
+                meterRegistry.counter(METRICA_REINTENTOS, "operacion", operacion, "entidad", entidad, "evento", evento).increment();
+                log.debug("Conflicto de concurrencia en {} sobre {} (intento {}), reintentando", operacion, entidad, intento);
+                esperar(intento, e);
+            }
+        }
+    }
+
+    private void esperar(int intento, OptimisticLockingFailureException conflicto) {
+        long tope = Math.min(esperaMaximaMs, esperaInicialMs << Math.min(intento - 1, 20));
+        if (tope <= 0) {
+            return;
+        }
+        try {
+            Thread.sleep(ThreadLocalRandom.current().nextLong(tope + 1));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw conflicto;
+        }
+    }
+
+    private static String entidad(OptimisticLockingFailureException e) {
+        if (e instanceof ObjectOptimisticLockingFailureException objeto && objeto.getPersistentClassName() != null) {
+            String nombre = objeto.getPersistentClassName();
+            return nombre.substring(nombre.lastIndexOf('.') + 1);
+        }
+        return SIN_DATO;
+    }
+
+    // Evento afectado, para ver la contención por evento; solo se conoce para Evento y TipoTicket
+    private String evento(OptimisticLockingFailureException e) {
+        if (!(e instanceof ObjectOptimisticLockingFailureException objeto)
+                || !(objeto.getIdentifier() instanceof Integer id)) {
+            return SIN_DATO;
+        }
+        String entidad = objeto.getPersistentClassName();
+        if (Evento.class.getName().equals(entidad)) {
+            return id.toString();
+        }
+        if (TipoTicket.class.getName().equals(entidad)) {
+            return indiceCatalogo.buscar(id)
+                    .map(EntradaCatalogo::idEvento)
+                    .map(String::valueOf)
+                    .orElse(SIN_DATO);
+        }
+        return SIN_DATO;
+    }
+}
@@ -0,0 +1,124 @@
+package pe.edu.pucp.fasticket.services.disponibilidad;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.BiFunction;
+
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter.DataWithMediaType;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+/**
+ * Publicador compartido de la disponibilidad de un evento: cada mensaje se arma una sola vez y se
+ * escribe igual a todos los suscriptores.
+ *
+ * <p>Los avisos del inventario solo marcan el tipo de ticket como pendiente; {@link #tomarCambios}
+ * los recoge juntos y devuelve los que de verdad cambiaron desde el último mensaje, así que muchas
+ * reservas seguidas salen en uno solo. Un suscriptor nuevo recibe lo último que se envió a todos,
+ * no el contador del momento: lo que cambió después le llega con el siguiente mensaje, igual que
+ * a los demás.</p>
+ */
+final class CanalDisponibilidad {
+
+    private final Integer idEvento;
+    private final Set<Integer> tiposTicket;
+    // Lo último enviado por tipo de ticket; solo se lee y escribe con el candado del canal
+    private final Map<Integer, Integer> enviados;
+    private final Set<Integer> pendientes = ConcurrentHashMap.newKeySet();
+    private final List<SseEmitter> suscriptores = new CopyOnWriteArrayList<>();
+    private volatile long ultimoEnvio;
+
+    CanalDisponibilidad(Integer idEvento, Map<Integer, Integer> disponibles, long ahora) {
+        this.idEvento = idEvento;
+        this.enviados = new LinkedHashMap<>(disponibles);
+        this.tiposTicket = Set.copyOf(disponibles.keySet());
+        this.ultimoEnvio = ahora;
+        // Lo que cambió mientras se leían las cantidades iniciales sale con el primer mensaje
+        this.pendientes.addAll(tiposTicket);
+    }
+
+    Integer getIdEvento() {
+        return idEvento;
+    }
+
+    /**
+     * Marca el tipo de ticket para revisarlo en el siguiente mensaje, si es de este evento.
+     */
+    void marcar(Integer idTipoTicket) {
+        if (tiposTicket.contains(idTipoTicket)) {
+            pendientes.add(idTipoTicket);
+        }
+    }
+
+    /**
+     * Envía al suscriptor lo último que se envió a todos y lo agrega al canal. Con el candado del
+     * canal, para que ningún cambio calculado antes le llegue después del estado completo.
+     *
+     * @param mensaje Arma el mensaje inicial a partir de las cantidades disponibles
+     */
+    synchronized void agregar(SseEmitter suscriptor,
+                              BiFunction<Integer, Map<Integer, Integer>, Set<DataWithMediaType>> mensaje) throws IOException {
+        suscriptor.send(mensaje.apply(idEvento, Map.copyOf(enviados)));
+        suscriptores.add(suscriptor);
+    }
+
+    void quitar(SseEmitter suscriptor) {
+        suscriptores.remove(suscriptor);
+    }
+
+    boolean vacio() {
+        return suscriptores.isEmpty();
+    }
+
+    int suscriptores() {
+        return suscriptores.size();
+    }
+
+    long getUltimoEnvio() {
+        return ultimoEnvio;
+    }
+
+    /**
+     * Toma los tipos de ticket pendientes y devuelve los que cambiaron desde el último mensaje,
+     * con su cantidad disponible actual; vacío si ninguno cambió.
+     *
+     * @param disponibles Cantidad disponible actual del tipo de ticket, dado lo último enviado
+     */
+    synchronized Map<Integer, Integer> tomarCambios(BiFunction<Integer, Integer, Integer> disponibles) {
+        if (pendientes.isEmpty()) {
+            return Map.of();
+        }
+        Map<Integer, Integer> cambios = new HashMap<>();
+        for (Integer idTipoTicket : tiposTicket) {
+            if (pendientes.remove(idTipoTicket)) {
+                Integer anterior = enviados.get(idTipoTicket);
+                Integer actual = disponibles.apply(idTipoTicket, anterior);
+                if (!actual.equals(anterior)) {
+                    enviados.put(idTipoTicket, actual);
+                    cambios.put(idTipoTicket, actual);
+                }
+            }
+        }
+        return cambios;
+    }
+
+    /**
+     * Escribe el mensaje a todos los suscriptores y quita a los que ya no lo pueden recibir.
+     */
+    void enviar(Set<DataWithMediaType> mensaje, long ahora) {
+        ultimoEnvio = ahora;
+        for (SseEmitter suscriptor : suscriptores) {
+            try {
+                suscriptor.send(mensaje);
+            } catch (IOException | IllegalStateException e) {
+                // Conexión cerrada: el contenedor avisa el error y el emisor no se vuelve a usar
+                suscriptores.remove(suscriptor);
+            }
+        }
+    }
+}
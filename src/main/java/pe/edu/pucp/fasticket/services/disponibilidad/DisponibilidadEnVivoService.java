@@ -0,0 +1,166 @@
+package pe.edu.pucp.fasticket.services.disponibilidad;
+
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter.DataWithMediaType;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import pe.edu.pucp.fasticket.dto.eventos.DisponibilidadEventoDTO;
+import pe.edu.pucp.fasticket.services.eventos.DetalleCompra;
+import pe.edu.pucp.fasticket.services.eventos.EventoService;
+import pe.edu.pucp.fasticket.services.inventario.InventarioService;
+
+/**
+ * Stream (Server-Sent Events) de la cantidad disponible por tipo de ticket de un evento, para que
+ * la página de compra no tenga que consultar el detalle una y otra vez.
+ *
+ * <p>Hay un {@link CanalDisponibilidad} por evento con suscriptores en esta instancia. El inventario
+ * avisa cada reserva, liberación o ajuste (los de órdenes, carrito y expiración de reservas pasan
+ * todos por {@link InventarioService}); cada {@code fasticket.disponibilidad.intervalo-ms} los cambios
+ * acumulados de cada canal salen en un solo mensaje {@code cambio}, serializado una vez para todos
+ * sus suscriptores. Al suscribirse se recibe un mensaje {@code disponibilidad} con todos los tipos de
+ * ticket, y si un canal pasa {@code fasticket.disponibilidad.latido-ms} sin mensajes se le envía un
+ * comentario para que los proxies no corten la conexión.</p>
+ *
+ * <p>Los tipos de ticket del canal son los del detalle de compra cuando se abrió; uno creado después
+ * aparece al reconectarse. Cada instancia publica lo que ve su propio inventario.</p>
+ *
+ * <p>Publica el gauge {@code fasticket.disponibilidad.suscriptores} y el contador
+ * {@code fasticket.disponibilidad.mensajes} (etiqueta {@code tipo}: cambio o latido), que cuenta
+ * mensajes por canal, no por suscriptor.</p>
+ */
+@Service
+@Slf4j
+public class DisponibilidadEnVivoService {
+
+    static final String METRICA_SUSCRIPTORES = "fasticket.disponibilidad.suscriptores";
+    static final String METRICA_MENSAJES = "fasticket.disponibilidad.mensajes";
+
+    private static final Set<DataWithMediaType> LATIDO = SseEmitter.event().comment("latido").build();
+
+    private final EventoService eventoService;
+    private final InventarioService inventarioService;
+    private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
+    private final long timeoutMs;
+    private final long latidoMs;
+
+    private final Map<Integer, CanalDisponibilidad> canales = new ConcurrentHashMap<>();
+
+    public DisponibilidadEnVivoService(EventoService eventoService,
+                                       InventarioService inventarioService,
+                                       ObjectMapper objectMapper,
+                                       MeterRegistry meterRegistry,
+                                       @Value("${fasticket.disponibilidad.timeout-ms:1800000}") long timeoutMs,
+                                       @Value("${fasticket.disponibilidad.latido-ms:15000}") long latidoMs) {
+        this.eventoService = eventoService;
+        this.inventarioService = inventarioService;
+        this.objectMapper = objectMapper;
+        this.meterRegistry = meterRegistry;
+        this.timeoutMs = timeoutMs;
+        this.latidoMs = latidoMs;
+        inventarioService.observar(this::alCambiarDisponibilidad);
+        meterRegistry.gauge(METRICA_SUSCRIPTORES, this, DisponibilidadEnVivoService::suscriptores);
+    }
+
+    /**
+     * Abre el stream de disponibilidad del evento.
+     *
+     * @throws pe.edu.pucp.fasticket.exception.ResourceNotFoundException si el evento no existe o está inactivo
+     * @throws pe.edu.pucp.fasticket.exception.BusinessException si el local del evento está inactivo
+     */
+    public SseEmitter suscribir(Integer idEvento) {
+        DetalleCompra detalle = eventoService.obtenerDetalleCompra(idEvento);
+        SseEmitter suscriptor = new SseEmitter(timeoutMs);
+        CanalDisponibilidad canal = registrar(idEvento, detalle, suscriptor);
+        suscriptor.onCompletion(() -> quitar(canal, suscriptor));
+        suscriptor.onTimeout(suscriptor::complete);
+        suscriptor.onError(error -> quitar(canal, suscriptor));
+        log.debug("Nuevo suscriptor de disponibilidad del evento {}", idEvento);
+        return suscriptor;
+    }
+
+    /**
+     * Envía a cada canal los cambios acumulados desde el mensaje anterior, o un latido si lleva
+     * demasiado tiempo sin mensajes.
+     */
+    @Scheduled(fixedDelayString = "${fasticket.disponibilidad.intervalo-ms:250}")
+    public void publicar() {
+        long ahora = System.currentTimeMillis();
+        for (CanalDisponibilidad canal : canales.values()) {
+            Map<Integer, Integer> cambios = canal.tomarCambios(inventarioService::disponibles);
+            if (!cambios.isEmpty()) {
+                canal.enviar(mensaje("cambio", canal.getIdEvento(), cambios), ahora);
+                meterRegistry.counter(METRICA_MENSAJES, "tipo", "cambio").increment();
+            } else if (ahora - canal.getUltimoEnvio() >= latidoMs) {
+                canal.enviar(LATIDO, ahora);
+                meterRegistry.counter(METRICA_MENSAJES, "tipo", "latido").increment();
+            }
+            if (canal.vacio()) {
+                retirarSiVacio(canal);
+            }
+        }
+    }
+
+    private void alCambiarDisponibilidad(Integer idTipoTicket) {
+        // Un tipo de ticket se marca en cada canal abierto: son solo los eventos que alguien está mirando
+        for (CanalDisponibilidad canal : canales.values()) {
+            canal.marcar(idTipoTicket);
+        }
+    }
+
+    private synchronized CanalDisponibilidad registrar(Integer idEvento, DetalleCompra detalle, SseEmitter suscriptor) {
+        CanalDisponibilidad canal = canales.computeIfAbsent(idEvento, id -> {
+            Map<Integer, Integer> disponibles = new LinkedHashMap<>();
+            detalle.tipos().forEach(tipo -> disponibles.put(tipo.idTipoTicket(),
+                    inventarioService.disponibles(tipo.idTipoTicket(), tipo.cantidadDisponible())));
+            return new CanalDisponibilidad(id, disponibles, System.currentTimeMillis());
+        });
+        try {
+            canal.agregar(suscriptor, (id, disponibles) -> mensaje("disponibilidad", id, disponibles));
+        } catch (IOException e) {
+            suscriptor.completeWithError(e);
+        }
+        return canal;
+    }
+
+    private void quitar(CanalDisponibilidad canal, SseEmitter suscriptor) {
+        canal.quitar(suscriptor);
+        retirarSiVacio(canal);
+    }
+
+    private synchronized void retirarSiVacio(CanalDisponibilidad canal) {
+        if (canal.vacio()) {
+            canales.remove(canal.getIdEvento(), canal);
+        }
+    }
+
+    private Set<DataWithMediaType> mensaje(String nombre, Integer idEvento, Map<Integer, Integer> disponibles) {
+        try {
+            String datos = objectMapper.writeValueAsString(DisponibilidadEventoDTO.builder()
+                    .idEvento(idEvento)
+                    .disponibles(disponibles)
+                    .build());
+            return SseEmitter.event().name(nombre).data(datos, MediaType.APPLICATION_JSON).build();
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("No se pudo serializar la disponibilidad del evento " + idEvento, e);
+        }
+    }
+
+    private int suscriptores() {
+        return canales.values().stream().mapToInt(CanalDisponibilidad::suscriptores).sum();
+    }
+}
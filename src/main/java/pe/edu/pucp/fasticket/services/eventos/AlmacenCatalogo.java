@@ -0,0 +1,46 @@
+package pe.edu.pucp.fasticket.services.eventos;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+
+import pe.edu.pucp.fasticket.dto.eventos.EventoResponseDTO;
+
+/**
+ * Nivel compartido de {@link CacheCatalogoEventos} y aviso de invalidación entre instancias.
+ * Patrón Strategy: la implementación en Redis guarda los listados para todas las instancias y
+ * difunde las invalidaciones por pub/sub; la implementación en memoria deja solo el nivel local.
+ *
+ * <p>Los listados se guardan bajo una versión del catálogo. Invalidar cambia la versión, así que un
+ * listado leído de la base antes de la invalidación y escrito después queda bajo la versión vieja y
+ * nunca se vuelve a leer.</p>
+ */
+public interface AlmacenCatalogo {
+
+    /**
+     * Versión vigente del catálogo compartido; cambia con cada invalidación. {@code null} si no se
+     * puede leer.
+     */
+    String version();
+
+    Optional<List<EventoResponseDTO>> leer(String version, String clave);
+
+    void escribir(String version, String clave, List<EventoResponseDTO> eventos, Duration ttl);
+
+    /**
+     * Documento ya serializado en JSON guardado bajo la versión, como la portada del catálogo.
+     */
+    Optional<byte[]> leerDocumento(String version, String clave);
+
+    void escribirDocumento(String version, String clave, byte[] json, Duration ttl);
+
+    /**
+     * Descarta los listados compartidos y avisa a las demás instancias.
+     */
+    void invalidar();
+
+    /**
+     * Acción a ejecutar cuando otra instancia invalida el catálogo.
+     */
+    void alInvalidarRemoto(Runnable accion);
+}
@@ -0,0 +1,139 @@
+package pe.edu.pucp.fasticket.services.eventos;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import pe.edu.pucp.fasticket.dto.eventos.EventoResponseDTO;
+import pe.edu.pucp.fasticket.events.CatalogoModificadoEvent;
+
+/**
+ * Caché de los listados públicos de eventos de {@link EventoService}.
+ *
+ * <p>El nivel local es un LRU acotado a {@code fasticket.catalogo.cache.capacidad} listados que
+ * vencen a los {@code fasticket.catalogo.cache.ttl-segundos}; detrás puede haber un nivel
+ * compartido ({@link AlmacenCatalogo}). Tras el commit de cada {@link CatalogoModificadoEvent} se
+ * vacían ambos niveles y se avisa a las demás instancias. El aforo disponible que muestran los
+ * listados cambia con cada reserva sin invalidar la caché, así que puede atrasarse hasta un TTL.</p>
+ *
+ * <p>Solo se guarda lo confirmado: una transacción de escritura puede ver cambios propios aún no
+ * confirmados, así que dentro de ella se consulta siempre la base de datos. Un listado leído antes
+ * de una invalidación no se guarda después de ella.</p>
+ *
+ * <p>Publica {@code fasticket.catalogo.cache.consultas} con la etiqueta {@code origen} (local,
+ * compartido o base), {@code fasticket.catalogo.cache.invalidaciones} con la etiqueta {@code origen}
+ * (local o remoto) y el gauge {@code fasticket.catalogo.cache.entradas}.</p>
+ */
+@Service
+@Slf4j
+public class CacheCatalogoEventos {
+
+    static final String METRICA_CONSULTAS = "fasticket.catalogo.cache.consultas";
+    static final String METRICA_INVALIDACIONES = "fasticket.catalogo.cache.invalidaciones";
+    static final String METRICA_ENTRADAS = "fasticket.catalogo.cache.entradas";
+
+    private record Entrada(List<EventoResponseDTO> eventos, long expiraEn) { }
+
+    private final AlmacenCatalogo almacen;
+    private final MeterRegistry meterRegistry;
+    private final Duration ttl;
+    private final Clock clock;
+    private final Map<String, Entrada> entradas;
+    private long generacion;
+
+    @Autowired
+    public CacheCatalogoEventos(AlmacenCatalogo almacen,
+                                MeterRegistry meterRegistry,
+                                @Value("${fasticket.catalogo.cache.capacidad:500}") int capacidad,
+                                @Value("${fasticket.catalogo.cache.ttl-segundos:30}") long ttlSegundos) {
+        this(almacen, meterRegistry, capacidad, Duration.ofSeconds(ttlSegundos), Clock.systemUTC());
+    }
+
+    public CacheCatalogoEventos(AlmacenCatalogo almacen, MeterRegistry meterRegistry,
+                                int capacidad, Duration ttl, Clock clock) {
+        this.almacen = almacen;
+        this.meterRegistry = meterRegistry;
+        this.ttl = ttl;
+        this.clock = clock;
+        this.entradas = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entrada> mayor) {
+                return size() > capacidad;
+            }
+        };
+        almacen.alInvalidarRemoto(() -> invalidarLocal("remoto"));
+        meterRegistry.gauge(METRICA_ENTRADAS, this, CacheCatalogoEventos::tamano);
+    }
+
+    /**
+     * Listado guardado bajo la clave, o el que devuelve {@code cargar} si no está vigente.
+     * El listado devuelto no se puede modificar.
+     */
+    public List<EventoResponseDTO> obtener(String clave, Supplier<List<EventoResponseDTO>> cargar) {
+        if (TransactionSynchronizationManager.isActualTransactionActive()
+                && !TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            return cargar.get();
+        }
+        long generacionLeida;
+        synchronized (this) {
+            Entrada entrada = entradas.get(clave);
+            if (entrada != null && entrada.expiraEn() > clock.millis()) {
+                contar("local");
+                return entrada.eventos();
+            }
+            generacionLeida = generacion;
+        }
+
+        String version = almacen.version();
+        Optional<List<EventoResponseDTO>> compartido = almacen.leer(version, clave);
+        List<EventoResponseDTO> eventos;
+        if (compartido.isPresent()) {
+            contar("compartido");
+            eventos = List.copyOf(compartido.get());
+        } else {
+            contar("base");
+            eventos = List.copyOf(cargar.get());
+            almacen.escribir(version, clave, eventos, ttl);
+        }
+
+        synchronized (this) {
+            if (generacion == generacionLeida) {
+                entradas.put(clave, new Entrada(eventos, clock.millis() + ttl.toMillis()));
+            }
+        }
+        return eventos;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void alModificarCatalogo(CatalogoModificadoEvent evento) {
+        log.debug("Catálogo modificado ({}), invalidando listados de eventos", evento.getMotivo());
+        invalidarLocal("local");
+        almacen.invalidar();
+    }
+
+    private synchronized void invalidarLocal(String origen) {
+        entradas.clear();
+        generacion++;
+        meterRegistry.counter(METRICA_INVALIDACIONES, "origen", origen).increment();
+    }
+
+    private synchronized int tamano() {
+        return entradas.size();
+    }
+
+    private void contar(String origen) {
+        meterRegistry.counter(METRICA_CONSULTAS, "origen", origen).increment();
+    }
+}
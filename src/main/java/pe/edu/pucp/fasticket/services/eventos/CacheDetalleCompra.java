@@ -0,0 +1,117 @@
+package pe.edu.pucp.fasticket.services.eventos;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import pe.edu.pucp.fasticket.events.CatalogoModificadoEvent;
+
+/**
+ * Caché de {@link DetalleCompra} por evento para la página de compra.
+ *
+ * <p>LRU acotado a {@code fasticket.catalogo.detalle.capacidad} eventos que vencen a los
+ * {@code fasticket.catalogo.detalle.ttl-segundos}. Se vacía tras el commit de cada
+ * {@link CatalogoModificadoEvent} y cuando otra instancia invalida el catálogo a través del
+ * {@link AlmacenCatalogo}. Como {@link CacheCatalogoEventos}, dentro de una transacción de escritura
+ * se consulta siempre la base de datos y un detalle leído antes de una invalidación no se guarda
+ * después de ella.</p>
+ *
+ * <p>Publica {@code fasticket.catalogo.detalle.consultas} con la etiqueta {@code origen} (local o
+ * base) y el gauge {@code fasticket.catalogo.detalle.entradas}.</p>
+ */
+@Service
+@Slf4j
+public class CacheDetalleCompra {
+
+    static final String METRICA_CONSULTAS = "fasticket.catalogo.detalle.consultas";
+    static final String METRICA_ENTRADAS = "fasticket.catalogo.detalle.entradas";
+
+    private record Entrada(DetalleCompra detalle, long expiraEn) { }
+
+    private final MeterRegistry meterRegistry;
+    private final Duration ttl;
+    private final Clock clock;
+    private final Map<Integer, Entrada> entradas;
+    private long generacion;
+
+    @Autowired
+    public CacheDetalleCompra(AlmacenCatalogo almacen,
+                              MeterRegistry meterRegistry,
+                              @Value("${fasticket.catalogo.detalle.capacidad:1000}") int capacidad,
+                              @Value("${fasticket.catalogo.detalle.ttl-segundos:60}") long ttlSegundos) {
+        this(almacen, meterRegistry, capacidad, Duration.ofSeconds(ttlSegundos), Clock.systemUTC());
+    }
+
+    public CacheDetalleCompra(AlmacenCatalogo almacen, MeterRegistry meterRegistry,
+                              int capacidad, Duration ttl, Clock clock) {
+        this.meterRegistry = meterRegistry;
+        this.ttl = ttl;
+        this.clock = clock;
+        this.entradas = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Integer, Entrada> mayor) {
+                return size() > capacidad;
+            }
+        };
+        almacen.alInvalidarRemoto(this::vaciar);
+        meterRegistry.gauge(METRICA_ENTRADAS, this, CacheDetalleCompra::tamano);
+    }
+
+    /**
+     * Detalle guardado del evento, o el que devuelve {@code cargar} si no está vigente.
+     * Si {@code cargar} lanza una excepción no se guarda nada.
+     */
+    public DetalleCompra obtener(Integer idEvento, Supplier<DetalleCompra> cargar) {
+        if (TransactionSynchronizationManager.isActualTransactionActive()
+                && !TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            return cargar.get();
+        }
+        long generacionLeida;
+        synchronized (this) {
+            Entrada entrada = entradas.get(idEvento);
+            if (entrada != null && entrada.expiraEn() > clock.millis()) {
+                contar("local");
+                return entrada.detalle();
+            }
+            generacionLeida = generacion;
+        }
+
+        contar("base");
+        DetalleCompra detalle = cargar.get();
+        synchronized (this) {
+            if (generacion == generacionLeida) {
+                entradas.put(idEvento, new Entrada(detalle, clock.millis() + ttl.toMillis()));
+            }
+        }
+        return detalle;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void alModificarCatalogo(CatalogoModificadoEvent evento) {
+        log.debug("Catálogo modificado ({}), descartando detalles de compra", evento.getMotivo());
+        vaciar();
+    }
+
+    private synchronized void vaciar() {
+        entradas.clear();
+        generacion++;
+    }
+
+    private synchronized int tamano() {
+        return entradas.size();
+    }
+
+    private void contar(String origen) {
+        meterRegistry.counter(METRICA_CONSULTAS, "origen", origen).increment();
+    }
+}
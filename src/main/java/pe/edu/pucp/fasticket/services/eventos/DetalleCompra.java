@@ -0,0 +1,33 @@
+package pe.edu.pucp.fasticket.services.eventos;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+
+/**
+ * Lo que muestra la página de compra de un evento: el evento, su local y los tipos de ticket a la
+ * venta. Inmutable; {@link CacheDetalleCompra} la guarda entera y la descarta cuando el catálogo
+ * cambia. La cantidad disponible de cada tipo es la de la carga: la vigente sale del inventario.
+ */
+public record DetalleCompra(
+        Integer idEvento,
+        String nombre,
+        LocalDate fecha,
+        LocalTime hora,
+        String urlImagen,
+        String descripcion,
+        String nombreLocal,
+        String direccion,
+        String urlMapa,
+        Integer idDistrito,
+        String nombreDistrito,
+        List<Tipo> tipos) {
+
+    public record Tipo(
+            Integer idTipoTicket,
+            String nombre,
+            String descripcion,
+            Double precio,
+            int cantidadDisponible) {
+    }
+}
@@ -0,0 +1,25 @@
+package pe.edu.pucp.fasticket.services.eventos;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+
+/**
+ * Datos de catálogo de un tipo de ticket: su evento, zona y local, precio de lista
+ * y restricciones de compra. Inmutable; {@link IndiceCatalogo} reemplaza la entrada
+ * completa cuando el catálogo cambia.
+ */
+public record EntradaCatalogo(
+        Integer idTipoTicket,
+        String nombreTipoTicket,
+        Double precio,
+        Integer limitePorPersona,
+        Integer idZona,
+        Integer idEvento,
+        String nombreEvento,
+        LocalDate fechaEvento,
+        LocalTime horaInicio,
+        Integer edadMinima,
+        boolean emisionBajoDemanda,
+        Integer idLocal,
+        String nombreLocal) {
+}
@@ -20,13 +20,17 @@ import org.springframework.transaction.annotation.Transactional;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import pe.edu.pucp.fasticket.dto.PaginaCursor;
+import pe.edu.pucp.fasticket.dto.eventos.BusquedaEventosDTO;
 import pe.edu.pucp.fasticket.dto.eventos.EventoCreateDTO;
 import pe.edu.pucp.fasticket.dto.eventos.EventoDetalleDTO;
 import pe.edu.pucp.fasticket.dto.eventos.EventoResponseDTO;
 import pe.edu.pucp.fasticket.dto.eventos.LocalDetalleDTO;
 import pe.edu.pucp.fasticket.dto.eventos.TipoTicketCompraDTO;
 import pe.edu.pucp.fasticket.dto.reportes.*;
+import pe.edu.pucp.fasticket.events.CatalogoModificadoEvent;
 import pe.edu.pucp.fasticket.events.EventoCanceladoEvent;
+import pe.edu.pucp.fasticket.events.TextoCatalogoModificadoEvent;
 import pe.edu.pucp.fasticket.exception.BusinessException;
 import pe.edu.pucp.fasticket.exception.ResourceNotFoundException;
 import pe.edu.pucp.fasticket.mapper.EventoMapper;
@@ -37,10 +41,12 @@ import pe.edu.pucp.fasticket.model.eventos.EstadoEvento;
 import pe.edu.pucp.fasticket.model.eventos.Evento;
 import pe.edu.pucp.fasticket.model.eventos.Local;
 import pe.edu.pucp.fasticket.model.eventos.TipoTicket;
+import pe.edu.pucp.fasticket.model.geografia.Distrito;
 import pe.edu.pucp.fasticket.repository.eventos.EventosRepositorio;
 import pe.edu.pucp.fasticket.repository.eventos.LocalesRepositorio;
-import pe.edu.pucp.fasticket.repository.eventos.TipoTicketRepositorio;
 import pe.edu.pucp.fasticket.repository.compra.OrdenCompraRepositorio;
+import pe.edu.pucp.fasticket.services.concurrencia.ReintentarConflicto;
+import pe.edu.pucp.fasticket.services.inventario.InventarioService;
 
 @Service
 @RequiredArgsConstructor
@@ -50,33 +56,64 @@ public class EventoService {
 
     private final EventosRepositorio eventoRepository;
     private final LocalesRepositorio localRepository;
-    private final TipoTicketRepositorio tipoTicketRepositorio;
     private final OrdenCompraRepositorio ordenCompraRepository;
     private final ApplicationEventPublisher eventPublisher;
     private final EventoMapper eventoMapper;
+    private final InventarioService inventarioService;
+    private final CacheCatalogoEventos cacheCatalogo;
+    private final CacheDetalleCompra cacheDetalleCompra;
 
-    public List<EventoResponseDTO> listarTodos() {
-        return eventoRepository.findAll().stream()
-                .map(eventoMapper::toResponseDTO)
+    /**
+     * Página de todos los eventos ordenados por ID, sin la descripción.
+     *
+     * @param cursor Cursor devuelto con la página anterior, o null para la primera
+     * @param limite Eventos por página, o null para el valor por defecto
+     */
+    public PaginaCursor<EventoResponseDTO> listarTodos(String cursor, Integer limite) {
+        List<EventoResponseDTO> filas = eventoRepository.findResumenes(PaginaCursor.desde(cursor), PaginaCursor.filas(limite)).stream()
+                .map(eventoMapper::toResumenResponseDTO)
                 .collect(Collectors.toList());
+        return PaginaCursor.de(filas, limite, EventoResponseDTO::getIdEvento);
+    }
+
+    /**
+     * Búsqueda combinada por tipo, rango de fechas, distrito, rango de precio y disponibilidad.
+     * No pasa por la caché del catálogo: las combinaciones de criterios son demasiadas para reutilizarse.
+     */
+    public PaginaCursor<EventoResponseDTO> buscar(BusquedaEventosDTO criterios, String cursor, Integer limite) {
+        if (criterios.getDesde() != null && criterios.getHasta() != null && criterios.getDesde().isAfter(criterios.getHasta())) {
+            throw new IllegalArgumentException("La fecha 'desde' no puede ser posterior a 'hasta'");
+        }
+        if (criterios.getPrecioMin() != null && criterios.getPrecioMax() != null && criterios.getPrecioMin() > criterios.getPrecioMax()) {
+            throw new IllegalArgumentException("El precio mínimo no puede ser mayor que el máximo");
+        }
+        int desde = PaginaCursor.desde(cursor);
+        if (desde < 0) {
+            throw new IllegalArgumentException("Cursor de paginación inválido");
+        }
+        List<EventoResponseDTO> filas = eventoRepository.buscar(criterios, desde, PaginaCursor.filas(limite).max()).stream()
+                .map(eventoMapper::toResumenResponseDTO)
+                .collect(Collectors.toList());
+        return PaginaCursor.porPosicion(filas, limite, desde);
     }
 
     public List<EventoResponseDTO> listarActivos() {
-        return eventoRepository.findByActivoTrue().stream()
+        return cacheCatalogo.obtener("activos", () -> eventoRepository.findByActivoTrue().stream()
                 .map(eventoMapper::toResponseDTO)
-                .collect(Collectors.toList());
+                .collect(Collectors.toList()));
     }
 
     public List<EventoResponseDTO> listarProximos() {
-        return eventoRepository.findEventosProximos(LocalDate.now()).stream()
+        LocalDate hoy = LocalDate.now();
+        return cacheCatalogo.obtener("proximos:" + hoy, () -> eventoRepository.findEventosProximos(hoy).stream()
                 .map(eventoMapper::toResponseDTO)
-                .collect(Collectors.toList());
+                .collect(Collectors.toList()));
     }
 
     public List<EventoResponseDTO> listarPorEstado(EstadoEvento estado) {
-        return eventoRepository.findByEstadoEventoAndActivoTrue(estado).stream()
+        return cacheCatalogo.obtener("estado:" + estado, () -> eventoRepository.findByEstadoEventoAndActivoTrue(estado).stream()
                 .map(eventoMapper::toResponseDTO)
-                .collect(Collectors.toList());
+                .collect(Collectors.toList()));
     }
 
     public EventoResponseDTO obtenerPorId(Integer id) {
@@ -104,12 +141,16 @@ public class EventoService {
         // Crear y guardar
         Evento evento = eventoMapper.toEntity(dto, local);
         Evento eventoGuardado = eventoRepository.save(evento);
+        inventarioService.abrir(eventoGuardado);
+        eventPublisher.publishEvent(new CatalogoModificadoEvent("evento " + eventoGuardado.getIdEvento() + " creado"));
+        eventPublisher.publishEvent(TextoCatalogoModificadoEvent.deEvento(eventoGuardado.getIdEvento()));
 
         log.info("Evento creado con ID: {}", eventoGuardado.getIdEvento());
         return eventoMapper.toResponseDTO(eventoGuardado);
     }
 
     @Transactional
+    @ReintentarConflicto
     public EventoResponseDTO actualizar(Integer id, EventoCreateDTO dto) {
         log.info("Actualizando evento ID: {}", id);
 
@@ -123,9 +164,15 @@ public class EventoService {
                     .orElseThrow(() -> new ResourceNotFoundException("Local no encontrado con ID: " + dto.getIdLocal()));
         }
 
-        // Actualizar
+        // Actualizar; el aforo disponible cambia por diferencia, como un ajuste de inventario
+        Integer aforoAnterior = evento.getAforoDisponible();
         eventoMapper.updateEntity(evento, dto, local);
+        if (dto.getAforoDisponible() != null) {
+            inventarioService.ajustarAforo(id, dto.getAforoDisponible() - (aforoAnterior != null ? aforoAnterior : 0));
+        }
         Evento eventoActualizado = eventoRepository.save(evento);
+        eventPublisher.publishEvent(new CatalogoModificadoEvent("evento " + id + " actualizado"));
+        eventPublisher.publishEvent(TextoCatalogoModificadoEvent.deEvento(id));
 
         log.info("Evento actualizado: {}", id);
         return eventoMapper.toResponseDTO(eventoActualizado);
@@ -148,6 +195,7 @@ public class EventoService {
         evento.setImagenUrl(imagenUrl);
         evento.setFechaActualizacion(LocalDate.now());
         Evento eventoActualizado = eventoRepository.save(evento);
+        eventPublisher.publishEvent(new CatalogoModificadoEvent("imagen del evento " + id + " actualizada"));
 
         log.info("URL de imagen actualizada para evento ID: {}", id);
         return eventoMapper.toResponseDTO(eventoActualizado);
@@ -163,6 +211,8 @@ public class EventoService {
         evento.setActivo(false);
         evento.setFechaActualizacion(LocalDate.now());
         eventoRepository.save(evento);
+        eventPublisher.publishEvent(new CatalogoModificadoEvent("evento " + id + " desactivado"));
+        eventPublisher.publishEvent(TextoCatalogoModificadoEvent.deEvento(id));
 
         log.info("Evento desactivado: {}", id);
     }
@@ -174,9 +224,9 @@ public class EventoService {
      */
     public List<EventoResponseDTO> listarPorTipo(String tipoEvento) {
         log.info("Buscando eventos por tipo: {}", tipoEvento);
-        return eventoRepository.findByTipoEventoAndActivoTrue(tipoEvento).stream()
+        return cacheCatalogo.obtener("tipo:" + tipoEvento, () -> eventoRepository.findByTipoEventoAndActivoTrue(tipoEvento).stream()
                 .map(eventoMapper::toResponseDTO)
-                .collect(Collectors.toList());
+                .collect(Collectors.toList()));
     }
 
     /**
@@ -201,9 +251,9 @@ public class EventoService {
      */
     public List<EventoResponseDTO> listarPorDistrito(Integer idDistrito) {
         log.info("Buscando eventos en distrito ID: {}", idDistrito);
-        return eventoRepository.findByLocalDistritoIdDistritoAndActivoTrue(idDistrito).stream()
+        return cacheCatalogo.obtener("distrito:" + idDistrito, () -> eventoRepository.findByLocalDistritoIdDistritoAndActivoTrue(idDistrito).stream()
                 .map(eventoMapper::toResponseDTO)
-                .collect(Collectors.toList());
+                .collect(Collectors.toList()));
     }
 
     /**
@@ -238,6 +288,7 @@ public class EventoService {
         evento.setEstadoEvento(EstadoEvento.CANCELADO);
         evento.setFechaActualizacion(LocalDate.now());
         eventoRepository.save(evento);
+        eventPublisher.publishEvent(new CatalogoModificadoEvent("evento " + id + " cancelado"));
 
         log.info("Evento cancelado: {}. Se deben enviar notificaciones a los compradores.", id);
         
@@ -257,63 +308,89 @@ public class EventoService {
             log.error("⚠️ Error al publicar evento de cancelación (no crítico): {}", e.getMessage());
         }
     }
+    /**
+     * Detalle de la página de compra del evento. El evento, su local y sus tipos de ticket salen de
+     * {@link CacheDetalleCompra} (una sola consulta al cargarse); la cantidad disponible de cada
+     * tipo se toma en cada llamada de los contadores del inventario.
+     *
+     * @throws ResourceNotFoundException si el evento no existe o está inactivo
+     * @throws BusinessException si el local está inactivo o no quedan tickets disponibles
+     */
     @Transactional(readOnly = true)
     public EventoDetalleDTO obtenerDetalleParaCompra(Integer id) {
-        log.info("INICIO: Obteniendo detalles para compra del evento ID: {}", id);
+        DetalleCompra detalle = obtenerDetalleCompra(id);
 
-        // 1. Buscar el evento
-        Evento evento = eventoRepository.findById(id)
-                .orElseThrow(() -> new ResourceNotFoundException("Evento no encontrado con ID: " + id));
-
-        if (Boolean.FALSE.equals(evento.getActivo())) {
-            throw new ResourceNotFoundException("Evento no disponible para compra con ID: " + id);
+        List<TipoTicketCompraDTO> tiposDTO = detalle.tipos().stream()
+                .map(tipo -> new TipoTicketCompraDTO(tipo.idTipoTicket(), tipo.nombre(), tipo.descripcion(), tipo.precio(),
+                        inventarioService.disponibles(tipo.idTipoTicket(), tipo.cantidadDisponible())))
+                .filter(tipo -> tipo.getCantidadDisponible() > 0)
+                .collect(Collectors.toList());
+        if (tiposDTO.isEmpty()) {
+            throw new BusinessException("El evento no tiene tickets disponibles actualmente");
         }
 
-        // 2. Mapeo básico del evento
         EventoDetalleDTO dto = new EventoDetalleDTO();
-        dto.setId(evento.getIdEvento());
-        dto.setNombre(evento.getNombre());
-        dto.setFecha(evento.getFechaEvento());
-        dto.setHora(evento.getHoraInicio());
-        dto.setUrlImagen(evento.getImagenUrl());
-        dto.setDescripcion(evento.getDescripcion());
-
-        // 3. Validar y mapear Local
-        Local local = evento.getLocal();
-        if (local == null || !Boolean.TRUE.equals(local.getActivo())) {
-            throw new BusinessException("El local del evento no está disponible para compras");
-        }
+        dto.setId(detalle.idEvento());
+        dto.setNombre(detalle.nombre());
+        dto.setFecha(detalle.fecha());
+        dto.setHora(detalle.hora());
+        dto.setUrlImagen(detalle.urlImagen());
+        dto.setDescripcion(detalle.descripcion());
 
         LocalDetalleDTO localDTO = new LocalDetalleDTO();
-        localDTO.setNombre(local.getNombre());
-        localDTO.setDireccion(local.getDireccion());
-        localDTO.setUrlMapa(local.getUrlMapa());
-        localDTO.setDistrito(local.getDistrito());
+        localDTO.setNombre(detalle.nombreLocal());
+        localDTO.setDireccion(detalle.direccion());
+        localDTO.setUrlMapa(detalle.urlMapa());
+        if (detalle.idDistrito() != null) {
+            Distrito distrito = new Distrito();
+            distrito.setIdDistrito(detalle.idDistrito());
+            distrito.setNombre(detalle.nombreDistrito());
+            localDTO.setDistrito(distrito);
+        }
         dto.setLocal(localDTO);
+        dto.setTiposDeTicket(tiposDTO);
+        return dto;
+    }
 
-        // 4. Mapeo limpio de Tipos de Ticket - obtener a través de las zonas del local
-        List<TipoTicketCompraDTO> tiposDTO = evento.getLocal().getZonas().stream()
-                .flatMap(zona -> tipoTicketRepositorio.findByZonaIdZonaAndActivoTrue(zona.getIdZona()).stream())
-                .filter(tt -> tt.getCantidadDisponible() > 0)
-                .map(tt -> {
-                    TipoTicketCompraDTO t = new TipoTicketCompraDTO();
-                    t.setIdTipoTicket(tt.getIdTipoTicket());
-                    t.setNombre(tt.getNombre());
-                    t.setDescripcion(tt.getDescripcion());
-                    t.setPrecio(tt.getPrecio());
-                    t.setCantidadDisponible(tt.getCantidadDisponible());
-                    return t;
-                })
-                .collect(Collectors.toList());
+    /**
+     * Evento, local y tipos de ticket a la venta, desde {@link CacheDetalleCompra}. Las cantidades
+     * disponibles son las de la carga; incluye los tipos agotados.
+     *
+     * @throws ResourceNotFoundException si el evento no existe o está inactivo
+     * @throws BusinessException si el local está inactivo
+     */
+    @Transactional(readOnly = true)
+    public DetalleCompra obtenerDetalleCompra(Integer id) {
+        return cacheDetalleCompra.obtener(id, () -> cargarDetalleCompra(id));
+    }
 
-        if (tiposDTO.isEmpty()) {
-            throw new BusinessException("El evento no tiene tickets disponibles actualmente");
+    private DetalleCompra cargarDetalleCompra(Integer id) {
+        log.debug("Cargando detalle de compra del evento ID: {}", id);
+        List<Object[]> filas = eventoRepository.findDetalleCompra(id);
+        if (filas.isEmpty()) {
+            throw new ResourceNotFoundException("Evento no encontrado con ID: " + id);
         }
 
-        dto.setTiposDeTicket(tiposDTO);
+        Evento evento = (Evento) filas.get(0)[0];
+        if (Boolean.FALSE.equals(evento.getActivo())) {
+            throw new ResourceNotFoundException("Evento no disponible para compra con ID: " + id);
+        }
+        Local local = evento.getLocal();
+        if (local == null || !Boolean.TRUE.equals(local.getActivo())) {
+            throw new BusinessException("El local del evento no está disponible para compras");
+        }
 
-        log.info("FIN: Detalle de evento {} mapeado correctamente.", id);
-        return dto;
+        List<DetalleCompra.Tipo> tipos = filas.stream()
+                .map(fila -> (TipoTicket) fila[1])
+                .filter(tt -> tt != null)
+                .map(tt -> new DetalleCompra.Tipo(tt.getIdTipoTicket(), tt.getNombre(), tt.getDescripcion(), tt.getPrecio(),
+                        tt.getCantidadDisponible() != null ? tt.getCantidadDisponible() : 0))
+                .toList();
+        Distrito distrito = local.getDistrito();
+        return new DetalleCompra(evento.getIdEvento(), evento.getNombre(), evento.getFechaEvento(), evento.getHoraInicio(),
+                evento.getImagenUrl(), evento.getDescripcion(), local.getNombre(), local.getDireccion(), local.getUrlMapa(),
+                distrito != null ? distrito.getIdDistrito() : null, distrito != null ? distrito.getNombre() : null,
+                tipos);
     }
 
     /**
@@ -554,6 +631,7 @@ public class EventoService {
         evento.setFechaActualizacion(LocalDate.now());
 
         Evento eventoPublicado = eventoRepository.save(evento);
+        eventPublisher.publishEvent(new CatalogoModificadoEvent("evento " + idEvento + " publicado"));
 
         log.info("¡Evento ID: {} publicado exitosamente!", idEvento);
         return eventoMapper.toResponseDTO(eventoPublicado);
@@ -0,0 +1,147 @@
+package pe.edu.pucp.fasticket.services.eventos;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import pe.edu.pucp.fasticket.events.CatalogoModificadoEvent;
+import pe.edu.pucp.fasticket.exception.ResourceNotFoundException;
+import pe.edu.pucp.fasticket.model.eventos.Evento;
+import pe.edu.pucp.fasticket.model.eventos.ModoEmisionTicket;
+import pe.edu.pucp.fasticket.model.eventos.TipoTicket;
+import pe.edu.pucp.fasticket.repository.eventos.EventosRepositorio;
+import pe.edu.pucp.fasticket.repository.eventos.TipoTicketRepositorio;
+
+/**
+ * Índice en memoria TipoTicket → evento, zona, local, precio de lista y edad mínima.
+ *
+ * <p>El índice es un mapa inmutable que se reemplaza entero: se construye al iniciar, tras el commit
+ * de cada {@link CatalogoModificadoEvent} y cada {@code fasticket.catalogo.recarga-ms}, para recoger
+ * cambios hechos desde otras instancias. Las lecturas no tocan la base de datos; un tipo de ticket
+ * que aún no está en el índice se carga una vez y se agrega.</p>
+ *
+ * <p>Los tipos de ticket antiguos sin relación directa con su evento lo resuelven a través de
+ * sus tickets solo al agregarse por primera vez.</p>
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class IndiceCatalogo {
+
+    private final TipoTicketRepositorio tipoTicketRepositorio;
+    private final EventosRepositorio eventosRepositorio;
+
+    private volatile Map<Integer, EntradaCatalogo> entradas = Map.of();
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(initialDelayString = "${fasticket.catalogo.recarga-ms:60000}",
+               fixedDelayString = "${fasticket.catalogo.recarga-ms:60000}")
+    public void recargar() {
+        Map<Integer, EntradaCatalogo> nuevas = new HashMap<>();
+        Map<Integer, EntradaCatalogo> actuales = entradas;
+        for (Object[] fila : tipoTicketRepositorio.findCatalogo()) {
+            Integer idTipoTicket = (Integer) fila[0];
+            if (fila[5] != null) {
+                nuevas.put(idTipoTicket, entrada(fila));
+            } else if (actuales.containsKey(idTipoTicket)) {
+                // Evento resuelto por sus tickets: no cambia de evento
+                nuevas.put(idTipoTicket, conDatosDeTipo(actuales.get(idTipoTicket), fila));
+            }
+        }
+        entradas = Map.copyOf(nuevas);
+        log.debug("Índice de catálogo recargado con {} tipos de ticket", nuevas.size());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void alModificarCatalogo(CatalogoModificadoEvent evento) {
+        log.debug("Catálogo modificado ({}), recargando índice", evento.getMotivo());
+        recargar();
+    }
+
+    /**
+     * Entrada de catálogo del tipo de ticket.
+     *
+     * @throws ResourceNotFoundException si el tipo de ticket no existe o no tiene evento
+     */
+    public EntradaCatalogo obtener(Integer idTipoTicket) {
+        return buscar(idTipoTicket)
+                .orElseThrow(() -> new ResourceNotFoundException("Evento no encontrado para el tipo de ticket"));
+    }
+
+    /**
+     * Entrada de catálogo del tipo de ticket, vacía si no existe o no tiene evento.
+     */
+    public Optional<EntradaCatalogo> buscar(Integer idTipoTicket) {
+        EntradaCatalogo entrada = entradas.get(idTipoTicket);
+        return entrada != null ? Optional.of(entrada) : Optional.ofNullable(cargar(idTipoTicket));
+    }
+
+    /**
+     * Referencia JPA al evento, sin cargarlo: basta para asignarlo a tickets; se carga al leer sus campos.
+     */
+    public Evento evento(Integer idEvento) {
+        return eventosRepositorio.getReferenceById(idEvento);
+    }
+
+    /**
+     * Referencia JPA al tipo de ticket, sin cargarlo: basta para asignarlo a items y tickets;
+     * precio, nombre y límite se leen de su {@link EntradaCatalogo}.
+     */
+    public TipoTicket tipoTicket(Integer idTipoTicket) {
+        return tipoTicketRepositorio.getReferenceById(idTipoTicket);
+    }
+
+    private synchronized EntradaCatalogo cargar(Integer idTipoTicket) {
+        EntradaCatalogo existente = entradas.get(idTipoTicket);
+        if (existente != null) {
+            return existente;
+        }
+        List<Object[]> filas = tipoTicketRepositorio.findCatalogoById(idTipoTicket);
+        if (filas.isEmpty()) {
+            return null;
+        }
+        Object[] fila = filas.get(0);
+        EntradaCatalogo entrada;
+        if (fila[5] != null) {
+            entrada = entrada(fila);
+        } else {
+            Evento evento = tipoTicketRepositorio.findEventoByTipoTicket(idTipoTicket).orElse(null);
+            if (evento == null) {
+                return null;
+            }
+            entrada = new EntradaCatalogo(idTipoTicket, (String) fila[1], (Double) fila[2], (Integer) fila[3],
+                    (Integer) fila[4], evento.getIdEvento(), evento.getNombre(), evento.getFechaEvento(),
+                    evento.getHoraInicio(), evento.getEdadMinima(), evento.isEmisionBajoDemanda(),
+                    evento.getLocal() != null ? evento.getLocal().getIdLocal() : null,
+                    evento.getLocal() != null ? evento.getLocal().getNombre() : null);
+        }
+        Map<Integer, EntradaCatalogo> nuevas = new HashMap<>(entradas);
+        nuevas.put(idTipoTicket, entrada);
+        entradas = Map.copyOf(nuevas);
+        return entrada;
+    }
+
+    private static EntradaCatalogo entrada(Object[] fila) {
+        return new EntradaCatalogo((Integer) fila[0], (String) fila[1], (Double) fila[2], (Integer) fila[3],
+                (Integer) fila[4], (Integer) fila[5], (String) fila[6], (LocalDate) fila[7], (LocalTime) fila[8],
+                (Integer) fila[9], fila[10] == ModoEmisionTicket.BAJO_DEMANDA, (Integer) fila[11], (String) fila[12]);
+    }
+
+    private static EntradaCatalogo conDatosDeTipo(EntradaCatalogo anterior, Object[] fila) {
+        return new EntradaCatalogo(anterior.idTipoTicket(), (String) fila[1], (Double) fila[2], (Integer) fila[3],
+                (Integer) fila[4], anterior.idEvento(), anterior.nombreEvento(), anterior.fechaEvento(),
+                anterior.horaInicio(), anterior.edadMinima(), anterior.emisionBajoDemanda(),
+                anterior.idLocal(), anterior.nombreLocal());
+    }
+}
@@ -2,10 +2,14 @@ package pe.edu.pucp.fasticket.services.eventos;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import pe.edu.pucp.fasticket.dto.PaginaCursor;
 import pe.edu.pucp.fasticket.dto.eventos.LocalCreateDTO;
 import pe.edu.pucp.fasticket.dto.eventos.LocalResponseDTO;
+import pe.edu.pucp.fasticket.events.CatalogoModificadoEvent;
+import pe.edu.pucp.fasticket.events.TextoCatalogoModificadoEvent;
 import pe.edu.pucp.fasticket.exception.BusinessException;
 import pe.edu.pucp.fasticket.exception.ResourceNotFoundException;
 import pe.edu.pucp.fasticket.mapper.LocalMapper;
@@ -31,11 +35,17 @@ public class LocalService {
     private final LocalesRepositorio localRepository;
     private final DistritoRepository distritoRepository;
     private final LocalMapper localMapper;
+    private final ApplicationEventPublisher eventPublisher;
 
-    public List<LocalResponseDTO> listarTodos() {
-        return localRepository.findAll().stream()
-                .map(localMapper::toResponseDTO)
-                .collect(Collectors.toList());
+    /**
+     * Página de todos los locales ordenados por ID.
+     *
+     * @param cursor Cursor devuelto con la página anterior, o null para la primera
+     * @param limite Locales por página, o null para el valor por defecto
+     */
+    public PaginaCursor<LocalResponseDTO> listarTodos(String cursor, Integer limite) {
+        List<LocalResponseDTO> filas = localRepository.findResumenes(PaginaCursor.desde(cursor), PaginaCursor.filas(limite));
+        return PaginaCursor.de(filas, limite, LocalResponseDTO::getIdLocal);
     }
 
     public List<LocalResponseDTO> listarActivos() {
@@ -69,6 +79,8 @@ public class LocalService {
         // Crear y guardar
         Local local = localMapper.toEntity(dto, distrito);
         Local localGuardado = localRepository.save(local);
+        eventPublisher.publishEvent(TextoCatalogoModificadoEvent.deLocal(localGuardado.getIdLocal()));
+        eventPublisher.publishEvent(new CatalogoModificadoEvent("local " + localGuardado.getIdLocal() + " creado"));
 
         log.info("Local creado con ID: {}", localGuardado.getIdLocal());
         return localMapper.toResponseDTO(localGuardado);
@@ -98,6 +110,8 @@ public class LocalService {
         localMapper.updateEntity(local, dto, distrito);
         local.setFechaActualizacion(LocalDate.now());
         Local localActualizado = localRepository.save(local);
+        eventPublisher.publishEvent(new CatalogoModificadoEvent("local " + id + " actualizado"));
+        eventPublisher.publishEvent(TextoCatalogoModificadoEvent.deLocal(id));
 
         log.info("Local actualizado: {}", id);
         return localMapper.toResponseDTO(localActualizado);
@@ -113,6 +127,8 @@ public class LocalService {
         local.setActivo(false);
         local.setFechaActualizacion(LocalDate.now());
         localRepository.save(local);
+        eventPublisher.publishEvent(new CatalogoModificadoEvent("local " + id + " desactivado"));
+        eventPublisher.publishEvent(TextoCatalogoModificadoEvent.deLocal(id));
 
         log.info("Local desactivado: {}", id);
     }
@@ -134,6 +150,7 @@ public class LocalService {
         local.setImagenUrl(imagenUrl);
         local.setFechaActualizacion(LocalDate.now());
         Local localActualizado = localRepository.save(local);
+        eventPublisher.publishEvent(new CatalogoModificadoEvent("imagen del local " + id + " actualizada"));
 
         log.info("URL de imagen actualizada para local ID: {}", id);
         return localMapper.toResponseDTO(localActualizado);
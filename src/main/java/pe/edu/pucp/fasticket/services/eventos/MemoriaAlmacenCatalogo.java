@@ -0,0 +1,58 @@
+package pe.edu.pucp.fasticket.services.eventos;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+
+import pe.edu.pucp.fasticket.dto.eventos.EventoResponseDTO;
+
+/**
+ * Sin nivel compartido: cada instancia usa solo su caché local y recoge los cambios de otras
+ * instancias al vencer el TTL. Pensado para un solo nodo, desarrollo local y tests sin Redis.
+ *
+ * <p>La versión es un contador de esta instancia, con un prefijo por arranque para que no se repita
+ * entre reinicios ni coincida con la de otra instancia.</p>
+ */
+@Service
+@ConditionalOnProperty(name = "fasticket.catalogo.cache.almacen", havingValue = "memoria", matchIfMissing = true)
+public class MemoriaAlmacenCatalogo implements AlmacenCatalogo {
+
+    private final String arranque = Long.toString(System.currentTimeMillis(), 36);
+    private final AtomicLong version = new AtomicLong();
+
+    @Override
+    public String version() {
+        return arranque + "-" + version.get();
+    }
+
+    @Override
+    public Optional<List<EventoResponseDTO>> leer(String version, String clave) {
+        return Optional.empty();
+    }
+
+    @Override
+    public void escribir(String version, String clave, List<EventoResponseDTO> eventos, Duration ttl) {
+    }
+
+    @Override
+    public Optional<byte[]> leerDocumento(String version, String clave) {
+        return Optional.empty();
+    }
+
+    @Override
+    public void escribirDocumento(String version, String clave, byte[] json, Duration ttl) {
+    }
+
+    @Override
+    public void invalidar() {
+        version.incrementAndGet();
+    }
+
+    @Override
+    public void alInvalidarRemoto(Runnable accion) {
+    }
+}
@@ -0,0 +1,160 @@
+package pe.edu.pucp.fasticket.services.eventos;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.stereotype.Service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import pe.edu.pucp.fasticket.dto.eventos.EventoResponseDTO;
+
+/**
+ * Listados del catálogo en Redis, compartidos por todas las instancias.
+ *
+ * <p>La versión vigente vive en {@code <prefijo>:version} y cada listado o documento en
+ * {@code <prefijo>:<version>:<clave>} como JSON con TTL nativo. Invalidar incrementa la versión
+ * (los listados viejos vencen solos) y publica el id de esta instancia en el canal
+ * {@code fasticket.catalogo.cache.canal}; las demás instancias vacían su caché local al recibirlo.</p>
+ *
+ * <p>Si Redis no responde, el catálogo sigue funcionando solo con la caché local.</p>
+ */
+@Service
+@ConditionalOnProperty(name = "fasticket.catalogo.cache.almacen", havingValue = "redis")
+@Slf4j
+public class RedisAlmacenCatalogo implements AlmacenCatalogo {
+
+    private static final TypeReference<List<EventoResponseDTO>> LISTADO = new TypeReference<>() { };
+
+    private final StringRedisTemplate redisTemplate;
+    private final ObjectMapper objectMapper;
+    private final String prefijo;
+    private final ChannelTopic canal;
+    private final String nodo = UUID.randomUUID().toString();
+    private final List<Runnable> acciones = new CopyOnWriteArrayList<>();
+    private final RedisMessageListenerContainer contenedor = new RedisMessageListenerContainer();
+
+    public RedisAlmacenCatalogo(StringRedisTemplate redisTemplate,
+                                RedisConnectionFactory connectionFactory,
+                                ObjectMapper objectMapper,
+                                @Value("${fasticket.catalogo.cache.prefijo:fasticket:catalogo}") String prefijo,
+                                @Value("${fasticket.catalogo.cache.canal:fasticket:catalogo:invalidaciones}") String canal) {
+        this.redisTemplate = redisTemplate;
+        this.objectMapper = objectMapper;
+        this.prefijo = prefijo;
+        this.canal = new ChannelTopic(canal);
+        this.contenedor.setConnectionFactory(connectionFactory);
+    }
+
+    @PostConstruct
+    void suscribir() {
+        contenedor.addMessageListener((mensaje, patron) -> {
+            String origen = new String(mensaje.getBody());
+            if (!nodo.equals(origen)) {
+                log.debug("Catálogo invalidado por la instancia {}", origen);
+                acciones.forEach(Runnable::run);
+            }
+        }, canal);
+        contenedor.afterPropertiesSet();
+        contenedor.start();
+    }
+
+    @PreDestroy
+    void cerrar() throws Exception {
+        contenedor.destroy();
+    }
+
+    @Override
+    public String version() {
+        try {
+            String version = redisTemplate.opsForValue().get(prefijo + ":version");
+            return version != null ? version : "0";
+        } catch (DataAccessException e) {
+            log.warn("Redis no disponible para la caché de catálogo: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    @Override
+    public Optional<List<EventoResponseDTO>> leer(String version, String clave) {
+        if (version == null) {
+            return Optional.empty();
+        }
+        try {
+            String valor = redisTemplate.opsForValue().get(prefijo + ":" + version + ":" + clave);
+            return valor == null ? Optional.empty() : Optional.of(objectMapper.readValue(valor, LISTADO));
+        } catch (DataAccessException | JsonProcessingException e) {
+            log.warn("No se pudo leer el listado {} de la caché de catálogo: {}", clave, e.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    @Override
+    public void escribir(String version, String clave, List<EventoResponseDTO> eventos, Duration ttl) {
+        if (version == null) {
+            return;
+        }
+        try {
+            redisTemplate.opsForValue().set(prefijo + ":" + version + ":" + clave, objectMapper.writeValueAsString(eventos), ttl);
+        } catch (DataAccessException | JsonProcessingException e) {
+            log.warn("No se pudo guardar el listado {} en la caché de catálogo: {}", clave, e.getMessage());
+        }
+    }
+
+    @Override
+    public Optional<byte[]> leerDocumento(String version, String clave) {
+        if (version == null) {
+            return Optional.empty();
+        }
+        try {
+            String valor = redisTemplate.opsForValue().get(prefijo + ":" + version + ":" + clave);
+            return Optional.ofNullable(valor).map(json -> json.getBytes(StandardCharsets.UTF_8));
+        } catch (DataAccessException e) {
+            log.warn("No se pudo leer el documento {} de la caché de catálogo: {}", clave, e.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    @Override
+    public void escribirDocumento(String version, String clave, byte[] json, Duration ttl) {
+        if (version == null) {
+            return;
+        }
+        try {
+            redisTemplate.opsForValue().set(prefijo + ":" + version + ":" + clave, new String(json, StandardCharsets.UTF_8), ttl);
+        } catch (DataAccessException e) {
+            log.warn("No se pudo guardar el documento {} en la caché de catálogo: {}", clave, e.getMessage());
+        }
+    }
+
+    @Override
+    public void invalidar() {
+        try {
+            redisTemplate.opsForValue().increment(prefijo + ":version");
+            redisTemplate.convertAndSend(canal.getTopic(), nodo);
+        } catch (DataAccessException e) {
+            log.warn("No se pudo difundir la invalidación del catálogo: {}", e.getMessage());
+        }
+    }
+
+    @Override
+    public void alInvalidarRemoto(Runnable accion) {
+        acciones.add(accion);
+    }
+}
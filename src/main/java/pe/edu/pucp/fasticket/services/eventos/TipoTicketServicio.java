@@ -1,22 +1,32 @@
 package pe.edu.pucp.fasticket.services.eventos;
 
 import java.util.List;
+import java.util.Objects;
 
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import pe.edu.pucp.fasticket.dto.PaginaCursor;
 import pe.edu.pucp.fasticket.dto.eventos.ActualizarTipoTicketRequestDTO;
 import pe.edu.pucp.fasticket.dto.eventos.CrearTipoTicketRequestDTO;
 import pe.edu.pucp.fasticket.dto.eventos.TipoTicketDTO;
+import pe.edu.pucp.fasticket.events.CatalogoModificadoEvent;
 import pe.edu.pucp.fasticket.exception.BusinessException;
 import pe.edu.pucp.fasticket.exception.ResourceNotFoundException;
 import pe.edu.pucp.fasticket.mapper.TipoTicketMapper;
+import pe.edu.pucp.fasticket.model.eventos.Evento;
 import pe.edu.pucp.fasticket.model.eventos.TipoTicket;
 import pe.edu.pucp.fasticket.model.eventos.Zona;
+import pe.edu.pucp.fasticket.repository.eventos.EventosRepositorio;
 import pe.edu.pucp.fasticket.repository.eventos.TipoTicketRepositorio;
 import pe.edu.pucp.fasticket.repository.eventos.ZonaRepositorio;
+import pe.edu.pucp.fasticket.services.asientos.MapaAsientosService;
+import pe.edu.pucp.fasticket.services.concurrencia.ReintentarConflicto;
+import pe.edu.pucp.fasticket.services.inventario.InventarioService;
+import pe.edu.pucp.fasticket.services.inventario.LimiteCompraService;
 
 @Service
 @RequiredArgsConstructor
@@ -26,13 +36,22 @@ public class TipoTicketServicio {
     private final TipoTicketRepositorio tipoTicketRepositorio;
     private final ZonaRepositorio zonaRepositorio;
     private final TipoTicketMapper tipoTicketMapper;
+    private final InventarioService inventarioService;
+    private final LimiteCompraService limiteCompraService;
+    private final MapaAsientosService mapaAsientosService;
+    private final EventosRepositorio eventosRepositorio;
+    private final ApplicationEventPublisher eventPublisher;
 
-    public List<TipoTicketDTO> listarTodos() {
-        log.info("Listando todos los tipos de ticket");
-        return tipoTicketRepositorio.findAll()
-                .stream()
-                .map(tipoTicketMapper::toDTO)
-                .toList();
+    /**
+     * Página de todos los tipos de ticket ordenados por ID.
+     *
+     * @param cursor Cursor devuelto con la página anterior, o null para la primera
+     * @param limite Tipos de ticket por página, o null para el valor por defecto
+     */
+    public PaginaCursor<TipoTicketDTO> listarTodos(String cursor, Integer limite) {
+        log.info("Listando tipos de ticket desde el cursor {}", cursor);
+        List<TipoTicketDTO> filas = tipoTicketRepositorio.findResumenes(PaginaCursor.desde(cursor), PaginaCursor.filas(limite));
+        return PaginaCursor.de(filas, limite, TipoTicketDTO::getIdTipoTicket);
     }
 
     public List<TipoTicketDTO> listarPorZona(Integer idZona) {
@@ -110,14 +129,22 @@ public class TipoTicketServicio {
         tipoTicket.setCantidadVendida(0);
         tipoTicket.setActivo(true);
         tipoTicket.setLimitePorPersona(dto.getLimitePorPersona());
+        if (dto.getIdEvento() != null) {
+            Evento evento = eventosRepositorio.findById(dto.getIdEvento())
+                    .orElseThrow(() -> new ResourceNotFoundException("Evento no encontrado con ID: " + dto.getIdEvento()));
+            tipoTicket.setEvento(evento);
+        }
         
         TipoTicket guardado = tipoTicketRepositorio.save(tipoTicket);
+        inventarioService.abrir(guardado);
+        eventPublisher.publishEvent(new CatalogoModificadoEvent("tipo de ticket " + guardado.getIdTipoTicket() + " creado"));
         log.info("Tipo de ticket creado exitosamente con ID: {}", guardado.getIdTipoTicket());
         
         return tipoTicketMapper.toDTO(guardado);
     }
 
     @Transactional
+    @ReintentarConflicto
     public TipoTicketDTO actualizar(Integer id, ActualizarTipoTicketRequestDTO dto) {
         log.info("Actualizando tipo de ticket con ID: {}", id);
         
@@ -139,20 +166,26 @@ public class TipoTicketServicio {
         tipoTicket.setNombre(dto.getNombre());
         tipoTicket.setDescripcion(dto.getDescripcion());
         tipoTicket.setPrecio(dto.getPrecio());
+        if (!Objects.equals(tipoTicket.getLimitePorPersona(), dto.getLimitePorPersona())) {
+            limiteCompraService.olvidar(id);
+        }
         tipoTicket.setLimitePorPersona(dto.getLimitePorPersona());
         
         // Actualizar stock y cantidad disponible
         int diferenciaStock = dto.getStock() - tipoTicket.getStock();
         tipoTicket.setStock(dto.getStock());
-        tipoTicket.setCantidadDisponible(tipoTicket.getCantidadDisponible() + diferenciaStock);
+        inventarioService.ajustarStock(tipoTicket, diferenciaStock);
         
         TipoTicket actualizado = tipoTicketRepositorio.save(tipoTicket);
+        eventPublisher.publishEvent(new CatalogoModificadoEvent("tipo de ticket " + id + " actualizado"));
+        actualizado.setCantidadDisponible(inventarioService.disponibles(actualizado));
         log.info("Tipo de ticket actualizado exitosamente");
         
         return tipoTicketMapper.toDTO(actualizado);
     }
 
     @Transactional
+    @ReintentarConflicto
     public void eliminar(Integer id) {
         log.info("Eliminando tipo de ticket con ID: {}", id);
         
@@ -160,15 +193,20 @@ public class TipoTicketServicio {
                 .orElseThrow(() -> new ResourceNotFoundException("Tipo de ticket no encontrado con ID: " + id));
         
         // Validar que no tenga tickets vendidos
-        if (tipoTicket.getCantidadVendida() > 0) {
+        if (inventarioService.vendidos(tipoTicket) > 0) {
             throw new BusinessException("No se puede eliminar un tipo de ticket que ya tiene tickets vendidos");
         }
         
         tipoTicketRepositorio.delete(tipoTicket);
+        inventarioService.olvidar(id);
+        limiteCompraService.olvidar(id);
+        mapaAsientosService.olvidar(id);
+        eventPublisher.publishEvent(new CatalogoModificadoEvent("tipo de ticket " + id + " eliminado"));
         log.info("Tipo de ticket eliminado exitosamente");
     }
 
     @Transactional
+    @ReintentarConflicto
     public void desactivar(Integer id) {
         log.info("Desactivando tipo de ticket con ID: {}", id);
         
@@ -4,11 +4,13 @@ import java.time.LocalDate;
 import java.util.List;
 import java.util.Optional;
 
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import pe.edu.pucp.fasticket.events.CatalogoModificadoEvent;
 import pe.edu.pucp.fasticket.exception.ResourceNotFoundException;
 import pe.edu.pucp.fasticket.model.eventos.Local;
 import pe.edu.pucp.fasticket.model.eventos.Zona;
@@ -23,6 +25,7 @@ public class ZonaServicioImpl implements ZonaServicio {
 
     private final ZonaRepository zonaRepository;
     private final LocalesRepositorio localRepository;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Override
     @Transactional(readOnly = true)
@@ -62,6 +65,7 @@ public class ZonaServicioImpl implements ZonaServicio {
         }
         
         Zona zonaGuardada = zonaRepository.save(zona);
+        eventPublisher.publishEvent(new CatalogoModificadoEvent("zona " + zonaGuardada.getIdZona() + " creada"));
         log.info("Zona guardada - ID: {}, Local: {}", zonaGuardada.getIdZona(), zonaGuardada.getLocal());
         return zonaGuardada;
     }
@@ -82,7 +86,9 @@ public class ZonaServicioImpl implements ZonaServicio {
             log.warn("El ID del local es null");
         }
         
-        return zonaRepository.save(zona);
+        Zona zonaActualizada = zonaRepository.save(zona);
+        eventPublisher.publishEvent(new CatalogoModificadoEvent("zona " + zonaActualizada.getIdZona() + " actualizada"));
+        return zonaActualizada;
     }
 
     @Override
@@ -92,6 +98,7 @@ public class ZonaServicioImpl implements ZonaServicio {
             throw new ResourceNotFoundException("Zona no encontrada con ID: " + id);
         }
         zonaRepository.deleteById(id);
+        eventPublisher.publishEvent(new CatalogoModificadoEvent("zona " + id + " eliminada"));
     }
 
     @Override
@@ -111,6 +118,7 @@ public class ZonaServicioImpl implements ZonaServicio {
         zona.setImagenUrl(imagenUrl);
         zona.setFechaActualizacion(LocalDate.now());
         Zona zonaActualizada = zonaRepository.save(zona);
+        eventPublisher.publishEvent(new CatalogoModificadoEvent("imagen de la zona " + id + " actualizada"));
 
         log.info("URL de imagen actualizada para zona ID: {}", id);
         return zonaActualizada;
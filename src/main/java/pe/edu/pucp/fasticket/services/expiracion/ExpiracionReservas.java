@@ -0,0 +1,88 @@
+package pe.edu.pucp.fasticket.services.expiracion;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Vencimientos de las reservas temporales (órdenes PENDIENTE y carritos con tickets RESERVADA).
+ *
+ * <p>Los servicios de compra registran aquí cada vencimiento al crear la reserva y lo cancelan
+ * cuando la reserva se paga, se cancela o se vacía. Los cambios se aplican después del commit.
+ * {@code TareaProgramadaServicio} consulta las reservas vencidas en cada tick y las libera.
+ * La rueda vive en memoria: se reconstruye desde la base de datos al iniciar y se resincroniza
+ * periódicamente, por lo que perder un registro solo retrasa la liberación.</p>
+ */
+@Component
+public class ExpiracionReservas {
+
+    public enum TipoReserva { ORDEN, CARRITO }
+
+    public record Reserva(TipoReserva tipo, Integer id) {}
+
+    private final RuedaTemporizadores<Reserva> rueda;
+
+    public ExpiracionReservas(@Value("${fasticket.expiracion.tick-ms:500}") long tickMs) {
+        this.rueda = new RuedaTemporizadores<>(tickMs, System.currentTimeMillis());
+    }
+
+    public void programarOrden(Integer idOrden, LocalDateTime vence) {
+        programar(new Reserva(TipoReserva.ORDEN, idOrden), vence);
+    }
+
+    public void programarCarrito(Integer idCarro, LocalDateTime vence) {
+        programar(new Reserva(TipoReserva.CARRITO, idCarro), vence);
+    }
+
+    public void cancelarOrden(Integer idOrden) {
+        cancelar(new Reserva(TipoReserva.ORDEN, idOrden));
+    }
+
+    public void cancelarCarrito(Integer idCarro) {
+        cancelar(new Reserva(TipoReserva.CARRITO, idCarro));
+    }
+
+    /**
+     * Reservas cuyo vencimiento ya pasó. Cada una se entrega una sola vez.
+     */
+    public List<Reserva> vencidas() {
+        return rueda.avanzar(System.currentTimeMillis());
+    }
+
+    public int pendientes() {
+        return rueda.tamano();
+    }
+
+    private void programar(Reserva reserva, LocalDateTime vence) {
+        if (reserva.id() == null || vence == null) {
+            return;
+        }
+        long venceMs = vence.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+        despuesDelCommit(() -> rueda.programar(reserva, venceMs));
+    }
+
+    private void cancelar(Reserva reserva) {
+        if (reserva.id() == null) {
+            return;
+        }
+        despuesDelCommit(() -> rueda.cancelar(reserva));
+    }
+
+    private void despuesDelCommit(Runnable accion) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            accion.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                accion.run();
+            }
+        });
+    }
+}
@@ -0,0 +1,92 @@
+package pe.edu.pucp.fasticket.services.expiracion;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import pe.edu.pucp.fasticket.repository.compra.OrdenCompraRepositorio;
+import pe.edu.pucp.fasticket.repository.eventos.TicketRepository;
+import pe.edu.pucp.fasticket.repository.eventos.TipoTicketRepositorio;
+import pe.edu.pucp.fasticket.services.asientos.MapaAsientosService;
+import pe.edu.pucp.fasticket.services.inventario.InventarioService;
+import pe.edu.pucp.fasticket.services.inventario.LimiteCompraService;
+import pe.edu.pucp.fasticket.services.reservas.ReservaAsientosService;
+
+/**
+ * Liberación por lotes de órdenes PENDIENTE vencidas, sin cargar órdenes, items ni tickets como entidades.
+ *
+ * <p>Por lote se ejecutan cinco sentencias: bloquear las órdenes que siguen vencidas, leer sus
+ * tickets RESERVADA (id, tipo, cliente), anular los de emisión bajo demanda, devolver el resto
+ * a DISPONIBLE y pasar las órdenes a RECHAZADO. Las cantidades se devuelven al inventario
+ * agrupadas por tipo de ticket, y el volcado del inventario las aplica como un incremento
+ * por fila de TipoTicket. Los asientos precreados vuelven a su mapa de asientos; los tipos
+ * de emisión bajo demanda no tienen mapa. Tras el commit se sueltan sus retenciones en el
+ * registro compartido, con una llamada por tipo de ticket y cliente; si no, vencerían solas
+ * con su TTL, que coincide con el vencimiento de la orden.</p>
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class LiberacionReservasService {
+
+    private final OrdenCompraRepositorio ordenCompraRepositorio;
+    private final TicketRepository ticketRepository;
+    private final TipoTicketRepositorio tipoTicketRepositorio;
+    private final InventarioService inventarioService;
+    private final LimiteCompraService limiteCompraService;
+    private final MapaAsientosService mapaAsientosService;
+    private final ReservaAsientosService reservaAsientosService;
+
+    private record Retencion(Integer idTipoTicket, Integer idCliente) {}
+
+    /**
+     * Libera las órdenes de la lista que siguen PENDIENTE y vencidas. Las demás se ignoran.
+     *
+     * @return cantidad de tickets liberados
+     */
+    @Transactional
+    public int liberarOrdenesExpiradas(Collection<Integer> idsOrden) {
+        if (idsOrden.isEmpty()) {
+            return 0;
+        }
+        List<Integer> ids = ordenCompraRepositorio.bloquearExpiradas(idsOrden, LocalDateTime.now());
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        List<Object[]> tickets = ticketRepository.findReservadosDeOrdenes(ids);
+        ticketRepository.anularReservadosBajoDemanda(ids);
+        ticketRepository.liberarReservados(ids);
+        ordenCompraRepositorio.rechazar(ids);
+
+        Map<Integer, Integer> cantidadPorTipo = new HashMap<>();
+        Map<Retencion, List<Integer>> ticketsPorRetencion = new HashMap<>();
+        for (Object[] fila : tickets) {
+            Integer idTicket = (Integer) fila[0];
+            Integer idTipoTicket = (Integer) fila[1];
+            if (idTipoTicket == null) {
+                continue;
+            }
+            cantidadPorTipo.merge(idTipoTicket, 1, Integer::sum);
+            ticketsPorRetencion.computeIfAbsent(new Retencion(idTipoTicket, (Integer) fila[2]), r -> new ArrayList<>())
+                    .add(idTicket);
+        }
+        cantidadPorTipo.forEach((idTipoTicket, cantidad) ->
+                inventarioService.liberar(tipoTicketRepositorio.getReferenceById(idTipoTicket), cantidad));
+        ticketsPorRetencion.forEach((retencion, idsTicket) -> {
+            limiteCompraService.liberar(retencion.idTipoTicket(), retencion.idCliente(), idsTicket.size());
+            mapaAsientosService.liberar(retencion.idTipoTicket(), idsTicket);
+            reservaAsientosService.liberar(retencion.idTipoTicket(), idsTicket, retencion.idCliente());
+        });
+
+        log.info("{} órdenes expiradas, {} tickets liberados", ids.size(), tickets.size());
+        return tickets.size();
+    }
+}
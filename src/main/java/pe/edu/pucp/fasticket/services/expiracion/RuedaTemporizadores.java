@@ -0,0 +1,146 @@
+package pe.edu.pucp.fasticket.services.expiracion;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Rueda de temporizadores jerárquica.
+ *
+ * <p>El tiempo avanza en ticks de {@code tickMs}. Hay tres niveles de 64 ranuras: el primero cubre
+ * los próximos 64 ticks, el segundo 64² y el tercero 64³ (con ticks de 500 ms, unas 36 horas);
+ * lo que vence más lejos queda en una lista de desborde. Cuando el nivel inferior da una vuelta,
+ * la ranura correspondiente del nivel superior se redistribuye hacia abajo. Programar y cancelar
+ * cuestan O(1) y avanzar solo recorre las ranuras de los ticks transcurridos.</p>
+ *
+ * <p>Cada clave tiene a lo sumo un vencimiento vigente. Reprogramar o cancelar no busca la entrada
+ * anterior en su ranura: se descarta al llegar su tick si ya no es la vigente.</p>
+ *
+ * <p>Es segura para varios hilos; todos los métodos sincronizan sobre la instancia.</p>
+ */
+public class RuedaTemporizadores<K> {
+
+    private static final int BITS = 6;
+    private static final int RANURAS = 1 << BITS;
+    private static final int MASCARA = RANURAS - 1;
+    private static final int NIVELES = 3;
+
+    private record Entrada<K>(K clave, long tick) {}
+
+    private final long tickMs;
+    private final List<List<List<Entrada<K>>>> niveles = new ArrayList<>(NIVELES);
+    private final List<Entrada<K>> desborde = new ArrayList<>();
+    private final List<Entrada<K>> vencidasAlProgramar = new ArrayList<>();
+    private final Map<K, Long> vigentes = new HashMap<>();
+    private long tickActual;
+
+    public RuedaTemporizadores(long tickMs, long ahoraMs) {
+        if (tickMs < 1) {
+            throw new IllegalArgumentException("La duración del tick debe ser al menos 1 ms");
+        }
+        this.tickMs = tickMs;
+        this.tickActual = Math.floorDiv(ahoraMs, tickMs);
+        for (int n = 0; n < NIVELES; n++) {
+            List<List<Entrada<K>>> ranuras = new ArrayList<>(RANURAS);
+            for (int r = 0; r < RANURAS; r++) {
+                ranuras.add(new ArrayList<>());
+            }
+            niveles.add(ranuras);
+        }
+    }
+
+    /**
+     * Programa (o reprograma) el vencimiento de {@code clave}. Si ya venció, se entrega en el próximo avance.
+     */
+    public synchronized void programar(K clave, long venceMs) {
+        long tick = Math.floorDiv(venceMs + tickMs - 1, tickMs);
+        vigentes.put(clave, tick);
+        Entrada<K> entrada = new Entrada<>(clave, tick);
+        if (tick <= tickActual) {
+            vencidasAlProgramar.add(entrada);
+        } else {
+            ubicar(entrada);
+        }
+    }
+
+    public synchronized void cancelar(K clave) {
+        vigentes.remove(clave);
+    }
+
+    /**
+     * Avanza la rueda hasta {@code ahoraMs} y devuelve las claves vencidas, en orden de vencimiento.
+     */
+    public synchronized List<K> avanzar(long ahoraMs) {
+        List<K> vencidas = new ArrayList<>();
+        recoger(vencidasAlProgramar, vencidas);
+        long objetivo = Math.floorDiv(ahoraMs, tickMs);
+        if (vigentes.isEmpty()) {
+            tickActual = Math.max(tickActual, objetivo);
+            return vencidas;
+        }
+        while (tickActual < objetivo) {
+            tickActual++;
+            if ((tickActual & ((1L << (BITS * NIVELES)) - 1)) == 0) {
+                redistribuir(desborde);
+            }
+            for (int n = NIVELES - 1; n >= 1; n--) {
+                if ((tickActual & ((1L << (BITS * n)) - 1)) == 0) {
+                    redistribuir(niveles.get(n).get(ranura(tickActual, n)));
+                }
+            }
+            recoger(niveles.get(0).get(ranura(tickActual, 0)), vencidas);
+        }
+        return vencidas;
+    }
+
+    /**
+     * Cantidad de claves con vencimiento vigente.
+     */
+    public synchronized int tamano() {
+        return vigentes.size();
+    }
+
+    private void ubicar(Entrada<K> entrada) {
+        long delta = entrada.tick() - tickActual;
+        for (int n = 0; n < NIVELES; n++) {
+            if (delta < (1L << (BITS * (n + 1)))) {
+                niveles.get(n).get(ranura(entrada.tick(), n)).add(entrada);
+                return;
+            }
+        }
+        desborde.add(entrada);
+    }
+
+    private void redistribuir(List<Entrada<K>> ranura) {
+        if (ranura.isEmpty()) {
+            return;
+        }
+        List<Entrada<K>> entradas = new ArrayList<>(ranura);
+        ranura.clear();
+        for (Entrada<K> entrada : entradas) {
+            if (esVigente(entrada)) {
+                ubicar(entrada);
+            }
+        }
+    }
+
+    private void recoger(List<Entrada<K>> ranura, List<K> vencidas) {
+        for (Entrada<K> entrada : ranura) {
+            if (esVigente(entrada)) {
+                vigentes.remove(entrada.clave());
+                vencidas.add(entrada.clave());
+            }
+        }
+        ranura.clear();
+    }
+
+    private boolean esVigente(Entrada<K> entrada) {
+        Long tick = vigentes.get(entrada.clave());
+        return tick != null && tick == entrada.tick();
+    }
+
+    private static int ranura(long tick, int nivel) {
+        return (int) ((tick >>> (BITS * nivel)) & MASCARA);
+    }
+}
@@ -9,6 +9,7 @@ import org.springframework.transaction.annotation.Transactional;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import pe.edu.pucp.fasticket.dto.PaginaCursor;
 import pe.edu.pucp.fasticket.dto.fidelizacion.CanjeDTO;
 import pe.edu.pucp.fasticket.dto.fidelizacion.CanjeRequestDTO;
 import pe.edu.pucp.fasticket.dto.fidelizacion.CodigoPromocionalDTO;
@@ -36,6 +37,7 @@ import pe.edu.pucp.fasticket.repository.fidelizacion.DescuentosRealizadosReposit
 import pe.edu.pucp.fasticket.repository.fidelizacion.PuntosRepository;
 import pe.edu.pucp.fasticket.repository.fidelizacion.ReglaPuntosRepository;
 import pe.edu.pucp.fasticket.repository.usuario.ClienteRepository;
+import pe.edu.pucp.fasticket.services.concurrencia.ReintentarConflicto;
 
 @Service
 @RequiredArgsConstructor
@@ -124,6 +126,7 @@ public class FidelizacionService {
     }
 
     @Transactional
+    @ReintentarConflicto
     public void borrarRegistroPuntos(Integer idCliente, Integer idPuntos) {
         log.warn("Solicitud de ANULACIÓN de registro de puntos ID: {} para cliente ID: {}", idPuntos, idCliente);
         Puntos puntos = puntosRepository.findById(idPuntos)
@@ -194,6 +197,7 @@ public class FidelizacionService {
     }
 
     @Transactional
+    @ReintentarConflicto
     public CanjeDTO realizarCanje(CanjeRequestDTO request) {
         Cliente cliente = clienteRepository.findById(request.getIdCliente())
                 .orElseThrow(() -> new ResourceNotFoundException("Cliente no encontrado con ID: " + request.getIdCliente()));
@@ -274,10 +278,15 @@ public class FidelizacionService {
 
     // ============ CÓDIGOS PROMOCIONALES ============
     
-    public List<CodigoPromocionalDTO> listarCodigosPromocionales() {
-        return codigoPromocionalRepository.findAll().stream()
-                .map(CodigoPromocionalDTO::new)
-                .collect(Collectors.toList());
+    /**
+     * Página de códigos promocionales ordenados por ID.
+     *
+     * @param cursor Cursor devuelto con la página anterior, o null para la primera
+     * @param limite Códigos por página, o null para el valor por defecto
+     */
+    public PaginaCursor<CodigoPromocionalDTO> listarCodigosPromocionales(String cursor, Integer limite) {
+        List<CodigoPromocionalDTO> filas = codigoPromocionalRepository.findResumenes(PaginaCursor.desde(cursor), PaginaCursor.filas(limite));
+        return PaginaCursor.de(filas, limite, CodigoPromocionalDTO::getIdCodigoPromocional);
     }
 
     public CodigoPromocionalDTO obtenerCodigoPromocional(Integer id) {
@@ -313,6 +322,7 @@ public class FidelizacionService {
     }
 
     @Transactional
+    @ReintentarConflicto
     public CodigoPromocionalDTO actualizarCodigoPromocional(Integer id, CodigoPromocionalRequestDTO request) {
         CodigoPromocional codigo = codigoPromocionalRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Código promocional no encontrado con ID: " + id));
@@ -336,6 +346,7 @@ public class FidelizacionService {
     }
 
     @Transactional
+    @ReintentarConflicto
     public void eliminarCodigoPromocional(Integer id) {
         CodigoPromocional codigo = codigoPromocionalRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Código promocional no encontrado con ID: " + id));
@@ -387,6 +398,7 @@ public class FidelizacionService {
     }
 
     @Transactional
+    @ReintentarConflicto
     public void aplicarDescuentoPorCodigoPromocional(Integer idOrdenCompra, String codigo) {
         CodigoPromocional codigoPromo = codigoPromocionalRepository.findByCodigo(codigo)
                 .orElseThrow(() -> new ResourceNotFoundException("Código promocional no encontrado: " + codigo));
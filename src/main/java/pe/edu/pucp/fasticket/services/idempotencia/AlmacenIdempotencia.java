@@ -0,0 +1,38 @@
+package pe.edu.pucp.fasticket.services.idempotencia;
+
+import java.time.Duration;
+import java.util.Optional;
+
+/**
+ * Registro de solicitudes con Idempotency-Key y de sus respuestas, con expiración automática.
+ * Patrón Strategy: la implementación en Redis se comparte entre todas las instancias
+ * de la aplicación; la implementación en memoria sirve para un solo nodo, desarrollo y tests.
+ */
+public interface AlmacenIdempotencia {
+
+    /**
+     * Marca la clave como en curso si no existe.
+     *
+     * @param clave Clave completa (usuario, operación e Idempotency-Key)
+     * @param huella Hash del cuerpo de la solicitud
+     * @param ttl Tiempo máximo que la marca bloquea la clave
+     * @return true si la marca se creó y el llamador debe ejecutar la operación
+     */
+    boolean reservar(String clave, String huella, Duration ttl);
+
+    /**
+     * Registro vigente de la clave: en curso o con la respuesta ya guardada.
+     */
+    Optional<RegistroIdempotencia> obtener(String clave);
+
+    /**
+     * Reemplaza la marca en curso por la respuesta final.
+     */
+    void completar(String clave, RegistroIdempotencia registro, Duration ttl);
+
+    /**
+     * Elimina la marca en curso de la clave si sigue siendo la de esa huella,
+     * para que un reintento pueda volver a ejecutar la operación.
+     */
+    void liberar(String clave, String huella);
+}
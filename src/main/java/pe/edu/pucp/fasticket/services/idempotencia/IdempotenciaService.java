@@ -0,0 +1,159 @@
+package pe.edu.pucp.fasticket.services.idempotencia;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.HexFormat;
+import java.util.Optional;
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import lombok.extern.slf4j.Slf4j;
+import pe.edu.pucp.fasticket.dto.StandardResponse;
+import pe.edu.pucp.fasticket.exception.BusinessException;
+
+/**
+ * Ejecuta una operación de escritura una sola vez por Idempotency-Key.
+ *
+ * <p>La clave se combina con el usuario autenticado y el nombre de la operación, y se asocia
+ * a un hash del cuerpo de la solicitud. La primera solicitud marca la clave como en curso y
+ * ejecuta la operación; si termina con éxito, su respuesta se guarda durante
+ * {@code fasticket.idempotencia.ttl-segundos} y los reintentos la reciben sin volver a ejecutar
+ * nada. Un duplicado que llega mientras la primera sigue en curso espera su respuesta hasta
+ * {@code fasticket.idempotencia.bloqueo-segundos}. Si la operación falla, la marca se elimina
+ * y el cliente puede reintentar con la misma clave.</p>
+ */
+@Service
+@Slf4j
+public class IdempotenciaService {
+
+    public static final String HEADER = "Idempotency-Key";
+    public static final String HEADER_REPETIDA = "Idempotent-Replayed";
+
+    private static final int LONGITUD_MAXIMA = 255;
+
+    private final AlmacenIdempotencia almacen;
+    private final ObjectMapper objectMapper;
+    private final Duration ttl;
+    private final Duration bloqueo;
+    private final long intervaloEsperaMs;
+
+    public IdempotenciaService(AlmacenIdempotencia almacen,
+                               ObjectMapper objectMapper,
+                               @Value("${fasticket.idempotencia.ttl-segundos:86400}") long ttlSegundos,
+                               @Value("${fasticket.idempotencia.bloqueo-segundos:30}") long bloqueoSegundos,
+                               @Value("${fasticket.idempotencia.intervalo-espera-ms:50}") long intervaloEsperaMs) {
+        this.almacen = almacen;
+        this.objectMapper = objectMapper;
+        this.ttl = Duration.ofSeconds(ttlSegundos);
+        this.bloqueo = Duration.ofSeconds(bloqueoSegundos);
+        this.intervaloEsperaMs = intervaloEsperaMs;
+    }
+
+    /**
+     * Ejecuta {@code operacion} o devuelve la respuesta guardada para la misma Idempotency-Key.
+     *
+     * @param llave Valor del header Idempotency-Key; si es null la operación se ejecuta sin más
+     * @param nombre Nombre de la operación, para que la misma llave no choque entre endpoints
+     * @param solicitud Cuerpo de la solicitud, para detectar una llave reutilizada con otros datos
+     * @param tipoDatos Tipo del campo {@code data} de la respuesta, para reconstruirla al repetirla
+     * @throws BusinessException si la llave ya se usó con otro cuerpo o la primera ejecución no termina a tiempo
+     */
+    public <T> ResponseEntity<StandardResponse<T>> ejecutar(String llave, String nombre, Object solicitud,
+                                                            Class<T> tipoDatos,
+                                                            Supplier<ResponseEntity<StandardResponse<T>>> operacion) {
+        if (llave == null) {
+            return operacion.get();
+        }
+        if (llave.isBlank() || llave.length() > LONGITUD_MAXIMA) {
+            throw new IllegalArgumentException("El header " + HEADER + " debe tener entre 1 y " + LONGITUD_MAXIMA + " caracteres");
+        }
+        String clave = usuarioActual() + ":" + nombre + ":" + llave;
+        String huella = huella(solicitud);
+        JavaType tipoRespuesta = objectMapper.getTypeFactory().constructParametricType(StandardResponse.class, tipoDatos);
+
+        long limite = System.nanoTime() + bloqueo.toNanos();
+        while (!almacen.reservar(clave, huella, bloqueo)) {
+            Optional<RegistroIdempotencia> registro = almacen.obtener(clave);
+            if (registro.isPresent()) {
+                if (!registro.get().huella().equals(huella)) {
+                    throw new BusinessException("La " + HEADER + " ya se usó con una solicitud distinta");
+                }
+                if (registro.get().completado()) {
+                    log.info("Solicitud repetida con {} en {}: se devuelve la respuesta guardada", HEADER, nombre);
+                    return repetir(registro.get(), tipoRespuesta);
+                }
+            }
+            if (System.nanoTime() > limite) {
+                throw new BusinessException("Una solicitud con la misma " + HEADER + " sigue en proceso");
+            }
+            esperar();
+        }
+
+        ResponseEntity<StandardResponse<T>> respuesta;
+        try {
+            respuesta = operacion.get();
+        } catch (RuntimeException | Error e) {
+            almacen.liberar(clave, huella);
+            throw e;
+        }
+        if (respuesta.getStatusCode().is2xxSuccessful()) {
+            almacen.completar(clave, new RegistroIdempotencia(huella, respuesta.getStatusCode().value(),
+                    serializar(respuesta.getBody())), ttl);
+        } else {
+            almacen.liberar(clave, huella);
+        }
+        return respuesta;
+    }
+
+    private <T> ResponseEntity<StandardResponse<T>> repetir(RegistroIdempotencia registro, JavaType tipoRespuesta) {
+        try {
+            StandardResponse<T> cuerpo = objectMapper.readValue(registro.cuerpo(), tipoRespuesta);
+            return ResponseEntity.status(registro.estadoHttp())
+                    .header(HEADER_REPETIDA, "true")
+                    .body(cuerpo);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Respuesta guardada ilegible", e);
+        }
+    }
+
+    private void esperar() {
+        try {
+            Thread.sleep(intervaloEsperaMs);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new BusinessException("Una solicitud con la misma " + HEADER + " sigue en proceso");
+        }
+    }
+
+    private String huella(Object solicitud) {
+        try {
+            byte[] cuerpo = objectMapper.writeValueAsBytes(solicitud);
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(cuerpo));
+        } catch (JsonProcessingException | NoSuchAlgorithmException e) {
+            throw new IllegalStateException("No se pudo calcular la huella de la solicitud", e);
+        }
+    }
+
+    private String serializar(Object cuerpo) {
+        try {
+            return objectMapper.writeValueAsString(cuerpo);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("No se pudo guardar la respuesta", e);
+        }
+    }
+
+    private static String usuarioActual() {
+        Authentication autenticacion = SecurityContextHolder.getContext().getAuthentication();
+        return autenticacion != null ? autenticacion.getName() : "anonimo";
+    }
+}
@@ -0,0 +1,80 @@
+package pe.edu.pucp.fasticket.services.idempotencia;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+
+/**
+ * Registro de Idempotency-Keys en memoria del proceso, como LRU acotado a
+ * {@code fasticket.idempotencia.capacidad} entradas.
+ * No se comparte entre instancias: pensado para un solo nodo, desarrollo local y tests sin Redis.
+ * Las entradas vencidas se descartan al consultarlas.
+ */
+@Service
+@ConditionalOnProperty(name = "fasticket.idempotencia.almacen", havingValue = "memoria", matchIfMissing = true)
+public class MemoriaAlmacenIdempotencia implements AlmacenIdempotencia {
+
+    private record Entrada(RegistroIdempotencia registro, long expiraEn) { }
+
+    private final Map<String, Entrada> entradas;
+    private final Clock clock;
+
+    @Autowired
+    public MemoriaAlmacenIdempotencia(@Value("${fasticket.idempotencia.capacidad:10000}") int capacidad) {
+        this(capacidad, Clock.systemUTC());
+    }
+
+    public MemoriaAlmacenIdempotencia(int capacidad, Clock clock) {
+        this.clock = clock;
+        this.entradas = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entrada> mayor) {
+                return size() > capacidad;
+            }
+        };
+    }
+
+    @Override
+    public synchronized boolean reservar(String clave, String huella, Duration ttl) {
+        if (vigente(clave) != null) {
+            return false;
+        }
+        entradas.put(clave, new Entrada(RegistroIdempotencia.enCurso(huella), clock.millis() + ttl.toMillis()));
+        return true;
+    }
+
+    @Override
+    public synchronized Optional<RegistroIdempotencia> obtener(String clave) {
+        Entrada entrada = vigente(clave);
+        return entrada == null ? Optional.empty() : Optional.of(entrada.registro());
+    }
+
+    @Override
+    public synchronized void completar(String clave, RegistroIdempotencia registro, Duration ttl) {
+        entradas.put(clave, new Entrada(registro, clock.millis() + ttl.toMillis()));
+    }
+
+    @Override
+    public synchronized void liberar(String clave, String huella) {
+        Entrada entrada = entradas.get(clave);
+        if (entrada != null && !entrada.registro().completado() && entrada.registro().huella().equals(huella)) {
+            entradas.remove(clave);
+        }
+    }
+
+    private Entrada vigente(String clave) {
+        Entrada entrada = entradas.get(clave);
+        if (entrada != null && entrada.expiraEn() <= clock.millis()) {
+            entradas.remove(clave);
+            return null;
+        }
+        return entrada;
+    }
+}
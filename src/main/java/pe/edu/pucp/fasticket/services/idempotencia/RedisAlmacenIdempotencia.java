@@ -0,0 +1,83 @@
+package pe.edu.pucp.fasticket.services.idempotencia;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Registro de Idempotency-Keys en Redis, compartido por todas las instancias.
+ *
+ * <p>Cada clave es {@code <prefijo>:<clave>} con el registro serializado en JSON como valor
+ * y TTL nativo. La marca en curso se crea con {@code SET NX PX}, así que solo una instancia
+ * ejecuta la operación; la liberación compara el valor en un script Lua para no borrar
+ * la marca de otra ejecución.</p>
+ */
+@Service
+@ConditionalOnProperty(name = "fasticket.idempotencia.almacen", havingValue = "redis")
+public class RedisAlmacenIdempotencia implements AlmacenIdempotencia {
+
+    private static final RedisScript<Long> LIBERAR = new DefaultRedisScript<>(
+            "if redis.call('GET', KEYS[1]) == ARGV[1] then " +
+            "  return redis.call('DEL', KEYS[1]) " +
+            "end " +
+            "return 0", Long.class);
+
+    private final StringRedisTemplate redisTemplate;
+    private final ObjectMapper objectMapper;
+    private final String prefijo;
+
+    public RedisAlmacenIdempotencia(StringRedisTemplate redisTemplate, ObjectMapper objectMapper,
+                                    @Value("${fasticket.idempotencia.prefijo:fasticket:idempotencia}") String prefijo) {
+        this.redisTemplate = redisTemplate;
+        this.objectMapper = objectMapper;
+        this.prefijo = prefijo;
+    }
+
+    @Override
+    public boolean reservar(String clave, String huella, Duration ttl) {
+        Boolean creada = redisTemplate.opsForValue()
+                .setIfAbsent(prefijo + ":" + clave, serializar(RegistroIdempotencia.enCurso(huella)), ttl);
+        return Boolean.TRUE.equals(creada);
+    }
+
+    @Override
+    public Optional<RegistroIdempotencia> obtener(String clave) {
+        String valor = redisTemplate.opsForValue().get(prefijo + ":" + clave);
+        if (valor == null) {
+            return Optional.empty();
+        }
+        try {
+            return Optional.of(objectMapper.readValue(valor, RegistroIdempotencia.class));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Registro de idempotencia ilegible: " + clave, e);
+        }
+    }
+
+    @Override
+    public void completar(String clave, RegistroIdempotencia registro, Duration ttl) {
+        redisTemplate.opsForValue().set(prefijo + ":" + clave, serializar(registro), ttl);
+    }
+
+    @Override
+    public void liberar(String clave, String huella) {
+        redisTemplate.execute(LIBERAR, List.of(prefijo + ":" + clave), serializar(RegistroIdempotencia.enCurso(huella)));
+    }
+
+    private String serializar(RegistroIdempotencia registro) {
+        try {
+            return objectMapper.writeValueAsString(registro);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("No se pudo serializar el registro de idempotencia", e);
+        }
+    }
+}
@@ -0,0 +1,16 @@
+package pe.edu.pucp.fasticket.services.idempotencia;
+
+/**
+ * Estado de una Idempotency-Key: sin {@code estadoHttp} la operación sigue en curso;
+ * con él, {@code cuerpo} contiene la respuesta JSON que se devolvió la primera vez.
+ */
+public record RegistroIdempotencia(String huella, Integer estadoHttp, String cuerpo) {
+
+    public static RegistroIdempotencia enCurso(String huella) {
+        return new RegistroIdempotencia(huella, null, null);
+    }
+
+    public boolean completado() {
+        return estadoHttp != null;
+    }
+}
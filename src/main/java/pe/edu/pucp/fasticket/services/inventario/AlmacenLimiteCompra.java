@@ -0,0 +1,41 @@
+package pe.edu.pucp.fasticket.services.inventario;
+
+import java.util.function.IntSupplier;
+
+/**
+ * Contadores de tickets RESERVADA o VENDIDA por cliente y tipo de ticket, con vencimiento:
+ * un contador que no se usa durante su vigencia se descarta y se vuelve a contar en la base de datos.
+ * Patrón Strategy: la implementación en Redis se comparte entre todas las instancias
+ * de la aplicación; la implementación en memoria sirve para un solo nodo, desarrollo y tests.
+ */
+public interface AlmacenLimiteCompra {
+
+    /**
+     * Resultado de {@link #sumar}.
+     *
+     * @param comprados Tickets del cliente después de la suma, o antes de ella si no se admitió
+     */
+    record Resultado(boolean admitido, int comprados) { }
+
+    /**
+     * Suma {@code cantidad} a lo comprado si el total no supera {@code limite}, en una sola operación atómica.
+     *
+     * @param limite Límite por persona; 0 o menos, sin límite
+     * @param conteoBase Conteo en la base de datos, para el contador que no existe o ya venció
+     */
+    Resultado sumar(Integer idCliente, Integer idTipoTicket, int cantidad, int limite, IntSupplier conteoBase);
+
+    /**
+     * Resta hasta {@code cantidad} sin bajar de cero. Un contador que no existe no se crea.
+     *
+     * @return lo que efectivamente se restó
+     */
+    int restar(Integer idCliente, Integer idTipoTicket, int cantidad);
+
+    int comprados(Integer idCliente, Integer idTipoTicket, IntSupplier conteoBase);
+
+    /**
+     * Descarta los contadores de un tipo de ticket eliminado.
+     */
+    void olvidar(Integer idTipoTicket);
+}
@@ -0,0 +1,77 @@
+package pe.edu.pucp.fasticket.services.inventario;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import lombok.extern.slf4j.Slf4j;
+import pe.edu.pucp.fasticket.exception.ResourceNotFoundException;
+import pe.edu.pucp.fasticket.model.eventos.TipoTicket;
+import pe.edu.pucp.fasticket.repository.eventos.TipoTicketRepositorio;
+
+/**
+ * Entrega números correlativos por tipo de ticket para la emisión bajo demanda.
+ *
+ * <p>Cada instancia reserva bloques de números en la fila TipoTicket, en una transacción propia
+ * y corta, y los reparte desde memoria. Así la fila solo se bloquea una vez por bloque y no durante
+ * cada compra. Los números no usados de un bloque se pierden al reiniciar: puede haber huecos,
+ * nunca duplicados.</p>
+ */
+@Service
+@Slf4j
+public class AsignadorNumeros {
+
+    private static final class Bloque {
+        private int siguiente = 1;
+        private int fin = 0;
+    }
+
+    private final TipoTicketRepositorio tipoTicketRepositorio;
+    private final TransactionTemplate transaccionPropia;
+    private final int tamanoBloque;
+    private final Map<Integer, Bloque> bloques = new ConcurrentHashMap<>();
+
+    public AsignadorNumeros(TipoTicketRepositorio tipoTicketRepositorio,
+                            PlatformTransactionManager transactionManager,
+                            @Value("${fasticket.emision.bloque-numeros:50}") int tamanoBloque) {
+        this.tipoTicketRepositorio = tipoTicketRepositorio;
+        this.transaccionPropia = new TransactionTemplate(transactionManager);
+        this.transaccionPropia.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.tamanoBloque = tamanoBloque;
+    }
+
+    public List<Integer> asignar(TipoTicket tipoTicket, int cantidad) {
+        Integer idTipoTicket = tipoTicket.getIdTipoTicket();
+        Bloque bloque = bloques.computeIfAbsent(idTipoTicket, id -> new Bloque());
+        List<Integer> numeros = new ArrayList<>(cantidad);
+        synchronized (bloque) {
+            while (numeros.size() < cantidad) {
+                if (bloque.siguiente > bloque.fin) {
+                    int reservar = Math.max(tamanoBloque, cantidad - numeros.size());
+                    bloque.fin = reservarBloque(idTipoTicket, reservar);
+                    bloque.siguiente = bloque.fin - reservar + 1;
+                }
+                numeros.add(bloque.siguiente++);
+            }
+        }
+        return numeros;
+    }
+
+    private int reservarBloque(Integer idTipoTicket, int tamano) {
+        Integer ultimo = transaccionPropia.execute(status -> {
+            if (tipoTicketRepositorio.reservarBloqueNumeros(idTipoTicket, tamano) == 0) {
+                throw new ResourceNotFoundException("Tipo de ticket no encontrado con ID: " + idTipoTicket);
+            }
+            return tipoTicketRepositorio.findUltimoNumeroAsignado(idTipoTicket);
+        });
+        log.debug("Bloque de números {}..{} reservado para TipoTicket {}", ultimo - tamano + 1, ultimo, idTipoTicket);
+        return ultimo;
+    }
+}
@@ -0,0 +1,124 @@
+package pe.edu.pucp.fasticket.services.inventario;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Contador en memoria del inventario de un TipoTicket.
+ *
+ * <p>La admisión se decide con un CAS sobre {@code disponible}, sin ir a la base de datos.
+ * Los cambios pendientes de volcar a la fila TipoTicket se acumulan en {@link LongAdder}
+ * (contadores por franjas), que casi no tienen contención aunque muchos hilos escriban a la vez.</p>
+ */
+public final class ContadorInventario {
+
+    private final AtomicInteger disponible;
+    private final AtomicInteger vendida;
+    private final LongAdder deltaDisponible = new LongAdder();
+    private final LongAdder deltaVendida = new LongAdder();
+
+    public ContadorInventario(int disponible, int vendida) {
+        this.disponible = new AtomicInteger(disponible);
+        this.vendida = new AtomicInteger(vendida);
+    }
+
+    /**
+     * Intenta reservar {@code cantidad} unidades.
+     *
+     * @return true si había stock suficiente y se descontó
+     */
+    public boolean intentarReservar(int cantidad) {
+        return intentarReservar(cantidad, true);
+    }
+
+    /**
+     * Igual que {@link #intentarReservar(int)}. Con {@code volcarDisponible} en false, la cantidad
+     * disponible de la fila no queda pendiente de volcar porque el llamador la descuenta en la base.
+     */
+    public boolean intentarReservar(int cantidad, boolean volcarDisponible) {
+        int actual;
+        do {
+            actual = disponible.get();
+            if (actual < cantidad) {
+                return false;
+            }
+        } while (!disponible.compareAndSet(actual, actual - cantidad));
+        vendida.addAndGet(cantidad);
+        if (volcarDisponible) {
+            deltaDisponible.add(-cantidad);
+        }
+        deltaVendida.add(cantidad);
+        return true;
+    }
+
+    /**
+     * Deshace una reserva de {@link #intentarReservar(int, boolean)} rechazada o revertida,
+     * con el mismo {@code volcarDisponible}.
+     */
+    public void revertirReserva(int cantidad, boolean volcarDisponible) {
+        disponible.addAndGet(cantidad);
+        vendida.addAndGet(-cantidad);
+        if (volcarDisponible) {
+            deltaDisponible.add(cantidad);
+        }
+        deltaVendida.add(-cantidad);
+    }
+
+    /**
+     * Descuenta {@code cantidad} unidades sin validar el stock. Solo para revertir una liberación.
+     */
+    public void forzarReserva(int cantidad) {
+        disponible.addAndGet(-cantidad);
+        vendida.addAndGet(cantidad);
+        deltaDisponible.add(-cantidad);
+        deltaVendida.add(cantidad);
+    }
+
+    public void liberar(int cantidad) {
+        disponible.addAndGet(cantidad);
+        vendida.addAndGet(-cantidad);
+        deltaDisponible.add(cantidad);
+        deltaVendida.add(-cantidad);
+    }
+
+    public void ajustarDisponible(int diferencia) {
+        disponible.addAndGet(diferencia);
+        deltaDisponible.add(diferencia);
+    }
+
+    /**
+     * Alinea el contador con la fila TipoTicket, sumando los cambios que aún no se vuelcan.
+     *
+     * @return true si el disponible cambió
+     */
+    public boolean sincronizar(int disponibleBase, int vendidaBase) {
+        int anterior = disponible.getAndSet(disponibleBase + (int) deltaDisponible.sum());
+        vendida.set(vendidaBase + (int) deltaVendida.sum());
+        return anterior != disponible.get();
+    }
+
+    public int getDisponible() {
+        return disponible.get();
+    }
+
+    public int getVendida() {
+        return vendida.get();
+    }
+
+    /**
+     * Toma y reinicia los cambios pendientes de volcar.
+     *
+     * @return arreglo {deltaDisponible, deltaVendida}
+     */
+    int[] drenarPendientes() {
+        return new int[] {(int) deltaDisponible.sumThenReset(), (int) deltaVendida.sumThenReset()};
+    }
+
+    /**
+     * Devuelve a la cola de pendientes un volcado que no se pudo escribir.
+     */
+    void restaurarPendientes(int[] deltas) {
+        deltaDisponible.add(deltas[0]);
+        deltaVendida.add(deltas[1]);
+    }
+}
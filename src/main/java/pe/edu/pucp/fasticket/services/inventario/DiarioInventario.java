@@ -0,0 +1,140 @@
+package pe.edu.pucp.fasticket.services.inventario;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import pe.edu.pucp.fasticket.model.eventos.Evento;
+import pe.edu.pucp.fasticket.model.eventos.TipoTicket;
+import pe.edu.pucp.fasticket.model.inventario.MovimientoInventario;
+import pe.edu.pucp.fasticket.model.inventario.TipoMovimientoInventario;
+import pe.edu.pucp.fasticket.repository.eventos.EventosRepositorio;
+import pe.edu.pucp.fasticket.repository.eventos.TipoTicketRepositorio;
+import pe.edu.pucp.fasticket.repository.inventario.MovimientoInventarioRepositorio;
+import pe.edu.pucp.fasticket.services.eventos.EntradaCatalogo;
+import pe.edu.pucp.fasticket.services.eventos.IndiceCatalogo;
+
+/**
+ * Diario de inventario: cada reserva, liberación, ajuste, venta y transferencia queda como un
+ * {@link MovimientoInventario} que solo se inserta.
+ *
+ * <p>Los movimientos se escriben en la transacción del llamador, así que se confirman o revierten
+ * junto con el cambio que registran. Los contadores de TipoTicket y el aforo de Evento que vuelca
+ * {@link InventarioService} son proyecciones del diario; si se desalinean (por ejemplo, tras una
+ * caída que perdió cambios aún no volcados), {@link #reproyectar()} los recalcula sumando los
+ * movimientos desde la APERTURA de cada tipo de ticket y evento. La suma no depende del orden en
+ * que se insertaron los movimientos.</p>
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class DiarioInventario {
+
+    private final MovimientoInventarioRepositorio movimientoInventarioRepositorio;
+    private final TipoTicketRepositorio tipoTicketRepositorio;
+    private final EventosRepositorio eventosRepositorio;
+    private final IndiceCatalogo indiceCatalogo;
+
+    public void registrar(TipoMovimientoInventario tipo, Integer idTipoTicket, Integer idEvento,
+                          int cantidad, int deltaDisponible, int deltaVendida) {
+        movimientoInventarioRepositorio.save(
+                new MovimientoInventario(tipo, idTipoTicket, idEvento, cantidad, deltaDisponible, deltaVendida));
+    }
+
+    /**
+     * Evento del tipo de ticket según el índice de catálogo, o null si no tiene.
+     */
+    public Integer eventoDe(Integer idTipoTicket) {
+        return indiceCatalogo.buscar(idTipoTicket).map(EntradaCatalogo::idEvento).orElse(null);
+    }
+
+    /**
+     * Registra la APERTURA de los tipos de ticket y eventos que existían antes que el diario,
+     * con sus contadores actuales como saldo inicial.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional
+    public void abrir() {
+        List<TipoTicket> tipos = tipoTicketRepositorio.findSinAperturaParaActualizar();
+        List<Evento> eventos = eventosRepositorio.findSinAperturaParaActualizar();
+        if (tipos.isEmpty() && eventos.isEmpty()) {
+            return;
+        }
+        // Releer con los bloqueos tomados: otra instancia pudo abrirlos mientras se esperaba
+        Set<Integer> tiposAbiertos = tipos.isEmpty() ? Set.of() : new HashSet<>(
+                movimientoInventarioRepositorio.findTiposTicketAbiertos(tipos.stream().map(TipoTicket::getIdTipoTicket).toList()));
+        Set<Integer> eventosAbiertos = eventos.isEmpty() ? Set.of() : new HashSet<>(
+                movimientoInventarioRepositorio.findEventosAbiertos(eventos.stream().map(Evento::getIdEvento).toList()));
+
+        List<MovimientoInventario> aperturas = new ArrayList<>();
+        for (TipoTicket tipoTicket : tipos) {
+            if (!tiposAbiertos.contains(tipoTicket.getIdTipoTicket())) {
+                aperturas.add(apertura(tipoTicket));
+            }
+        }
+        for (Evento evento : eventos) {
+            if (!eventosAbiertos.contains(evento.getIdEvento())) {
+                aperturas.add(apertura(evento));
+            }
+        }
+        movimientoInventarioRepositorio.saveAll(aperturas);
+        log.info("Diario de inventario abierto para {} tipos de ticket y eventos", aperturas.size());
+    }
+
+    /**
+     * APERTURA de un tipo de ticket o evento recién creado.
+     */
+    public void abrir(TipoTicket tipoTicket) {
+        movimientoInventarioRepositorio.save(apertura(tipoTicket));
+    }
+
+    public void abrir(Evento evento) {
+        movimientoInventarioRepositorio.save(apertura(evento));
+    }
+
+    /**
+     * Recalcula desde el diario los contadores de TipoTicket y el aforo disponible de Evento.
+     * Los cambios en memoria aún no volcados no se incluyen; ver {@link InventarioService#reproyectar()}.
+     *
+     * @return número de filas TipoTicket y Evento actualizadas
+     */
+    @Transactional
+    public int reproyectar() {
+        int filas = 0;
+        for (Object[] suma : movimientoInventarioRepositorio.sumarPorTipoTicket()) {
+            filas += tipoTicketRepositorio.fijarContadores((Integer) suma[0], valor(suma[1]), valor(suma[2]));
+        }
+        for (Object[] suma : movimientoInventarioRepositorio.sumarAforoPorEvento()) {
+            filas += eventosRepositorio.fijarAforo((Integer) suma[0], valor(suma[1]));
+        }
+        log.info("Inventario reproyectado desde el diario: {} filas actualizadas", filas);
+        return filas;
+    }
+
+    private MovimientoInventario apertura(TipoTicket tipoTicket) {
+        int disponible = valor(tipoTicket.getCantidadDisponible());
+        int vendida = valor(tipoTicket.getCantidadVendida());
+        Integer idEvento = tipoTicket.getEvento() != null
+                ? tipoTicket.getEvento().getIdEvento()
+                : eventoDe(tipoTicket.getIdTipoTicket());
+        return new MovimientoInventario(TipoMovimientoInventario.APERTURA, tipoTicket.getIdTipoTicket(), idEvento,
+                disponible + vendida, disponible, vendida);
+    }
+
+    private static MovimientoInventario apertura(Evento evento) {
+        int aforo = valor(evento.getAforoDisponible());
+        return new MovimientoInventario(TipoMovimientoInventario.APERTURA, null, evento.getIdEvento(), aforo, aforo, 0);
+    }
+
+    private static int valor(Object numero) {
+        return numero == null ? 0 : ((Number) numero).intValue();
+    }
+}
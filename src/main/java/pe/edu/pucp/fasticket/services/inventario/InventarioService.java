@@ -0,0 +1,396 @@
+package pe.edu.pucp.fasticket.services.inventario;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import pe.edu.pucp.fasticket.exception.BusinessException;
+import pe.edu.pucp.fasticket.model.eventos.Evento;
+import pe.edu.pucp.fasticket.model.eventos.TipoTicket;
+import pe.edu.pucp.fasticket.model.inventario.TipoMovimientoInventario;
+import pe.edu.pucp.fasticket.repository.eventos.EventosRepositorio;
+import pe.edu.pucp.fasticket.repository.eventos.TipoTicketRepositorio;
+
+/**
+ * Motor de inventario en memoria para los contadores de TipoTicket.
+ *
+ * <p>Las reservas se admiten o rechazan contra un {@link ContadorInventario} por tipo de ticket,
+ * sin consultar la base de datos. Los cambios se vuelcan periódicamente a la fila TipoTicket
+ * como incrementos relativos (write-behind), y los contadores se reconstruyen desde la base
+ * de datos al iniciar la aplicación. La emisión bajo demanda, que no tiene filas Ticket que
+ * reclamar, descuenta además su reserva de la fila justo antes del commit
+ * (ver {@link #intentarReservar(TipoTicket, int, boolean)}).</p>
+ *
+ * <p>Las columnas cantidadDisponible y cantidadVendida de TipoTicket y aforoDisponible de Evento
+ * solo se escriben desde aquí; para los tipos con tickets precreados, solo desde
+ * {@link #volcarPendientes()}. Cada instancia admite contra su propia vista, que se queda atrás de
+ * lo que vendieron y liberaron las demás y cada {@code fasticket.inventario.resync-interval-ms} se
+ * realinea con las columnas. La garantía final contra la sobreventa es el reclamo de filas Ticket
+ * con SKIP LOCKED, o el descuento condicional de la fila con emisión bajo demanda.</p>
+ *
+ * <p>Cada cambio queda además en el {@link DiarioInventario}, dentro de la transacción del llamador.
+ * Los contadores volcados son una proyección de ese diario y se pueden recalcular desde él con
+ * {@link #reproyectar()}.</p>
+ *
+ * <p>Cada cambio de la cantidad disponible de un tipo de ticket, incluida su reversión por rollback,
+ * se avisa a los {@link ObservadorDisponibilidad} registrados con {@link #observar}.</p>
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class InventarioService {
+
+    /**
+     * Recibe el ID del tipo de ticket cuya cantidad disponible cambió. Se llama en el hilo que hizo
+     * el cambio, así que no debe bloquear: basta con anotar el ID y leer el contador después.
+     */
+    @FunctionalInterface
+    public interface ObservadorDisponibilidad {
+        void alCambiar(Integer idTipoTicket);
+    }
+
+    private final TipoTicketRepositorio tipoTicketRepositorio;
+    private final EventosRepositorio eventosRepositorio;
+    private final DiarioInventario diarioInventario;
+
+    private final Map<Integer, ContadorInventario> contadores = new ConcurrentHashMap<>();
+    // Cambios de aforoDisponible por evento pendientes de volcar
+    private final Map<Integer, LongAdder> aforoPendiente = new ConcurrentHashMap<>();
+    private final List<ObservadorDisponibilidad> observadores = new CopyOnWriteArrayList<>();
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void reconstruir() {
+        List<Object[]> filas = tipoTicketRepositorio.findContadoresInventario();
+        contadores.clear();
+        for (Object[] fila : filas) {
+            Integer id = (Integer) fila[0];
+            contadores.put(id, new ContadorInventario(valor(fila[1]), valor(fila[2])));
+        }
+        log.info("Inventario reconstruido para {} tipos de ticket", contadores.size());
+    }
+
+    /**
+     * Reserva {@code cantidad} unidades del tipo de ticket.
+     * Si hay una transacción activa y termina en rollback, la reserva se revierte.
+     *
+     * @throws BusinessException si no hay stock suficiente
+     */
+    public void reservar(TipoTicket tipoTicket, int cantidad) {
+        reservar(tipoTicket, cantidad, false);
+    }
+
+    /**
+     * Igual que {@link #reservar(TipoTicket, int)} indicando el modo de emisión del evento;
+     * ver {@link #intentarReservar(TipoTicket, int, boolean)}.
+     */
+    public void reservar(TipoTicket tipoTicket, int cantidad, boolean emisionBajoDemanda) {
+        if (!intentarReservar(tipoTicket, cantidad, emisionBajoDemanda)) {
+            throw new BusinessException("Stock insuficiente para el ticket: " + tipoTicket.getNombre());
+        }
+    }
+
+    /**
+     * Igual que {@link #reservar(TipoTicket, int)}, pero deja al llamador decidir cómo reportar la falta de stock.
+     *
+     * @return true si se reservó, false si no había stock suficiente
+     */
+    public boolean intentarReservar(TipoTicket tipoTicket, int cantidad) {
+        return intentarReservar(tipoTicket, cantidad, false);
+    }
+
+    /**
+     * Igual que {@link #intentarReservar(TipoTicket, int)} indicando el modo de emisión del evento.
+     *
+     * <p>La admisión es siempre el CAS del contador. Con emisión bajo demanda no hay filas Ticket que
+     * reclamar con SKIP LOCKED, así que la cantidad se descuenta además de la fila TipoTicket con
+     * {@link TipoTicketRepositorio#decreaseStock} justo antes del commit: la fila queda bloqueada
+     * solo durante el commit y no durante toda la compra. Si para entonces otra instancia ya vendió
+     * ese stock, el commit falla con {@link BusinessException} y la transacción se revierte.</p>
+     *
+     * @return true si se reservó, false si no había stock suficiente
+     */
+    public boolean intentarReservar(TipoTicket tipoTicket, int cantidad, boolean emisionBajoDemanda) {
+        ContadorInventario contador = contador(tipoTicket);
+        // Bajo demanda, el disponible de la fila lo descuenta el UPDATE condicional, no el volcado
+        boolean volcarDisponible = !emisionBajoDemanda;
+        if (!contador.intentarReservar(cantidad, volcarDisponible)) {
+            return false;
+        }
+        if (emisionBajoDemanda && !descontarAntesDelCommit(tipoTicket, cantidad)) {
+            contador.revertirReserva(cantidad, false);
+            return false;
+        }
+        Integer idEvento = diarioInventario.eventoDe(tipoTicket.getIdTipoTicket());
+        moverAforo(idEvento, -cantidad);
+        avisar(tipoTicket.getIdTipoTicket());
+        alRevertir(() -> {
+            contador.revertirReserva(cantidad, volcarDisponible);
+            moverAforo(idEvento, cantidad);
+            avisar(tipoTicket.getIdTipoTicket());
+        });
+        diarioInventario.registrar(TipoMovimientoInventario.RESERVA, tipoTicket.getIdTipoTicket(), idEvento,
+                cantidad, -cantidad, cantidad);
+        return true;
+    }
+
+    /**
+     * Devuelve {@code cantidad} unidades al stock disponible del tipo de ticket.
+     */
+    public void liberar(TipoTicket tipoTicket, int cantidad) {
+        if (cantidad <= 0) {
+            return;
+        }
+        ContadorInventario contador = contador(tipoTicket);
+        contador.liberar(cantidad);
+        Integer idEvento = diarioInventario.eventoDe(tipoTicket.getIdTipoTicket());
+        moverAforo(idEvento, cantidad);
+        avisar(tipoTicket.getIdTipoTicket());
+        alRevertir(() -> {
+            contador.forzarReserva(cantidad);
+            moverAforo(idEvento, -cantidad);
+            avisar(tipoTicket.getIdTipoTicket());
+        });
+        diarioInventario.registrar(TipoMovimientoInventario.LIBERACION, tipoTicket.getIdTipoTicket(), idEvento,
+                cantidad, cantidad, -cantidad);
+    }
+
+    /**
+     * Ajusta el stock disponible cuando el administrador cambia el stock total.
+     */
+    public void ajustarStock(TipoTicket tipoTicket, int diferencia) {
+        if (diferencia == 0) {
+            return;
+        }
+        ContadorInventario contador = contador(tipoTicket);
+        contador.ajustarDisponible(diferencia);
+        avisar(tipoTicket.getIdTipoTicket());
+        alRevertir(() -> {
+            contador.ajustarDisponible(-diferencia);
+            avisar(tipoTicket.getIdTipoTicket());
+        });
+        diarioInventario.registrar(TipoMovimientoInventario.AJUSTE, tipoTicket.getIdTipoTicket(),
+                diarioInventario.eventoDe(tipoTicket.getIdTipoTicket()), Math.abs(diferencia), diferencia, 0);
+    }
+
+    /**
+     * Ajusta el aforo disponible cuando el administrador cambia el aforo del evento.
+     */
+    public void ajustarAforo(Integer idEvento, int diferencia) {
+        if (diferencia == 0) {
+            return;
+        }
+        moverAforo(idEvento, diferencia);
+        alRevertir(() -> moverAforo(idEvento, -diferencia));
+        diarioInventario.registrar(TipoMovimientoInventario.AJUSTE, null, idEvento, Math.abs(diferencia), diferencia, 0);
+    }
+
+    /**
+     * Registra la APERTURA de un tipo de ticket recién creado, con su stock inicial.
+     */
+    public void abrir(TipoTicket tipoTicket) {
+        diarioInventario.abrir(tipoTicket);
+    }
+
+    /**
+     * Registra la APERTURA del aforo de un evento recién creado.
+     */
+    public void abrir(Evento evento) {
+        diarioInventario.abrir(evento);
+    }
+
+    /**
+     * Registra en el diario el pago de tickets ya reservados; no mueve contadores.
+     */
+    public void registrarVenta(TipoTicket tipoTicket, int cantidad) {
+        diarioInventario.registrar(TipoMovimientoInventario.VENTA, tipoTicket.getIdTipoTicket(),
+                diarioInventario.eventoDe(tipoTicket.getIdTipoTicket()), cantidad, 0, 0);
+    }
+
+    /**
+     * Registra en el diario la transferencia de una entrada a otro cliente; no mueve contadores.
+     */
+    public void registrarTransferencia(TipoTicket tipoTicket) {
+        diarioInventario.registrar(TipoMovimientoInventario.TRANSFERENCIA, tipoTicket.getIdTipoTicket(),
+                diarioInventario.eventoDe(tipoTicket.getIdTipoTicket()), 1, 0, 0);
+    }
+
+    /**
+     * Recalcula desde el diario los contadores de la base de datos y realinea con ellos los de memoria.
+     * Pensado para después de un incidente: las reservas que se confirmen mientras corre pueden
+     * quedar fuera de la proyección hasta la siguiente ejecución.
+     *
+     * <p>No corre a la vez que un volcado, que la proyección pisaría. Los contadores se realinean en
+     * su lugar en vez de reemplazarse, así que los cambios hechos mientras corre se conservan y se
+     * vuelcan en el siguiente ciclo.</p>
+     *
+     * @return número de filas TipoTicket y Evento actualizadas
+     */
+    public synchronized int reproyectar() {
+        volcarPendientes();
+        int filas = diarioInventario.reproyectar();
+        realinear();
+        return filas;
+    }
+
+    public int disponibles(TipoTicket tipoTicket) {
+        return contador(tipoTicket).getDisponible();
+    }
+
+    /**
+     * Disponibles del tipo de ticket según su contador, sin cargar la entidad; {@code respaldo}
+     * si esta instancia aún no tiene contador para él.
+     */
+    public int disponibles(Integer idTipoTicket, int respaldo) {
+        ContadorInventario contador = contadores.get(idTipoTicket);
+        return contador != null ? contador.getDisponible() : respaldo;
+    }
+
+    public int vendidos(TipoTicket tipoTicket) {
+        return contador(tipoTicket).getVendida();
+    }
+
+    public void observar(ObservadorDisponibilidad observador) {
+        observadores.add(observador);
+    }
+
+    public void olvidar(Integer idTipoTicket) {
+        contadores.remove(idTipoTicket);
+    }
+
+    /**
+     * Vuelca a la base de datos los cambios acumulados desde el último volcado.
+     */
+    @Scheduled(fixedDelayString = "${fasticket.inventario.flush-interval-ms:1000}")
+    public synchronized void volcarPendientes() {
+        contadores.forEach((id, contador) -> {
+            int[] deltas = contador.drenarPendientes();
+            if (deltas[0] == 0 && deltas[1] == 0) {
+                return;
+            }
+            try {
+                int filas = tipoTicketRepositorio.aplicarDeltaInventario(id, deltas[0], deltas[1]);
+                if (filas == 0) {
+                    log.warn("TipoTicket {} ya no existe; se descarta su contador de inventario", id);
+                    contadores.remove(id, contador);
+                }
+            } catch (RuntimeException e) {
+                log.error("Error al volcar inventario del TipoTicket {}: {}", id, e.getMessage());
+                contador.restaurarPendientes(deltas);
+            }
+        });
+        aforoPendiente.forEach((idEvento, pendiente) -> {
+            int delta = (int) pendiente.sumThenReset();
+            if (delta == 0) {
+                return;
+            }
+            try {
+                if (eventosRepositorio.aplicarDeltaAforo(idEvento, delta) == 0) {
+                    aforoPendiente.remove(idEvento, pendiente);
+                }
+            } catch (RuntimeException e) {
+                log.error("Error al volcar el aforo del evento {}: {}", idEvento, e.getMessage());
+                pendiente.add(delta);
+            }
+        });
+    }
+
+    /**
+     * Realinea los contadores en memoria con las columnas de TipoTicket, que reflejan lo que
+     * reservaron y volcaron las demás instancias. Una reserva que se confirme mientras corre puede
+     * quedar fuera hasta la siguiente ejecución.
+     */
+    @Scheduled(fixedDelayString = "${fasticket.inventario.resync-interval-ms:5000}")
+    public synchronized void resincronizar() {
+        volcarPendientes();
+        realinear();
+    }
+
+    @PreDestroy
+    public void alApagar() {
+        volcarPendientes();
+    }
+
+    private void realinear() {
+        for (Object[] fila : tipoTicketRepositorio.findContadoresInventario()) {
+            Integer id = (Integer) fila[0];
+            ContadorInventario contador = contadores.get(id);
+            if (contador != null && contador.sincronizar(valor(fila[1]), valor(fila[2]))) {
+                avisar(id);
+            }
+        }
+    }
+
+    /**
+     * Descuenta la reserva de la fila TipoTicket antes del commit de la transacción activa,
+     * o en el momento si no hay una.
+     *
+     * @return false si se descontó en el momento y la fila ya no tenía stock suficiente
+     */
+    private boolean descontarAntesDelCommit(TipoTicket tipoTicket, int cantidad) {
+        Integer idTipoTicket = tipoTicket.getIdTipoTicket();
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return tipoTicketRepositorio.decreaseStock(idTipoTicket, cantidad) > 0;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void beforeCommit(boolean readOnly) {
+                if (tipoTicketRepositorio.decreaseStock(idTipoTicket, cantidad) == 0) {
+                    // Otra instancia vendió lo que esta todavía veía disponible; el rollback revierte el contador
+                    throw new BusinessException("Stock insuficiente para el ticket: " + tipoTicket.getNombre());
+                }
+            }
+        });
+        return true;
+    }
+
+    private ContadorInventario contador(TipoTicket tipoTicket) {
+        return contadores.computeIfAbsent(tipoTicket.getIdTipoTicket(),
+                id -> new ContadorInventario(valor(tipoTicket.getCantidadDisponible()), valor(tipoTicket.getCantidadVendida())));
+    }
+
+    private void moverAforo(Integer idEvento, int delta) {
+        if (idEvento != null) {
+            aforoPendiente.computeIfAbsent(idEvento, id -> new LongAdder()).add(delta);
+        }
+    }
+
+    private void avisar(Integer idTipoTicket) {
+        for (ObservadorDisponibilidad observador : observadores) {
+            try {
+                observador.alCambiar(idTipoTicket);
+            } catch (RuntimeException e) {
+                log.error("Error al avisar el cambio de disponibilidad del TipoTicket {}: {}", idTipoTicket, e.getMessage());
+            }
+        }
+    }
+
+    private void alRevertir(Runnable compensacion) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status == STATUS_ROLLED_BACK) {
+                    compensacion.run();
+                }
+            }
+        });
+    }
+
+    private static int valor(Object numero) {
+        return numero == null ? 0 : ((Number) numero).intValue();
+    }
+}
@@ -0,0 +1,122 @@
+package pe.edu.pucp.fasticket.services.inventario;
+
+import java.util.function.IntSupplier;
+
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import lombok.RequiredArgsConstructor;
+import pe.edu.pucp.fasticket.exception.BusinessException;
+import pe.edu.pucp.fasticket.model.eventos.TipoTicket;
+import pe.edu.pucp.fasticket.repository.eventos.TicketRepository;
+import pe.edu.pucp.fasticket.services.eventos.EntradaCatalogo;
+import pe.edu.pucp.fasticket.services.eventos.IndiceCatalogo;
+
+/**
+ * Contadores de tickets RESERVADA o VENDIDA por cliente y tipo de ticket,
+ * para aplicar {@code limitePorPersona} sin contar filas Ticket en cada compra.
+ *
+ * <p>Cada contador se inicializa con el conteo de la base de datos y desde ahí se mantiene
+ * con cada reserva, liberación y transferencia. La verificación del límite y el incremento son
+ * una sola operación atómica en el {@link AlmacenLimiteCompra}, así que dos compras simultáneas
+ * del mismo cliente no pueden superar juntas el límite. Si la transacción se revierte, el cambio
+ * se compensa. Los contadores vencen si no se usan, y al volver a usarse se cuentan de nuevo en la
+ * base de datos; así se corrige cualquier desvío y el almacén no crece sin límite.</p>
+ *
+ * <p>Los tipos de ticket sin límite por persona no tienen contador: ni la reserva ni la liberación
+ * tocan el almacén ni la base de datos.</p>
+ */
+@Service
+@RequiredArgsConstructor
+public class LimiteCompraService {
+
+    private final TicketRepository ticketRepository;
+    private final AlmacenLimiteCompra almacen;
+    private final IndiceCatalogo indiceCatalogo;
+
+    /**
+     * Suma {@code cantidad} tickets del tipo al cliente si no supera su límite por persona.
+     * Si hay una transacción activa y termina en rollback, la suma se revierte.
+     *
+     * @throws BusinessException si el cliente superaría el límite por persona del tipo de ticket
+     */
+    public void reservar(TipoTicket tipoTicket, Integer idCliente, int cantidad) {
+        reservar(tipoTicket.getIdTipoTicket(), tipoTicket.getNombre(), tipoTicket.getLimitePorPersona(),
+                idCliente, cantidad);
+    }
+
+    /**
+     * Como {@link #reservar(TipoTicket, Integer, int)}, con el nombre y el límite de la entrada del
+     * {@link IndiceCatalogo}, sin cargar la entidad.
+     */
+    public void reservar(EntradaCatalogo entrada, Integer idCliente, int cantidad) {
+        reservar(entrada.idTipoTicket(), entrada.nombreTipoTicket(), entrada.limitePorPersona(), idCliente, cantidad);
+    }
+
+    private void reservar(Integer idTipoTicket, String nombre, Integer limite, Integer idCliente, int cantidad) {
+        if (!tieneLimite(limite)) {
+            return;
+        }
+        AlmacenLimiteCompra.Resultado resultado = almacen.sumar(idCliente, idTipoTicket, cantidad, limite,
+                conteoBase(idCliente, idTipoTicket));
+        if (!resultado.admitido()) {
+            throw new BusinessException("El límite de tickets por persona para '" + nombre + "' es de " +
+                    limite + ". Ya has comprado " + resultado.comprados() + " tickets de este tipo.");
+        }
+        alRevertir(() -> almacen.restar(idCliente, idTipoTicket, cantidad));
+    }
+
+    /**
+     * Resta {@code cantidad} tickets del tipo al cliente: reservas liberadas o entradas transferidas.
+     * Los contadores que no existen o ya vencieron no se tocan; se leerán de la base de datos al usarse.
+     * El límite del tipo de ticket se lee del {@link IndiceCatalogo}, sin cargar la entidad.
+     */
+    public void liberar(Integer idTipoTicket, Integer idCliente, int cantidad) {
+        if (idCliente == null || cantidad <= 0
+                || !tieneLimite(indiceCatalogo.buscar(idTipoTicket).map(EntradaCatalogo::limitePorPersona).orElse(null))) {
+            return;
+        }
+        int liberados = almacen.restar(idCliente, idTipoTicket, cantidad);
+        if (liberados > 0) {
+            alRevertir(() -> almacen.sumar(idCliente, idTipoTicket, liberados, 0, conteoBase(idCliente, idTipoTicket)));
+        }
+    }
+
+    public int comprados(Integer idTipoTicket, Integer idCliente) {
+        return almacen.comprados(idCliente, idTipoTicket, conteoBase(idCliente, idTipoTicket));
+    }
+
+    /**
+     * Descarta los contadores del tipo de ticket; se volverán a contar en la base de datos al usarse.
+     * Para tipos eliminados o cuyo límite cambió, ya que sin límite los contadores no se mantienen.
+     */
+    public void olvidar(Integer idTipoTicket) {
+        almacen.olvidar(idTipoTicket);
+    }
+
+    private static boolean tieneLimite(Integer limite) {
+        return limite != null && limite > 0;
+    }
+
+    private IntSupplier conteoBase(Integer idCliente, Integer idTipoTicket) {
+        return () -> {
+            Integer enBaseDeDatos = ticketRepository.countTicketsByClienteAndTipoTicket(idCliente, idTipoTicket);
+            return enBaseDeDatos == null ? 0 : enBaseDeDatos;
+        };
+    }
+
+    private void alRevertir(Runnable compensacion) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status == STATUS_ROLLED_BACK) {
+                    compensacion.run();
+                }
+            }
+        });
+    }
+}
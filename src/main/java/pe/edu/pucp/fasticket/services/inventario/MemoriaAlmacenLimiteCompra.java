@@ -0,0 +1,109 @@
+package pe.edu.pucp.fasticket.services.inventario;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.IntSupplier;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+
+/**
+ * Contadores de límite de compra en memoria del proceso, como LRU acotado a
+ * {@code fasticket.limite-compra.capacidad} entradas que vencen a los
+ * {@code fasticket.limite-compra.ttl-segundos} sin usarse.
+ * No se comparte entre instancias: pensado para un solo nodo, desarrollo local y tests sin Redis.
+ */
+@Service
+@ConditionalOnProperty(name = "fasticket.limite-compra.almacen", havingValue = "memoria", matchIfMissing = true)
+public class MemoriaAlmacenLimiteCompra implements AlmacenLimiteCompra {
+
+    private record Clave(Integer idCliente, Integer idTipoTicket) { }
+
+    private static final class Contador {
+        private int comprados;
+        private long expiraEn;
+
+        private Contador(int comprados) {
+            this.comprados = comprados;
+        }
+    }
+
+    private final Map<Clave, Contador> contadores;
+    private final Duration ttl;
+    private final Clock clock;
+
+    @Autowired
+    public MemoriaAlmacenLimiteCompra(@Value("${fasticket.limite-compra.capacidad:100000}") int capacidad,
+                                      @Value("${fasticket.limite-compra.ttl-segundos:1800}") long ttlSegundos) {
+        this(capacidad, Duration.ofSeconds(ttlSegundos), Clock.systemUTC());
+    }
+
+    public MemoriaAlmacenLimiteCompra(int capacidad, Duration ttl, Clock clock) {
+        this.ttl = ttl;
+        this.clock = clock;
+        this.contadores = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Clave, Contador> mayor) {
+                return size() > capacidad;
+            }
+        };
+    }
+
+    @Override
+    public synchronized Resultado sumar(Integer idCliente, Integer idTipoTicket, int cantidad, int limite,
+                                        IntSupplier conteoBase) {
+        Contador contador = vigente(new Clave(idCliente, idTipoTicket), conteoBase);
+        if (limite > 0 && contador.comprados + cantidad > limite) {
+            return new Resultado(false, contador.comprados);
+        }
+        contador.comprados += cantidad;
+        return new Resultado(true, contador.comprados);
+    }
+
+    @Override
+    public synchronized int restar(Integer idCliente, Integer idTipoTicket, int cantidad) {
+        Contador contador = vigente(new Clave(idCliente, idTipoTicket), null);
+        if (contador == null) {
+            return 0;
+        }
+        int restados = Math.min(contador.comprados, cantidad);
+        contador.comprados -= restados;
+        return restados;
+    }
+
+    @Override
+    public synchronized int comprados(Integer idCliente, Integer idTipoTicket, IntSupplier conteoBase) {
+        return vigente(new Clave(idCliente, idTipoTicket), conteoBase).comprados;
+    }
+
+    @Override
+    public synchronized void olvidar(Integer idTipoTicket) {
+        contadores.keySet().removeIf(clave -> clave.idTipoTicket().equals(idTipoTicket));
+    }
+
+    /**
+     * Contador vigente de la clave, con su vigencia renovada. Si no hay y {@code conteoBase} no es
+     * null, lo crea con el conteo de la base de datos; si no, devuelve null.
+     */
+    private Contador vigente(Clave clave, IntSupplier conteoBase) {
+        long ahora = clock.millis();
+        Contador contador = contadores.get(clave);
+        if (contador != null && contador.expiraEn <= ahora) {
+            contadores.remove(clave);
+            contador = null;
+        }
+        if (contador == null) {
+            if (conteoBase == null) {
+                return null;
+            }
+            contador = new Contador(conteoBase.getAsInt());
+            contadores.put(clave, contador);
+        }
+        contador.expiraEn = ahora + ttl.toMillis();
+        return contador;
+    }
+}
@@ -0,0 +1,111 @@
+package pe.edu.pucp.fasticket.services.inventario;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.IntSupplier;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.redis.core.Cursor;
+import org.springframework.data.redis.core.ScanOptions;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Service;
+
+/**
+ * Contadores de límite de compra en Redis, compartidos por todas las instancias: dos compras
+ * simultáneas del mismo cliente en nodos distintos no pueden superar juntas el límite.
+ *
+ * <p>Cada contador es la clave {@code <prefijo>:<idTipoTicket>:<idCliente>} con vencimiento de
+ * {@code fasticket.limite-compra.ttl-segundos}, renovado en cada uso. La verificación y el
+ * incremento son un script Lua; si la clave no existe, el script lo indica y se reintenta con el
+ * conteo de la base de datos.</p>
+ */
+@Service
+@ConditionalOnProperty(name = "fasticket.limite-compra.almacen", havingValue = "redis")
+public class RedisAlmacenLimiteCompra implements AlmacenLimiteCompra {
+
+    // ARGV: 1 cantidad, 2 límite, 3 conteo en la base de datos ('' si no se leyó), 4 vencimiento en ms
+    @SuppressWarnings("rawtypes")
+    private static final RedisScript<List> SUMAR = new DefaultRedisScript<>(
+            "local actual = redis.call('GET', KEYS[1]) " +
+            "if not actual then " +
+            "  if ARGV[3] == '' then return {-1, 0} end " +
+            "  actual = ARGV[3] " +
+            "end " +
+            "actual = tonumber(actual) " +
+            "local limite = tonumber(ARGV[2]) " +
+            "if limite > 0 and actual + tonumber(ARGV[1]) > limite then " +
+            "  redis.call('SET', KEYS[1], actual, 'PX', ARGV[4]) " +
+            "  return {0, actual} " +
+            "end " +
+            "local nuevo = actual + tonumber(ARGV[1]) " +
+            "redis.call('SET', KEYS[1], nuevo, 'PX', ARGV[4]) " +
+            "return {1, nuevo}", List.class);
+
+    // ARGV: 1 cantidad, 2 vencimiento en ms
+    private static final RedisScript<Long> RESTAR = new DefaultRedisScript<>(
+            "local actual = redis.call('GET', KEYS[1]) " +
+            "if not actual then return 0 end " +
+            "local restados = math.min(tonumber(actual), tonumber(ARGV[1])) " +
+            "redis.call('SET', KEYS[1], tonumber(actual) - restados, 'PX', ARGV[2]) " +
+            "return restados", Long.class);
+
+    private final StringRedisTemplate redisTemplate;
+    private final String prefijo;
+    private final long ttlMillis;
+
+    public RedisAlmacenLimiteCompra(StringRedisTemplate redisTemplate,
+                                    @Value("${fasticket.limite-compra.prefijo:fasticket:limite-compra}") String prefijo,
+                                    @Value("${fasticket.limite-compra.ttl-segundos:1800}") long ttlSegundos) {
+        this.redisTemplate = redisTemplate;
+        this.prefijo = prefijo;
+        this.ttlMillis = Duration.ofSeconds(ttlSegundos).toMillis();
+    }
+
+    @Override
+    public Resultado sumar(Integer idCliente, Integer idTipoTicket, int cantidad, int limite, IntSupplier conteoBase) {
+        List<String> claves = List.of(clave(idCliente, idTipoTicket));
+        List<?> respuesta = redisTemplate.execute(SUMAR, claves, String.valueOf(cantidad), String.valueOf(limite),
+                "", String.valueOf(ttlMillis));
+        if (estado(respuesta) < 0) {
+            respuesta = redisTemplate.execute(SUMAR, claves, String.valueOf(cantidad), String.valueOf(limite),
+                    String.valueOf(conteoBase.getAsInt()), String.valueOf(ttlMillis));
+        }
+        return new Resultado(estado(respuesta) == 1, Integer.parseInt(respuesta.get(1).toString()));
+    }
+
+    @Override
+    public int restar(Integer idCliente, Integer idTipoTicket, int cantidad) {
+        Long restados = redisTemplate.execute(RESTAR, List.of(clave(idCliente, idTipoTicket)),
+                String.valueOf(cantidad), String.valueOf(ttlMillis));
+        return restados == null ? 0 : restados.intValue();
+    }
+
+    @Override
+    public int comprados(Integer idCliente, Integer idTipoTicket, IntSupplier conteoBase) {
+        return sumar(idCliente, idTipoTicket, 0, 0, conteoBase).comprados();
+    }
+
+    @Override
+    public void olvidar(Integer idTipoTicket) {
+        List<String> claves = new ArrayList<>();
+        ScanOptions opciones = ScanOptions.scanOptions().match(prefijo + ":" + idTipoTicket + ":*").count(500).build();
+        try (Cursor<String> cursor = redisTemplate.scan(opciones)) {
+            cursor.forEachRemaining(claves::add);
+        }
+        if (!claves.isEmpty()) {
+            redisTemplate.delete(claves);
+        }
+    }
+
+    private static int estado(List<?> respuesta) {
+        return Integer.parseInt(respuesta.get(0).toString());
+    }
+
+    private String clave(Integer idCliente, Integer idTipoTicket) {
+        return prefijo + ":" + idTipoTicket + ":" + idCliente;
+    }
+}
@@ -18,12 +18,12 @@ import pe.edu.pucp.fasticket.model.pago.ComprobantePago;
 import pe.edu.pucp.fasticket.model.pago.EstadoPago;
 import pe.edu.pucp.fasticket.model.pago.Pago;
 import pe.edu.pucp.fasticket.repository.compra.OrdenCompraRepositorio;
-import pe.edu.pucp.fasticket.repository.eventos.TipoTicketRepositorio;
 import pe.edu.pucp.fasticket.repository.pago.BoletaRepositorio;
 import pe.edu.pucp.fasticket.repository.pago.ComprobanteDePagoRepositorio;
 import pe.edu.pucp.fasticket.repository.pago.PagoRepositorio;
 import pe.edu.pucp.fasticket.repository.usuario.PersonasRepositorio;
 import pe.edu.pucp.fasticket.services.compra.OrdenServicio;
+import pe.edu.pucp.fasticket.services.eventos.IndiceCatalogo;
 
 @Service
 public class PagoServicio {
@@ -41,7 +41,7 @@ public class PagoServicio {
     @Autowired
     private BoletaRepositorio boletaRepositorio;
     @Autowired
-    private TipoTicketRepositorio tipoTicketRepositorio;
+    private IndiceCatalogo indiceCatalogo;
 
     public ComprobanteDTO registrarPagoFinal(RegistrarPagoDTO dto) {
         var orden = ordenRepository.findById(dto.getIdOrden())
@@ -77,7 +77,7 @@ public class PagoServicio {
         boleta.setNombreCliente(usuario.getNombres() + " " + usuario.getApellidos());
         boleta.setComprobantePago(comprobante);
         boletaRepositorio.save(boleta);
-        OrdenResumenDTO ordenDTO = new OrdenResumenDTO(orden, tipoTicketRepositorio);
+        OrdenResumenDTO ordenDTO = new OrdenResumenDTO(orden, indiceCatalogo);
         List<DatosAsistenteDTO> asistentes = orden.getItems().stream().flatMap(item -> item.getTickets().stream()).map(e -> new DatosAsistenteDTO(
                         e.getTipoDocumentoAsistente(),
                         e.getDocumentoAsistente(),
@@ -0,0 +1,217 @@
+package pe.edu.pucp.fasticket.services.portada;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.util.DigestUtils;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import pe.edu.pucp.fasticket.dto.StandardResponse;
+import pe.edu.pucp.fasticket.dto.eventos.EventoResponseDTO;
+import pe.edu.pucp.fasticket.dto.eventos.EventosDistritoDTO;
+import pe.edu.pucp.fasticket.dto.eventos.PortadaCatalogoDTO;
+import pe.edu.pucp.fasticket.events.CatalogoModificadoEvent;
+import pe.edu.pucp.fasticket.mapper.EventoMapper;
+import pe.edu.pucp.fasticket.model.eventos.Evento;
+import pe.edu.pucp.fasticket.model.geografia.Distrito;
+import pe.edu.pucp.fasticket.repository.eventos.EventosRepositorio;
+import pe.edu.pucp.fasticket.services.eventos.AlmacenCatalogo;
+
+/**
+ * Portada del catálogo materializada: próximos eventos, destacados y eventos por distrito, armados
+ * con una sola consulta y guardados ya serializados (respuesta completa en JSON) para servirlos sin
+ * mapear nada por pedido.
+ *
+ * <p>Se arma al iniciar, cada {@code fasticket.portada.recarga-ms} (el aforo disponible y los
+ * próximos eventos cambian sin avisar al catálogo) y tras cada {@link CatalogoModificadoEvent},
+ * revisado cada {@code fasticket.portada.intervalo-ms}: varios cambios seguidos dan una sola
+ * reconstrucción. Con el almacén en Redis la portada armada se comparte bajo la versión del
+ * catálogo, y las demás instancias la toman de ahí al recibir la invalidación en vez de consultar
+ * la base; un cambio hecho en esta instancia siempre se arma desde la base.</p>
+ *
+ * <p>Destacados son los próximos eventos con imagen y entradas disponibles: no hay una marca de
+ * evento destacado en el modelo.</p>
+ *
+ * <p>Publica el timer {@code fasticket.portada.reconstruccion} (etiqueta {@code origen}: base o
+ * compartido) y el resumen {@code fasticket.portada.bytes}, con los bytes de cada portada enviada
+ * completa (no cuenta las respuestas 304).</p>
+ */
+@Service
+@Slf4j
+public class PortadaCatalogoService {
+
+    static final String METRICA_RECONSTRUCCION = "fasticket.portada.reconstruccion";
+    static final String METRICA_BYTES = "fasticket.portada.bytes";
+
+    private static final String CLAVE = "portada";
+
+    /**
+     * Portada serializada con su ETag (hash del contenido).
+     */
+    public record Documento(byte[] json, String etag, long generadoEn) { }
+
+    private final EventosRepositorio eventosRepositorio;
+    private final EventoMapper eventoMapper;
+    private final AlmacenCatalogo almacen;
+    private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
+    private final DistributionSummary bytesEnviados;
+    private final long recargaMs;
+    private final int limiteProximos;
+    private final int limiteDestacados;
+    private final int limitePorDistrito;
+
+    private final AtomicBoolean cambioLocal = new AtomicBoolean();
+    private final AtomicBoolean cambioRemoto = new AtomicBoolean();
+    private volatile Documento documento;
+
+    public PortadaCatalogoService(EventosRepositorio eventosRepositorio,
+                                  EventoMapper eventoMapper,
+                                  AlmacenCatalogo almacen,
+                                  ObjectMapper objectMapper,
+                                  MeterRegistry meterRegistry,
+                                  @Value("${fasticket.portada.recarga-ms:60000}") long recargaMs,
+                                  @Value("${fasticket.portada.proximos:12}") int limiteProximos,
+                                  @Value("${fasticket.portada.destacados:6}") int limiteDestacados,
+                                  @Value("${fasticket.portada.por-distrito:8}") int limitePorDistrito) {
+        this.eventosRepositorio = eventosRepositorio;
+        this.eventoMapper = eventoMapper;
+        this.almacen = almacen;
+        this.objectMapper = objectMapper;
+        this.meterRegistry = meterRegistry;
+        this.recargaMs = recargaMs;
+        this.limiteProximos = limiteProximos;
+        this.limiteDestacados = limiteDestacados;
+        this.limitePorDistrito = limitePorDistrito;
+        this.bytesEnviados = DistributionSummary.builder(METRICA_BYTES).baseUnit("bytes").register(meterRegistry);
+        almacen.alInvalidarRemoto(() -> cambioRemoto.set(true));
+    }
+
+    /**
+     * Portada vigente; si todavía no se armó, la arma en este hilo.
+     */
+    public Documento obtener() {
+        Documento actual = documento;
+        return actual != null ? actual : reconstruirSiFalta();
+    }
+
+    /**
+     * Cuenta los bytes de una portada enviada completa.
+     */
+    public void registrarEnvio(Documento portada) {
+        bytesEnviados.record(portada.json().length);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelayString = "${fasticket.portada.intervalo-ms:1000}")
+    public void actualizar() {
+        boolean local = cambioLocal.getAndSet(false);
+        boolean remoto = cambioRemoto.getAndSet(false);
+        Documento actual = documento;
+        if (local || remoto || actual == null || System.currentTimeMillis() - actual.generadoEn() >= recargaMs) {
+            try {
+                reconstruir(!local);
+            } catch (RuntimeException e) {
+                // Se sigue sirviendo la portada anterior; el cambio se reintenta en la siguiente revisión
+                cambioLocal.compareAndSet(false, local);
+                cambioRemoto.compareAndSet(false, remoto);
+                log.warn("No se pudo reconstruir la portada del catálogo: {}", e.getMessage());
+            }
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void alModificarCatalogo(CatalogoModificadoEvent evento) {
+        // Desde la base: la versión compartida puede no haber cambiado todavía
+        cambioLocal.set(true);
+    }
+
+    private synchronized Documento reconstruirSiFalta() {
+        return documento != null ? documento : reconstruir(true);
+    }
+
+    private synchronized Documento reconstruir(boolean usarCompartido) {
+        long inicio = System.nanoTime();
+        LocalDate hoy = LocalDate.now();
+        String clave = CLAVE + ":" + hoy;
+        String version = almacen.version();
+        Optional<byte[]> compartido = usarCompartido ? almacen.leerDocumento(version, clave) : Optional.empty();
+        String origen = compartido.isPresent() ? "compartido" : "base";
+        byte[] json = compartido.orElseGet(() -> {
+            byte[] armado = serializar(armar(hoy));
+            almacen.escribirDocumento(version, clave, armado, Duration.ofMillis(recargaMs));
+            return armado;
+        });
+
+        Documento nuevo = new Documento(json, "\"" + DigestUtils.md5DigestAsHex(json) + "\"", System.currentTimeMillis());
+        documento = nuevo;
+        meterRegistry.timer(METRICA_RECONSTRUCCION, "origen", origen).record(System.nanoTime() - inicio, TimeUnit.NANOSECONDS);
+        log.debug("Portada del catálogo reconstruida ({}, {} bytes)", origen, json.length);
+        return nuevo;
+    }
+
+    private PortadaCatalogoDTO armar(LocalDate hoy) {
+        List<EventoResponseDTO> proximos = new ArrayList<>();
+        List<EventoResponseDTO> destacados = new ArrayList<>();
+        Map<Integer, EventosDistritoDTO> porDistrito = new LinkedHashMap<>();
+
+        for (Evento evento : eventosRepositorio.findPortada(hoy)) {
+            EventoResponseDTO dto = eventoMapper.toResponseDTO(evento);
+            if (proximos.size() < limiteProximos) {
+                proximos.add(dto);
+            }
+            if (destacados.size() < limiteDestacados && destacado(dto)) {
+                destacados.add(dto);
+            }
+            Distrito distrito = evento.getLocal() != null ? evento.getLocal().getDistrito() : null;
+            if (distrito != null) {
+                List<EventoResponseDTO> eventos = porDistrito.computeIfAbsent(distrito.getIdDistrito(), id ->
+                        new EventosDistritoDTO(id, distrito.getNombre(), new ArrayList<>())).getEventos();
+                if (eventos.size() < limitePorDistrito) {
+                    eventos.add(dto);
+                }
+            }
+        }
+
+        return PortadaCatalogoDTO.builder()
+                .proximos(proximos)
+                .destacados(destacados)
+                .porDistrito(porDistrito.values().stream()
+                        .sorted(Comparator.comparing(EventosDistritoDTO::getNombreDistrito,
+                                Comparator.nullsLast(Comparator.naturalOrder())))
+                        .toList())
+                .build();
+    }
+
+    private static boolean destacado(EventoResponseDTO evento) {
+        return evento.getImagenUrl() != null
+                && (evento.getAforoDisponible() == null || evento.getAforoDisponible() > 0);
+    }
+
+    private byte[] serializar(PortadaCatalogoDTO portada) {
+        try {
+            return objectMapper.writeValueAsBytes(StandardResponse.success("Portada obtenida exitosamente", portada));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("No se pudo serializar la portada del catálogo", e);
+        }
+    }
+}
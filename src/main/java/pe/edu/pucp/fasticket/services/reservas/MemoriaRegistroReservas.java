@@ -0,0 +1,119 @@
+package pe.edu.pucp.fasticket.services.reservas;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+
+/**
+ * Registro de retenciones en memoria del proceso.
+ * No se comparte entre instancias: pensado para desarrollo local y tests sin Redis.
+ * Las retenciones vencidas se descartan al consultarlas.
+ */
+@Service
+@ConditionalOnProperty(name = "fasticket.reservas.almacen", havingValue = "memoria", matchIfMissing = true)
+public class MemoriaRegistroReservas implements RegistroReservas {
+
+    private record Retencion(String titular, long expiraEn) { }
+
+    private final Map<Integer, Map<Integer, Retencion>> retenciones = new ConcurrentHashMap<>();
+    private final Clock clock;
+
+    public MemoriaRegistroReservas() {
+        this(Clock.systemUTC());
+    }
+
+    public MemoriaRegistroReservas(Clock clock) {
+        this.clock = clock;
+    }
+
+    @Override
+    public boolean retener(Integer idTipoTicket, Integer idTicket, String titular, Duration ttl) {
+        long ahora = clock.millis();
+        Retencion nueva = new Retencion(titular, ahora + ttl.toMillis());
+        Retencion resultado = tickets(idTipoTicket).compute(idTicket,
+                (id, actual) -> actual == null || actual.expiraEn() <= ahora ? nueva : actual);
+        return resultado == nueva;
+    }
+
+    @Override
+    public Set<Integer> retener(Integer idTipoTicket, Collection<Integer> idsTicket, String titular, Duration ttl) {
+        Set<Integer> retenidos = new LinkedHashSet<>();
+        for (Integer idTicket : idsTicket) {
+            if (retener(idTipoTicket, idTicket, titular, ttl) || renovar(idTipoTicket, idTicket, titular, ttl)) {
+                retenidos.add(idTicket);
+            }
+        }
+        return retenidos;
+    }
+
+    @Override
+    public boolean renovar(Integer idTipoTicket, Integer idTicket, String titular, Duration ttl) {
+        long ahora = clock.millis();
+        Retencion renovada = new Retencion(titular, ahora + ttl.toMillis());
+        Retencion resultado = tickets(idTipoTicket).computeIfPresent(idTicket,
+                (id, actual) -> vigenteDe(actual, titular, ahora) ? renovada : actual);
+        return resultado == renovada;
+    }
+
+    @Override
+    public boolean liberar(Integer idTipoTicket, Integer idTicket, String titular) {
+        long ahora = clock.millis();
+        boolean[] liberada = {false};
+        tickets(idTipoTicket).computeIfPresent(idTicket, (id, actual) -> {
+            if (actual.expiraEn() <= ahora) {
+                return null;
+            }
+            if (actual.titular().equals(titular)) {
+                liberada[0] = true;
+                return null;
+            }
+            return actual;
+        });
+        return liberada[0];
+    }
+
+    @Override
+    public int liberar(Integer idTipoTicket, Collection<Integer> idsTicket, String titular) {
+        int liberadas = 0;
+        for (Integer idTicket : idsTicket) {
+            if (liberar(idTipoTicket, idTicket, titular)) {
+                liberadas++;
+            }
+        }
+        return liberadas;
+    }
+
+    @Override
+    public Optional<String> titular(Integer idTipoTicket, Integer idTicket) {
+        Retencion retencion = tickets(idTipoTicket).get(idTicket);
+        if (retencion == null || retencion.expiraEn() <= clock.millis()) {
+            return Optional.empty();
+        }
+        return Optional.of(retencion.titular());
+    }
+
+    @Override
+    public Set<Integer> retenidos(Integer idTipoTicket) {
+        long ahora = clock.millis();
+        Map<Integer, Retencion> tickets = tickets(idTipoTicket);
+        tickets.values().removeIf(r -> r.expiraEn() <= ahora);
+        return tickets.keySet().stream().collect(Collectors.toUnmodifiableSet());
+    }
+
+    private Map<Integer, Retencion> tickets(Integer idTipoTicket) {
+        return retenciones.computeIfAbsent(idTipoTicket, id -> new ConcurrentHashMap<>());
+    }
+
+    private static boolean vigenteDe(Retencion retencion, String titular, long ahora) {
+        return retencion.expiraEn() > ahora && retencion.titular().equals(titular);
+    }
+}
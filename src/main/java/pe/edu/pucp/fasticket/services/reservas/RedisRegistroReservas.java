@@ -0,0 +1,175 @@
+package pe.edu.pucp.fasticket.services.reservas;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Service;
+
+/**
+ * Registro de retenciones en Redis, compartido por todas las instancias.
+ *
+ * <p>Cada retención es una clave {@code <prefijo>:{tt:<idTipoTicket>}:<idTicket>} con el titular
+ * como valor y TTL nativo. Un sorted set por tipo de ticket, con la expiración como score,
+ * permite listar los tickets retenidos sin recorrer el keyspace. Las operaciones se ejecutan
+ * como scripts Lua para que la clave y el índice cambien juntos, usando el reloj de Redis;
+ * las de varios tickets son un solo script, ya que todas sus claves comparten slot.</p>
+ */
+@Service
+@ConditionalOnProperty(name = "fasticket.reservas.almacen", havingValue = "redis")
+public class RedisRegistroReservas implements RegistroReservas {
+
+    private static final String AHORA =
+            "local t = redis.call('TIME') local ahora = t[1] * 1000 + math.floor(t[2] / 1000) ";
+
+    private static final RedisScript<Long> RETENER = new DefaultRedisScript<>(AHORA +
+            "if redis.call('SET', KEYS[1], ARGV[1], 'NX', 'PX', ARGV[2]) then " +
+            "  redis.call('ZADD', KEYS[2], ahora + tonumber(ARGV[2]), ARGV[3]) " +
+            "  return 1 " +
+            "end " +
+            "return 0", Long.class);
+
+    private static final RedisScript<Long> RENOVAR = new DefaultRedisScript<>(AHORA +
+            "if redis.call('GET', KEYS[1]) == ARGV[1] then " +
+            "  redis.call('PEXPIRE', KEYS[1], ARGV[2]) " +
+            "  redis.call('ZADD', KEYS[2], ahora + tonumber(ARGV[2]), ARGV[3]) " +
+            "  return 1 " +
+            "end " +
+            "return 0", Long.class);
+
+    private static final RedisScript<Long> LIBERAR = new DefaultRedisScript<>(
+            "if redis.call('GET', KEYS[1]) == ARGV[1] then " +
+            "  redis.call('DEL', KEYS[1]) " +
+            "  redis.call('ZREM', KEYS[2], ARGV[2]) " +
+            "  return 1 " +
+            "end " +
+            "return 0", Long.class);
+
+    // KEYS: 1 índice, 2.. una clave por ticket. ARGV: 1 titular, 2 TTL en ms, 3.. IDs de ticket
+    @SuppressWarnings("rawtypes")
+    private static final RedisScript<List> RETENER_VARIOS = new DefaultRedisScript<>(AHORA +
+            "local retenidos = {} " +
+            "for i = 2, #KEYS do " +
+            "  local id = ARGV[i + 1] " +
+            "  if redis.call('SET', KEYS[i], ARGV[1], 'NX', 'PX', ARGV[2]) " +
+            "      or redis.call('GET', KEYS[i]) == ARGV[1] then " +
+            "    redis.call('PEXPIRE', KEYS[i], ARGV[2]) " +
+            "    redis.call('ZADD', KEYS[1], ahora + tonumber(ARGV[2]), id) " +
+            "    table.insert(retenidos, id) " +
+            "  end " +
+            "end " +
+            "return retenidos", List.class);
+
+    // KEYS: 1 índice, 2.. una clave por ticket. ARGV: 1 titular, 2.. IDs de ticket
+    private static final RedisScript<Long> LIBERAR_VARIOS = new DefaultRedisScript<>(
+            "local liberadas = 0 " +
+            "for i = 2, #KEYS do " +
+            "  if redis.call('GET', KEYS[i]) == ARGV[1] then " +
+            "    redis.call('DEL', KEYS[i]) " +
+            "    redis.call('ZREM', KEYS[1], ARGV[i]) " +
+            "    liberadas = liberadas + 1 " +
+            "  end " +
+            "end " +
+            "return liberadas", Long.class);
+
+    @SuppressWarnings("rawtypes")
+    private static final RedisScript<List> RETENIDOS = new DefaultRedisScript<>(AHORA +
+            "redis.call('ZREMRANGEBYSCORE', KEYS[1], '-inf', ahora) " +
+            "return redis.call('ZRANGE', KEYS[1], 0, -1)", List.class);
+
+    private final StringRedisTemplate redisTemplate;
+    private final String prefijo;
+
+    public RedisRegistroReservas(StringRedisTemplate redisTemplate,
+                                 @Value("${fasticket.reservas.prefijo:fasticket:retencion}") String prefijo) {
+        this.redisTemplate = redisTemplate;
+        this.prefijo = prefijo;
+    }
+
+    @Override
+    public boolean retener(Integer idTipoTicket, Integer idTicket, String titular, Duration ttl) {
+        Long resultado = redisTemplate.execute(RETENER, List.of(clave(idTipoTicket, idTicket), indice(idTipoTicket)),
+                titular, String.valueOf(ttl.toMillis()), String.valueOf(idTicket));
+        return Long.valueOf(1).equals(resultado);
+    }
+
+    @Override
+    public Set<Integer> retener(Integer idTipoTicket, Collection<Integer> idsTicket, String titular, Duration ttl) {
+        if (idsTicket.isEmpty()) {
+            return Set.of();
+        }
+        List<String> argumentos = new ArrayList<>(List.of(titular, String.valueOf(ttl.toMillis())));
+        idsTicket.forEach(idTicket -> argumentos.add(String.valueOf(idTicket)));
+        List<?> retenidos = redisTemplate.execute(RETENER_VARIOS, claves(idTipoTicket, idsTicket), argumentos.toArray());
+        return ids(retenidos);
+    }
+
+    @Override
+    public boolean renovar(Integer idTipoTicket, Integer idTicket, String titular, Duration ttl) {
+        Long resultado = redisTemplate.execute(RENOVAR, List.of(clave(idTipoTicket, idTicket), indice(idTipoTicket)),
+                titular, String.valueOf(ttl.toMillis()), String.valueOf(idTicket));
+        return Long.valueOf(1).equals(resultado);
+    }
+
+    @Override
+    public boolean liberar(Integer idTipoTicket, Integer idTicket, String titular) {
+        Long resultado = redisTemplate.execute(LIBERAR, List.of(clave(idTipoTicket, idTicket), indice(idTipoTicket)),
+                titular, String.valueOf(idTicket));
+        return Long.valueOf(1).equals(resultado);
+    }
+
+    @Override
+    public int liberar(Integer idTipoTicket, Collection<Integer> idsTicket, String titular) {
+        if (idsTicket.isEmpty()) {
+            return 0;
+        }
+        List<String> argumentos = new ArrayList<>(List.of(titular));
+        idsTicket.forEach(idTicket -> argumentos.add(String.valueOf(idTicket)));
+        Long liberadas = redisTemplate.execute(LIBERAR_VARIOS, claves(idTipoTicket, idsTicket), argumentos.toArray());
+        return liberadas == null ? 0 : liberadas.intValue();
+    }
+
+    @Override
+    public Optional<String> titular(Integer idTipoTicket, Integer idTicket) {
+        return Optional.ofNullable(redisTemplate.opsForValue().get(clave(idTipoTicket, idTicket)));
+    }
+
+    @Override
+    public Set<Integer> retenidos(Integer idTipoTicket) {
+        return ids(redisTemplate.execute(RETENIDOS, List.of(indice(idTipoTicket))));
+    }
+
+    private static Set<Integer> ids(List<?> miembros) {
+        if (miembros == null) {
+            return Set.of();
+        }
+        return miembros.stream()
+                .map(m -> Integer.valueOf(m.toString()))
+                .collect(Collectors.toUnmodifiableSet());
+    }
+
+    private List<String> claves(Integer idTipoTicket, Collection<Integer> idsTicket) {
+        List<String> claves = new ArrayList<>(idsTicket.size() + 1);
+        claves.add(indice(idTipoTicket));
+        idsTicket.forEach(idTicket -> claves.add(clave(idTipoTicket, idTicket)));
+        return claves;
+    }
+
+    // El hash tag {tt:N} mantiene la clave y su índice en el mismo slot de Redis Cluster
+    private String clave(Integer idTipoTicket, Integer idTicket) {
+        return prefijo + ":{tt:" + idTipoTicket + "}:" + idTicket;
+    }
+
+    private String indice(Integer idTipoTicket) {
+        return prefijo + ":{tt:" + idTipoTicket + "}";
+    }
+}
@@ -0,0 +1,67 @@
+package pe.edu.pucp.fasticket.services.reservas;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Registro de retenciones de asientos (tickets) con expiración automática.
+ * Patrón Strategy: la implementación en Redis se comparte entre todas las instancias
+ * de la aplicación; la implementación en memoria sirve para desarrollo y tests.
+ *
+ * <p>Cada retención se identifica por TipoTicket y ticket, pertenece a un titular
+ * y desaparece sola al vencer su TTL. Las operaciones sobre varios tickets del mismo tipo
+ * se aplican en una sola llamada al almacén.</p>
+ */
+public interface RegistroReservas {
+
+    /**
+     * Retiene un ticket para un titular si nadie más lo tiene retenido.
+     *
+     * @param idTipoTicket ID del tipo de ticket
+     * @param idTicket ID del ticket
+     * @param titular Identificador del dueño de la retención
+     * @param ttl Tiempo de vida de la retención
+     * @return true si se obtuvo la retención, false si otro titular ya la tiene
+     */
+    boolean retener(Integer idTipoTicket, Integer idTicket, String titular, Duration ttl);
+
+    /**
+     * Retiene para el titular los tickets que nadie más tiene retenidos y renueva los que ya eran suyos.
+     *
+     * @return IDs de los tickets que quedaron retenidos por el titular
+     */
+    Set<Integer> retener(Integer idTipoTicket, Collection<Integer> idsTicket, String titular, Duration ttl);
+
+    /**
+     * Extiende una retención existente del mismo titular.
+     *
+     * @return true si la retención existía y pertenecía al titular
+     */
+    boolean renovar(Integer idTipoTicket, Integer idTicket, String titular, Duration ttl);
+
+    /**
+     * Libera una retención si pertenece al titular.
+     *
+     * @return true si se liberó
+     */
+    boolean liberar(Integer idTipoTicket, Integer idTicket, String titular);
+
+    /**
+     * Libera las retenciones del titular sobre los tickets; las de otros titulares no se tocan.
+     *
+     * @return cantidad de retenciones liberadas
+     */
+    int liberar(Integer idTipoTicket, Collection<Integer> idsTicket, String titular);
+
+    /**
+     * Titular actual de la retención del ticket, si sigue vigente.
+     */
+    Optional<String> titular(Integer idTipoTicket, Integer idTicket);
+
+    /**
+     * IDs de los tickets con retención vigente para un tipo de ticket.
+     */
+    Set<Integer> retenidos(Integer idTipoTicket);
+}
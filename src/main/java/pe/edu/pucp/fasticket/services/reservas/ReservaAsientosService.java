@@ -0,0 +1,147 @@
+package pe.edu.pucp.fasticket.services.reservas;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import pe.edu.pucp.fasticket.model.eventos.Ticket;
+import pe.edu.pucp.fasticket.model.eventos.TipoTicket;
+
+/**
+ * Retenciones de asientos en el {@link RegistroReservas}, compartido por todas las instancias.
+ *
+ * <p>Al reservar, los asientos elegidos se retienen en el registro antes de reclamar sus filas:
+ * un asiento que otro comprador ya retuvo, en esta u otra instancia, se descarta sin llegar a
+ * bloquear su fila en la base de datos. Cada retención vence sola a la misma hora que la reserva;
+ * si la transacción se revierte, las retenciones se sueltan. Las liberaciones se aplican después
+ * del commit, para que el registro nunca suelte un asiento que la base de datos aún tiene reservado.</p>
+ *
+ * <p>La base de datos sigue siendo la fuente de verdad: si el registro falla, la reserva se admite
+ * solo con el reclamo de filas y el fallo se registra en el log.</p>
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ReservaAsientosService {
+
+    private final RegistroReservas registroReservas;
+
+    /**
+     * Retiene los asientos para el cliente, en una sola llamada al registro.
+     *
+     * @return los asientos que quedaron retenidos por el cliente; si el registro no responde, todos
+     */
+    public Set<Integer> retener(Integer idTipoTicket, Collection<Integer> idsTicket, Integer idCliente, Duration ttl) {
+        if (idsTicket.isEmpty()) {
+            return Set.of();
+        }
+        String titular = titular(idCliente);
+        Set<Integer> retenidos;
+        try {
+            retenidos = registroReservas.retener(idTipoTicket, idsTicket, titular, ttl);
+        } catch (RuntimeException e) {
+            log.warn("No se pudo consultar el registro de retenciones: {}", e.getMessage());
+            return Set.copyOf(idsTicket);
+        }
+        if (!retenidos.isEmpty()) {
+            alRevertir(() -> soltar(idTipoTicket, retenidos, titular));
+        }
+        return retenidos;
+    }
+
+    /**
+     * Extiende las retenciones del cliente sobre los tickets, por ejemplo al pasar del carrito a una orden.
+     */
+    public void renovar(TipoTicket tipoTicket, Collection<Ticket> tickets, Integer idCliente, Duration ttl) {
+        Integer idTipoTicket = tipoTicket.getIdTipoTicket();
+        String titular = titular(idCliente);
+        List<Integer> ids = idsDe(tickets);
+        despuesDelCommit(() -> registroReservas.retener(idTipoTicket, ids, titular, ttl));
+    }
+
+    public void liberar(TipoTicket tipoTicket, Collection<Ticket> tickets, Integer idCliente) {
+        liberar(tipoTicket.getIdTipoTicket(), idsDe(tickets), idCliente);
+    }
+
+    public void liberar(Integer idTipoTicket, Collection<Integer> idsTicket, Integer idCliente) {
+        if (idCliente == null || idsTicket.isEmpty()) {
+            return;
+        }
+        String titular = titular(idCliente);
+        List<Integer> ids = List.copyOf(idsTicket);
+        despuesDelCommit(() -> registroReservas.liberar(idTipoTicket, ids, titular));
+    }
+
+    /**
+     * Suelta en el momento retenciones que no llegaron a respaldarse con una fila reclamada.
+     */
+    public void soltar(Integer idTipoTicket, Collection<Integer> idsTicket, Integer idCliente) {
+        soltar(idTipoTicket, idsTicket, titular(idCliente));
+    }
+
+    public Set<Integer> retenidos(TipoTicket tipoTicket) {
+        return registroReservas.retenidos(tipoTicket.getIdTipoTicket());
+    }
+
+    private void soltar(Integer idTipoTicket, Collection<Integer> idsTicket, String titular) {
+        if (idsTicket.isEmpty()) {
+            return;
+        }
+        seguro(() -> registroReservas.liberar(idTipoTicket, idsTicket, titular));
+    }
+
+    private static String titular(Integer idCliente) {
+        return "cliente:" + idCliente;
+    }
+
+    // Se copian los IDs ahora: después del commit las entidades pueden estar desasociadas
+    private static List<Integer> idsDe(Collection<Ticket> tickets) {
+        return tickets.stream()
+                .map(Ticket::getIdTicket)
+                .filter(Objects::nonNull)
+                .toList();
+    }
+
+    private void seguro(Runnable accion) {
+        try {
+            accion.run();
+        } catch (RuntimeException e) {
+            log.warn("No se pudo actualizar el registro de retenciones: {}", e.getMessage());
+        }
+    }
+
+    private void despuesDelCommit(Runnable accion) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            seguro(accion);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                seguro(accion);
+            }
+        });
+    }
+
+    private void alRevertir(Runnable compensacion) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status == STATUS_ROLLED_BACK) {
+                    compensacion.run();
+                }
+            }
+        });
+    }
+}
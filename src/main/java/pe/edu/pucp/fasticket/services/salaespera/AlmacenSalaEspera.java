@@ -0,0 +1,67 @@
+package pe.edu.pucp.fasticket.services.salaespera;
+
+import java.util.Collection;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Salas de espera activas, con sus colas y turnos.
+ * Patrón Strategy: la implementación en Redis se comparte entre todas las instancias
+ * de la aplicación; la implementación en memoria sirve para un solo nodo, desarrollo y tests.
+ *
+ * <p>Cada turno pertenece a la persona que lo pidió; las operaciones con el token de otra
+ * persona se comportan como si el turno no existiera.</p>
+ */
+public interface AlmacenSalaEspera {
+
+    /**
+     * Estado de un turno al momento de la consulta.
+     *
+     * @param admitidoHasta Epoch millis hasta el que dura la admisión (0 si aún espera)
+     */
+    record EstadoTurno(String token, Integer idEvento, boolean admitido, long posicion, long etaSegundos,
+                       long admitidoHasta) { }
+
+    /**
+     * Activa (o reinicia, vaciando la cola) la sala del evento.
+     *
+     * @param tiposTicket Tipos de ticket cuya compra exige un turno admitido
+     */
+    void activar(Integer idEvento, int capacidad, Set<Integer> tiposTicket, long ventanaMillis, long abandonoMillis);
+
+    void desactivar(Integer idEvento);
+
+    boolean hayActivas();
+
+    /**
+     * Evento con sala activa al que pertenece alguno de los tipos de ticket, si lo hay.
+     */
+    Optional<Integer> eventoConSala(Collection<Integer> idsTipoTicket);
+
+    /**
+     * Entrega un turno nuevo en la cola del evento.
+     *
+     * @return vacío si el evento no tiene sala activa
+     */
+    Optional<EstadoTurno> ingresar(Integer idEvento, Integer idPersona);
+
+    /**
+     * Estado del turno; registra que la persona sigue esperando.
+     */
+    Optional<EstadoTurno> consultar(Integer idEvento, String token, Integer idPersona);
+
+    /**
+     * Si el turno de la persona está admitido; sin sala activa para el evento, siempre lo está.
+     */
+    boolean estaAdmitido(Integer idEvento, String token, Integer idPersona);
+
+    /**
+     * Retira el turno de la sala y, si estaba admitido, cede su cupo al siguiente de la cola.
+     */
+    void liberar(Integer idEvento, String token, Integer idPersona);
+
+    /**
+     * Vence las admisiones expiradas y admite a los siguientes de cada cola hasta llenar la capacidad.
+     */
+    void avanzarColas();
+}
@@ -0,0 +1,104 @@
+package pe.edu.pucp.fasticket.services.salaespera;
+
+import java.time.Clock;
+import java.util.Collection;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+
+/**
+ * Salas de espera en memoria del proceso, una {@link SalaEspera} por evento.
+ * No se comparte entre instancias: pensado para un solo nodo, desarrollo local y tests sin Redis.
+ */
+@Service
+@ConditionalOnProperty(name = "fasticket.sala-espera.almacen", havingValue = "memoria", matchIfMissing = true)
+public class MemoriaAlmacenSalaEspera implements AlmacenSalaEspera {
+
+    private final Map<Integer, SalaEspera> salas = new ConcurrentHashMap<>();
+    private final Map<Integer, Integer> eventoPorTipoTicket = new ConcurrentHashMap<>();
+    private final Clock clock;
+
+    public MemoriaAlmacenSalaEspera() {
+        this(Clock.systemUTC());
+    }
+
+    public MemoriaAlmacenSalaEspera(Clock clock) {
+        this.clock = clock;
+    }
+
+    @Override
+    public void activar(Integer idEvento, int capacidad, Set<Integer> tiposTicket, long ventanaMillis, long abandonoMillis) {
+        desactivar(idEvento);
+        salas.put(idEvento, new SalaEspera(idEvento, capacidad, tiposTicket, ventanaMillis, abandonoMillis));
+        tiposTicket.forEach(idTipo -> eventoPorTipoTicket.put(idTipo, idEvento));
+    }
+
+    @Override
+    public void desactivar(Integer idEvento) {
+        SalaEspera sala = salas.remove(idEvento);
+        if (sala != null) {
+            sala.getTiposTicket().forEach(idTipo -> eventoPorTipoTicket.remove(idTipo, idEvento));
+        }
+    }
+
+    @Override
+    public boolean hayActivas() {
+        return !salas.isEmpty();
+    }
+
+    @Override
+    public Optional<Integer> eventoConSala(Collection<Integer> idsTipoTicket) {
+        return idsTipoTicket.stream()
+                .map(eventoPorTipoTicket::get)
+                .filter(Objects::nonNull)
+                .findFirst();
+    }
+
+    @Override
+    public Optional<EstadoTurno> ingresar(Integer idEvento, Integer idPersona) {
+        SalaEspera sala = salas.get(idEvento);
+        if (sala == null) {
+            return Optional.empty();
+        }
+        return Optional.of(estado(sala, sala.ingresar(idPersona, clock.millis())));
+    }
+
+    @Override
+    public Optional<EstadoTurno> consultar(Integer idEvento, String token, Integer idPersona) {
+        SalaEspera sala = salas.get(idEvento);
+        if (sala == null) {
+            return Optional.empty();
+        }
+        return sala.consultar(token, idPersona, clock.millis()).map(turno -> estado(sala, turno));
+    }
+
+    @Override
+    public boolean estaAdmitido(Integer idEvento, String token, Integer idPersona) {
+        SalaEspera sala = salas.get(idEvento);
+        return sala == null || sala.estaAdmitido(token, idPersona, clock.millis());
+    }
+
+    @Override
+    public void liberar(Integer idEvento, String token, Integer idPersona) {
+        SalaEspera sala = salas.get(idEvento);
+        if (sala != null) {
+            sala.liberar(token, idPersona, clock.millis());
+        }
+    }
+
+    @Override
+    public void avanzarColas() {
+        long ahora = clock.millis();
+        salas.values().forEach(sala -> sala.admitir(ahora));
+    }
+
+    private static EstadoTurno estado(SalaEspera sala, SalaEspera.Turno turno) {
+        return new EstadoTurno(turno.getToken(), sala.getIdEvento(), turno.isAdmitido(), sala.posicion(turno),
+                sala.etaSegundos(turno), turno.getAdmitidoHasta());
+    }
+}
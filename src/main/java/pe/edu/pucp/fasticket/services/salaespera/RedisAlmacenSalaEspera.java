@@ -0,0 +1,249 @@
+package pe.edu.pucp.fasticket.services.salaespera;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Service;
+
+/**
+ * Salas de espera en Redis, compartidas por todas las instancias: la activación del
+ * administrador, las colas y los turnos valen en cualquier nodo.
+ *
+ * <p>Cada sala usa las claves {@code <prefijo>:{se:<idEvento>}:*}: configuración y contadores
+ * (hash), cola de espera (sorted set por número de llegada), admitidos (sorted set por fin de la
+ * admisión), dueño y última consulta de cada turno (hashes) y sus tipos de ticket (set). Aparte,
+ * {@code <prefijo>:salas} lista los eventos con sala activa y {@code <prefijo>:tipos} mapea cada
+ * tipo de ticket a su evento, para que el filtro de compras los resuelva con una sola lectura.
+ * Las operaciones sobre una sala son scripts Lua con el reloj de Redis; la cola avanza igual
+ * que en {@link SalaEspera}.</p>
+ */
+@Service
+@ConditionalOnProperty(name = "fasticket.sala-espera.almacen", havingValue = "redis")
+public class RedisAlmacenSalaEspera implements AlmacenSalaEspera {
+
+    // KEYS: 1 configuración, 2 esperando, 3 admitidos, 4 dueños, 5 consultas
+    private static final String FUNCIONES =
+            "local t = redis.call('TIME') local ahora = t[1] * 1000 + math.floor(t[2] / 1000) " +
+            "local function registrar(ms) " +
+            "  local d = tonumber(redis.call('HGET', KEYS[1], 'duracion')) " +
+            "  redis.call('HSET', KEYS[1], 'duracion', tostring(0.8 * d + 0.2 * ms)) " +
+            "end " +
+            "local function olvidar(tk) redis.call('HDEL', KEYS[4], tk) redis.call('HDEL', KEYS[5], tk) end " +
+            "local function admitir() " +
+            "  local cap = tonumber(redis.call('HGET', KEYS[1], 'capacidad')) " +
+            "  local ventana = tonumber(redis.call('HGET', KEYS[1], 'ventana')) " +
+            "  local abandono = tonumber(redis.call('HGET', KEYS[1], 'abandono')) " +
+            "  for _, tk in ipairs(redis.call('ZRANGEBYSCORE', KEYS[3], '-inf', ahora)) do " +
+            "    redis.call('ZREM', KEYS[3], tk) olvidar(tk) registrar(ventana) " +
+            "  end " +
+            "  while redis.call('ZCARD', KEYS[3]) < cap do " +
+            "    local sig = redis.call('ZPOPMIN', KEYS[2]) " +
+            "    if #sig == 0 then break end " +
+            "    redis.call('HSET', KEYS[1], 'ultimo', sig[2]) " +
+            "    if ahora - tonumber(redis.call('HGET', KEYS[5], sig[1]) or '0') > abandono then " +
+            "      olvidar(sig[1]) " +
+            "    else " +
+            "      redis.call('ZADD', KEYS[3], ahora + ventana, sig[1]) " +
+            "    end " +
+            "  end " +
+            "end " +
+            "local function estado(tk) " +
+            "  local cap = redis.call('HGET', KEYS[1], 'capacidad') " +
+            "  local dur = redis.call('HGET', KEYS[1], 'duracion') " +
+            "  local hasta = redis.call('ZSCORE', KEYS[3], tk) " +
+            "  if hasta then return {'0', hasta, cap, dur} end " +
+            "  local numero = redis.call('ZSCORE', KEYS[2], tk) " +
+            "  if not numero then return false end " +
+            "  local ultimo = tonumber(redis.call('HGET', KEYS[1], 'ultimo')) " +
+            "  return {tostring(math.max(tonumber(numero) - ultimo, 1)), '0', cap, dur} " +
+            "end ";
+
+    private static final String DUENO = "redis.call('HGET', KEYS[4], ARGV[1]) == ARGV[2]";
+
+    @SuppressWarnings("rawtypes")
+    private static final RedisScript<List> INGRESAR = new DefaultRedisScript<>(FUNCIONES +
+            "if redis.call('EXISTS', KEYS[1]) == 0 then return false end " +
+            "local numero = redis.call('HINCRBY', KEYS[1], 'seq', 1) " +
+            "redis.call('ZADD', KEYS[2], numero, ARGV[1]) " +
+            "redis.call('HSET', KEYS[4], ARGV[1], ARGV[2]) " +
+            "redis.call('HSET', KEYS[5], ARGV[1], ahora) " +
+            "if redis.call('ZCARD', KEYS[3]) < tonumber(redis.call('HGET', KEYS[1], 'capacidad')) then admitir() end " +
+            "return estado(ARGV[1])", List.class);
+
+    @SuppressWarnings("rawtypes")
+    private static final RedisScript<List> CONSULTAR = new DefaultRedisScript<>(FUNCIONES +
+            "if not (" + DUENO + ") then return false end " +
+            "redis.call('HSET', KEYS[5], ARGV[1], ahora) " +
+            "return estado(ARGV[1])", List.class);
+
+    private static final RedisScript<Long> ADMITIDO = new DefaultRedisScript<>(FUNCIONES +
+            "if redis.call('EXISTS', KEYS[1]) == 0 then return 1 end " +
+            "if not (" + DUENO + ") then return 0 end " +
+            "local hasta = redis.call('ZSCORE', KEYS[3], ARGV[1]) " +
+            "if hasta and tonumber(hasta) > ahora then return 1 end " +
+            "return 0", Long.class);
+
+    private static final RedisScript<Long> LIBERAR = new DefaultRedisScript<>(FUNCIONES +
+            "if redis.call('EXISTS', KEYS[1]) == 0 or not (" + DUENO + ") then return 0 end " +
+            "olvidar(ARGV[1]) " +
+            "redis.call('ZREM', KEYS[2], ARGV[1]) " +
+            "local hasta = redis.call('ZSCORE', KEYS[3], ARGV[1]) " +
+            "if hasta then " +
+            "  redis.call('ZREM', KEYS[3], ARGV[1]) " +
+            "  registrar(ahora - (tonumber(hasta) - tonumber(redis.call('HGET', KEYS[1], 'ventana')))) " +
+            "  admitir() " +
+            "end " +
+            "return 1", Long.class);
+
+    private static final RedisScript<Long> AVANZAR = new DefaultRedisScript<>(FUNCIONES +
+            "if redis.call('EXISTS', KEYS[1]) == 0 then return 0 end " +
+            "admitir() " +
+            "return 1", Long.class);
+
+    // KEYS: 1-5 como arriba, 6 tipos de ticket de la sala. ARGV: capacidad, ventana, abandono, tipos...
+    private static final RedisScript<Long> ACTIVAR = new DefaultRedisScript<>(
+            "redis.call('DEL', KEYS[1], KEYS[2], KEYS[3], KEYS[4], KEYS[5], KEYS[6]) " +
+            "redis.call('HSET', KEYS[1], 'capacidad', ARGV[1], 'ventana', ARGV[2], 'abandono', ARGV[3], " +
+            "  'seq', 0, 'ultimo', 0, 'duracion', ARGV[2]) " +
+            "for i = 4, #ARGV do redis.call('SADD', KEYS[6], ARGV[i]) end " +
+            "return 1", Long.class);
+
+    // Solo quita los tipos que siguen apuntando al evento: otra sala pudo tomarlos después
+    private static final RedisScript<Long> SOLTAR_TIPOS = new DefaultRedisScript<>(
+            "for i = 2, #ARGV do " +
+            "  if redis.call('HGET', KEYS[1], ARGV[i]) == ARGV[1] then redis.call('HDEL', KEYS[1], ARGV[i]) end " +
+            "end " +
+            "return 1", Long.class);
+
+    private final StringRedisTemplate redisTemplate;
+    private final String prefijo;
+
+    public RedisAlmacenSalaEspera(StringRedisTemplate redisTemplate,
+                                  @Value("${fasticket.sala-espera.prefijo:fasticket:sala-espera}") String prefijo) {
+        this.redisTemplate = redisTemplate;
+        this.prefijo = prefijo;
+    }
+
+    @Override
+    public void activar(Integer idEvento, int capacidad, Set<Integer> tiposTicket, long ventanaMillis, long abandonoMillis) {
+        desactivar(idEvento);
+        List<String> argumentos = new ArrayList<>(List.of(String.valueOf(capacidad),
+                String.valueOf(ventanaMillis), String.valueOf(abandonoMillis)));
+        tiposTicket.forEach(idTipo -> argumentos.add(String.valueOf(idTipo)));
+        List<String> claves = new ArrayList<>(claves(idEvento));
+        claves.add(clave(idEvento, "tipos"));
+        redisTemplate.execute(ACTIVAR, claves, argumentos.toArray());
+
+        if (!tiposTicket.isEmpty()) {
+            redisTemplate.opsForHash().putAll(prefijo + ":tipos", tiposTicket.stream()
+                    .collect(Collectors.toMap(String::valueOf, idTipo -> String.valueOf(idEvento))));
+        }
+        redisTemplate.opsForSet().add(prefijo + ":salas", String.valueOf(idEvento));
+    }
+
+    @Override
+    public void desactivar(Integer idEvento) {
+        redisTemplate.opsForSet().remove(prefijo + ":salas", String.valueOf(idEvento));
+        Set<String> tipos = redisTemplate.opsForSet().members(clave(idEvento, "tipos"));
+        if (tipos != null && !tipos.isEmpty()) {
+            List<String> argumentos = new ArrayList<>(tipos.size() + 1);
+            argumentos.add(String.valueOf(idEvento));
+            argumentos.addAll(tipos);
+            redisTemplate.execute(SOLTAR_TIPOS, List.of(prefijo + ":tipos"), argumentos.toArray());
+        }
+        List<String> claves = new ArrayList<>(claves(idEvento));
+        claves.add(clave(idEvento, "tipos"));
+        redisTemplate.delete(claves);
+    }
+
+    @Override
+    public boolean hayActivas() {
+        Long salas = redisTemplate.opsForSet().size(prefijo + ":salas");
+        return salas != null && salas > 0;
+    }
+
+    @Override
+    public Optional<Integer> eventoConSala(Collection<Integer> idsTipoTicket) {
+        if (idsTipoTicket.isEmpty()) {
+            return Optional.empty();
+        }
+        List<Object> eventos = redisTemplate.opsForHash().multiGet(prefijo + ":tipos",
+                idsTipoTicket.stream().map(id -> (Object) String.valueOf(id)).toList());
+        return eventos.stream()
+                .filter(Objects::nonNull)
+                .map(idEvento -> Integer.valueOf(idEvento.toString()))
+                .findFirst();
+    }
+
+    @Override
+    public Optional<EstadoTurno> ingresar(Integer idEvento, Integer idPersona) {
+        String token = idEvento + "." + UUID.randomUUID();
+        return estado(idEvento, token,
+                redisTemplate.execute(INGRESAR, claves(idEvento), token, String.valueOf(idPersona)));
+    }
+
+    @Override
+    public Optional<EstadoTurno> consultar(Integer idEvento, String token, Integer idPersona) {
+        return estado(idEvento, token,
+                redisTemplate.execute(CONSULTAR, claves(idEvento), token, String.valueOf(idPersona)));
+    }
+
+    @Override
+    public boolean estaAdmitido(Integer idEvento, String token, Integer idPersona) {
+        if (token == null) {
+            return !Boolean.TRUE.equals(redisTemplate.hasKey(clave(idEvento, "config")));
+        }
+        Long admitido = redisTemplate.execute(ADMITIDO, claves(idEvento), token, String.valueOf(idPersona));
+        return Long.valueOf(1).equals(admitido);
+    }
+
+    @Override
+    public void liberar(Integer idEvento, String token, Integer idPersona) {
+        redisTemplate.execute(LIBERAR, claves(idEvento), token, String.valueOf(idPersona));
+    }
+
+    @Override
+    public void avanzarColas() {
+        Set<String> salas = redisTemplate.opsForSet().members(prefijo + ":salas");
+        if (salas == null) {
+            return;
+        }
+        salas.forEach(idEvento -> redisTemplate.execute(AVANZAR, claves(Integer.valueOf(idEvento))));
+    }
+
+    /**
+     * Convierte la respuesta de los scripts, {@code [posicion, admitidoHasta, capacidad, duracionPromedio]}.
+     */
+    private static Optional<EstadoTurno> estado(Integer idEvento, String token, List<?> respuesta) {
+        if (respuesta == null || respuesta.isEmpty()) {
+            return Optional.empty();
+        }
+        long posicion = Long.parseLong(respuesta.get(0).toString());
+        long admitidoHasta = (long) Double.parseDouble(respuesta.get(1).toString());
+        int capacidad = Integer.parseInt(respuesta.get(2).toString());
+        double duracionPromedio = Double.parseDouble(respuesta.get(3).toString());
+        return Optional.of(new EstadoTurno(token, idEvento, posicion == 0, posicion,
+                SalaEspera.etaSegundos(posicion, capacidad, duracionPromedio), admitidoHasta));
+    }
+
+    // El hash tag {se:N} mantiene todas las claves de la sala en el mismo slot de Redis Cluster
+    private List<String> claves(Integer idEvento) {
+        return List.of(clave(idEvento, "config"), clave(idEvento, "esperando"), clave(idEvento, "admitidos"),
+                clave(idEvento, "duenos"), clave(idEvento, "consultas"));
+    }
+
+    private String clave(Integer idEvento, String parte) {
+        return prefijo + ":{se:" + idEvento + "}:" + parte;
+    }
+}
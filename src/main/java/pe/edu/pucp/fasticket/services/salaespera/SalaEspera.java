@@ -0,0 +1,179 @@
+package pe.edu.pucp.fasticket.services.salaespera;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import lombok.Getter;
+
+/**
+ * Cola FIFO de admisión para un evento.
+ *
+ * <p>Cada turno recibe un número correlativo. Como máximo {@code capacidad} turnos están
+ * admitidos a la vez, cada uno durante {@code ventanaMillis}. La posición en la cola es
+ * la distancia al último número admitido, así que consultarla no toma ningún lock.
+ * Los turnos que dejan de consultar su estado por más de {@code abandonoMillis} se descartan
+ * al llegarles el turno, para que no ocupen cupos de admisión.</p>
+ *
+ * <p>Cada turno pertenece a la persona que lo pidió: consultarlo, comprar con él o liberarlo
+ * exige la misma persona.</p>
+ *
+ * <p>Los métodos reciben la hora actual en milisegundos para poder probarse sin esperar.</p>
+ */
+public final class SalaEspera {
+
+    @Getter
+    public static final class Turno {
+        private final String token;
+        private final Integer idPersona;
+        private final long numero;
+        private volatile long ultimaConsulta;
+        private volatile long admitidoEn;
+        private volatile long admitidoHasta;
+
+        private Turno(String token, Integer idPersona, long numero, long ahora) {
+            this.token = token;
+            this.idPersona = idPersona;
+            this.numero = numero;
+            this.ultimaConsulta = ahora;
+        }
+
+        public boolean isAdmitido() {
+            return admitidoHasta > 0;
+        }
+    }
+
+    @Getter
+    private final Integer idEvento;
+    @Getter
+    private final int capacidad;
+    @Getter
+    private final Set<Integer> tiposTicket;
+    private final long ventanaMillis;
+    private final long abandonoMillis;
+
+    private final AtomicLong secuencia = new AtomicLong();
+    private final Map<String, Turno> turnos = new ConcurrentHashMap<>();
+    private final ConcurrentSkipListMap<Long, Turno> esperando = new ConcurrentSkipListMap<>();
+    private final Map<String, Turno> admitidos = new ConcurrentHashMap<>();
+    private volatile long ultimoAdmitido;
+    private volatile double duracionPromedioMillis;
+
+    public SalaEspera(Integer idEvento, int capacidad, Set<Integer> tiposTicket, long ventanaMillis, long abandonoMillis) {
+        this.idEvento = idEvento;
+        this.capacidad = capacidad;
+        this.tiposTicket = Collections.unmodifiableSet(tiposTicket);
+        this.ventanaMillis = ventanaMillis;
+        this.abandonoMillis = abandonoMillis;
+        this.duracionPromedioMillis = ventanaMillis;
+    }
+
+    public Turno ingresar(Integer idPersona, long ahora) {
+        Turno turno = new Turno(idEvento + "." + UUID.randomUUID(), idPersona, secuencia.incrementAndGet(), ahora);
+        turnos.put(turno.token, turno);
+        esperando.put(turno.numero, turno);
+        if (admitidos.size() < capacidad) {
+            admitir(ahora);
+        }
+        return turno;
+    }
+
+    /**
+     * Devuelve el turno y registra que el cliente sigue esperando.
+     */
+    public Optional<Turno> consultar(String token, Integer idPersona, long ahora) {
+        Turno turno = turnos.get(token);
+        if (turno == null || !turno.idPersona.equals(idPersona)) {
+            return Optional.empty();
+        }
+        turno.ultimaConsulta = ahora;
+        return Optional.of(turno);
+    }
+
+    public boolean estaAdmitido(String token, Integer idPersona, long ahora) {
+        Turno turno = token == null ? null : admitidos.get(token);
+        return turno != null && turno.idPersona.equals(idPersona) && turno.admitidoHasta > ahora;
+    }
+
+    /**
+     * Retira el turno de la sala (compra terminada o abandono) y cede su cupo.
+     */
+    public void liberar(String token, Integer idPersona, long ahora) {
+        Turno turno = turnos.get(token);
+        if (turno == null || !turno.idPersona.equals(idPersona) || !turnos.remove(token, turno)) {
+            return;
+        }
+        esperando.remove(turno.numero);
+        if (admitidos.remove(token) != null) {
+            registrarDuracion(ahora - turno.admitidoEn);
+            admitir(ahora);
+        }
+    }
+
+    /**
+     * Vence las admisiones expiradas y admite a los siguientes de la cola hasta llenar la capacidad.
+     */
+    public synchronized void admitir(long ahora) {
+        admitidos.values().removeIf(turno -> {
+            if (turno.admitidoHasta > ahora) {
+                return false;
+            }
+            turnos.remove(turno.token);
+            registrarDuracion(ventanaMillis);
+            return true;
+        });
+        while (admitidos.size() < capacidad) {
+            Map.Entry<Long, Turno> siguiente = esperando.pollFirstEntry();
+            if (siguiente == null) {
+                break;
+            }
+            Turno turno = siguiente.getValue();
+            ultimoAdmitido = turno.numero;
+            if (ahora - turno.ultimaConsulta > abandonoMillis) {
+                turnos.remove(turno.token);
+                continue;
+            }
+            turno.admitidoEn = ahora;
+            turno.admitidoHasta = ahora + ventanaMillis;
+            admitidos.put(turno.token, turno);
+        }
+    }
+
+    public long posicion(Turno turno) {
+        return turno.isAdmitido() ? 0 : Math.max(turno.numero - ultimoAdmitido, 1);
+    }
+
+    /**
+     * Tiempo estimado de espera: cuántas "tandas" de {@code capacidad} compradores faltan,
+     * por la duración promedio observada de una sesión de compra.
+     */
+    public long etaSegundos(Turno turno) {
+        return etaSegundos(posicion(turno), capacidad, duracionPromedioMillis);
+    }
+
+    static long etaSegundos(long posicion, int capacidad, double duracionPromedioMillis) {
+        if (posicion == 0) {
+            return 0;
+        }
+        long tandas = (posicion + capacidad - 1) / capacidad;
+        return Math.round(tandas * duracionPromedioMillis / 1000.0);
+    }
+
+    public int enEspera() {
+        return esperando.size();
+    }
+
+    public int admitidos() {
+        return admitidos.size();
+    }
+
+    // Media móvil exponencial: las sesiones recientes pesan más que las antiguas
+    private void registrarDuracion(long millis) {
+        duracionPromedioMillis = 0.8 * duracionPromedioMillis + 0.2 * millis;
+    }
+}
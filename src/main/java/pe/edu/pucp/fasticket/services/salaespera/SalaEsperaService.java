@@ -0,0 +1,153 @@
+package pe.edu.pucp.fasticket.services.salaespera;
+
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Optional;
+import java.util.Set;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import pe.edu.pucp.fasticket.dto.compra.TurnoSalaEsperaDTO;
+import pe.edu.pucp.fasticket.exception.BusinessException;
+import pe.edu.pucp.fasticket.exception.ResourceNotFoundException;
+import pe.edu.pucp.fasticket.model.eventos.Evento;
+import pe.edu.pucp.fasticket.repository.compra.ItemCarritoRepository;
+import pe.edu.pucp.fasticket.repository.eventos.EventosRepositorio;
+import pe.edu.pucp.fasticket.repository.eventos.TipoTicketRepositorio;
+
+/**
+ * Sala de espera virtual para preventas de alta demanda.
+ *
+ * <p>Un administrador activa la sala de un evento con una capacidad de compradores simultáneos.
+ * Mientras está activa, crear órdenes, agregar al carrito o comprar el carrito con tickets de ese
+ * evento exige un turno admitido (ver {@code SalaEsperaFilter}); el resto entra a una cola FIFO y
+ * consulta su posición y tiempo estimado. Así la cantidad de checkouts concurrentes, y de conexiones a la base de datos,
+ * no depende del tamaño de la multitud.</p>
+ *
+ * <p>Las salas, colas y turnos viven en el {@link AlmacenSalaEspera} ({@code fasticket.sala-espera.almacen}):
+ * con Redis valen en todas las instancias. Cada turno pertenece a la persona autenticada que lo pidió.</p>
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class SalaEsperaService {
+
+    private final EventosRepositorio eventosRepositorio;
+    private final TipoTicketRepositorio tipoTicketRepositorio;
+    private final ItemCarritoRepository itemCarritoRepository;
+    private final AlmacenSalaEspera almacen;
+
+    @Value("${fasticket.sala-espera.capacidad-por-defecto:200}")
+    private int capacidadPorDefecto;
+
+    @Value("${fasticket.sala-espera.ventana-segundos:600}")
+    private long ventanaSegundos;
+
+    @Value("${fasticket.sala-espera.abandono-segundos:120}")
+    private long abandonoSegundos;
+
+    @Transactional(readOnly = true)
+    public void activar(Integer idEvento, Integer capacidad) {
+        int capacidadFinal = capacidad != null ? capacidad : capacidadPorDefecto;
+        if (capacidadFinal <= 0) {
+            throw new BusinessException("La capacidad de la sala de espera debe ser mayor a cero");
+        }
+        Evento evento = eventosRepositorio.findById(idEvento)
+                .orElseThrow(() -> new ResourceNotFoundException("Evento no encontrado con ID: " + idEvento));
+        if (evento.getLocal() == null) {
+            throw new BusinessException("El evento no tiene un local asignado");
+        }
+        Set<Integer> tiposTicket = new HashSet<>(
+                tipoTicketRepositorio.findIdsByLocalOrEvento(evento.getLocal().getIdLocal(), idEvento));
+
+        almacen.activar(idEvento, capacidadFinal, tiposTicket, ventanaSegundos * 1000, abandonoSegundos * 1000);
+        log.info("Sala de espera activada para evento {} con capacidad {} ({} tipos de ticket)",
+                idEvento, capacidadFinal, tiposTicket.size());
+    }
+
+    public void desactivar(Integer idEvento) {
+        almacen.desactivar(idEvento);
+        log.info("Sala de espera desactivada para evento {}", idEvento);
+    }
+
+    public boolean hayActivas() {
+        return almacen.hayActivas();
+    }
+
+    public TurnoSalaEsperaDTO ingresar(Integer idEvento, Integer idPersona) {
+        return almacen.ingresar(idEvento, idPersona)
+                .map(SalaEsperaService::aDTO)
+                .orElseThrow(() -> new ResourceNotFoundException("No hay una sala de espera activa para el evento"));
+    }
+
+    public TurnoSalaEsperaDTO consultar(String token, Integer idPersona) {
+        Integer idEvento = idEventoDe(token);
+        return Optional.ofNullable(idEvento)
+                .flatMap(id -> almacen.consultar(id, token, idPersona))
+                .map(SalaEsperaService::aDTO)
+                .orElseThrow(() -> new ResourceNotFoundException("El turno no existe o ya expiró"));
+    }
+
+    /**
+     * Retira el turno de la sala, ya sea porque terminó su compra o porque la abandona.
+     * Un token de otra persona no tiene efecto.
+     */
+    public void liberar(String token, Integer idPersona) {
+        Integer idEvento = idEventoDe(token);
+        if (idEvento != null) {
+            almacen.liberar(idEvento, token, idPersona);
+        }
+    }
+
+    /**
+     * Devuelve el evento con sala activa al que pertenece alguno de los tipos de ticket, si lo hay.
+     */
+    public Optional<Integer> eventoConSalaActiva(Collection<Integer> idsTipoTicket) {
+        return almacen.eventoConSala(idsTipoTicket);
+    }
+
+    /**
+     * Igual que {@link #eventoConSalaActiva(Collection)} con los tipos de ticket del carrito.
+     * Consulta la base de datos, así que solo debe llamarse si {@link #hayActivas()}.
+     */
+    public Optional<Integer> eventoConSalaActivaDelCarrito(Integer idCarro) {
+        return almacen.eventoConSala(itemCarritoRepository.findIdsTipoTicketByCarro(idCarro));
+    }
+
+    public boolean estaAdmitido(Integer idEvento, String token, Integer idPersona) {
+        return idPersona != null && almacen.estaAdmitido(idEvento, token, idPersona);
+    }
+
+    @Scheduled(fixedDelayString = "${fasticket.sala-espera.tick-ms:1000}")
+    public void avanzarColas() {
+        almacen.avanzarColas();
+    }
+
+    private static Integer idEventoDe(String token) {
+        int punto = token == null ? -1 : token.indexOf('.');
+        if (punto <= 0) {
+            return null;
+        }
+        try {
+            return Integer.valueOf(token.substring(0, punto));
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private static TurnoSalaEsperaDTO aDTO(AlmacenSalaEspera.EstadoTurno turno) {
+        return TurnoSalaEsperaDTO.builder()
+                .token(turno.token())
+                .idEvento(turno.idEvento())
+                .admitido(turno.admitido())
+                .posicion(turno.posicion())
+                .etaSegundos(turno.etaSegundos())
+                .admitidoHasta(turno.admitidoHasta())
+                .build();
+    }
+}
@@ -0,0 +1,147 @@
+package pe.edu.pucp.fasticket.services.tickets;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Set;
+
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+
+import lombok.RequiredArgsConstructor;
+import pe.edu.pucp.fasticket.model.eventos.EstadoTicket;
+import pe.edu.pucp.fasticket.model.eventos.Evento;
+import pe.edu.pucp.fasticket.model.eventos.Ticket;
+import pe.edu.pucp.fasticket.model.eventos.TipoTicket;
+import pe.edu.pucp.fasticket.repository.eventos.TicketRepository;
+import pe.edu.pucp.fasticket.services.asientos.MapaAsientosService;
+import pe.edu.pucp.fasticket.services.inventario.AsignadorNumeros;
+import pe.edu.pucp.fasticket.services.reservas.ReservaAsientosService;
+
+/**
+ * Obtiene y devuelve las filas Ticket de una reserva según el modo de emisión del evento.
+ *
+ * <ul>
+ *   <li>PRECREADO: elige los mejores asientos en el {@link MapaAsientosService}, los retiene para el
+ *       comprador en el {@link ReservaAsientosService}, reclama esas filas con SKIP LOCKED y las devuelve
+ *       a DISPONIBLE al liberarlas. Los asientos que otro comprador ya retuvo se descartan sin tocar
+ *       sus filas. Si el mapa está desactualizado, completa la reserva con las filas DISPONIBLE de menor ID.</li>
+ *   <li>BAJO_DEMANDA: crea las filas al reservar, con número correlativo por tipo de ticket en
+ *       {@code asiento}, y las anula al liberarlas. No hay filas que reclamar: lo que impide la
+ *       sobreventa es el descuento condicional de la fila TipoTicket que el inventario programa
+ *       para antes del commit de la reserva.</li>
+ * </ul>
+ */
+@Service
+@RequiredArgsConstructor
+public class EmisionTicketService {
+
+    // Veces que se piden al mapa asientos de reemplazo para los que otro comprador ya retuvo
+    private static final int RONDAS_RETENCION = 3;
+
+    private final TicketRepository ticketRepository;
+    private final AsignadorNumeros asignadorNumeros;
+    private final MapaAsientosService mapaAsientosService;
+    private final ReservaAsientosService reservaAsientosService;
+
+    /**
+     * Devuelve hasta {@code cantidad} tickets en estado RESERVADA listos para asignar a un comprador.
+     * Puede devolver menos si el evento es PRECREADO y no quedan filas disponibles.
+     */
+    public List<Ticket> obtenerParaReserva(TipoTicket tipoTicket, Evento evento, int cantidad) {
+        return obtenerParaReserva(tipoTicket, evento, evento.isEmisionBajoDemanda(), cantidad);
+    }
+
+    /**
+     * Igual que {@link #obtenerParaReserva(TipoTicket, Evento, int)} con el modo de emisión ya conocido,
+     * para que {@code evento} pueda ser una referencia sin cargar.
+     */
+    public List<Ticket> obtenerParaReserva(TipoTicket tipoTicket, Evento evento, boolean emisionBajoDemanda,
+                                           int cantidad) {
+        return obtenerParaReserva(tipoTicket, evento, emisionBajoDemanda, cantidad, null, null);
+    }
+
+    /**
+     * Igual que {@link #obtenerParaReserva(TipoTicket, Evento, boolean, int)}, reteniendo los asientos
+     * precreados para el cliente durante {@code retencion}. Sin cliente, no se retienen.
+     */
+    public List<Ticket> obtenerParaReserva(TipoTicket tipoTicket, Evento evento, boolean emisionBajoDemanda,
+                                           int cantidad, Integer idCliente, Duration retencion) {
+        if (!emisionBajoDemanda) {
+            return reclamarPrecreados(tipoTicket, cantidad, idCliente, retencion);
+        }
+        List<Ticket> emitidos = new ArrayList<>(cantidad);
+        for (Integer numero : asignadorNumeros.asignar(tipoTicket, cantidad)) {
+            Ticket ticket = new Ticket();
+            ticket.setTipoTicket(tipoTicket);
+            ticket.setEvento(evento);
+            ticket.setPrecio(tipoTicket.getPrecio());
+            ticket.setAsiento(String.valueOf(numero));
+            ticket.setEstado(EstadoTicket.RESERVADA);
+            ticket.setActivo(true);
+            ticket.setFechaCreacion(LocalDate.now());
+            emitidos.add(ticket);
+        }
+        return ticketRepository.saveAll(emitidos);
+    }
+
+    /**
+     * Devuelve un ticket reservado que no llegó a venderse.
+     */
+    public void liberar(Ticket ticket) {
+        if (ticket.getEvento() != null && ticket.getEvento().isEmisionBajoDemanda()) {
+            ticket.setEstado(EstadoTicket.ANULADA);
+            ticket.setActivo(false);
+        } else {
+            ticket.setEstado(EstadoTicket.DISPONIBLE);
+            if (ticket.getTipoTicket() != null && ticket.getIdTicket() != null) {
+                mapaAsientosService.liberar(ticket.getTipoTicket().getIdTipoTicket(), List.of(ticket.getIdTicket()));
+            }
+        }
+    }
+
+    private List<Ticket> reclamarPrecreados(TipoTicket tipoTicket, int cantidad, Integer idCliente,
+                                            Duration retencion) {
+        Integer idTipoTicket = tipoTicket.getIdTipoTicket();
+        boolean retener = idCliente != null && retencion != null;
+        List<Integer> elegidos = new ArrayList<>(cantidad);
+        for (int ronda = 0; ronda < RONDAS_RETENCION && elegidos.size() < cantidad; ronda++) {
+            List<Integer> mejores = mapaAsientosService.reservarMejores(idTipoTicket, cantidad - elegidos.size());
+            if (!retener || mejores.isEmpty()) {
+                elegidos.addAll(mejores);
+                break;
+            }
+            // Los asientos retenidos por otro comprador quedan ocupados en el mapa hasta su resincronización
+            Set<Integer> retenidos = reservaAsientosService.retener(idTipoTicket, mejores, idCliente, retencion);
+            mejores.stream().filter(retenidos::contains).forEach(elegidos::add);
+        }
+        List<Ticket> reclamados = new ArrayList<>(cantidad);
+        if (!elegidos.isEmpty()) {
+            reclamados.addAll(ticketRepository.claimAvailableTicketsByIds(elegidos, EstadoTicket.DISPONIBLE));
+            // En el orden de fila y asiento del mapa
+            reclamados.sort(Comparator.comparingInt(ticket -> elegidos.indexOf(ticket.getIdTicket())));
+            if (retener && reclamados.size() < elegidos.size()) {
+                List<Integer> idsReclamados = reclamados.stream().map(Ticket::getIdTicket).toList();
+                reservaAsientosService.soltar(idTipoTicket,
+                        elegidos.stream().filter(id -> !idsReclamados.contains(id)).toList(), idCliente);
+            }
+        }
+        reclamados.forEach(ticket -> ticket.setEstado(EstadoTicket.RESERVADA));
+        if (reclamados.size() < cantidad) {
+            // Filas que otra instancia vendió o liberó desde la última resincronización del mapa
+            List<Ticket> restantes = ticketRepository.claimAvailableTicketsByTypeAndState(
+                    tipoTicket, EstadoTicket.DISPONIBLE, PageRequest.of(0, cantidad - reclamados.size()));
+            restantes.forEach(ticket -> ticket.setEstado(EstadoTicket.RESERVADA));
+            List<Integer> idsRestantes = restantes.stream().map(Ticket::getIdTicket).toList();
+            mapaAsientosService.ocupar(idTipoTicket, idsRestantes);
+            if (retener) {
+                // La fila ya está reclamada: la retención solo acompaña a la reserva
+                reservaAsientosService.retener(idTipoTicket, idsRestantes, idCliente, retencion);
+            }
+            reclamados.addAll(restantes);
+        }
+        return reclamados;
+    }
+}
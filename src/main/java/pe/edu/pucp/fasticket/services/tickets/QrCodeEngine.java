@@ -0,0 +1,197 @@
+package pe.edu.pucp.fasticket.services.tickets;
+
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.google.zxing.BarcodeFormat;
+import com.google.zxing.EncodeHintType;
+import com.google.zxing.WriterException;
+import com.google.zxing.common.BitMatrix;
+import com.google.zxing.qrcode.QRCodeWriter;
+
+/**
+ * Codificador QR compartido por toda la aplicación.
+ *
+ * <p>Pide a ZXing la matriz a un píxel por módulo y escribe el PNG directamente
+ * (escala de grises de 1 bit), sin pasar por {@code BufferedImage} ni {@code ImageIO}.
+ * Cada fila de módulos se arma una sola vez y se copia {@code moduloPx} veces.
+ * El {@link Deflater}, el CRC y los buffers intermedios se reutilizan por hilo,
+ * así que la única asignación grande por imagen es el arreglo que se devuelve.</p>
+ */
+@Component
+public class QrCodeEngine {
+
+    private static final int MARGEN_MODULOS = 4;
+    private static final byte[] FIRMA_PNG = {(byte) 0x89, 'P', 'N', 'G', '\r', '\n', 0x1A, '\n'};
+    private static final int IHDR = 0x49484452;
+    private static final int IDAT = 0x49444154;
+    private static final int IEND = 0x49454E44;
+
+    private static final class Buffers {
+        private final Deflater deflater = new Deflater(Deflater.DEFAULT_COMPRESSION);
+        private final CRC32 crc = new CRC32();
+        private byte[] crudo = new byte[4096];
+        private byte[] comprimido = new byte[1024];
+    }
+
+    private final QRCodeWriter writer = new QRCodeWriter();
+    private final Map<EncodeHintType, Object> hints = new EnumMap<>(EncodeHintType.class);
+    private final ThreadLocal<Buffers> buffers = ThreadLocal.withInitial(Buffers::new);
+    private final int moduloPx;
+
+    public QrCodeEngine(@Value("${fasticket.qr.modulo-px:6}") int moduloPx) {
+        if (moduloPx < 1) {
+            throw new IllegalArgumentException("El tamaño del módulo QR debe ser al menos 1 px");
+        }
+        this.moduloPx = moduloPx;
+        hints.put(EncodeHintType.MARGIN, MARGEN_MODULOS);
+        hints.put(EncodeHintType.CHARACTER_SET, "UTF-8");
+    }
+
+    /**
+     * Codifica {@code contenido} como PNG de 1 bit.
+     */
+    public byte[] png(String contenido) {
+        BitMatrix matriz = matriz(contenido);
+        int modulos = matriz.getWidth();
+        int lado = modulos * moduloPx;
+        int bytesFila = (lado + 7) / 8;
+        int largoFila = bytesFila + 1; // byte de filtro + píxeles
+        Buffers b = buffers.get();
+
+        int largoCrudo = largoFila * lado;
+        if (b.crudo.length < largoCrudo) {
+            b.crudo = new byte[largoCrudo];
+        }
+        byte[] crudo = b.crudo;
+        for (int y = 0; y < modulos; y++) {
+            int inicio = y * moduloPx * largoFila;
+            escribirFila(matriz, y, crudo, inicio, bytesFila);
+            for (int r = 1; r < moduloPx; r++) {
+                System.arraycopy(crudo, inicio, crudo, inicio + r * largoFila, largoFila);
+            }
+        }
+
+        int largoComprimido = comprimir(b, crudo, largoCrudo);
+
+        byte[] salida = new byte[FIRMA_PNG.length + (12 + 13) + (12 + largoComprimido) + 12];
+        System.arraycopy(FIRMA_PNG, 0, salida, 0, FIRMA_PNG.length);
+        int pos = FIRMA_PNG.length;
+
+        int datos = pos + 8;
+        escribirEntero(salida, datos, lado);
+        escribirEntero(salida, datos + 4, lado);
+        salida[datos + 8] = 1;  // profundidad de bits
+        salida[datos + 9] = 0;  // escala de grises
+        salida[datos + 10] = 0; // compresión deflate
+        salida[datos + 11] = 0; // filtro adaptativo
+        salida[datos + 12] = 0; // sin entrelazado
+        pos = cerrarChunk(b.crc, salida, pos, IHDR, 13);
+
+        System.arraycopy(b.comprimido, 0, salida, pos + 8, largoComprimido);
+        pos = cerrarChunk(b.crc, salida, pos, IDAT, largoComprimido);
+
+        cerrarChunk(b.crc, salida, pos, IEND, 0);
+        return salida;
+    }
+
+    /**
+     * Codifica {@code contenido} como SVG, con un rectángulo por cada tramo horizontal de módulos oscuros.
+     */
+    public String svg(String contenido) {
+        BitMatrix matriz = matriz(contenido);
+        int modulos = matriz.getWidth();
+        StringBuilder sb = new StringBuilder(modulos * modulos);
+        sb.append("<svg xmlns=\"http://www.w3.org/2000/svg\" viewBox=\"0 0 ").append(modulos).append(' ').append(modulos)
+                .append("\" width=\"").append(modulos * moduloPx).append("\" height=\"").append(modulos * moduloPx)
+                .append("\" shape-rendering=\"crispEdges\">")
+                .append("<rect width=\"100%\" height=\"100%\" fill=\"#fff\"/><path fill=\"#000\" d=\"");
+        for (int y = 0; y < modulos; y++) {
+            int x = 0;
+            while (x < modulos) {
+                if (!matriz.get(x, y)) {
+                    x++;
+                    continue;
+                }
+                int inicio = x;
+                while (x < modulos && matriz.get(x, y)) {
+                    x++;
+                }
+                sb.append('M').append(inicio).append(' ').append(y)
+                        .append('h').append(x - inicio).append("v1h-").append(x - inicio).append('z');
+            }
+        }
+        return sb.append("\"/></svg>").toString();
+    }
+
+    public int getModuloPx() {
+        return moduloPx;
+    }
+
+    private BitMatrix matriz(String contenido) {
+        try {
+            // Con tamaño 0, ZXing devuelve un píxel por módulo (más el margen)
+            return writer.encode(contenido, BarcodeFormat.QR_CODE, 0, 0, hints);
+        } catch (WriterException e) {
+            throw new IllegalArgumentException("No se pudo codificar el QR", e);
+        }
+    }
+
+    private void escribirFila(BitMatrix matriz, int y, byte[] crudo, int inicio, int bytesFila) {
+        crudo[inicio] = 0; // filtro None
+        Arrays.fill(crudo, inicio + 1, inicio + 1 + bytesFila, (byte) 0xFF);
+        for (int x = 0; x < matriz.getWidth(); x++) {
+            if (!matriz.get(x, y)) {
+                continue;
+            }
+            // En escala de grises de 1 bit, 0 es negro
+            int desde = x * moduloPx;
+            for (int px = desde; px < desde + moduloPx; px++) {
+                crudo[inicio + 1 + (px >>> 3)] &= (byte) ~(0x80 >>> (px & 7));
+            }
+        }
+    }
+
+    private static int comprimir(Buffers b, byte[] crudo, int largo) {
+        Deflater deflater = b.deflater;
+        deflater.reset();
+        deflater.setInput(crudo, 0, largo);
+        deflater.finish();
+        int total = 0;
+        while (!deflater.finished()) {
+            if (total == b.comprimido.length) {
+                b.comprimido = Arrays.copyOf(b.comprimido, b.comprimido.length * 2);
+            }
+            total += deflater.deflate(b.comprimido, total, b.comprimido.length - total);
+        }
+        return total;
+    }
+
+    /**
+     * Escribe largo y tipo del chunk que empieza en {@code pos} (sus datos ya deben estar en su lugar)
+     * y su CRC al final.
+     *
+     * @return posición siguiente al chunk
+     */
+    private static int cerrarChunk(CRC32 crc, byte[] salida, int pos, int tipo, int largo) {
+        escribirEntero(salida, pos, largo);
+        escribirEntero(salida, pos + 4, tipo);
+        crc.reset();
+        crc.update(salida, pos + 4, 4 + largo);
+        escribirEntero(salida, pos + 8 + largo, (int) crc.getValue());
+        return pos + 12 + largo;
+    }
+
+    private static void escribirEntero(byte[] salida, int pos, int valor) {
+        salida[pos] = (byte) (valor >>> 24);
+        salida[pos + 1] = (byte) (valor >>> 16);
+        salida[pos + 2] = (byte) (valor >>> 8);
+        salida[pos + 3] = (byte) valor;
+    }
+}
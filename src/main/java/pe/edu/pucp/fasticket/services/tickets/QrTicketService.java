@@ -0,0 +1,144 @@
+package pe.edu.pucp.fasticket.services.tickets;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.security.authorization.AuthorizationDeniedException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import lombok.extern.slf4j.Slf4j;
+import pe.edu.pucp.fasticket.exception.BusinessException;
+import pe.edu.pucp.fasticket.exception.ResourceNotFoundException;
+import pe.edu.pucp.fasticket.model.eventos.EstadoTicket;
+import pe.edu.pucp.fasticket.model.eventos.Ticket;
+import pe.edu.pucp.fasticket.repository.eventos.TicketRepository;
+import pe.edu.pucp.fasticket.services.almacenamiento.AlmacenQr;
+
+/**
+ * Renderiza y entrega las imágenes QR de los tickets.
+ *
+ * <p>El checkout solo guarda {@code codigoQr}. La imagen PNG se genera en el executor
+ * {@code qrExecutor} una vez confirmada la transacción, o la primera vez que se pide si
+ * la cola estaba llena o el ticket se reservó antes de este cambio. En ambos casos se
+ * guarda en el {@link AlmacenQr} y la fila Ticket solo conserva su referencia ({@code qrRef}).</p>
+ */
+@Service
+@Slf4j
+public class QrTicketService {
+
+    private final TicketRepository ticketRepository;
+    private final Executor qrExecutor;
+    private final QrCodeEngine qrCodeEngine;
+    private final AlmacenQr almacenQr;
+
+    public QrTicketService(TicketRepository ticketRepository,
+                           @Qualifier("qrExecutor") Executor qrExecutor,
+                           QrCodeEngine qrCodeEngine,
+                           AlmacenQr almacenQr) {
+        this.ticketRepository = ticketRepository;
+        this.qrExecutor = qrExecutor;
+        this.qrCodeEngine = qrCodeEngine;
+        this.almacenQr = almacenQr;
+    }
+
+    /**
+     * Encola el renderizado de los tickets para cuando la transacción actual confirme.
+     */
+    public void programarRenderizado(Collection<Ticket> tickets) {
+        List<Ticket> pendientes = List.copyOf(tickets);
+        despuesDelCommit(() -> {
+            List<Integer> ids = pendientes.stream()
+                    .map(Ticket::getIdTicket)
+                    .filter(Objects::nonNull)
+                    .toList();
+            if (ids.isEmpty()) {
+                return;
+            }
+            try {
+                qrExecutor.execute(() -> renderizarPendientes(ids));
+            } catch (RejectedExecutionException e) {
+                log.warn("Cola de QR llena; {} tickets se renderizarán al pedir su imagen", ids.size());
+            }
+        });
+    }
+
+    /**
+     * Devuelve el PNG del QR del ticket, renderizándolo si aún no existe.
+     *
+     * @param idSolicitante persona autenticada; solo el dueño del ticket o un administrador pueden verlo
+     */
+    public byte[] obtenerPng(Integer idTicket, Integer idSolicitante, boolean esAdministrador) {
+        Ticket ticket = ticketConQr(idTicket, idSolicitante, esAdministrador);
+        if (ticket.getQrRef() != null) {
+            Optional<byte[]> guardada = almacenQr.leer(ticket.getQrRef());
+            if (guardada.isPresent()) {
+                return guardada.get();
+            }
+            log.warn("La imagen QR {} del ticket {} no está en el almacén; se vuelve a generar",
+                    ticket.getQrRef(), idTicket);
+        }
+        byte[] png = qrCodeEngine.png(ticket.getCodigoQr());
+        String referencia = almacenQr.guardar(png);
+        if (ticket.getQrRef() == null) {
+            ticketRepository.guardarQrRef(idTicket, ticket.getCodigoQr(), referencia);
+        }
+        return png;
+    }
+
+    /**
+     * Devuelve el QR del ticket como SVG. Se genera en cada pedido; no se guarda.
+     */
+    public String obtenerSvg(Integer idTicket, Integer idSolicitante, boolean esAdministrador) {
+        return qrCodeEngine.svg(ticketConQr(idTicket, idSolicitante, esAdministrador).getCodigoQr());
+    }
+
+    private Ticket ticketConQr(Integer idTicket, Integer idSolicitante, boolean esAdministrador) {
+        Ticket ticket = ticketRepository.findById(idTicket)
+                .orElseThrow(() -> new ResourceNotFoundException("Ticket no encontrado con ID: " + idTicket));
+        if (!esAdministrador && (ticket.getCliente() == null
+                || !ticket.getCliente().getIdPersona().equals(idSolicitante))) {
+            throw new AuthorizationDeniedException("El ticket " + idTicket + " no pertenece al usuario");
+        }
+        // Una reserva sin pagar no es una entrada: el QR solo se entrega una vez vendida (o transferida)
+        if (ticket.getEstado() != EstadoTicket.VENDIDA && ticket.getEstado() != EstadoTicket.TRANSFERIDA) {
+            throw new BusinessException("El ticket " + idTicket + " no está vendido");
+        }
+        if (ticket.getCodigoQr() == null) {
+            throw new ResourceNotFoundException("El ticket " + idTicket + " no tiene código QR");
+        }
+        return ticket;
+    }
+
+    void renderizarPendientes(List<Integer> ids) {
+        for (Object[] fila : ticketRepository.findCodigosQrSinImagen(ids)) {
+            Integer id = (Integer) fila[0];
+            String codigoQr = (String) fila[1];
+            try {
+                String referencia = almacenQr.guardar(qrCodeEngine.png(codigoQr));
+                ticketRepository.guardarQrRef(id, codigoQr, referencia);
+            } catch (RuntimeException e) {
+                log.warn("No se pudo renderizar el QR del ticket {}: {}", id, e.getMessage());
+            }
+        }
+    }
+
+    private void despuesDelCommit(Runnable accion) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            accion.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                accion.run();
+            }
+        });
+    }
+}
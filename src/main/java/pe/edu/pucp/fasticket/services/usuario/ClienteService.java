@@ -9,6 +9,7 @@ import org.springframework.transaction.annotation.Transactional;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import pe.edu.pucp.fasticket.dto.PaginaCursor;
 import pe.edu.pucp.fasticket.dto.usuario.ClientePerfilEditDTO;
 import pe.edu.pucp.fasticket.dto.usuario.ClientePerfilUpdateDTO;
 import pe.edu.pucp.fasticket.dto.usuario.ClientePerfilResponseDTO;
@@ -18,8 +19,10 @@ import pe.edu.pucp.fasticket.model.compra.OrdenCompra;
 import pe.edu.pucp.fasticket.model.fidelizacion.TipoMembresia;
 import pe.edu.pucp.fasticket.model.geografia.Distrito;
 import pe.edu.pucp.fasticket.model.usuario.Cliente;
+import pe.edu.pucp.fasticket.model.usuario.Persona;
 import pe.edu.pucp.fasticket.repository.geografia.DistritoRepository;
 import pe.edu.pucp.fasticket.repository.usuario.ClienteRepository;
+import pe.edu.pucp.fasticket.repository.usuario.ClienteResumen;
 import pe.edu.pucp.fasticket.repository.usuario.PersonasRepositorio;
 
 /**
@@ -207,10 +210,17 @@ public class ClienteService {
      * Obtiene una lista de todos los cliente
      * */
 
-    public List<ClientePerfilResponseDTO> listarTodos() {
-        log.info("Obteniendo perfiles de todos los clientes");
-        List<Cliente> clientes = clienteRepository.findAll();
-        return clientes.stream().map(this::convertirAPerfilDTO).collect(Collectors.toList());
+    /**
+     * Página de perfiles de clientes ordenados por ID.
+     *
+     * @param cursor Cursor devuelto con la página anterior, o null para la primera
+     * @param limite Clientes por página, o null para el valor por defecto
+     */
+    public PaginaCursor<ClientePerfilResponseDTO> listarTodos(String cursor, Integer limite) {
+        log.info("Obteniendo perfiles de clientes desde el cursor {}", cursor);
+        List<ClientePerfilResponseDTO> filas = clienteRepository.findResumenes(PaginaCursor.desde(cursor), PaginaCursor.filas(limite))
+                .stream().map(this::convertirAPerfilDTO).collect(Collectors.toList());
+        return PaginaCursor.de(filas, limite, ClientePerfilResponseDTO::getIdCliente);
     }
 
     /**
@@ -237,6 +247,13 @@ public class ClienteService {
         return dto;
     }
 
+    private ClientePerfilResponseDTO convertirAPerfilDTO(ClienteResumen cliente) {
+        return new ClientePerfilResponseDTO(cliente.idCliente(), cliente.tipoDocumento(), cliente.docIdentidad(),
+                cliente.nombres(), cliente.apellidos(), cliente.telefono(), cliente.email(), cliente.fechaNacimiento(),
+                cliente.direccion(), cliente.puntosAcumulados(), cliente.nivel(),
+                Persona.calcularEdad(cliente.fechaNacimiento()), cliente.fechaCreacion());
+    }
+
     @Transactional
     public void desactivarCliente(Integer idCliente) {
         log.warn("Solicitud de desactivación (borrado lógico) para cliente ID: {}", idCliente);
@@ -0,0 +1,15 @@
+-- ============================================================================
+-- MIGRACIÓN: IDS POR SECUENCIA PARA ORDEN_COMPRA, ITEM_CARRITO Y TICKET
+-- Ejecutar una vez sobre una base existente, antes de desplegar la versión que
+-- genera estos ids con secuencias (allocationSize = 50) en lugar de IDENTITY.
+-- Hibernate reserva bloques de 50 ids por llamada a nextval, así que cada
+-- secuencia queda al menos 50 por encima del id más alto ya usado.
+-- ============================================================================
+
+CREATE SEQUENCE IF NOT EXISTS orden_compra_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS item_carrito_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS ticket_seq START WITH 1 INCREMENT BY 50;
+
+SELECT setval('orden_compra_seq', COALESCE((SELECT MAX(id_orden_compra) FROM orden_compra), 0) + 50);
+SELECT setval('item_carrito_seq', COALESCE((SELECT MAX(id_item_carrito) FROM item_carrito), 0) + 50);
+SELECT setval('ticket_seq', COALESCE((SELECT MAX(id_ticket) FROM ticket), 0) + 50);
@@ -572,10 +572,10 @@ SELECT setval(pg_get_serial_sequence('local', 'id_local'), COALESCE((SELECT MAX(
 SELECT setval(pg_get_serial_sequence('zona', 'id_zona'), COALESCE((SELECT MAX(id_zona) FROM zona), 1));
 SELECT setval(pg_get_serial_sequence('evento', 'id_evento'), COALESCE((SELECT MAX(id_evento) FROM evento), 1));
 SELECT setval(pg_get_serial_sequence('tipo_ticket', 'id_tipo_ticket'), COALESCE((SELECT MAX(id_tipo_ticket) FROM tipo_ticket), 1));
-SELECT setval(pg_get_serial_sequence('orden_compra', 'id_orden_compra'), COALESCE((SELECT MAX(id_orden_compra) FROM orden_compra), 1));
+SELECT setval('orden_compra_seq', COALESCE((SELECT MAX(id_orden_compra) FROM orden_compra), 0) + 50);
 SELECT setval(pg_get_serial_sequence('carro_compras', 'id_carro'), COALESCE((SELECT MAX(id_carro) FROM carro_compras), 1));
-SELECT setval(pg_get_serial_sequence('item_carrito', 'id_item_carrito'), COALESCE((SELECT MAX(id_item_carrito) FROM item_carrito), 1));
-SELECT setval(pg_get_serial_sequence('ticket', 'id_ticket'), COALESCE((SELECT MAX(id_ticket) FROM ticket), 1));
+SELECT setval('item_carrito_seq', COALESCE((SELECT MAX(id_item_carrito) FROM item_carrito), 0) + 50);
+SELECT setval('ticket_seq', COALESCE((SELECT MAX(id_ticket) FROM ticket), 0) + 50);
 SELECT setval(pg_get_serial_sequence('pago', 'id_pago'), COALESCE((SELECT MAX(id_pago) FROM pago), 1));
 SELECT setval(pg_get_serial_sequence('comprobantepago', 'id_comprobante'), COALESCE((SELECT MAX(id_comprobante) FROM comprobantepago), 1));
 SELECT setval(pg_get_serial_sequence('boleta', 'id_boleta'), COALESCE((SELECT MAX(id_boleta) FROM boleta), 1));
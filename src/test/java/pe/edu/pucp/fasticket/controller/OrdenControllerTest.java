@@ -5,6 +5,7 @@ import java.time.LocalTime;
 import java.util.Collections;
 import java.util.List;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.hamcrest.Matchers.containsString;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -13,11 +14,14 @@ import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMock
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.context.annotation.Import;
 import org.springframework.http.MediaType;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.web.servlet.MockMvc;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 import org.springframework.transaction.annotation.Transactional;
@@ -28,6 +32,7 @@ import pe.edu.pucp.fasticket.config.TestConfig;
 import pe.edu.pucp.fasticket.dto.compra.CrearOrdenDTO;
 import pe.edu.pucp.fasticket.dto.compra.DatosAsistenteDTO;
 import pe.edu.pucp.fasticket.dto.compra.ItemSeleccionadoDTO;
+import pe.edu.pucp.fasticket.dto.compra.TurnoSalaEsperaDTO;
 import pe.edu.pucp.fasticket.model.compra.CarroCompras;
 import pe.edu.pucp.fasticket.model.compra.EstadoCompra;
 import pe.edu.pucp.fasticket.model.compra.ItemCarrito;
@@ -48,6 +53,10 @@ import pe.edu.pucp.fasticket.repository.eventos.TicketRepository;
 import pe.edu.pucp.fasticket.repository.eventos.TipoTicketRepositorio;
 import pe.edu.pucp.fasticket.repository.eventos.ZonaRepositorio;
 import pe.edu.pucp.fasticket.repository.usuario.ClienteRepository;
+import pe.edu.pucp.fasticket.security.SalaEsperaFilter;
+import pe.edu.pucp.fasticket.security.UserDetailsImpl;
+import pe.edu.pucp.fasticket.services.idempotencia.IdempotenciaService;
+import pe.edu.pucp.fasticket.services.salaespera.SalaEsperaService;
 
 @SpringBootTest
 @AutoConfigureMockMvc
@@ -79,6 +88,9 @@ public class OrdenControllerTest {
     @Autowired
     private ClienteRepository clienteRepository;
 
+    @Autowired
+    private SalaEsperaService salaEsperaService;
+
     private Cliente clienteTest;
     private Evento eventoTest;
     private Local localTest;
@@ -204,6 +216,148 @@ public class OrdenControllerTest {
                 .andExpect(jsonPath("$.data.total").value(490.0)); // 500 - 10 (2% descuento por membresía bronce)
     }
 
+    @Test
+    @WithMockUser(roles = "CLIENTE")
+    void testCrearOrden_IdempotencyKeyRepetida_NoDuplicaOrden() throws Exception {
+        DatosAsistenteDTO asistente = new DatosAsistenteDTO();
+        asistente.setTipoDocumento(TipoDocumento.DNI);
+        asistente.setNumeroDocumento("44444444");
+        asistente.setNombres("Asistente");
+        asistente.setApellidos("Reintento");
+
+        ItemSeleccionadoDTO itemGeneral = new ItemSeleccionadoDTO();
+        itemGeneral.setIdTipoTicket(tipoTicketGeneral.getIdTipoTicket());
+        itemGeneral.setCantidad(1);
+        itemGeneral.setAsistentes(List.of(asistente));
+
+        CrearOrdenDTO requestDTO = new CrearOrdenDTO();
+        requestDTO.setIdCliente(clienteTest.getIdPersona());
+        requestDTO.setItems(List.of(itemGeneral));
+        String cuerpo = objectMapper.writeValueAsString(requestDTO);
+        long ordenesAntes = ordenCompraRepositorio.count();
+
+        String respuesta = mockMvc.perform(post("/api/v1/ordenes")
+                        .header(IdempotenciaService.HEADER, "compra-reintento-1")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(cuerpo))
+                .andExpect(status().isCreated())
+                .andReturn().getResponse().getContentAsString();
+        Integer idOrden = objectMapper.readTree(respuesta).path("data").path("idOrden").asInt();
+
+        mockMvc.perform(post("/api/v1/ordenes")
+                        .header(IdempotenciaService.HEADER, "compra-reintento-1")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(cuerpo))
+                .andExpect(status().isCreated())
+                .andExpect(header().string(IdempotenciaService.HEADER_REPETIDA, "true"))
+                .andExpect(jsonPath("$.data.idOrden").value(idOrden));
+
+        assertThat(ordenCompraRepositorio.count()).isEqualTo(ordenesAntes + 1);
+    }
+
+    @Test
+    @WithMockUser(roles = "CLIENTE")
+    void testCrearOrden_SalaEsperaActiva_RequiereTurnoAdmitido() throws Exception {
+        DatosAsistenteDTO asistente = new DatosAsistenteDTO();
+        asistente.setTipoDocumento(TipoDocumento.DNI);
+        asistente.setNumeroDocumento("33333333");
+        asistente.setNombres("Asistente");
+        asistente.setApellidos("En Cola");
+
+        ItemSeleccionadoDTO itemGeneral = new ItemSeleccionadoDTO();
+        itemGeneral.setIdTipoTicket(tipoTicketGeneral.getIdTipoTicket());
+        itemGeneral.setCantidad(1);
+        itemGeneral.setAsistentes(List.of(asistente));
+
+        CrearOrdenDTO requestDTO = new CrearOrdenDTO();
+        requestDTO.setIdCliente(clienteTest.getIdPersona());
+        requestDTO.setItems(List.of(itemGeneral));
+        String cuerpo = objectMapper.writeValueAsString(requestDTO);
+
+        Integer idCliente = clienteTest.getIdPersona();
+        UserDetailsImpl titular = new UserDetailsImpl(clienteTest,
+                List.of(new SimpleGrantedAuthority("ROLE_CLIENTE")));
+
+        salaEsperaService.activar(eventoTest.getIdEvento(), 1);
+        try {
+            TurnoSalaEsperaDTO admitido = salaEsperaService.ingresar(eventoTest.getIdEvento(), idCliente);
+            TurnoSalaEsperaDTO enCola = salaEsperaService.ingresar(eventoTest.getIdEvento(), idCliente);
+            assertThat(admitido.isAdmitido()).isTrue();
+            assertThat(enCola.isAdmitido()).isFalse();
+            assertThat(enCola.getPosicion()).isEqualTo(1);
+
+            mockMvc.perform(post("/api/v1/ordenes")
+                            .with(user(titular))
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(cuerpo))
+                    .andExpect(status().isTooManyRequests())
+                    .andExpect(jsonPath("$.ok").value(false));
+
+            mockMvc.perform(post("/api/v1/ordenes")
+                            .with(user(titular))
+                            .header(SalaEsperaFilter.HEADER_TURNO, enCola.getToken())
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(cuerpo))
+                    .andExpect(status().isTooManyRequests());
+
+            // El turno admitido no sirve a otro usuario
+            mockMvc.perform(post("/api/v1/ordenes")
+                            .header(SalaEsperaFilter.HEADER_TURNO, admitido.getToken())
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(cuerpo))
+                    .andExpect(status().isTooManyRequests());
+
+            mockMvc.perform(post("/api/v1/ordenes")
+                            .with(user(titular))
+                            .header(SalaEsperaFilter.HEADER_TURNO, admitido.getToken())
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(cuerpo))
+                    .andExpect(status().isCreated())
+                    .andExpect(jsonPath("$.data.idOrden").exists());
+
+            // La compra terminada cede el cupo al siguiente de la cola
+            assertThat(salaEsperaService.consultar(enCola.getToken(), idCliente).isAdmitido()).isTrue();
+        } finally {
+            salaEsperaService.desactivar(eventoTest.getIdEvento());
+        }
+    }
+
+    @Test
+    void testComprarCarrito_SalaEsperaActiva_RequiereTurno() throws Exception {
+        CarroCompras carro = new CarroCompras();
+        carro.setCliente(clienteTest);
+        ItemCarrito item = new ItemCarrito();
+        item.setCantidad(1);
+        item.setPrecio(tipoTicketGeneral.getPrecio());
+        item.setTipoTicket(tipoTicketGeneral);
+        item.calcularPrecioFinal();
+        carro.addItem(item);
+        carro = carroComprasRepositorio.save(carro);
+
+        Integer idCliente = clienteTest.getIdPersona();
+        UserDetailsImpl titular = new UserDetailsImpl(clienteTest,
+                List.of(new SimpleGrantedAuthority("ROLE_CLIENTE")));
+
+        salaEsperaService.activar(eventoTest.getIdEvento(), 1);
+        try {
+            salaEsperaService.ingresar(eventoTest.getIdEvento(), idCliente);
+            TurnoSalaEsperaDTO enCola = salaEsperaService.ingresar(eventoTest.getIdEvento(), idCliente);
+            assertThat(enCola.isAdmitido()).isFalse();
+
+            mockMvc.perform(post("/api/v1/ordenes/comprar-carrito/" + carro.getIdCarro())
+                            .with(user(titular)))
+                    .andExpect(status().isTooManyRequests())
+                    .andExpect(jsonPath("$.ok").value(false));
+
+            mockMvc.perform(post("/api/v1/ordenes/comprar-carrito/" + carro.getIdCarro())
+                            .with(user(titular))
+                            .header(SalaEsperaFilter.HEADER_TURNO, enCola.getToken()))
+                    .andExpect(status().isTooManyRequests());
+        } finally {
+            salaEsperaService.desactivar(eventoTest.getIdEvento());
+        }
+    }
+
     @Test
     @WithMockUser(roles = "CLIENTE")
     void testCrearOrden_ClienteSinStock() throws Exception {
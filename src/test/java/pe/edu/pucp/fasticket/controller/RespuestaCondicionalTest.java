@@ -0,0 +1,199 @@
+package pe.edu.pucp.fasticket.controller;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import jakarta.persistence.EntityManagerFactory;
+import pe.edu.pucp.fasticket.config.TestConfig;
+import pe.edu.pucp.fasticket.events.CatalogoModificadoEvent;
+import pe.edu.pucp.fasticket.model.eventos.Evento;
+import pe.edu.pucp.fasticket.model.eventos.Local;
+import pe.edu.pucp.fasticket.model.eventos.TipoTicket;
+import pe.edu.pucp.fasticket.model.eventos.Zona;
+import pe.edu.pucp.fasticket.repository.eventos.EventosRepositorio;
+import pe.edu.pucp.fasticket.repository.eventos.LocalesRepositorio;
+import pe.edu.pucp.fasticket.repository.eventos.TipoTicketRepositorio;
+import pe.edu.pucp.fasticket.repository.eventos.ZonaRepositorio;
+
+/**
+ * Tests de las respuestas condicionales (ETag) de los GET del catálogo. Sin transacción de prueba:
+ * la versión del catálogo cambia al confirmar cada modificación.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@Import(TestConfig.class)
+@DisplayName("Tests de respuestas condicionales del catálogo")
+class RespuestaCondicionalTest {
+
+    @Autowired private MockMvc mockMvc;
+    @Autowired private ApplicationEventPublisher eventPublisher;
+    @Autowired private EntityManagerFactory entityManagerFactory;
+    @Autowired private LocalesRepositorio localesRepositorio;
+    @Autowired private EventosRepositorio eventosRepositorio;
+    @Autowired private ZonaRepositorio zonaRepositorio;
+    @Autowired private TipoTicketRepositorio tipoTicketRepositorio;
+
+    private Statistics estadisticas;
+    private Local local;
+    private Zona zona;
+    private TipoTicket tipoTicket;
+    private Evento evento;
+
+    @BeforeEach
+    void setUp() {
+        estadisticas = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        estadisticas.setStatisticsEnabled(true);
+
+        local = new Local();
+        local.setNombre("Local ETag " + System.nanoTime());
+        local.setDireccion("Av. ETag 123");
+        local.setAforoTotal(500);
+        local.setActivo(true);
+        local = localesRepositorio.save(local);
+
+        zona = new Zona();
+        zona.setNombre("General");
+        zona.setAforoMax(100);
+        zona.setActivo(true);
+        zona.setLocal(local);
+        zona = zonaRepositorio.save(zona);
+
+        tipoTicket = new TipoTicket();
+        tipoTicket.setNombre("General");
+        tipoTicket.setPrecio(50.0);
+        tipoTicket.setStock(100);
+        tipoTicket.setCantidadDisponible(100);
+        tipoTicket.setZona(zona);
+        tipoTicket.setActivo(true);
+        tipoTicket = tipoTicketRepositorio.save(tipoTicket);
+
+        evento = new Evento();
+        evento.setNombre("Evento ETag");
+        evento.setFechaEvento(LocalDate.now().plusMonths(1));
+        evento.setHoraInicio(LocalTime.of(20, 0));
+        evento.setActivo(true);
+        evento.setLocal(local);
+        evento = eventosRepositorio.save(evento);
+    }
+
+    @AfterEach
+    void tearDown() {
+        estadisticas.setStatisticsEnabled(false);
+        eventosRepositorio.deleteById(evento.getIdEvento());
+        tipoTicketRepositorio.deleteById(tipoTicket.getIdTipoTicket());
+        zonaRepositorio.deleteById(zona.getIdZona());
+        localesRepositorio.deleteById(local.getIdLocal());
+    }
+
+    @Test
+    @DisplayName("Con la versión vigente del catálogo responde 304 sin consultar la base")
+    void testNoModificadoSinBaseDeDatos() throws Exception {
+        for (String url : List.of("/api/v1/locales/" + local.getIdLocal(),
+                "/api/v1/locales",
+                "/api/v1/zonas?local=" + local.getIdLocal(),
+                "/api/v1/tipos-ticket/" + tipoTicket.getIdTipoTicket())) {
+            String etag = mockMvc.perform(get(url))
+                    .andExpect(status().isOk())
+                    .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "max-age=30, public"))
+                    .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+            assertThat(etag).as(url).startsWith("W/\"catalogo-");
+
+            estadisticas.clear();
+            MvcResult noModificado = mockMvc.perform(get(url).header(HttpHeaders.IF_NONE_MATCH, etag))
+                    .andExpect(status().isNotModified())
+                    .andExpect(header().string(HttpHeaders.ETAG, etag))
+                    .andReturn();
+
+            assertThat(noModificado.getResponse().getContentLength()).as(url).isZero();
+            assertThat(estadisticas.getPrepareStatementCount()).as(url).isZero();
+        }
+    }
+
+    @Test
+    @DisplayName("Un cambio de catálogo cambia el ETag")
+    void testCambioDeCatalogo() throws Exception {
+        String url = "/api/v1/locales/" + local.getIdLocal();
+        String etag = mockMvc.perform(get(url)).andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        eventPublisher.publishEvent(new CatalogoModificadoEvent("prueba"));
+
+        String nuevo = mockMvc.perform(get(url).header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        assertThat(nuevo).isNotEqualTo(etag);
+    }
+
+    @Test
+    @DisplayName("Los eventos usan un ETag por contenido")
+    void testEventoPorContenido() throws Exception {
+        String url = "/api/v1/eventos/" + evento.getIdEvento();
+        String etag = mockMvc.perform(get(url))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "max-age=30, public"))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        assertThat(etag).isNotNull().doesNotContain("catalogo");
+
+        mockMvc.perform(get(url).header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified());
+    }
+
+    @Test
+    @DisplayName("El detalle de compra se revalida en cada uso")
+    void testDetalleCompraRevalida() throws Exception {
+        String url = "/api/v1/eventos/" + evento.getIdEvento() + "/detalle-compra";
+        String etag = mockMvc.perform(get(url))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "no-cache, public"))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        mockMvc.perform(get(url).header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified());
+    }
+
+    @Test
+    @DisplayName("La portada se sirve ya serializada y responde 304 sin consultar la base")
+    void testPortada() throws Exception {
+        String etag = mockMvc.perform(get("/api/v1/eventos/portada"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CONTENT_TYPE, "application/json"))
+                .andExpect(jsonPath("$.ok").value(true))
+                .andExpect(jsonPath("$.data.proximos").isArray())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        estadisticas.clear();
+        mockMvc.perform(get("/api/v1/eventos/portada").header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified());
+        assertThat(estadisticas.getPrepareStatementCount()).isZero();
+    }
+
+    @Test
+    @DisplayName("Los errores no llevan ETag")
+    void testErrorSinEtag() throws Exception {
+        mockMvc.perform(get("/api/v1/locales/-1"))
+                .andExpect(status().isNotFound())
+                .andExpect(header().doesNotExist(HttpHeaders.ETAG));
+    }
+}
@@ -0,0 +1,264 @@
+package pe.edu.pucp.fasticket.repository;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Transactional;
+
+import lombok.extern.slf4j.Slf4j;
+import pe.edu.pucp.fasticket.config.TestConfig;
+import pe.edu.pucp.fasticket.dto.PaginaCursor;
+import pe.edu.pucp.fasticket.dto.eventos.BusquedaEventosDTO;
+import pe.edu.pucp.fasticket.dto.eventos.EventoResponseDTO;
+import pe.edu.pucp.fasticket.model.eventos.Evento;
+import pe.edu.pucp.fasticket.model.eventos.Local;
+import pe.edu.pucp.fasticket.model.eventos.TipoEvento;
+import pe.edu.pucp.fasticket.model.eventos.TipoTicket;
+import pe.edu.pucp.fasticket.model.geografia.Departamento;
+import pe.edu.pucp.fasticket.model.geografia.Distrito;
+import pe.edu.pucp.fasticket.model.geografia.Provincia;
+import pe.edu.pucp.fasticket.repository.eventos.EventoResumen;
+import pe.edu.pucp.fasticket.repository.eventos.EventosRepositorio;
+import pe.edu.pucp.fasticket.repository.eventos.LocalesRepositorio;
+import pe.edu.pucp.fasticket.repository.eventos.TipoTicketRepositorio;
+import pe.edu.pucp.fasticket.repository.geografia.DepartamentoRepository;
+import pe.edu.pucp.fasticket.repository.geografia.DistritoRepository;
+import pe.edu.pucp.fasticket.repository.geografia.ProvinciaRepository;
+import pe.edu.pucp.fasticket.services.eventos.EventoService;
+
+/**
+ * Búsqueda combinada de eventos sobre H2. Es @Transactional: los eventos del benchmark se
+ * insertan con JDBC dentro de la misma transacción y se descartan con el rollback.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@Import(TestConfig.class)
+@Transactional
+@DisplayName("Tests de la búsqueda combinada de eventos")
+@Slf4j(topic = "fasticket.benchmark")
+class EventosRepositorioBusquedaTest {
+
+    private static final LocalDate BASE = LocalDate.now().plusYears(5);
+
+    @Autowired private EventosRepositorio eventosRepositorio;
+    @Autowired private LocalesRepositorio localesRepositorio;
+    @Autowired private TipoTicketRepositorio tipoTicketRepositorio;
+    @Autowired private DepartamentoRepository departamentoRepository;
+    @Autowired private ProvinciaRepository provinciaRepository;
+    @Autowired private DistritoRepository distritoRepository;
+    @Autowired private EventoService eventoService;
+    @Autowired private JdbcTemplate jdbcTemplate;
+
+    private Distrito miraflores;
+    private Local estadio;
+    private Local teatro;
+    private Evento concierto;
+    private Evento conciertoAgotado;
+    private Evento obra;
+
+    @BeforeEach
+    void setUp() {
+        Departamento departamento = new Departamento();
+        departamento.setNombre("Lima");
+        departamento.setActivo(true);
+        departamento = departamentoRepository.save(departamento);
+
+        Provincia provincia = new Provincia();
+        provincia.setNombre("Lima");
+        provincia.setDepartamento(departamento);
+        provincia.setActivo(true);
+        provincia = provinciaRepository.save(provincia);
+
+        miraflores = crearDistrito("Miraflores", provincia);
+        Distrito surco = crearDistrito("Surco", provincia);
+        estadio = crearLocal("Estadio Búsqueda", surco);
+        teatro = crearLocal("Teatro Búsqueda", miraflores);
+
+        concierto = crearEvento("Concierto Búsqueda", TipoEvento.CONCIERTO, BASE.plusDays(10), estadio);
+        crearTipo(concierto, 150.0, 100);
+        crearTipo(concierto, 400.0, 0);
+
+        conciertoAgotado = crearEvento("Concierto Agotado", TipoEvento.CONCIERTO, BASE.plusDays(20), estadio);
+        crearTipo(conciertoAgotado, 90.0, 0);
+
+        obra = crearEvento("Obra Búsqueda", TipoEvento.OBRA_TEATRAL, BASE.plusDays(15), teatro);
+        crearTipo(obra, 60.0, 30);
+    }
+
+    private List<Integer> ids(BusquedaEventosDTO criterios) {
+        if (criterios.getDesde() == null) {
+            criterios.setDesde(BASE);
+        }
+        return eventosRepositorio.buscar(criterios, 0, 100).stream().map(EventoResumen::idEvento).toList();
+    }
+
+    @Test
+    @DisplayName("Filtra por tipo, rango de fechas y distrito")
+    void testFiltrosDelEvento() {
+        assertThat(ids(BusquedaEventosDTO.builder().tipo(TipoEvento.CONCIERTO).build()))
+                .containsExactly(concierto.getIdEvento(), conciertoAgotado.getIdEvento());
+        assertThat(ids(BusquedaEventosDTO.builder().desde(BASE.plusDays(12)).hasta(BASE.plusDays(18)).build()))
+                .containsExactly(obra.getIdEvento());
+        assertThat(ids(BusquedaEventosDTO.builder().idDistrito(miraflores.getIdDistrito()).build()))
+                .containsExactly(obra.getIdEvento());
+    }
+
+    @Test
+    @DisplayName("Precio y disponibilidad se exigen sobre un mismo tipo de ticket")
+    void testPrecioYDisponibilidad() {
+        assertThat(ids(BusquedaEventosDTO.builder().precioMin(80.0).precioMax(200.0).build()))
+                .containsExactly(concierto.getIdEvento(), conciertoAgotado.getIdEvento());
+        assertThat(ids(BusquedaEventosDTO.builder().conDisponibilidad(true).build()))
+                .containsExactly(concierto.getIdEvento(), obra.getIdEvento());
+        // El tipo de 400 del concierto está agotado y el de 150 está fuera de rango
+        assertThat(ids(BusquedaEventosDTO.builder().precioMin(300.0).conDisponibilidad(true).build())).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Ordena por precio mínimo, nombre o fecha descendente")
+    void testOrden() {
+        assertThat(ids(BusquedaEventosDTO.builder().orden(BusquedaEventosDTO.Orden.PRECIO).build()))
+                .containsExactly(obra.getIdEvento(), conciertoAgotado.getIdEvento(), concierto.getIdEvento());
+        assertThat(ids(BusquedaEventosDTO.builder().orden(BusquedaEventosDTO.Orden.NOMBRE).build()))
+                .containsExactly(conciertoAgotado.getIdEvento(), concierto.getIdEvento(), obra.getIdEvento());
+        assertThat(ids(BusquedaEventosDTO.builder().orden(BusquedaEventosDTO.Orden.FECHA_DESC).build()))
+                .containsExactly(conciertoAgotado.getIdEvento(), obra.getIdEvento(), concierto.getIdEvento());
+    }
+
+    @Test
+    @DisplayName("El servicio pagina con el cursor de la cabecera y valida los rangos")
+    void testPaginacionYValidacion() {
+        BusquedaEventosDTO criterios = BusquedaEventosDTO.builder().desde(BASE).build();
+
+        PaginaCursor<EventoResponseDTO> primera = eventoService.buscar(criterios, null, 2);
+        PaginaCursor<EventoResponseDTO> segunda = eventoService.buscar(criterios, primera.siguienteCursor(), 2);
+
+        assertThat(primera.elementos()).extracting(EventoResponseDTO::getIdEvento)
+                .containsExactly(concierto.getIdEvento(), obra.getIdEvento());
+        assertThat(segunda.elementos()).extracting(EventoResponseDTO::getIdEvento)
+                .containsExactly(conciertoAgotado.getIdEvento());
+        assertThat(segunda.siguienteCursor()).isNull();
+
+        assertThatThrownBy(() -> eventoService.buscar(
+                BusquedaEventosDTO.builder().desde(BASE.plusDays(2)).hasta(BASE).build(), null, null))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> eventoService.buscar(
+                BusquedaEventosDTO.builder().precioMin(100.0).precioMax(50.0).build(), null, null))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    /**
+     * Busca sobre 100k eventos con dos tipos de ticket cada uno, con y sin los índices compuestos.
+     * En H2 en memoria las diferencias son chicas; el plan (EXPLAIN) sirve para ver qué índice se usa.
+     * Ejecutar con: mvn test -Pbenchmark -Dtest=EventosRepositorioBusquedaTest
+     */
+    @Test
+    @Tag("benchmark")
+    @DisplayName("Benchmark: búsqueda combinada sobre 100k eventos")
+    void benchmarkBuscar100kEventos() {
+        int eventos = 100_000;
+        insertarEventos(eventos);
+        List<BusquedaEventosDTO> busquedas = List.of(
+                BusquedaEventosDTO.builder().tipo(TipoEvento.CONCIERTO).desde(BASE).hasta(BASE.plusDays(30)).build(),
+                BusquedaEventosDTO.builder().idDistrito(miraflores.getIdDistrito()).desde(BASE).conDisponibilidad(true).build(),
+                BusquedaEventosDTO.builder().desde(BASE).precioMin(50.0).precioMax(80.0)
+                        .orden(BusquedaEventosDTO.Orden.FECHA_DESC).build(),
+                BusquedaEventosDTO.builder().tipo(TipoEvento.OBRA_TEATRAL).desde(BASE)
+                        .orden(BusquedaEventosDTO.Orden.PRECIO).build());
+
+        medir("con índices", busquedas);
+        // idx_local_distrito queda: H2 lo reutiliza para la llave foránea de Local
+        List<String> indices = List.of("idx_evento_activo_fecha", "idx_evento_tipo_fecha", "idx_evento_local_fecha",
+                "idx_tipoticket_evento_precio");
+        indices.forEach(indice -> jdbcTemplate.execute("DROP INDEX IF EXISTS " + indice));
+        medir("sin índices", busquedas);
+    }
+
+    private void medir(String nombre, List<BusquedaEventosDTO> busquedas) {
+        int repeticiones = 20;
+        for (int b = 0; b < busquedas.size(); b++) {
+            BusquedaEventosDTO criterios = busquedas.get(b);
+            for (int i = 0; i < 5; i++) {
+                eventosRepositorio.buscar(criterios, 0, PaginaCursor.LIMITE_POR_DEFECTO + 1);
+            }
+            long inicio = System.nanoTime();
+            for (int i = 0; i < repeticiones; i++) {
+                eventosRepositorio.buscar(criterios, 0, PaginaCursor.LIMITE_POR_DEFECTO + 1);
+            }
+            log.info("[benchmark] {}, búsqueda {}: {} ms", nombre, b + 1,
+                    String.format("%.2f", (System.nanoTime() - inicio) / 1_000_000.0 / repeticiones));
+        }
+    }
+
+    private void insertarEventos(int cantidad) {
+        int idBase = 5_000_000;
+        TipoEvento[] tipos = TipoEvento.values();
+        List<Object[]> eventos = new ArrayList<>();
+        List<Object[]> tiposTicket = new ArrayList<>();
+        for (int i = 0; i < cantidad; i++) {
+            int id = idBase + i;
+            Local local = i % 2 == 0 ? estadio : teatro;
+            eventos.add(new Object[] {id, "Evento " + i, java.sql.Date.valueOf(BASE.plusDays(i % 365)),
+                    tipos[i % tipos.length].name(), local.getIdLocal()});
+            tiposTicket.add(new Object[] {2 * id, "General", 20.0 + i % 300, i % 3 == 0 ? 0 : 50, id});
+            tiposTicket.add(new Object[] {2 * id + 1, "VIP", 200.0 + i % 300, i % 5 == 0 ? 0 : 10, id});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO evento (id_evento, nombre, fecha_evento, tipo_evento, id_local, activo, "
+                + "version) VALUES (?, ?, ?, ?, ?, TRUE, 0)", eventos);
+        jdbcTemplate.batchUpdate("INSERT INTO tipo_ticket (id_tipo_ticket, nombre, precio, cantidad_disponible, "
+                + "id_evento, stock, cantidad_vendida, activo) VALUES (?, ?, ?, ?, ?, 100, 0, TRUE)", tiposTicket);
+    }
+
+    private Distrito crearDistrito(String nombre, Provincia provincia) {
+        Distrito distrito = new Distrito();
+        distrito.setNombre(nombre);
+        distrito.setProvincia(provincia);
+        distrito.setActivo(true);
+        return distritoRepository.save(distrito);
+    }
+
+    private Local crearLocal(String nombre, Distrito distrito) {
+        Local local = new Local();
+        local.setNombre(nombre);
+        local.setDireccion("Av. Búsqueda 123");
+        local.setAforoTotal(1000);
+        local.setDistrito(distrito);
+        local.setActivo(true);
+        return localesRepositorio.save(local);
+    }
+
+    private Evento crearEvento(String nombre, TipoEvento tipo, LocalDate fecha, Local local) {
+        Evento evento = new Evento();
+        evento.setNombre(nombre);
+        evento.setTipoEvento(tipo);
+        evento.setFechaEvento(fecha);
+        evento.setHoraInicio(LocalTime.of(20, 0));
+        evento.setActivo(true);
+        evento.setLocal(local);
+        return eventosRepositorio.save(evento);
+    }
+
+    private void crearTipo(Evento evento, double precio, int disponibles) {
+        TipoTicket tipo = new TipoTicket();
+        tipo.setNombre("Tipo " + precio);
+        tipo.setPrecio(precio);
+        tipo.setStock(100);
+        tipo.setCantidadDisponible(disponibles);
+        tipo.setEvento(evento);
+        tipo.setActivo(true);
+        tipoTicketRepositorio.save(tipo);
+    }
+}
@@ -0,0 +1,226 @@
+package pe.edu.pucp.fasticket.repository;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import lombok.extern.slf4j.Slf4j;
+import pe.edu.pucp.fasticket.config.TestConfig;
+import pe.edu.pucp.fasticket.model.eventos.EstadoTicket;
+import pe.edu.pucp.fasticket.model.eventos.Evento;
+import pe.edu.pucp.fasticket.model.eventos.Local;
+import pe.edu.pucp.fasticket.model.eventos.Ticket;
+import pe.edu.pucp.fasticket.model.eventos.TipoTicket;
+import pe.edu.pucp.fasticket.model.eventos.Zona;
+import pe.edu.pucp.fasticket.repository.eventos.EventosRepositorio;
+import pe.edu.pucp.fasticket.repository.eventos.LocalesRepositorio;
+import pe.edu.pucp.fasticket.repository.eventos.TicketRepository;
+import pe.edu.pucp.fasticket.repository.eventos.TipoTicketRepositorio;
+import pe.edu.pucp.fasticket.repository.eventos.ZonaRepositorio;
+
+/**
+ * Verifica que el reclamo de tickets con SKIP LOCKED entregue conjuntos disjuntos
+ * a compradores concurrentes. Cada comprador corre en su propia transacción,
+ * por lo que esta clase no es @Transactional y limpia sus datos al terminar.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@Import(TestConfig.class)
+@DisplayName("Tests de concurrencia para TicketRepository")
+@Slf4j(topic = "fasticket.benchmark")
+class TicketRepositoryConcurrencyTest {
+
+    private static final int COMPRADORES = 20;
+    private static final int TICKETS_POR_COMPRADOR = 5;
+
+    @Autowired private TicketRepository ticketRepository;
+    @Autowired private TipoTicketRepositorio tipoTicketRepositorio;
+    @Autowired private ZonaRepositorio zonaRepositorio;
+    @Autowired private EventosRepositorio eventosRepositorio;
+    @Autowired private LocalesRepositorio localesRepositorio;
+    @Autowired private PlatformTransactionManager transactionManager;
+
+    private TransactionTemplate transactionTemplate;
+    private Local local;
+    private Zona zona;
+    private Evento evento;
+    private TipoTicket tipoTicket;
+
+    @BeforeEach
+    void setUp() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+
+        local = new Local();
+        local.setNombre("Arena Concurrencia");
+        local.setDireccion("Av. Paralela 456");
+        local.setAforoTotal(1000);
+        local.setActivo(true);
+        local = localesRepositorio.save(local);
+
+        evento = new Evento();
+        evento.setNombre("Preventa Concurrente");
+        evento.setFechaEvento(LocalDate.now().plusMonths(1));
+        evento.setHoraInicio(LocalTime.of(20, 0));
+        evento.setActivo(true);
+        evento.setLocal(local);
+        evento = eventosRepositorio.save(evento);
+
+        zona = new Zona();
+        zona.setNombre("Campo");
+        zona.setAforoMax(1000);
+        zona.setActivo(true);
+        zona.setLocal(local);
+        zona = zonaRepositorio.save(zona);
+
+        tipoTicket = new TipoTicket();
+        tipoTicket.setNombre("Campo General");
+        tipoTicket.setPrecio(80.0);
+        tipoTicket.setStock(COMPRADORES * TICKETS_POR_COMPRADOR * 2);
+        tipoTicket.setCantidadDisponible(COMPRADORES * TICKETS_POR_COMPRADOR * 2);
+        tipoTicket.setZona(zona);
+        tipoTicket.setEvento(evento);
+        tipoTicket.setActivo(true);
+        tipoTicket = tipoTicketRepositorio.save(tipoTicket);
+
+        List<Ticket> tickets = new ArrayList<>();
+        for (int i = 0; i < COMPRADORES * TICKETS_POR_COMPRADOR * 2; i++) {
+            Ticket ticket = new Ticket();
+            ticket.setTipoTicket(tipoTicket);
+            ticket.setEvento(evento);
+            ticket.setEstado(EstadoTicket.DISPONIBLE);
+            ticket.setPrecio(tipoTicket.getPrecio());
+            ticket.setActivo(true);
+            tickets.add(ticket);
+        }
+        ticketRepository.saveAll(tickets);
+    }
+
+    @AfterEach
+    void tearDown() {
+        ticketRepository.deleteAll(ticketRepository.findAll().stream()
+                .filter(t -> t.getEvento() != null && evento.getIdEvento().equals(t.getEvento().getIdEvento()))
+                .toList());
+        tipoTicketRepositorio.deleteById(tipoTicket.getIdTipoTicket());
+        zonaRepositorio.deleteById(zona.getIdZona());
+        eventosRepositorio.deleteById(evento.getIdEvento());
+        localesRepositorio.deleteById(local.getIdLocal());
+    }
+
+    @Test
+    @DisplayName("Compradores concurrentes nunca comparten un ticket")
+    void testReclamoConcurrente_SinTicketsCompartidos() throws Exception {
+        Set<Integer> reclamados = ConcurrentHashMap.newKeySet();
+        AtomicInteger totalReclamados = new AtomicInteger();
+
+        ejecutarCompradores(() -> {
+            List<Ticket> tickets = reclamar();
+            tickets.forEach(t -> {
+                reclamados.add(t.getIdTicket());
+                totalReclamados.incrementAndGet();
+            });
+        });
+
+        assertThat(totalReclamados.get()).isEqualTo(COMPRADORES * TICKETS_POR_COMPRADOR);
+        assertThat(reclamados).hasSize(COMPRADORES * TICKETS_POR_COMPRADOR);
+        assertThat(ticketRepository.findAvailableTicketsByTypeAndState(
+                tipoTicket, EstadoTicket.DISPONIBLE, PageRequest.of(0, Integer.MAX_VALUE)))
+                .hasSize(COMPRADORES * TICKETS_POR_COMPRADOR);
+    }
+
+    /**
+     * Compara reclamos/seg del query con SKIP LOCKED contra el query anterior sin bloqueo.
+     * Ejecutar con: mvn test -Pbenchmark -Dtest=TicketRepositoryConcurrencyTest
+     */
+    @Test
+    @Tag("benchmark")
+    @DisplayName("Benchmark: reclamos por segundo, SKIP LOCKED vs query actual")
+    void benchmarkReclamosPorSegundo() throws Exception {
+        Set<Integer> reclamadosLegacy = ConcurrentHashMap.newKeySet();
+        AtomicInteger duplicadosLegacy = new AtomicInteger();
+        long inicioLegacy = System.nanoTime();
+        ejecutarCompradores(() -> transactionTemplate.executeWithoutResult(status -> {
+            List<Ticket> tickets = ticketRepository.findAvailableTicketsByTypeAndState(
+                    tipoTicket, EstadoTicket.DISPONIBLE, PageRequest.of(0, TICKETS_POR_COMPRADOR));
+            tickets.forEach(t -> {
+                if (!reclamadosLegacy.add(t.getIdTicket())) {
+                    duplicadosLegacy.incrementAndGet();
+                }
+                t.setEstado(EstadoTicket.RESERVADA);
+            });
+            ticketRepository.saveAll(tickets);
+        }));
+        long nanosLegacy = System.nanoTime() - inicioLegacy;
+
+        Set<Integer> reclamadosSkipLocked = ConcurrentHashMap.newKeySet();
+        long inicioSkipLocked = System.nanoTime();
+        ejecutarCompradores(() -> reclamar().forEach(t -> reclamadosSkipLocked.add(t.getIdTicket())));
+        long nanosSkipLocked = System.nanoTime() - inicioSkipLocked;
+
+        double porSegundoLegacy = reclamadosLegacy.size() / (nanosLegacy / 1_000_000_000.0);
+        double porSegundoSkipLocked = reclamadosSkipLocked.size() / (nanosSkipLocked / 1_000_000_000.0);
+        log.info("[benchmark] query actual: {} reclamos/seg ({} tickets vendidos dos veces)",
+                String.format("%.1f", porSegundoLegacy), duplicadosLegacy.get());
+        log.info("[benchmark] SKIP LOCKED: {} reclamos/seg (0 tickets vendidos dos veces)",
+                String.format("%.1f", porSegundoSkipLocked));
+
+        assertThat(reclamadosSkipLocked).hasSize(COMPRADORES * TICKETS_POR_COMPRADOR);
+    }
+
+    private List<Ticket> reclamar() {
+        return transactionTemplate.execute(status -> {
+            List<Ticket> tickets = ticketRepository.claimAvailableTicketsByTypeAndState(
+                    tipoTicket, EstadoTicket.DISPONIBLE, PageRequest.of(0, TICKETS_POR_COMPRADOR));
+            tickets.forEach(t -> t.setEstado(EstadoTicket.RESERVADA));
+            return ticketRepository.saveAll(tickets);
+        });
+    }
+
+    private void ejecutarCompradores(Runnable compra) throws InterruptedException {
+        ExecutorService pool = Executors.newFixedThreadPool(COMPRADORES);
+        CountDownLatch salida = new CountDownLatch(1);
+        CountDownLatch fin = new CountDownLatch(COMPRADORES);
+        Queue<Throwable> errores = new ConcurrentLinkedQueue<>();
+        for (int i = 0; i < COMPRADORES; i++) {
+            pool.submit(() -> {
+                try {
+                    salida.await();
+                    compra.run();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } catch (RuntimeException e) {
+                    errores.add(e);
+                } finally {
+                    fin.countDown();
+                }
+            });
+        }
+        salida.countDown();
+        assertThat(fin.await(30, TimeUnit.SECONDS)).isTrue();
+        pool.shutdown();
+        assertThat(errores).isEmpty();
+    }
+}
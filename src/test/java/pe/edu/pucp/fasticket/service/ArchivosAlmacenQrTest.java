@@ -0,0 +1,57 @@
+package pe.edu.pucp.fasticket.service;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import pe.edu.pucp.fasticket.services.almacenamiento.AlmacenQr;
+import pe.edu.pucp.fasticket.services.almacenamiento.ArchivosAlmacenQr;
+
+@DisplayName("Tests de ArchivosAlmacenQr")
+class ArchivosAlmacenQrTest {
+
+    @TempDir
+    Path directorio;
+
+    @Test
+    @DisplayName("Guardar devuelve el hash del contenido y la imagen se puede leer")
+    void testGuardarYLeer() {
+        ArchivosAlmacenQr almacen = new ArchivosAlmacenQr(directorio);
+        byte[] imagen = {1, 2, 3, 4};
+
+        String referencia = almacen.guardar(imagen);
+
+        assertThat(referencia).isEqualTo(AlmacenQr.referenciaDe(imagen)).hasSize(64);
+        assertThat(almacen.leer(referencia)).hasValue(imagen);
+        assertThat(Files.exists(directorio.resolve(referencia.substring(0, 2)).resolve(referencia + ".png"))).isTrue();
+    }
+
+    @Test
+    @DisplayName("Guardar la misma imagen dos veces no la duplica")
+    void testGuardar_Idempotente() throws Exception {
+        ArchivosAlmacenQr almacen = new ArchivosAlmacenQr(directorio);
+        byte[] imagen = {9, 9, 9};
+
+        String primera = almacen.guardar(imagen);
+        String segunda = almacen.guardar(imagen.clone());
+
+        assertThat(segunda).isEqualTo(primera);
+        try (var archivos = Files.walk(directorio)) {
+            assertThat(archivos.filter(Files::isRegularFile).count()).isEqualTo(1);
+        }
+    }
+
+    @Test
+    @DisplayName("Una referencia inexistente devuelve vacío y una mal formada se rechaza")
+    void testLeer_Referencias() {
+        ArchivosAlmacenQr almacen = new ArchivosAlmacenQr(directorio);
+
+        assertThat(almacen.leer("a".repeat(64))).isEmpty();
+        assertThatThrownBy(() -> almacen.leer("../../etc/passwd")).isInstanceOf(IllegalArgumentException.class);
+    }
+}
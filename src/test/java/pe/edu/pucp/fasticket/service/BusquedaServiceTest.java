@@ -0,0 +1,198 @@
+package pe.edu.pucp.fasticket.service;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import static org.mockito.Mockito.when;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import pe.edu.pucp.fasticket.dto.eventos.ResultadoBusquedaDTO;
+import pe.edu.pucp.fasticket.events.TextoCatalogoModificadoEvent;
+import pe.edu.pucp.fasticket.repository.eventos.EventoTexto;
+import pe.edu.pucp.fasticket.repository.eventos.EventosRepositorio;
+import pe.edu.pucp.fasticket.repository.eventos.LocalTexto;
+import pe.edu.pucp.fasticket.repository.eventos.LocalesRepositorio;
+import pe.edu.pucp.fasticket.services.busqueda.AnalizadorTexto;
+import pe.edu.pucp.fasticket.services.busqueda.BusquedaService;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Tests de la búsqueda de texto de eventos y locales")
+@Slf4j(topic = "fasticket.benchmark")
+class BusquedaServiceTest {
+
+    private static final LocalDate FECHA = LocalDate.of(2026, 12, 1);
+
+    @Mock
+    private EventosRepositorio eventosRepositorio;
+    @Mock
+    private LocalesRepositorio localesRepositorio;
+
+    private SimpleMeterRegistry metricas;
+    private BusquedaService busqueda;
+
+    @BeforeEach
+    void setUp() {
+        metricas = new SimpleMeterRegistry();
+        busqueda = new BusquedaService(eventosRepositorio, localesRepositorio, metricas);
+    }
+
+    private void catalogo(List<EventoTexto> eventos, List<LocalTexto> locales) {
+        when(eventosRepositorio.findTextos()).thenReturn(eventos);
+        when(localesRepositorio.findTextos()).thenReturn(locales);
+        busqueda.reconstruir();
+    }
+
+    private static EventoTexto evento(int id, String nombre, String descripcion) {
+        return new EventoTexto(id, nombre, descripcion, null, FECHA, "Estadio Nacional");
+    }
+
+    private static List<Integer> ids(List<ResultadoBusquedaDTO> resultados) {
+        return resultados.stream().map(ResultadoBusquedaDTO::getId).toList();
+    }
+
+    @Test
+    @DisplayName("El análisis ignora tildes, mayúsculas, plurales y palabras vacías")
+    void testAnalizador() {
+        assertThat(AnalizadorTexto.terminos("Música en vivo: CONCIERTOS de Rock"))
+                .containsExactly("music", "vivo", "conciert", "rock");
+        assertThat(AnalizadorTexto.terminos("luces y canciones")).containsExactly("luz", "cancion");
+        assertThat(AnalizadorTexto.terminos("concierto")).isEqualTo(AnalizadorTexto.terminos("Conciertos"));
+    }
+
+    @Test
+    @DisplayName("Devuelve los documentos con todas las palabras y pone primero los que las tienen en el nombre")
+    void testBuscarOrdenaPorRelevancia() {
+        catalogo(List.of(
+                evento(1, "Festival de verano", "Noche de rock con bandas nacionales"),
+                evento(2, "Rock en el Parque", "Festival al aire libre"),
+                evento(3, "Obra de teatro", "Comedia musical")),
+                List.of(new LocalTexto(10, "Teatro Municipal", "Jr. Ica 377", "Lima")));
+
+        var resultados = busqueda.buscar("festivales ROCK", null);
+
+        assertThat(ids(resultados.getEventos())).containsExactly(2, 1);
+        assertThat(resultados.getEventos().get(0).getDetalle()).isEqualTo("Estadio Nacional");
+        assertThat(resultados.getLocales()).isEmpty();
+        assertThat(ids(busqueda.buscar("teatro", null).getLocales())).containsExactly(10);
+        assertThat(ids(busqueda.buscar("teatro", null).getEventos())).containsExactly(3);
+    }
+
+    @Test
+    @DisplayName("El autocompletado acepta la última palabra incompleta")
+    void testSugerir() {
+        catalogo(List.of(evento(1, "Rock en Lima", null), evento(2, "Conciertos de invierno", null)),
+                List.of(new LocalTexto(10, "Estadio Lima", "Av. José Díaz", "Cercado de Lima")));
+
+        assertThat(ids(busqueda.sugerir("conci", 5).getEventos())).containsExactly(2);
+        assertThat(ids(busqueda.sugerir("rock en li", 5).getEventos())).containsExactly(1);
+        assertThat(ids(busqueda.sugerir("jose di", 5).getLocales())).containsExactly(10);
+        assertThat(busqueda.buscar("conci", 5).getEventos()).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Un cambio confirmado vuelve a indexar solo ese documento")
+    void testCambioIncremental() {
+        catalogo(List.of(evento(1, "Feria gastronómica", null)), List.of());
+
+        when(eventosRepositorio.findTextoById(1)).thenReturn(Optional.of(evento(1, "Feria del libro", null)));
+        when(eventosRepositorio.findTextoById(2)).thenReturn(Optional.of(evento(2, "Feria de artesanía", null)));
+        busqueda.alModificarTexto(TextoCatalogoModificadoEvent.deEvento(1));
+        busqueda.alModificarTexto(TextoCatalogoModificadoEvent.deEvento(2));
+
+        assertThat(busqueda.buscar("gastronomica", null).getEventos()).isEmpty();
+        assertThat(ids(busqueda.buscar("libros", null).getEventos())).containsExactly(1);
+        assertThat(ids(busqueda.buscar("feria", null).getEventos())).containsExactlyInAnyOrder(1, 2);
+
+        // Desactivado: ya no aparece como activo
+        when(eventosRepositorio.findTextoById(2)).thenReturn(Optional.empty());
+        busqueda.alModificarTexto(TextoCatalogoModificadoEvent.deEvento(2));
+        assertThat(ids(busqueda.buscar("feria", null).getEventos())).containsExactly(1);
+        assertThat(metricas.get("fasticket.busqueda.documentos").tag("indice", "eventos").gauge().value()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Rechaza consultas vacías y límites fuera de rango")
+    void testValidaciones() {
+        assertThatThrownBy(() -> busqueda.buscar("  ¿? ", null)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> busqueda.sugerir("rock", BusquedaService.LIMITE_MAXIMO + 1))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    /**
+     * Construye el índice con 100k eventos de texto sintético y mide la latencia de búsqueda y autocompletado.
+     * Ejecutar con: mvn test -Pbenchmark -Dtest=BusquedaServiceTest
+     */
+    @Test
+    @Tag("benchmark")
+    @DisplayName("Benchmark: construir el índice con 100k eventos y consultarlo")
+    void benchmarkIndice100kEventos() {
+        String[] vocabulario = ("concierto rock pop salsa cumbia festival teatro comedia musical danza ballet opera "
+                + "jazz electronica feria gastronomica libro arte exposicion cine estreno clasica sinfonica orquesta "
+                + "banda nacional internacional gira verano invierno noche tarde familia niños estudiantes vip "
+                + "preventa lima arequipa cusco trujillo piura miraflores barranco surco estadio arena parque").split(" ");
+        Random azar = new Random(42);
+        List<EventoTexto> eventos = new ArrayList<>();
+        for (int i = 0; i < 100_000; i++) {
+            eventos.add(evento(i, frase(vocabulario, azar, 4), frase(vocabulario, azar, 40)));
+        }
+        when(eventosRepositorio.findTextos()).thenReturn(eventos);
+        when(localesRepositorio.findTextos()).thenReturn(List.of());
+
+        busqueda.reconstruir();
+
+        List<String> consultas = List.of("concierto rock", "festival verano lima", "teatro", "orquesta sinfonica nacional");
+        List<String> parciales = List.of("conc", "festival ve", "teatro mu", "or");
+        long[] buscar = medir(consultas, c -> busqueda.buscar(c, 10));
+        long[] sugerir = medir(parciales, c -> busqueda.sugerir(c, 10));
+        log.info("[benchmark] construcción de 100k eventos: {} ms", Math.round(
+                metricas.get("fasticket.busqueda.construccion").tag("indice", "eventos").timer()
+                        .totalTime(TimeUnit.MILLISECONDS)));
+        log.info("[benchmark] buscar: mediana {} µs, p99 {} µs", buscar[buscar.length / 2] / 1000,
+                buscar[buscar.length * 99 / 100] / 1000);
+        log.info("[benchmark] sugerir: mediana {} µs, p99 {} µs", sugerir[sugerir.length / 2] / 1000,
+                sugerir[sugerir.length * 99 / 100] / 1000);
+        assertThat(busqueda.buscar("concierto rock", 10).getEventos()).hasSize(10);
+    }
+
+    private static long[] medir(List<String> consultas, Consumer<String> consulta) {
+        int repeticiones = 250;
+        for (int i = 0; i < repeticiones; i++) {
+            consultas.forEach(consulta);
+        }
+        long[] tiempos = new long[repeticiones * consultas.size()];
+        int n = 0;
+        for (int i = 0; i < repeticiones; i++) {
+            for (String texto : consultas) {
+                long inicio = System.nanoTime();
+                consulta.accept(texto);
+                tiempos[n++] = System.nanoTime() - inicio;
+            }
+        }
+        Arrays.sort(tiempos);
+        return tiempos;
+    }
+
+    private static String frase(String[] vocabulario, Random azar, int palabras) {
+        StringBuilder frase = new StringBuilder();
+        for (int i = 0; i < palabras; i++) {
+            frase.append(vocabulario[azar.nextInt(vocabulario.length)]).append(' ');
+        }
+        return frase.toString();
+    }
+}
@@ -0,0 +1,213 @@
+package pe.edu.pucp.fasticket.service;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import pe.edu.pucp.fasticket.dto.eventos.EventoResponseDTO;
+import pe.edu.pucp.fasticket.events.CatalogoModificadoEvent;
+import pe.edu.pucp.fasticket.services.eventos.AlmacenCatalogo;
+import pe.edu.pucp.fasticket.services.eventos.CacheCatalogoEventos;
+
+@DisplayName("Tests de la caché de listados de eventos")
+class CacheCatalogoEventosTest {
+
+    private static final Duration TTL = Duration.ofSeconds(30);
+
+    private RelojManual reloj;
+    private AlmacenCompartido almacen;
+    private SimpleMeterRegistry metricas;
+    private CacheCatalogoEventos cache;
+    private AtomicInteger cargas;
+
+    @BeforeEach
+    void setUp() {
+        reloj = new RelojManual();
+        almacen = new AlmacenCompartido();
+        metricas = new SimpleMeterRegistry();
+        cache = new CacheCatalogoEventos(almacen, metricas, 10, TTL, reloj);
+        cargas = new AtomicInteger();
+    }
+
+    private List<EventoResponseDTO> cargar() {
+        cargas.incrementAndGet();
+        return List.of(EventoResponseDTO.builder().idEvento(cargas.get()).nombre("Evento").build());
+    }
+
+    private double consultas(String origen) {
+        var contador = metricas.find("fasticket.catalogo.cache.consultas").tag("origen", origen).counter();
+        return contador == null ? 0 : contador.count();
+    }
+
+    @Test
+    @DisplayName("La segunda consulta se sirve desde la caché local")
+    void testAciertoLocal() {
+        cache.obtener("activos", this::cargar);
+        List<EventoResponseDTO> eventos = cache.obtener("activos", this::cargar);
+
+        assertThat(cargas).hasValue(1);
+        assertThat(eventos).extracting(EventoResponseDTO::getIdEvento).containsExactly(1);
+        assertThat(consultas("base")).isEqualTo(1);
+        assertThat(consultas("local")).isEqualTo(1);
+        assertThat(metricas.get("fasticket.catalogo.cache.entradas").gauge().value()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("El listado vence al cumplirse el TTL")
+    void testVenceTtl() {
+        cache.obtener("activos", this::cargar);
+        reloj.avanzar(TTL);
+        almacen.listados.clear();
+
+        cache.obtener("activos", this::cargar);
+
+        assertThat(cargas).hasValue(2);
+    }
+
+    @Test
+    @DisplayName("Una modificación del catálogo invalida la caché local y la compartida")
+    void testInvalidacionLocal() {
+        cache.obtener("activos", this::cargar);
+
+        cache.alModificarCatalogo(new CatalogoModificadoEvent("evento 1 actualizado"));
+        List<EventoResponseDTO> eventos = cache.obtener("activos", this::cargar);
+
+        assertThat(cargas).hasValue(2);
+        assertThat(eventos).extracting(EventoResponseDTO::getIdEvento).containsExactly(2);
+        assertThat(almacen.invalidaciones).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("La invalidación de otra instancia vacía la caché local")
+    void testInvalidacionRemota() {
+        cache.obtener("activos", this::cargar);
+        almacen.listados.clear();
+
+        almacen.alRemoto.run();
+        cache.obtener("activos", this::cargar);
+
+        assertThat(cargas).hasValue(2);
+        assertThat(metricas.find("fasticket.catalogo.cache.invalidaciones").tag("origen", "remoto").counter().count())
+                .isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Un listado leído antes de una invalidación no se guarda")
+    void testCargaConcurrenteConInvalidacion() {
+        cache.obtener("activos", () -> {
+            List<EventoResponseDTO> viejos = cargar();
+            cache.alModificarCatalogo(new CatalogoModificadoEvent("evento 1 cancelado"));
+            return viejos;
+        });
+
+        cache.obtener("activos", this::cargar);
+
+        assertThat(cargas).hasValue(2);
+    }
+
+    @Test
+    @DisplayName("Un acierto en el nivel compartido no consulta la base de datos")
+    void testAciertoCompartido() {
+        almacen.listados.put("0:activos", List.of(EventoResponseDTO.builder().idEvento(7).build()));
+
+        List<EventoResponseDTO> eventos = cache.obtener("activos", this::cargar);
+
+        assertThat(cargas).hasValue(0);
+        assertThat(eventos).extracting(EventoResponseDTO::getIdEvento).containsExactly(7);
+        assertThat(consultas("compartido")).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Dentro de una transacción de escritura siempre consulta la base de datos")
+    void testTransaccionEscrituraNoUsaCache() {
+        TransactionSynchronizationManager.setActualTransactionActive(true);
+        try {
+            cache.obtener("activos", this::cargar);
+            cache.obtener("activos", this::cargar);
+        } finally {
+            TransactionSynchronizationManager.setActualTransactionActive(false);
+        }
+
+        assertThat(cargas).hasValue(2);
+        assertThat(almacen.listados).isEmpty();
+    }
+
+    private static class AlmacenCompartido implements AlmacenCatalogo {
+        final Map<String, List<EventoResponseDTO>> listados = new HashMap<>();
+        int version;
+        int invalidaciones;
+        Runnable alRemoto;
+
+        @Override
+        public String version() {
+            return String.valueOf(version);
+        }
+
+        @Override
+        public Optional<List<EventoResponseDTO>> leer(String version, String clave) {
+            return Optional.ofNullable(listados.get(version + ":" + clave));
+        }
+
+        @Override
+        public void escribir(String version, String clave, List<EventoResponseDTO> eventos, Duration ttl) {
+            listados.put(version + ":" + clave, eventos);
+        }
+
+        @Override
+        public Optional<byte[]> leerDocumento(String version, String clave) {
+            return Optional.empty();
+        }
+
+        @Override
+        public void escribirDocumento(String version, String clave, byte[] json, Duration ttl) {
+        }
+
+        @Override
+        public void invalidar() {
+            version++;
+            invalidaciones++;
+        }
+
+        @Override
+        public void alInvalidarRemoto(Runnable accion) {
+            alRemoto = accion;
+        }
+    }
+
+    private static class RelojManual extends Clock {
+        private Instant ahora = Instant.parse("2025-01-01T00:00:00Z");
+
+        void avanzar(Duration duracion) {
+            ahora = ahora.plus(duracion);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return ahora;
+        }
+    }
+}
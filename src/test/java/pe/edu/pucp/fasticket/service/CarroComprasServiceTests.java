@@ -1,11 +1,13 @@
 package pe.edu.pucp.fasticket.service;
 
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.time.LocalTime;
 import java.util.ArrayList;
 import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
@@ -20,6 +22,7 @@ import org.springframework.transaction.annotation.Transactional;
 import pe.edu.pucp.fasticket.dto.AddItemRequestDTO;
 import pe.edu.pucp.fasticket.dto.CarroComprasDTO;
 import pe.edu.pucp.fasticket.dto.compra.DatosAsistenteDTO;
+import pe.edu.pucp.fasticket.model.compra.CarroCompras;
 import pe.edu.pucp.fasticket.model.eventos.EstadoTicket;
 import pe.edu.pucp.fasticket.model.eventos.Evento;
 import pe.edu.pucp.fasticket.model.eventos.Local;
@@ -307,4 +310,40 @@ public class CarroComprasServiceTests {
         Exception exception = assertThrows(Exception.class, () -> carroComprasService.agregarItemAlCarrito(segundoRequest));
         assertTrue(exception.getMessage().contains("límite de tickets por persona"));
     }
-}
\ No newline at end of file
+
+    @Test
+    void testExpirarCarrito_LiberaTicketsReservados() {
+        DatosAsistenteDTO asistente = new DatosAsistenteDTO();
+        asistente.setNombres("Asistente Vencido");
+        asistente.setApellidos("Apellido");
+        asistente.setTipoDocumento(TipoDocumento.DNI);
+        asistente.setNumeroDocumento("11223344");
+
+        AddItemRequestDTO request = new AddItemRequestDTO();
+        request.setIdCliente(clientePrueba.getIdPersona());
+        request.setIdTipoTicket(ticketEvento1.getIdTipoTicket());
+        request.setCantidad(1);
+        request.setAsistentes(List.of(asistente));
+        CarroComprasDTO carritoDTO = carroComprasService.agregarItemAlCarrito(request);
+
+        CarroCompras carro = carroComprasRepository.findById(carritoDTO.getIdCarro()).get();
+        assertNotNull(carro.getFechaExpiracion());
+        assertFalse(carroComprasService.expirarCarrito(carro.getIdCarro()), "Aún no vence");
+
+        carro.setFechaExpiracion(LocalDateTime.now().minusSeconds(1));
+        carroComprasRepository.save(carro);
+
+        assertTrue(carroComprasService.expirarCarrito(carro.getIdCarro()));
+        assertFalse(carroComprasService.expirarCarrito(carro.getIdCarro()), "Solo se expira una vez");
+        assertTrue(carroComprasRepository.findById(carro.getIdCarro()).get().getItems().isEmpty());
+        assertEquals(0, ticketRepository.findAll().stream()
+                .filter(t -> t.getTipoTicket() != null
+                        && t.getTipoTicket().getIdTipoTicket().equals(ticketEvento1.getIdTipoTicket()))
+                .filter(t -> t.getEstado() == EstadoTicket.RESERVADA)
+                .count());
+        assertEquals(5, ticketRepository.findAll().stream()
+                .filter(t -> t.getTipoTicket() != null
+                        && t.getTipoTicket().getIdTipoTicket().equals(ticketEvento1.getIdTipoTicket()))
+                .count(), "Los tickets precreados liberados no se eliminan con el item");
+    }
+}
@@ -0,0 +1,179 @@
+package pe.edu.pucp.fasticket.service;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+
+import jakarta.persistence.EntityManagerFactory;
+import pe.edu.pucp.fasticket.config.TestConfig;
+import pe.edu.pucp.fasticket.dto.eventos.EventoDetalleDTO;
+import pe.edu.pucp.fasticket.dto.eventos.TipoTicketCompraDTO;
+import pe.edu.pucp.fasticket.events.CatalogoModificadoEvent;
+import pe.edu.pucp.fasticket.exception.ResourceNotFoundException;
+import pe.edu.pucp.fasticket.model.eventos.Evento;
+import pe.edu.pucp.fasticket.model.eventos.Local;
+import pe.edu.pucp.fasticket.model.eventos.TipoTicket;
+import pe.edu.pucp.fasticket.model.eventos.Zona;
+import pe.edu.pucp.fasticket.repository.eventos.EventosRepositorio;
+import pe.edu.pucp.fasticket.repository.eventos.LocalesRepositorio;
+import pe.edu.pucp.fasticket.repository.eventos.TipoTicketRepositorio;
+import pe.edu.pucp.fasticket.repository.eventos.ZonaRepositorio;
+import pe.edu.pucp.fasticket.services.eventos.EventoService;
+import pe.edu.pucp.fasticket.services.inventario.InventarioService;
+
+/**
+ * Cuenta las sentencias JDBC que ejecuta {@link EventoService#obtenerDetalleParaCompra}.
+ * La primera llamada arma el detalle con una sola consulta, sin importar cuántas zonas tenga el
+ * local; las siguientes salen de la caché y solo leen la disponibilidad del inventario en memoria.
+ * Sin transacción de prueba: la caché no guarda lo leído dentro de una transacción de escritura.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@Import(TestConfig.class)
+@DisplayName("Tests de sentencias JDBC del detalle de compra")
+class DetalleCompraSentenciasTest {
+
+    @Autowired private EventoService eventoService;
+    @Autowired private InventarioService inventarioService;
+    @Autowired private ApplicationEventPublisher eventPublisher;
+    @Autowired private EntityManagerFactory entityManagerFactory;
+    @Autowired private LocalesRepositorio localesRepositorio;
+    @Autowired private EventosRepositorio eventosRepositorio;
+    @Autowired private ZonaRepositorio zonaRepositorio;
+    @Autowired private TipoTicketRepositorio tipoTicketRepositorio;
+
+    private Statistics estadisticas;
+    private Local local;
+    private Evento evento;
+    private TipoTicket general;
+
+    @BeforeEach
+    void setUp() {
+        estadisticas = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        estadisticas.setStatisticsEnabled(true);
+
+        local = new Local();
+        local.setNombre("Local Detalle " + System.nanoTime());
+        local.setDireccion("Av. Detalle 123");
+        local.setAforoTotal(1000);
+        local.setActivo(true);
+        local = localesRepositorio.save(local);
+
+        evento = new Evento();
+        evento.setNombre("Evento Detalle");
+        evento.setFechaEvento(LocalDate.now().plusMonths(1));
+        evento.setHoraInicio(LocalTime.of(20, 0));
+        evento.setActivo(true);
+        evento.setLocal(local);
+        evento = eventosRepositorio.save(evento);
+
+        general = tipoTicket(zona("General"), "General", 40, true);
+        tipoTicket(zona("VIP"), "VIP", 10, true);
+        tipoTicket(zona("Palco"), "Palco agotado", 0, true);
+        tipoTicket(zona("Platea"), "Platea retirada", 10, false);
+    }
+
+    @AfterEach
+    void tearDown() {
+        estadisticas.setStatisticsEnabled(false);
+        for (Zona zona : zonaRepositorio.findByLocalIdLocal(local.getIdLocal())) {
+            tipoTicketRepositorio.deleteAll(tipoTicketRepositorio.findByZonaIdZona(zona.getIdZona()));
+            zonaRepositorio.delete(zona);
+        }
+        eventosRepositorio.deleteById(evento.getIdEvento());
+        localesRepositorio.deleteById(local.getIdLocal());
+    }
+
+    @Test
+    @DisplayName("Arma el detalle con una consulta y luego lo sirve desde la caché")
+    void testUnaConsultaYLuegoCache() {
+        long primera = contar();
+        long segunda = contar();
+
+        assertThat(primera).isEqualTo(1);
+        assertThat(segunda).isZero();
+
+        EventoDetalleDTO detalle = eventoService.obtenerDetalleParaCompra(evento.getIdEvento());
+        assertThat(detalle.getLocal().getNombre()).isEqualTo(local.getNombre());
+        assertThat(detalle.getTiposDeTicket()).extracting(TipoTicketCompraDTO::getNombre)
+                .containsExactly("General", "VIP");
+    }
+
+    @Test
+    @DisplayName("La disponibilidad se toma del inventario aunque el detalle venga de la caché")
+    void testDisponibilidadEnVivo() {
+        eventoService.obtenerDetalleParaCompra(evento.getIdEvento());
+        inventarioService.reservar(general, 3);
+        try {
+            estadisticas.clear();
+            EventoDetalleDTO detalle = eventoService.obtenerDetalleParaCompra(evento.getIdEvento());
+
+            assertThat(estadisticas.getPrepareStatementCount()).isZero();
+            assertThat(detalle.getTiposDeTicket().get(0).getCantidadDisponible()).isEqualTo(37);
+        } finally {
+            inventarioService.liberar(general, 3);
+        }
+    }
+
+    @Test
+    @DisplayName("Un cambio de catálogo descarta el detalle guardado")
+    void testInvalidacion() {
+        eventoService.obtenerDetalleParaCompra(evento.getIdEvento());
+        evento.setNombre("Evento Detalle renombrado");
+        eventosRepositorio.save(evento);
+        eventPublisher.publishEvent(new CatalogoModificadoEvent("prueba"));
+
+        assertThat(eventoService.obtenerDetalleParaCompra(evento.getIdEvento()).getNombre())
+                .isEqualTo("Evento Detalle renombrado");
+    }
+
+    @Test
+    @DisplayName("Un evento inexistente no se guarda en la caché")
+    void testNoEncontrado() {
+        assertThatThrownBy(() -> eventoService.obtenerDetalleParaCompra(-1))
+                .isInstanceOf(ResourceNotFoundException.class);
+        estadisticas.clear();
+        assertThatThrownBy(() -> eventoService.obtenerDetalleParaCompra(-1))
+                .isInstanceOf(ResourceNotFoundException.class);
+        assertThat(estadisticas.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    private long contar() {
+        estadisticas.clear();
+        eventoService.obtenerDetalleParaCompra(evento.getIdEvento());
+        return estadisticas.getPrepareStatementCount();
+    }
+
+    private Zona zona(String nombre) {
+        Zona zona = new Zona();
+        zona.setNombre(nombre);
+        zona.setAforoMax(100);
+        zona.setActivo(true);
+        zona.setLocal(local);
+        return zonaRepositorio.save(zona);
+    }
+
+    private TipoTicket tipoTicket(Zona zona, String nombre, int disponibles, boolean activo) {
+        TipoTicket tipoTicket = new TipoTicket();
+        tipoTicket.setNombre(nombre);
+        tipoTicket.setPrecio(50.0);
+        tipoTicket.setStock(disponibles);
+        tipoTicket.setCantidadDisponible(disponibles);
+        tipoTicket.setZona(zona);
+        tipoTicket.setActivo(activo);
+        return tipoTicketRepositorio.save(tipoTicket);
+    }
+}
@@ -0,0 +1,124 @@
+package pe.edu.pucp.fasticket.service;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Transactional;
+
+import jakarta.persistence.EntityManager;
+import pe.edu.pucp.fasticket.config.TestConfig;
+import pe.edu.pucp.fasticket.model.eventos.Evento;
+import pe.edu.pucp.fasticket.model.eventos.Local;
+import pe.edu.pucp.fasticket.model.eventos.TipoTicket;
+import pe.edu.pucp.fasticket.model.eventos.Zona;
+import pe.edu.pucp.fasticket.model.inventario.TipoMovimientoInventario;
+import pe.edu.pucp.fasticket.repository.eventos.EventosRepositorio;
+import pe.edu.pucp.fasticket.repository.eventos.LocalesRepositorio;
+import pe.edu.pucp.fasticket.repository.eventos.TipoTicketRepositorio;
+import pe.edu.pucp.fasticket.repository.eventos.ZonaRepositorio;
+import pe.edu.pucp.fasticket.repository.inventario.MovimientoInventarioRepositorio;
+import pe.edu.pucp.fasticket.services.inventario.DiarioInventario;
+
+@SpringBootTest
+@ActiveProfiles("test")
+@Import(TestConfig.class)
+@Transactional
+@DisplayName("Tests de DiarioInventario")
+class DiarioInventarioTest {
+
+    @Autowired private DiarioInventario diarioInventario;
+    @Autowired private MovimientoInventarioRepositorio movimientoInventarioRepositorio;
+    @Autowired private EntityManager entityManager;
+    @Autowired private LocalesRepositorio localesRepositorio;
+    @Autowired private EventosRepositorio eventosRepositorio;
+    @Autowired private ZonaRepositorio zonaRepositorio;
+    @Autowired private TipoTicketRepositorio tipoTicketRepositorio;
+
+    private Evento evento;
+    private TipoTicket tipoTicket;
+
+    @BeforeEach
+    void setUp() {
+        Local local = new Local();
+        local.setNombre("Local Diario");
+        local.setDireccion("Av. Diario 123");
+        local.setAforoTotal(1000);
+        local.setActivo(true);
+        local = localesRepositorio.save(local);
+
+        evento = new Evento();
+        evento.setNombre("Evento Diario");
+        evento.setFechaEvento(LocalDate.now().plusMonths(1));
+        evento.setHoraInicio(LocalTime.of(20, 0));
+        evento.setAforoDisponible(100);
+        evento.setActivo(true);
+        evento.setLocal(local);
+        evento = eventosRepositorio.save(evento);
+
+        Zona zona = new Zona();
+        zona.setNombre("Zona Diario");
+        zona.setAforoMax(100);
+        zona.setActivo(true);
+        zona.setLocal(local);
+        zona = zonaRepositorio.save(zona);
+
+        tipoTicket = new TipoTicket();
+        tipoTicket.setNombre("General Diario");
+        tipoTicket.setPrecio(50.0);
+        tipoTicket.setStock(10);
+        tipoTicket.setCantidadDisponible(10);
+        tipoTicket.setCantidadVendida(0);
+        tipoTicket.setZona(zona);
+        tipoTicket.setEvento(evento);
+        tipoTicket.setActivo(true);
+        tipoTicket = tipoTicketRepositorio.save(tipoTicket);
+        entityManager.flush();
+    }
+
+    @Test
+    @DisplayName("Abrir registra una sola APERTURA por tipo de ticket y evento")
+    void testAbrirUnaSolaVez() {
+        diarioInventario.abrir();
+        long movimientos = movimientoInventarioRepositorio.count();
+        diarioInventario.abrir();
+
+        assertThat(movimientoInventarioRepositorio.count()).isEqualTo(movimientos);
+        assertThat(movimientoInventarioRepositorio.findTiposTicketAbiertos(List.of(tipoTicket.getIdTipoTicket())))
+                .containsExactly(tipoTicket.getIdTipoTicket());
+        assertThat(movimientoInventarioRepositorio.findEventosAbiertos(List.of(evento.getIdEvento())))
+                .containsExactly(evento.getIdEvento());
+    }
+
+    @Test
+    @DisplayName("Reproyectar recupera contadores y aforo desalineados a partir del diario")
+    void testReproyectar() {
+        diarioInventario.abrir();
+        Integer id = tipoTicket.getIdTipoTicket();
+        Integer idEvento = evento.getIdEvento();
+        diarioInventario.registrar(TipoMovimientoInventario.RESERVA, id, idEvento, 3, -3, 3);
+        diarioInventario.registrar(TipoMovimientoInventario.LIBERACION, id, idEvento, 1, 1, -1);
+        diarioInventario.registrar(TipoMovimientoInventario.AJUSTE, id, idEvento, 5, 5, 0);
+        diarioInventario.registrar(TipoMovimientoInventario.VENTA, id, idEvento, 2, 0, 0);
+        // Contadores que perdieron los cambios no volcados
+        tipoTicketRepositorio.fijarContadores(id, 10, 0);
+        eventosRepositorio.fijarAforo(idEvento, 100);
+
+        diarioInventario.reproyectar();
+        entityManager.clear();
+
+        TipoTicket proyectado = tipoTicketRepositorio.findById(id).orElseThrow();
+        assertThat(proyectado.getCantidadDisponible()).isEqualTo(13);
+        assertThat(proyectado.getCantidadVendida()).isEqualTo(2);
+        // El ajuste de stock del tipo de ticket no cambia el aforo del evento
+        assertThat(eventosRepositorio.findById(idEvento).orElseThrow().getAforoDisponible()).isEqualTo(98);
+    }
+}
@@ -0,0 +1,169 @@
+package pe.edu.pucp.fasticket.service;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.verify;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import pe.edu.pucp.fasticket.controllers.eventos.EventoController;
+import pe.edu.pucp.fasticket.controllers.eventos.RespuestaCondicional;
+import pe.edu.pucp.fasticket.services.S3Service;
+import pe.edu.pucp.fasticket.services.disponibilidad.DisponibilidadEnVivoService;
+import pe.edu.pucp.fasticket.services.eventos.DetalleCompra;
+import pe.edu.pucp.fasticket.services.eventos.EventoService;
+import pe.edu.pucp.fasticket.services.eventos.MemoriaAlmacenCatalogo;
+import pe.edu.pucp.fasticket.services.inventario.InventarioService;
+import pe.edu.pucp.fasticket.services.portada.PortadaCatalogoService;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Tests del stream de disponibilidad por evento")
+class DisponibilidadEnVivoServiceTest {
+
+    private static final int EVENTO = 1;
+    private static final int GENERAL = 5;
+    private static final int VIP = 6;
+
+    @Mock
+    private EventoService eventoService;
+    @Mock
+    private InventarioService inventarioService;
+    @Mock
+    private S3Service s3Service;
+    @Mock
+    private PortadaCatalogoService portadaCatalogoService;
+
+    private final Map<Integer, Integer> contadores = new HashMap<>();
+    private SimpleMeterRegistry metricas;
+    private DisponibilidadEnVivoService disponibilidad;
+    private InventarioService.ObservadorDisponibilidad observador;
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() {
+        lenient().when(inventarioService.disponibles(anyInt(), anyInt())).thenAnswer(invocacion ->
+                contadores.getOrDefault(invocacion.<Integer>getArgument(0), invocacion.<Integer>getArgument(1)));
+        lenient().when(eventoService.obtenerDetalleCompra(EVENTO)).thenReturn(new DetalleCompra(EVENTO, "Evento",
+                LocalDate.of(2026, 12, 1), LocalTime.of(20, 0), null, null, "Local", "Av. Local 1", null, null, null,
+                List.of(new DetalleCompra.Tipo(GENERAL, "General", null, 50.0, 40),
+                        new DetalleCompra.Tipo(VIP, "VIP", null, 150.0, 10))));
+
+        metricas = new SimpleMeterRegistry();
+        disponibilidad = new DisponibilidadEnVivoService(eventoService, inventarioService, new ObjectMapper(),
+                metricas, 60_000, 60_000);
+        ArgumentCaptor<InventarioService.ObservadorDisponibilidad> captor =
+                ArgumentCaptor.forClass(InventarioService.ObservadorDisponibilidad.class);
+        verify(inventarioService).observar(captor.capture());
+        observador = captor.getValue();
+
+        mockMvc = MockMvcBuilders.standaloneSetup(new EventoController(eventoService, s3Service, disponibilidad,
+                new RespuestaCondicional(new MemoriaAlmacenCatalogo(), 30), portadaCatalogoService)).build();
+    }
+
+    private MvcResult abrir() throws Exception {
+        return mockMvc.perform(get("/api/v1/eventos/" + EVENTO + "/disponibilidad"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+    }
+
+    private void cambiar(int idTipoTicket, int disponibles) {
+        contadores.put(idTipoTicket, disponibles);
+        observador.alCambiar(idTipoTicket);
+    }
+
+    private static int veces(String texto, String buscado) {
+        return texto.split(buscado, -1).length - 1;
+    }
+
+    @Test
+    @DisplayName("Al conectarse llega la disponibilidad de todos los tipos de ticket")
+    void testMensajeInicial() throws Exception {
+        contadores.put(GENERAL, 38);
+
+        String contenido = abrir().getResponse().getContentAsString();
+
+        assertThat(contenido).startsWith("event:disponibilidad\n");
+        assertThat(contenido).contains("\"idEvento\":1", "\"5\":38", "\"6\":10");
+    }
+
+    @Test
+    @DisplayName("Varios cambios entre dos envíos salen en un solo mensaje con el último valor")
+    void testCambiosAgrupados() throws Exception {
+        MvcResult stream = abrir();
+        disponibilidad.publicar();
+
+        cambiar(GENERAL, 37);
+        cambiar(GENERAL, 34);
+        cambiar(99, 0);
+        disponibilidad.publicar();
+        disponibilidad.publicar();
+
+        String contenido = stream.getResponse().getContentAsString();
+        assertThat(veces(contenido, "event:cambio")).isEqualTo(1);
+        assertThat(contenido).contains("event:cambio\ndata:{\"idEvento\":1,\"disponibles\":{\"5\":34}}");
+    }
+
+    @Test
+    @DisplayName("Un cambio que se revierte antes del envío no genera mensaje")
+    void testCambioRevertido() throws Exception {
+        MvcResult stream = abrir();
+        disponibilidad.publicar();
+
+        cambiar(VIP, 8);
+        cambiar(VIP, 10);
+        disponibilidad.publicar();
+
+        assertThat(stream.getResponse().getContentAsString()).doesNotContain("event:cambio");
+    }
+
+    @Test
+    @DisplayName("Todos los suscriptores del evento comparten el mismo mensaje")
+    void testVariosSuscriptores() throws Exception {
+        MvcResult primero = abrir();
+        MvcResult segundo = abrir();
+        disponibilidad.publicar();
+
+        cambiar(VIP, 9);
+        disponibilidad.publicar();
+
+        assertThat(primero.getResponse().getContentAsString()).contains("{\"6\":9}");
+        assertThat(segundo.getResponse().getContentAsString()).contains("{\"6\":9}");
+        assertThat(metricas.get("fasticket.disponibilidad.suscriptores").gauge().value()).isEqualTo(2);
+        assertThat(metricas.get("fasticket.disponibilidad.mensajes").tag("tipo", "cambio").counter().count())
+                .isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Un canal sin cambios recibe latidos")
+    void testLatido() throws Exception {
+        disponibilidad = new DisponibilidadEnVivoService(eventoService, inventarioService, new ObjectMapper(),
+                metricas, 60_000, 0);
+        mockMvc = MockMvcBuilders.standaloneSetup(new EventoController(eventoService, s3Service, disponibilidad,
+                new RespuestaCondicional(new MemoriaAlmacenCatalogo(), 30), portadaCatalogoService)).build();
+        MvcResult stream = abrir();
+        disponibilidad.publicar();
+        disponibilidad.publicar();
+
+        assertThat(stream.getResponse().getContentAsString()).contains(":latido\n");
+    }
+}
@@ -0,0 +1,198 @@
+package pe.edu.pucp.fasticket.service;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import pe.edu.pucp.fasticket.exception.ResourceNotFoundException;
+import pe.edu.pucp.fasticket.model.eventos.EstadoTicket;
+import pe.edu.pucp.fasticket.model.eventos.Evento;
+import pe.edu.pucp.fasticket.model.eventos.ModoEmisionTicket;
+import pe.edu.pucp.fasticket.model.eventos.Ticket;
+import pe.edu.pucp.fasticket.model.eventos.TipoTicket;
+import pe.edu.pucp.fasticket.repository.eventos.TicketRepository;
+import pe.edu.pucp.fasticket.repository.eventos.TipoTicketRepositorio;
+import pe.edu.pucp.fasticket.services.asientos.MapaAsientosService;
+import pe.edu.pucp.fasticket.services.inventario.AsignadorNumeros;
+import pe.edu.pucp.fasticket.services.reservas.MemoriaRegistroReservas;
+import pe.edu.pucp.fasticket.services.reservas.ReservaAsientosService;
+import pe.edu.pucp.fasticket.services.tickets.EmisionTicketService;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Tests de EmisionTicketService")
+class EmisionTicketServiceTest {
+
+    @Mock
+    private TicketRepository ticketRepository;
+    @Mock
+    private TipoTicketRepositorio tipoTicketRepositorio;
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private EmisionTicketService emisionTicketService;
+    private MemoriaRegistroReservas registroReservas;
+    private TipoTicket tipoTicket;
+    private Evento evento;
+
+    @BeforeEach
+    void setUp() {
+        AsignadorNumeros asignador = new AsignadorNumeros(tipoTicketRepositorio, transactionManager, 3);
+        registroReservas = new MemoriaRegistroReservas();
+        emisionTicketService = new EmisionTicketService(ticketRepository, asignador, new MapaAsientosService(ticketRepository),
+                new ReservaAsientosService(registroReservas));
+
+        evento = new Evento();
+        evento.setIdEvento(1);
+        evento.setModoEmisionTicket(ModoEmisionTicket.BAJO_DEMANDA);
+
+        tipoTicket = new TipoTicket();
+        tipoTicket.setIdTipoTicket(1);
+        tipoTicket.setNombre("Campo");
+        tipoTicket.setPrecio(80.0);
+        tipoTicket.setEvento(evento);
+    }
+
+    @Test
+    @DisplayName("Bajo demanda crea tickets reservados con números correlativos")
+    void testObtenerParaReserva_BajoDemanda_CreaTickets() {
+        when(tipoTicketRepositorio.reservarBloqueNumeros(1, 3)).thenReturn(1);
+        when(tipoTicketRepositorio.findUltimoNumeroAsignado(1)).thenReturn(3, 6);
+        when(ticketRepository.saveAll(anyList())).thenAnswer(invocation -> invocation.getArgument(0));
+
+        List<Ticket> primeros = emisionTicketService.obtenerParaReserva(tipoTicket, evento, 2);
+        List<Ticket> siguientes = emisionTicketService.obtenerParaReserva(tipoTicket, evento, 2);
+
+        assertThat(primeros).extracting(Ticket::getAsiento).containsExactly("1", "2");
+        assertThat(siguientes).extracting(Ticket::getAsiento).containsExactly("3", "4");
+        assertThat(primeros).allSatisfy(ticket -> {
+            assertThat(ticket.getEstado()).isEqualTo(EstadoTicket.RESERVADA);
+            assertThat(ticket.getEvento()).isEqualTo(evento);
+            assertThat(ticket.getPrecio()).isEqualTo(80.0);
+        });
+        // Un bloqueo de la fila TipoTicket por cada bloque de 3 números, no por compra
+        verify(tipoTicketRepositorio, times(2)).reservarBloqueNumeros(1, 3);
+        verify(ticketRepository, never()).claimAvailableTicketsByTypeAndState(any(), any(), any());
+    }
+
+    @Test
+    @DisplayName("Un pedido mayor que el bloque reserva todos los números de una vez")
+    void testObtenerParaReserva_PedidoMayorQueBloque() {
+        when(tipoTicketRepositorio.reservarBloqueNumeros(1, 5)).thenReturn(1);
+        when(tipoTicketRepositorio.findUltimoNumeroAsignado(1)).thenReturn(5);
+        when(ticketRepository.saveAll(anyList())).thenAnswer(invocation -> invocation.getArgument(0));
+
+        List<Ticket> tickets = emisionTicketService.obtenerParaReserva(tipoTicket, evento, 5);
+
+        assertThat(tickets).extracting(Ticket::getAsiento).containsExactly("1", "2", "3", "4", "5");
+    }
+
+    @Test
+    @DisplayName("Si el tipo de ticket no existe no se emiten tickets")
+    void testObtenerParaReserva_TipoTicketInexistente() {
+        when(tipoTicketRepositorio.reservarBloqueNumeros(1, 3)).thenReturn(0);
+
+        assertThatThrownBy(() -> emisionTicketService.obtenerParaReserva(tipoTicket, evento, 1))
+                .isInstanceOf(ResourceNotFoundException.class);
+        verify(ticketRepository, never()).saveAll(anyList());
+    }
+
+    @Test
+    @DisplayName("Precreado reclama filas existentes y las marca como reservadas")
+    void testObtenerParaReserva_Precreado_ReclamaFilas() {
+        evento.setModoEmisionTicket(ModoEmisionTicket.PRECREADO);
+        Ticket ticket = new Ticket();
+        ticket.setIdTicket(10);
+        ticket.setEstado(EstadoTicket.DISPONIBLE);
+        when(ticketRepository.findAsientosByTipoTicket(1)).thenReturn(List.<Object[]>of(
+                new Object[] {1, 10, "A", "1", EstadoTicket.DISPONIBLE, true}));
+        when(ticketRepository.claimAvailableTicketsByIds(List.of(10), EstadoTicket.DISPONIBLE)).thenReturn(List.of(ticket));
+
+        List<Ticket> tickets = emisionTicketService.obtenerParaReserva(tipoTicket, evento, 1);
+
+        assertThat(tickets).containsExactly(ticket);
+        assertThat(ticket.getEstado()).isEqualTo(EstadoTicket.RESERVADA);
+        verify(tipoTicketRepositorio, never()).reservarBloqueNumeros(any(), anyInt());
+        verify(ticketRepository, never()).claimAvailableTicketsByTypeAndState(any(), any(), any());
+    }
+
+    @Test
+    @DisplayName("Precreado con el mapa de asientos desactualizado completa con las filas de menor ID")
+    void testObtenerParaReserva_Precreado_MapaDesactualizado() {
+        evento.setModoEmisionTicket(ModoEmisionTicket.PRECREADO);
+        Ticket vendidoEnOtraInstancia = new Ticket();
+        vendidoEnOtraInstancia.setIdTicket(11);
+        Ticket disponible = new Ticket();
+        disponible.setIdTicket(12);
+        disponible.setEstado(EstadoTicket.DISPONIBLE);
+        when(ticketRepository.findAsientosByTipoTicket(1)).thenReturn(List.<Object[]>of(
+                new Object[] {1, 11, "A", "1", EstadoTicket.DISPONIBLE, true},
+                new Object[] {1, 12, "A", "2", EstadoTicket.VENDIDA, true}));
+        when(ticketRepository.claimAvailableTicketsByIds(List.of(11), EstadoTicket.DISPONIBLE)).thenReturn(List.of());
+        when(ticketRepository.claimAvailableTicketsByTypeAndState(any(), any(), any())).thenReturn(List.of(disponible));
+
+        List<Ticket> tickets = emisionTicketService.obtenerParaReserva(tipoTicket, evento, 1);
+
+        assertThat(tickets).containsExactly(disponible);
+        assertThat(disponible.getEstado()).isEqualTo(EstadoTicket.RESERVADA);
+    }
+
+    @Test
+    @DisplayName("Precreado descarta sin reclamar su fila el asiento que otro comprador retuvo en el registro")
+    void testObtenerParaReserva_Precreado_AsientoRetenidoPorOtro() {
+        evento.setModoEmisionTicket(ModoEmisionTicket.PRECREADO);
+        Ticket libre = new Ticket();
+        libre.setIdTicket(21);
+        libre.setEstado(EstadoTicket.DISPONIBLE);
+        when(ticketRepository.findAsientosByTipoTicket(1)).thenReturn(List.<Object[]>of(
+                new Object[] {1, 20, "A", "1", EstadoTicket.DISPONIBLE, true},
+                new Object[] {1, 21, "A", "2", EstadoTicket.DISPONIBLE, true}));
+        // Retenido desde otra instancia, cuyo mapa aún no lo muestra ocupado en esta
+        registroReservas.retener(1, 20, "cliente:8", Duration.ofMinutes(15));
+        when(ticketRepository.claimAvailableTicketsByIds(List.of(21), EstadoTicket.DISPONIBLE)).thenReturn(List.of(libre));
+
+        List<Ticket> tickets = emisionTicketService.obtenerParaReserva(tipoTicket, evento, false, 1, 7,
+                Duration.ofMinutes(15));
+
+        assertThat(tickets).containsExactly(libre);
+        assertThat(registroReservas.titular(1, 20)).contains("cliente:8");
+        assertThat(registroReservas.titular(1, 21)).contains("cliente:7");
+        verify(ticketRepository, never()).claimAvailableTicketsByTypeAndState(any(), any(), any());
+    }
+
+    @Test
+    @DisplayName("Liberar anula el ticket bajo demanda y devuelve a disponible el precreado")
+    void testLiberar() {
+        Ticket bajoDemanda = new Ticket();
+        bajoDemanda.setEvento(evento);
+        bajoDemanda.setEstado(EstadoTicket.RESERVADA);
+        bajoDemanda.setActivo(true);
+
+        Evento eventoPrecreado = new Evento();
+        Ticket precreado = new Ticket();
+        precreado.setEvento(eventoPrecreado);
+        precreado.setEstado(EstadoTicket.RESERVADA);
+
+        emisionTicketService.liberar(bajoDemanda);
+        emisionTicketService.liberar(precreado);
+
+        assertThat(bajoDemanda.getEstado()).isEqualTo(EstadoTicket.ANULADA);
+        assertThat(bajoDemanda.getActivo()).isFalse();
+        assertThat(precreado.getEstado()).isEqualTo(EstadoTicket.DISPONIBLE);
+    }
+}
@@ -0,0 +1,148 @@
+package pe.edu.pucp.fasticket.service;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import pe.edu.pucp.fasticket.dto.StandardResponse;
+import pe.edu.pucp.fasticket.exception.BusinessException;
+import pe.edu.pucp.fasticket.services.idempotencia.IdempotenciaService;
+import pe.edu.pucp.fasticket.services.idempotencia.MemoriaAlmacenIdempotencia;
+import pe.edu.pucp.fasticket.services.idempotencia.RegistroIdempotencia;
+
+@DisplayName("Tests de IdempotenciaService")
+class IdempotenciaServiceTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+    private final AtomicInteger ejecuciones = new AtomicInteger();
+    private IdempotenciaService servicio;
+
+    @BeforeEach
+    void setUp() {
+        servicio = new IdempotenciaService(new MemoriaAlmacenIdempotencia(100), objectMapper, 60, 5, 10);
+    }
+
+    private ResponseEntity<StandardResponse<Integer>> crear(String llave, Object solicitud) {
+        return servicio.ejecutar(llave, "crear", solicitud, Integer.class, () -> ResponseEntity
+                .status(HttpStatus.CREATED)
+                .body(StandardResponse.success("Creado", ejecuciones.incrementAndGet())));
+    }
+
+    @Test
+    @DisplayName("Un reintento con la misma llave devuelve la respuesta guardada sin volver a ejecutar")
+    void testReintentoDevuelveRespuestaGuardada() {
+        ResponseEntity<StandardResponse<Integer>> primera = crear("llave-1", Map.of("idOrden", 7));
+        ResponseEntity<StandardResponse<Integer>> repetida = crear("llave-1", Map.of("idOrden", 7));
+
+        assertThat(ejecuciones).hasValue(1);
+        assertThat(repetida.getStatusCode()).isEqualTo(HttpStatus.CREATED);
+        assertThat(repetida.getBody().getData()).isEqualTo(primera.getBody().getData());
+        assertThat(repetida.getHeaders().getFirst(IdempotenciaService.HEADER_REPETIDA)).isEqualTo("true");
+    }
+
+    @Test
+    @DisplayName("Sin llave cada solicitud se ejecuta")
+    void testSinLlaveSiempreEjecuta() {
+        crear(null, Map.of("idOrden", 7));
+        crear(null, Map.of("idOrden", 7));
+
+        assertThat(ejecuciones).hasValue(2);
+    }
+
+    @Test
+    @DisplayName("La misma llave con otro cuerpo se rechaza")
+    void testLlaveReutilizadaConOtroCuerpo() {
+        crear("llave-1", Map.of("idOrden", 7));
+
+        assertThatThrownBy(() -> crear("llave-1", Map.of("idOrden", 8)))
+                .isInstanceOf(BusinessException.class);
+        assertThat(ejecuciones).hasValue(1);
+    }
+
+    @Test
+    @DisplayName("Si la operación falla, un reintento con la misma llave vuelve a ejecutarla")
+    void testFalloLiberaLlave() {
+        assertThatThrownBy(() -> servicio.ejecutar("llave-1", "crear", Map.of(), Integer.class, () -> {
+            throw new IllegalStateException("sin stock");
+        })).isInstanceOf(IllegalStateException.class);
+
+        crear("llave-1", Map.of());
+
+        assertThat(ejecuciones).hasValue(1);
+    }
+
+    @Test
+    @DisplayName("Un duplicado concurrente espera a la primera ejecución y recibe su respuesta")
+    void testDuplicadoConcurrenteEspera() throws Exception {
+        CountDownLatch enCurso = new CountDownLatch(1);
+        CountDownLatch continuar = new CountDownLatch(1);
+        ExecutorService hilos = Executors.newFixedThreadPool(2);
+        try {
+            Future<ResponseEntity<StandardResponse<Integer>>> primera = hilos.submit(() ->
+                    servicio.ejecutar("llave-1", "crear", Map.of(), Integer.class, () -> {
+                        enCurso.countDown();
+                        try {
+                            continuar.await(5, TimeUnit.SECONDS);
+                        } catch (InterruptedException e) {
+                            Thread.currentThread().interrupt();
+                        }
+                        return ResponseEntity.ok(StandardResponse.success("Creado", ejecuciones.incrementAndGet()));
+                    }));
+            assertThat(enCurso.await(5, TimeUnit.SECONDS)).isTrue();
+            Future<ResponseEntity<StandardResponse<Integer>>> duplicada = hilos.submit(() -> crear("llave-1", Map.of()));
+
+            Thread.sleep(100);
+            assertThat(duplicada.isDone()).isFalse();
+            continuar.countDown();
+
+            assertThat(duplicada.get(5, TimeUnit.SECONDS).getBody().getData())
+                    .isEqualTo(primera.get(5, TimeUnit.SECONDS).getBody().getData());
+            assertThat(ejecuciones).hasValue(1);
+        } finally {
+            hilos.shutdownNow();
+        }
+    }
+
+    @Test
+    @DisplayName("El registro en memoria descarta las entradas vencidas y las menos usadas al llenarse")
+    void testMemoriaVencimientoYLru() {
+        Clock[] reloj = {Clock.fixed(Instant.parse("2026-01-01T00:00:00Z"), ZoneOffset.UTC)};
+        MemoriaAlmacenIdempotencia almacen = new MemoriaAlmacenIdempotencia(2, new Clock() {
+            @Override public ZoneOffset getZone() { return ZoneOffset.UTC; }
+            @Override public Clock withZone(ZoneId zone) { return this; }
+            @Override public Instant instant() { return reloj[0].instant(); }
+        });
+        RegistroIdempotencia respuesta = new RegistroIdempotencia("h", 200, "{}");
+        almacen.completar("a", respuesta, Duration.ofSeconds(10));
+        almacen.completar("b", respuesta, Duration.ofSeconds(60));
+        almacen.obtener("a");
+        almacen.completar("c", respuesta, Duration.ofSeconds(60));
+
+        assertThat(almacen.obtener("b")).isEmpty();
+        assertThat(almacen.obtener("a")).contains(respuesta);
+
+        reloj[0] = Clock.offset(reloj[0], Duration.ofSeconds(11));
+        assertThat(almacen.obtener("a")).isEmpty();
+        assertThat(almacen.reservar("a", "h", Duration.ofSeconds(5))).isTrue();
+        assertThat(almacen.reservar("a", "h", Duration.ofSeconds(5))).isFalse();
+    }
+}
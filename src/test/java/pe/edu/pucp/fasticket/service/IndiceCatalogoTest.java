@@ -0,0 +1,121 @@
+package pe.edu.pucp.fasticket.service;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import pe.edu.pucp.fasticket.events.CatalogoModificadoEvent;
+import pe.edu.pucp.fasticket.exception.ResourceNotFoundException;
+import pe.edu.pucp.fasticket.model.eventos.Evento;
+import pe.edu.pucp.fasticket.model.eventos.ModoEmisionTicket;
+import pe.edu.pucp.fasticket.repository.eventos.EventosRepositorio;
+import pe.edu.pucp.fasticket.repository.eventos.TipoTicketRepositorio;
+import pe.edu.pucp.fasticket.services.eventos.EntradaCatalogo;
+import pe.edu.pucp.fasticket.services.eventos.IndiceCatalogo;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Tests de IndiceCatalogo")
+class IndiceCatalogoTest {
+
+    @Mock
+    private TipoTicketRepositorio tipoTicketRepositorio;
+    @Mock
+    private EventosRepositorio eventosRepositorio;
+
+    private IndiceCatalogo indice;
+
+    @BeforeEach
+    void setUp() {
+        indice = new IndiceCatalogo(tipoTicketRepositorio, eventosRepositorio);
+    }
+
+    private static Object[] fila(Integer idTipoTicket, Double precio, Integer idEvento, String nombreEvento) {
+        return new Object[] {idTipoTicket, "General", precio, 4, 7, idEvento, nombreEvento,
+                LocalDate.of(2026, 12, 1), LocalTime.of(20, 0), 18, ModoEmisionTicket.BAJO_DEMANDA, 3, "Estadio"};
+    }
+
+    @Test
+    @DisplayName("Las consultas después de recargar no tocan la base de datos")
+    void testObtenerDesdeIndice() {
+        when(tipoTicketRepositorio.findCatalogo()).thenReturn(List.<Object[]>of(fila(1, 50.0, 10, "Concierto")));
+        indice.recargar();
+
+        EntradaCatalogo entrada = indice.obtener(1);
+        indice.obtener(1);
+
+        assertThat(entrada.idEvento()).isEqualTo(10);
+        assertThat(entrada.nombreEvento()).isEqualTo("Concierto");
+        assertThat(entrada.edadMinima()).isEqualTo(18);
+        assertThat(entrada.emisionBajoDemanda()).isTrue();
+        assertThat(entrada.nombreLocal()).isEqualTo("Estadio");
+        verify(tipoTicketRepositorio, never()).findCatalogoById(1);
+        verify(tipoTicketRepositorio, never()).findEventoByTipoTicket(1);
+    }
+
+    @Test
+    @DisplayName("Un tipo de ticket nuevo se carga una sola vez y queda en el índice")
+    void testCargaTipoNuevo() {
+        when(tipoTicketRepositorio.findCatalogoById(2)).thenReturn(List.<Object[]>of(fila(2, 80.0, 10, "Concierto")));
+
+        assertThat(indice.obtener(2).precio()).isEqualTo(80.0);
+        assertThat(indice.obtener(2).precio()).isEqualTo(80.0);
+        verify(tipoTicketRepositorio, times(1)).findCatalogoById(2);
+    }
+
+    @Test
+    @DisplayName("Sin relación directa con el evento se resuelve por sus tickets y se conserva al recargar")
+    void testTipoSinEventoDirecto() {
+        Evento evento = new Evento();
+        evento.setIdEvento(20);
+        evento.setNombre("Obra");
+        evento.setModoEmisionTicket(ModoEmisionTicket.PRECREADO);
+        when(tipoTicketRepositorio.findCatalogoById(3)).thenReturn(List.<Object[]>of(fila(3, 30.0, null, null)));
+        when(tipoTicketRepositorio.findEventoByTipoTicket(3)).thenReturn(Optional.of(evento));
+
+        assertThat(indice.obtener(3).idEvento()).isEqualTo(20);
+        assertThat(indice.obtener(3).emisionBajoDemanda()).isFalse();
+
+        when(tipoTicketRepositorio.findCatalogo()).thenReturn(List.<Object[]>of(fila(3, 35.0, null, null)));
+        indice.recargar();
+
+        assertThat(indice.obtener(3).idEvento()).isEqualTo(20);
+        assertThat(indice.obtener(3).precio()).isEqualTo(35.0);
+        verify(tipoTicketRepositorio, times(1)).findEventoByTipoTicket(3);
+    }
+
+    @Test
+    @DisplayName("Al modificarse el catálogo se reemplazan las entradas")
+    void testRecargaAlModificarCatalogo() {
+        when(tipoTicketRepositorio.findCatalogo())
+                .thenReturn(List.<Object[]>of(fila(1, 50.0, 10, "Concierto")))
+                .thenReturn(List.<Object[]>of(fila(1, 50.0, 10, "Concierto reprogramado")));
+        indice.recargar();
+
+        indice.alModificarCatalogo(new CatalogoModificadoEvent("evento 10 actualizado"));
+
+        assertThat(indice.obtener(1).nombreEvento()).isEqualTo("Concierto reprogramado");
+    }
+
+    @Test
+    @DisplayName("Un tipo de ticket inexistente lanza ResourceNotFoundException")
+    void testTipoInexistente() {
+        when(tipoTicketRepositorio.findCatalogoById(9)).thenReturn(List.of());
+
+        assertThatThrownBy(() -> indice.obtener(9)).isInstanceOf(ResourceNotFoundException.class);
+        assertThat(indice.buscar(9)).isEmpty();
+    }
+}
@@ -0,0 +1,289 @@
+package pe.edu.pucp.fasticket.service;
+
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+import static org.mockito.Mockito.when;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import pe.edu.pucp.fasticket.exception.BusinessException;
+import pe.edu.pucp.fasticket.model.eventos.TipoTicket;
+import pe.edu.pucp.fasticket.model.inventario.TipoMovimientoInventario;
+import pe.edu.pucp.fasticket.repository.eventos.EventosRepositorio;
+import pe.edu.pucp.fasticket.repository.eventos.TipoTicketRepositorio;
+import pe.edu.pucp.fasticket.services.inventario.DiarioInventario;
+import pe.edu.pucp.fasticket.services.inventario.InventarioService;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Tests de InventarioService")
+class InventarioServiceTest {
+
+    @Mock
+    private TipoTicketRepositorio tipoTicketRepositorio;
+    @Mock
+    private EventosRepositorio eventosRepositorio;
+    @Mock
+    private DiarioInventario diarioInventario;
+
+    @InjectMocks
+    private InventarioService inventarioService;
+
+    private TipoTicket tipoTicket;
+    private final AtomicInteger avisos = new AtomicInteger();
+
+    @BeforeEach
+    void setUp() {
+        tipoTicket = new TipoTicket();
+        tipoTicket.setIdTipoTicket(1);
+        tipoTicket.setNombre("VIP");
+        tipoTicket.setStock(10);
+        tipoTicket.setCantidadDisponible(10);
+        tipoTicket.setCantidadVendida(0);
+    }
+
+    @Test
+    @DisplayName("Reservar descuenta del disponible sin tocar la base de datos")
+    void testReservar_Exitoso() {
+        inventarioService.reservar(tipoTicket, 3);
+
+        assertThat(inventarioService.disponibles(tipoTicket)).isEqualTo(7);
+        assertThat(inventarioService.vendidos(tipoTicket)).isEqualTo(3);
+        verify(tipoTicketRepositorio, never()).decreaseStock(anyInt(), anyInt());
+        verify(tipoTicketRepositorio, never()).aplicarDeltaInventario(anyInt(), anyInt(), anyInt());
+    }
+
+    @Test
+    @DisplayName("Con tickets precreados, la fila TipoTicket solo la escribe el volcado")
+    void testPrecreado_SoloElVolcadoEscribeLaFila() {
+        when(tipoTicketRepositorio.aplicarDeltaInventario(1, -5, 5)).thenReturn(1);
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            inventarioService.reservar(tipoTicket, 2, false);
+            inventarioService.reservar(tipoTicket, 3, false);
+            TransactionSynchronizationManager.getSynchronizations().forEach(s -> s.beforeCommit(false));
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        verifyNoInteractions(tipoTicketRepositorio);
+
+        inventarioService.volcarPendientes();
+
+        verify(tipoTicketRepositorio).aplicarDeltaInventario(1, -5, 5);
+        verifyNoMoreInteractions(tipoTicketRepositorio);
+    }
+
+    @Test
+    @DisplayName("Bajo demanda la fila se descuenta con el UPDATE condicional justo antes del commit")
+    void testBajoDemanda_DescuentaAntesDelCommit() {
+        when(tipoTicketRepositorio.decreaseStock(1, 2)).thenReturn(1);
+        when(tipoTicketRepositorio.aplicarDeltaInventario(1, 0, 2)).thenReturn(1);
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            assertThat(inventarioService.intentarReservar(tipoTicket, 2, true)).isTrue();
+            verify(tipoTicketRepositorio, never()).decreaseStock(anyInt(), anyInt());
+
+            TransactionSynchronizationManager.getSynchronizations().forEach(s -> s.beforeCommit(false));
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        verify(tipoTicketRepositorio).decreaseStock(1, 2);
+        // El disponible ya quedó descontado en la fila; solo se vuelca lo vendido
+        inventarioService.volcarPendientes();
+        verify(tipoTicketRepositorio).aplicarDeltaInventario(1, 0, 2);
+    }
+
+    @Test
+    @DisplayName("Bajo demanda, si la base ya no tiene stock el commit falla y la reserva se revierte")
+    void testBajoDemanda_RechazadaPorLaBase() {
+        when(tipoTicketRepositorio.decreaseStock(1, 2)).thenReturn(0);
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            assertThat(inventarioService.intentarReservar(tipoTicket, 2, true)).isTrue();
+
+            List<TransactionSynchronization> sincronizaciones = TransactionSynchronizationManager.getSynchronizations();
+            assertThatThrownBy(() -> sincronizaciones.forEach(s -> s.beforeCommit(false)))
+                    .isInstanceOf(BusinessException.class)
+                    .hasMessageContaining("Stock insuficiente");
+            sincronizaciones.forEach(s -> s.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        assertThat(inventarioService.disponibles(tipoTicket)).isEqualTo(10);
+        assertThat(inventarioService.vendidos(tipoTicket)).isZero();
+        inventarioService.volcarPendientes();
+        verify(tipoTicketRepositorio, never()).aplicarDeltaInventario(anyInt(), anyInt(), anyInt());
+    }
+
+    @Test
+    @DisplayName("Sin stock en el contador se rechaza sin ir a la base de datos")
+    void testReservar_SinStockNoConsultaLaBase() {
+        assertThat(inventarioService.intentarReservar(tipoTicket, 11, true)).isFalse();
+
+        verify(tipoTicketRepositorio, never()).decreaseStock(anyInt(), anyInt());
+    }
+
+    @Test
+    @DisplayName("Reservar más que el disponible lanza BusinessException")
+    void testReservar_StockInsuficiente() {
+        assertThatThrownBy(() -> inventarioService.reservar(tipoTicket, 11))
+                .isInstanceOf(BusinessException.class)
+                .hasMessageContaining("Stock insuficiente");
+        assertThat(inventarioService.disponibles(tipoTicket)).isEqualTo(10);
+    }
+
+    @Test
+    @DisplayName("Reservas concurrentes nunca superan el stock disponible")
+    void testReservar_Concurrente() throws Exception {
+        int hilos = 50;
+        ExecutorService pool = Executors.newFixedThreadPool(hilos);
+        CountDownLatch salida = new CountDownLatch(1);
+        CountDownLatch fin = new CountDownLatch(hilos);
+        AtomicInteger admitidas = new AtomicInteger();
+        for (int i = 0; i < hilos; i++) {
+            pool.submit(() -> {
+                try {
+                    salida.await();
+                    inventarioService.reservar(tipoTicket, 1);
+                    admitidas.incrementAndGet();
+                } catch (BusinessException | InterruptedException e) {
+                    // rechazada
+                } finally {
+                    fin.countDown();
+                }
+            });
+        }
+        salida.countDown();
+        assertThat(fin.await(10, TimeUnit.SECONDS)).isTrue();
+        pool.shutdown();
+
+        assertThat(admitidas.get()).isEqualTo(10);
+        assertThat(inventarioService.disponibles(tipoTicket)).isZero();
+    }
+
+    @Test
+    @DisplayName("El volcado aplica los cambios acumulados como un solo incremento")
+    void testVolcarPendientes_AplicaDeltas() {
+        when(tipoTicketRepositorio.aplicarDeltaInventario(1, -2, 2)).thenReturn(1);
+
+        inventarioService.reservar(tipoTicket, 3);
+        inventarioService.liberar(tipoTicket, 1);
+        inventarioService.volcarPendientes();
+        inventarioService.volcarPendientes();
+
+        verify(tipoTicketRepositorio, times(1)).aplicarDeltaInventario(1, -2, 2);
+    }
+
+    @Test
+    @DisplayName("Si el volcado falla, los cambios se reintentan en el siguiente ciclo")
+    void testVolcarPendientes_ErrorReintenta() {
+        when(tipoTicketRepositorio.aplicarDeltaInventario(1, -4, 4))
+                .thenThrow(new RuntimeException("conexión perdida"))
+                .thenReturn(1);
+
+        inventarioService.reservar(tipoTicket, 4);
+        inventarioService.volcarPendientes();
+        inventarioService.volcarPendientes();
+
+        verify(tipoTicketRepositorio, times(2)).aplicarDeltaInventario(1, -4, 4);
+    }
+
+    @Test
+    @DisplayName("Reservar y liberar quedan en el diario y mueven el aforo del evento")
+    void testDiarioYAforo() {
+        when(diarioInventario.eventoDe(1)).thenReturn(20);
+        when(eventosRepositorio.aplicarDeltaAforo(20, -2)).thenReturn(1);
+        when(tipoTicketRepositorio.aplicarDeltaInventario(1, -2, 2)).thenReturn(1);
+
+        inventarioService.reservar(tipoTicket, 3);
+        inventarioService.liberar(tipoTicket, 1);
+        inventarioService.volcarPendientes();
+
+        verify(diarioInventario).registrar(TipoMovimientoInventario.RESERVA, 1, 20, 3, -3, 3);
+        verify(diarioInventario).registrar(TipoMovimientoInventario.LIBERACION, 1, 20, 1, 1, -1);
+        verify(eventosRepositorio, times(1)).aplicarDeltaAforo(20, -2);
+    }
+
+    @Test
+    @DisplayName("Una reserva rechazada no queda en el diario")
+    void testReservaRechazadaNoSeRegistra() {
+        assertThat(inventarioService.intentarReservar(tipoTicket, 11)).isFalse();
+
+        verify(diarioInventario, never()).registrar(any(), any(), any(), anyInt(), anyInt(), anyInt());
+    }
+
+    @Test
+    @DisplayName("Reconstruir carga los contadores desde la base de datos")
+    void testReconstruir() {
+        when(tipoTicketRepositorio.findContadoresInventario())
+                .thenReturn(List.<Object[]>of(new Object[] {1, 4, 6}));
+
+        inventarioService.reconstruir();
+
+        assertThat(inventarioService.disponibles(tipoTicket)).isEqualTo(4);
+        assertThat(inventarioService.vendidos(tipoTicket)).isEqualTo(6);
+    }
+
+    @Test
+    @DisplayName("Resincronizar toma lo que vendieron otras instancias y conserva lo que falta volcar")
+    void testResincronizar() {
+        inventarioService.observar(idTipo -> avisos.incrementAndGet());
+        inventarioService.reservar(tipoTicket, 2);
+        inventarioService.liberar(tipoTicket, 1);
+        when(tipoTicketRepositorio.aplicarDeltaInventario(1, -1, 1))
+                .thenThrow(new RuntimeException("conexión perdida"));
+        // Otra instancia vendió y volcó 5; lo de esta sigue pendiente
+        when(tipoTicketRepositorio.findContadoresInventario())
+                .thenReturn(List.<Object[]>of(new Object[] {1, 5, 5}));
+        avisos.set(0);
+
+        inventarioService.resincronizar();
+
+        assertThat(inventarioService.disponibles(tipoTicket)).isEqualTo(4);
+        assertThat(inventarioService.vendidos(tipoTicket)).isEqualTo(6);
+        assertThat(avisos.get()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Reproyectar conserva los cambios hechos mientras corre")
+    void testReproyectar_ConservaCambiosPendientes() {
+        when(tipoTicketRepositorio.aplicarDeltaInventario(1, -3, 3)).thenReturn(1);
+        when(tipoTicketRepositorio.aplicarDeltaInventario(1, 1, -1)).thenReturn(1);
+        inventarioService.reservar(tipoTicket, 3);
+        when(diarioInventario.reproyectar()).thenAnswer(invocation -> {
+            inventarioService.liberar(tipoTicket, 1);
+            return 1;
+        });
+        when(tipoTicketRepositorio.findContadoresInventario())
+                .thenReturn(List.<Object[]>of(new Object[] {1, 7, 3}));
+
+        assertThat(inventarioService.reproyectar()).isEqualTo(1);
+
+        assertThat(inventarioService.disponibles(tipoTicket)).isEqualTo(8);
+        assertThat(inventarioService.vendidos(tipoTicket)).isEqualTo(2);
+        inventarioService.volcarPendientes();
+        verify(tipoTicketRepositorio).aplicarDeltaInventario(1, 1, -1);
+    }
+}
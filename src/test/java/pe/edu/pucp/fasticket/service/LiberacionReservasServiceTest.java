@@ -0,0 +1,335 @@
+package pe.edu.pucp.fasticket.service;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import lombok.extern.slf4j.Slf4j;
+import pe.edu.pucp.fasticket.config.TestConfig;
+import pe.edu.pucp.fasticket.dto.compra.CrearOrdenDTO;
+import pe.edu.pucp.fasticket.dto.compra.DatosAsistenteDTO;
+import pe.edu.pucp.fasticket.dto.compra.ItemSeleccionadoDTO;
+import pe.edu.pucp.fasticket.exception.BusinessException;
+import pe.edu.pucp.fasticket.model.compra.EstadoCompra;
+import pe.edu.pucp.fasticket.model.compra.ItemCarrito;
+import pe.edu.pucp.fasticket.model.eventos.EstadoTicket;
+import pe.edu.pucp.fasticket.model.eventos.Evento;
+import pe.edu.pucp.fasticket.model.eventos.Local;
+import pe.edu.pucp.fasticket.model.eventos.ModoEmisionTicket;
+import pe.edu.pucp.fasticket.model.eventos.Ticket;
+import pe.edu.pucp.fasticket.model.eventos.TipoTicket;
+import pe.edu.pucp.fasticket.model.eventos.Zona;
+import pe.edu.pucp.fasticket.model.fidelizacion.TipoMembresia;
+import pe.edu.pucp.fasticket.model.usuario.Cliente;
+import pe.edu.pucp.fasticket.model.usuario.Rol;
+import pe.edu.pucp.fasticket.model.usuario.TipoDocumento;
+import pe.edu.pucp.fasticket.repository.compra.OrdenCompraRepositorio;
+import pe.edu.pucp.fasticket.repository.eventos.EventosRepositorio;
+import pe.edu.pucp.fasticket.repository.eventos.LocalesRepositorio;
+import pe.edu.pucp.fasticket.repository.eventos.TipoTicketRepositorio;
+import pe.edu.pucp.fasticket.repository.eventos.ZonaRepositorio;
+import pe.edu.pucp.fasticket.repository.usuario.ClienteRepository;
+import pe.edu.pucp.fasticket.services.compra.OrdenServicio;
+import pe.edu.pucp.fasticket.services.expiracion.LiberacionReservasService;
+import pe.edu.pucp.fasticket.services.inventario.InventarioService;
+import pe.edu.pucp.fasticket.services.reservas.RegistroReservas;
+import pe.edu.pucp.fasticket.services.tickets.EmisionTicketService;
+
+/**
+ * Las órdenes, items y tickets se insertan con JDBC (IDs desde {@link #ID_BASE}) para poder
+ * preparar cien mil tickets en el benchmark. No es @Transactional porque el servicio
+ * bloquea y actualiza en su propia transacción; los datos se limpian al terminar.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@Import(TestConfig.class)
+@DisplayName("Tests de LiberacionReservasService")
+@Slf4j(topic = "fasticket.benchmark")
+class LiberacionReservasServiceTest {
+
+    private static final int ID_BASE = 5_000_000;
+
+    @Autowired private LiberacionReservasService liberacionReservasService;
+    @Autowired private InventarioService inventarioService;
+    @Autowired private EmisionTicketService emisionTicketService;
+    @Autowired private OrdenCompraRepositorio ordenCompraRepositorio;
+    @Autowired private OrdenServicio ordenServicio;
+    @Autowired private TipoTicketRepositorio tipoTicketRepositorio;
+    @Autowired private ZonaRepositorio zonaRepositorio;
+    @Autowired private EventosRepositorio eventosRepositorio;
+    @Autowired private LocalesRepositorio localesRepositorio;
+    @Autowired private ClienteRepository clienteRepository;
+    @Autowired private JdbcTemplate jdbcTemplate;
+    @Autowired private RegistroReservas registroReservas;
+    @Autowired private PlatformTransactionManager transactionManager;
+
+    private Local local;
+    private Zona zona;
+    private Evento eventoPrecreado;
+    private Evento eventoBajoDemanda;
+    private TipoTicket tipoPrecreado;
+    private TipoTicket tipoBajoDemanda;
+    private Cliente cliente;
+    private int siguienteOrden = ID_BASE;
+    private int siguienteTicket = ID_BASE;
+
+    @BeforeEach
+    void setUp() {
+        local = new Local();
+        local.setNombre("Arena Vencimientos");
+        local.setDireccion("Av. Expiración 100");
+        local.setAforoTotal(1000);
+        local.setActivo(true);
+        local = localesRepositorio.save(local);
+
+        eventoPrecreado = crearEvento("Concierto Precreado", ModoEmisionTicket.PRECREADO);
+        eventoBajoDemanda = crearEvento("Festival Bajo Demanda", ModoEmisionTicket.BAJO_DEMANDA);
+
+        zona = new Zona();
+        zona.setNombre("Campo Vencimientos");
+        zona.setAforoMax(1000);
+        zona.setActivo(true);
+        zona.setLocal(local);
+        zona = zonaRepositorio.save(zona);
+
+        tipoPrecreado = crearTipo("General Precreado", eventoPrecreado);
+        tipoBajoDemanda = crearTipo("General Bajo Demanda", eventoBajoDemanda);
+
+        Cliente nuevo = new Cliente();
+        nuevo.setNombres("Cliente");
+        nuevo.setApellidos("Vencido");
+        nuevo.setTipoDocumento(TipoDocumento.DNI);
+        nuevo.setDocIdentidad("70000001");
+        nuevo.setEmail("vencimientos.test@pucp.edu.pe");
+        nuevo.setContrasena("clave123");
+        nuevo.setRol(Rol.CLIENTE);
+        nuevo.setNivel(TipoMembresia.BRONCE);
+        cliente = clienteRepository.save(nuevo);
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.update("DELETE FROM ticket WHERE id_ticket >= ?", ID_BASE);
+        jdbcTemplate.update("DELETE FROM item_carrito WHERE id_item_carrito >= ?", ID_BASE);
+        jdbcTemplate.update("DELETE FROM orden_compra WHERE id_orden_compra >= ?", ID_BASE);
+        inventarioService.olvidar(tipoPrecreado.getIdTipoTicket());
+        inventarioService.olvidar(tipoBajoDemanda.getIdTipoTicket());
+        tipoTicketRepositorio.deleteById(tipoPrecreado.getIdTipoTicket());
+        tipoTicketRepositorio.deleteById(tipoBajoDemanda.getIdTipoTicket());
+        zonaRepositorio.deleteById(zona.getIdZona());
+        eventosRepositorio.deleteById(eventoPrecreado.getIdEvento());
+        eventosRepositorio.deleteById(eventoBajoDemanda.getIdEvento());
+        localesRepositorio.deleteById(local.getIdLocal());
+        clienteRepository.deleteById(cliente.getIdPersona());
+    }
+
+    @Test
+    @DisplayName("Solo se liberan las órdenes PENDIENTE vencidas, según el modo de emisión del evento")
+    void testLiberarOrdenesExpiradas() {
+        LocalDateTime vencida = LocalDateTime.now().minusMinutes(1);
+        List<Integer> precreada = insertarOrdenes(1, 2, tipoPrecreado, eventoPrecreado, EstadoCompra.PENDIENTE, vencida);
+        List<Integer> bajoDemanda = insertarOrdenes(1, 1, tipoBajoDemanda, eventoBajoDemanda, EstadoCompra.PENDIENTE, vencida);
+        List<Integer> vigente = insertarOrdenes(1, 1, tipoPrecreado, eventoPrecreado,
+                EstadoCompra.PENDIENTE, LocalDateTime.now().plusMinutes(10));
+        List<Integer> pagada = insertarOrdenes(1, 1, tipoPrecreado, eventoPrecreado, EstadoCompra.APROBADO, vencida);
+        int disponiblesAntes = inventarioService.disponibles(tipoPrecreado);
+        List<Integer> ticketsPrecreada = jdbcTemplate.queryForList(
+                "SELECT id_ticket FROM ticket WHERE id_orden_compra = ?", Integer.class, precreada.get(0));
+        registroReservas.retener(tipoPrecreado.getIdTipoTicket(), ticketsPrecreada, "cliente:" + cliente.getIdPersona(),
+                Duration.ofMinutes(15));
+
+        List<Integer> todas = new ArrayList<>();
+        List.of(precreada, bajoDemanda, vigente, pagada).forEach(todas::addAll);
+        int liberados = liberacionReservasService.liberarOrdenesExpiradas(todas);
+
+        assertThat(liberados).isEqualTo(3);
+        assertThat(estadoOrden(precreada.get(0))).isEqualTo(EstadoCompra.RECHAZADO.name());
+        assertThat(estadoOrden(bajoDemanda.get(0))).isEqualTo(EstadoCompra.RECHAZADO.name());
+        assertThat(estadoOrden(vigente.get(0))).isEqualTo(EstadoCompra.PENDIENTE.name());
+        assertThat(estadoOrden(pagada.get(0))).isEqualTo(EstadoCompra.APROBADO.name());
+
+        assertThat(ticketsPrecreada).hasSize(2);
+        assertThat(jdbcTemplate.queryForList("SELECT estado FROM ticket WHERE id_ticket IN (?, ?) "
+                        + "AND id_orden_compra IS NULL AND id_item_carrito IS NULL AND id_cliente IS NULL",
+                String.class, ticketsPrecreada.toArray())).containsExactly("DISPONIBLE", "DISPONIBLE");
+        assertThat(jdbcTemplate.queryForList(
+                "SELECT estado FROM ticket WHERE id_orden_compra = ? AND activo = FALSE",
+                String.class, bajoDemanda.get(0))).containsExactly("ANULADA");
+        assertThat(jdbcTemplate.queryForList("SELECT estado FROM ticket WHERE id_orden_compra = ?",
+                String.class, vigente.get(0))).containsExactly("RESERVADA");
+        assertThat(inventarioService.disponibles(tipoPrecreado)).isEqualTo(disponiblesAntes + 2);
+        assertThat(registroReservas.retenidos(tipoPrecreado.getIdTipoTicket())).isEmpty();
+
+        assertThat(liberacionReservasService.liberarOrdenesExpiradas(todas)).isZero();
+    }
+
+    @Test
+    @DisplayName("Una orden vencida y liberada ya no se puede cancelar: no se devuelve el inventario dos veces")
+    void testCancelarOrdenVencida() {
+        List<Integer> vencida = insertarOrdenes(1, 2, tipoPrecreado, eventoPrecreado, EstadoCompra.PENDIENTE,
+                LocalDateTime.now().minusMinutes(1));
+        int disponiblesAntes = inventarioService.disponibles(tipoPrecreado);
+        assertThat(liberacionReservasService.liberarOrdenesExpiradas(vencida)).isEqualTo(2);
+
+        assertThatThrownBy(() -> ordenServicio.cancelarOrden(vencida.get(0))).isInstanceOf(BusinessException.class);
+
+        assertThat(estadoOrden(vencida.get(0))).isEqualTo(EstadoCompra.RECHAZADO.name());
+        assertThat(inventarioService.disponibles(tipoPrecreado)).isEqualTo(disponiblesAntes + 2);
+    }
+
+    @Test
+    @DisplayName("Bajo demanda no se emite si otra instancia ya vendió el stock que esta aún ve disponible")
+    void testBajoDemanda_SinStockEnLaBase() {
+        assertThat(inventarioService.disponibles(tipoBajoDemanda)).isEqualTo(900);
+        jdbcTemplate.update("UPDATE tipo_ticket SET cantidad_disponible = 0 WHERE id_tipo_ticket = ?",
+                tipoBajoDemanda.getIdTipoTicket());
+
+        DatosAsistenteDTO asistente = new DatosAsistenteDTO();
+        asistente.setTipoDocumento(TipoDocumento.DNI);
+        asistente.setNumeroDocumento("70000002");
+        asistente.setNombres("Asistente");
+        asistente.setApellidos("Tardío");
+        ItemSeleccionadoDTO item = new ItemSeleccionadoDTO();
+        item.setIdTipoTicket(tipoBajoDemanda.getIdTipoTicket());
+        item.setCantidad(1);
+        item.setAsistentes(List.of(asistente));
+        CrearOrdenDTO orden = new CrearOrdenDTO();
+        orden.setIdCliente(cliente.getIdPersona());
+        orden.setItems(List.of(item));
+
+        assertThatThrownBy(() -> ordenServicio.crearOrden(orden))
+                .isInstanceOf(BusinessException.class)
+                .hasMessageContaining("Stock insuficiente");
+
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM ticket WHERE id_tipo_ticket = ?",
+                Integer.class, tipoBajoDemanda.getIdTipoTicket())).isZero();
+        assertThat(inventarioService.disponibles(tipoBajoDemanda)).isEqualTo(900);
+    }
+
+    /**
+     * Libera 100k tickets vencidos (10k órdenes de 10 tickets) en lotes de 100 órdenes y compara
+     * con la liberación por entidades que hacía la tarea programada.
+     * Ejecutar con: mvn test -Pbenchmark -Dtest=LiberacionReservasServiceTest
+     */
+    @Test
+    @Tag("benchmark")
+    @DisplayName("Benchmark: liberar 100k tickets vencidos, sentencias masivas vs entidades")
+    void benchmarkLiberar100kTickets() {
+        int ordenes = 10_000;
+        int ticketsPorOrden = 10;
+        int lote = 100;
+        LocalDateTime vencida = LocalDateTime.now().minusMinutes(1);
+
+        List<Integer> ids = insertarOrdenes(ordenes, ticketsPorOrden, tipoPrecreado, eventoPrecreado,
+                EstadoCompra.PENDIENTE, vencida);
+        long inicio = System.nanoTime();
+        for (int i = 0; i < ids.size(); i += lote) {
+            liberacionReservasService.liberarOrdenesExpiradas(ids.subList(i, Math.min(i + lote, ids.size())));
+        }
+        reportar("sentencias masivas", ordenes * ticketsPorOrden, System.nanoTime() - inicio);
+        assertThat(jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM ticket WHERE id_ticket >= ? AND estado = 'DISPONIBLE'", Integer.class, ID_BASE))
+                .isEqualTo(ordenes * ticketsPorOrden);
+
+        List<Integer> idsEntidades = insertarOrdenes(ordenes, ticketsPorOrden, tipoPrecreado, eventoPrecreado,
+                EstadoCompra.PENDIENTE, vencida);
+        TransactionTemplate transaccion = new TransactionTemplate(transactionManager);
+        inicio = System.nanoTime();
+        for (int i = 0; i < idsEntidades.size(); i += lote) {
+            List<Integer> loteIds = idsEntidades.subList(i, Math.min(i + lote, idsEntidades.size()));
+            transaccion.executeWithoutResult(status -> ordenCompraRepositorio.findAllById(loteIds).forEach(orden -> {
+                orden.setEstado(EstadoCompra.RECHAZADO);
+                for (ItemCarrito item : orden.getItems()) {
+                    for (Ticket ticket : item.getTickets()) {
+                        emisionTicketService.liberar(ticket);
+                        ticket.setItemCarrito(null);
+                    }
+                    inventarioService.liberar(item.getTipoTicket(), item.getCantidad());
+                }
+            }));
+        }
+        reportar("entidades", ordenes * ticketsPorOrden, System.nanoTime() - inicio);
+    }
+
+    private static void reportar(String nombre, int tickets, long nanos) {
+        log.info("[benchmark] {}: {} tickets en {} ms ({} tickets/seg)", nombre, tickets, nanos / 1_000_000,
+                Math.round(tickets / (nanos / 1_000_000_000.0)));
+    }
+
+    /**
+     * Inserta órdenes de un item cada una, con {@code ticketsPorOrden} tickets RESERVADA.
+     *
+     * @return IDs de las órdenes
+     */
+    private List<Integer> insertarOrdenes(int cantidad, int ticketsPorOrden, TipoTicket tipo, Evento evento,
+                                          EstadoCompra estado, LocalDateTime vence) {
+        List<Integer> ids = IntStream.range(0, cantidad).map(i -> siguienteOrden++).boxed().toList();
+        List<Object[]> ordenes = new ArrayList<>();
+        List<Object[]> items = new ArrayList<>();
+        List<Object[]> tickets = new ArrayList<>();
+        for (Integer id : ids) {
+            ordenes.add(new Object[] {id, estado.name(), Timestamp.valueOf(vence), cliente.getIdPersona()});
+            items.add(new Object[] {id, ticketsPorOrden, tipo.getPrecio(), id, tipo.getIdTipoTicket()});
+            for (int t = 0; t < ticketsPorOrden; t++) {
+                int idTicket = siguienteTicket++;
+                tickets.add(new Object[] {idTicket, tipo.getPrecio(), evento.getIdEvento(), tipo.getIdTipoTicket(),
+                        id, id, cliente.getIdPersona(), "vencimiento-" + idTicket});
+            }
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO orden_compra (id_orden_compra, estado, fecha_expiracion, id_cliente, "
+                + "activo, total) VALUES (?, ?, ?, ?, TRUE, 0)", ordenes);
+        jdbcTemplate.batchUpdate("INSERT INTO item_carrito (id_item_carrito, cantidad, precio, id_orden_compra, "
+                + "id_tipo_ticket, activo) VALUES (?, ?, ?, ?, ?, TRUE)", items);
+        jdbcTemplate.batchUpdate("INSERT INTO ticket (id_ticket, precio, estado, activo, id_evento, id_tipo_ticket, "
+                + "id_item_carrito, id_orden_compra, id_cliente, codigo_qr, contador_transferencias) "
+                + "VALUES (?, ?, 'RESERVADA', TRUE, ?, ?, ?, ?, ?, ?, 0)", tickets);
+        return ids;
+    }
+
+    private String estadoOrden(Integer id) {
+        return jdbcTemplate.queryForObject("SELECT estado FROM orden_compra WHERE id_orden_compra = ?", String.class, id);
+    }
+
+    private Evento crearEvento(String nombre, ModoEmisionTicket modo) {
+        Evento evento = new Evento();
+        evento.setNombre(nombre);
+        evento.setFechaEvento(LocalDate.now().plusMonths(1));
+        evento.setHoraInicio(LocalTime.of(20, 0));
+        evento.setActivo(true);
+        evento.setLocal(local);
+        evento.setModoEmisionTicket(modo);
+        return eventosRepositorio.save(evento);
+    }
+
+    private TipoTicket crearTipo(String nombre, Evento evento) {
+        TipoTicket tipo = new TipoTicket();
+        tipo.setNombre(nombre);
+        tipo.setPrecio(80.0);
+        tipo.setStock(1000);
+        tipo.setCantidadDisponible(900);
+        tipo.setZona(zona);
+        tipo.setEvento(evento);
+        tipo.setActivo(true);
+        return tipoTicketRepositorio.save(tipo);
+    }
+}
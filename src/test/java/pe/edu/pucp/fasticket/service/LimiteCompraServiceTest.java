@@ -0,0 +1,199 @@
+package pe.edu.pucp.fasticket.service;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import pe.edu.pucp.fasticket.exception.BusinessException;
+import pe.edu.pucp.fasticket.model.eventos.TipoTicket;
+import pe.edu.pucp.fasticket.repository.eventos.TicketRepository;
+import pe.edu.pucp.fasticket.services.eventos.EntradaCatalogo;
+import pe.edu.pucp.fasticket.services.eventos.IndiceCatalogo;
+import pe.edu.pucp.fasticket.services.inventario.LimiteCompraService;
+import pe.edu.pucp.fasticket.services.inventario.MemoriaAlmacenLimiteCompra;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Tests de LimiteCompraService")
+class LimiteCompraServiceTest {
+
+    @Mock
+    private TicketRepository ticketRepository;
+    @Mock
+    private IndiceCatalogo indiceCatalogo;
+
+    private final Clock[] reloj = {Clock.fixed(Instant.parse("2026-01-01T00:00:00Z"), ZoneOffset.UTC)};
+
+    private LimiteCompraService limiteCompraService;
+    private TipoTicket tipoTicket;
+
+    @BeforeEach
+    void setUp() {
+        limiteCompraService = new LimiteCompraService(ticketRepository, almacen(100), indiceCatalogo);
+        tipoTicket = new TipoTicket();
+        tipoTicket.setIdTipoTicket(1);
+        tipoTicket.setNombre("VIP");
+        tipoTicket.setLimitePorPersona(4);
+    }
+
+    @Test
+    @DisplayName("El conteo de la base de datos se lee una sola vez por cliente y tipo de ticket")
+    void testCuentaUnaSolaVez() {
+        when(ticketRepository.countTicketsByClienteAndTipoTicket(7, 1)).thenReturn(1);
+
+        limiteCompraService.reservar(tipoTicket, 7, 1);
+        limiteCompraService.reservar(tipoTicket, 7, 2);
+
+        assertThat(limiteCompraService.comprados(1, 7)).isEqualTo(4);
+        assertThatThrownBy(() -> limiteCompraService.reservar(tipoTicket, 7, 1))
+                .isInstanceOf(BusinessException.class)
+                .hasMessageContaining("Ya has comprado 4");
+        verify(ticketRepository, times(1)).countTicketsByClienteAndTipoTicket(7, 1);
+    }
+
+    @Test
+    @DisplayName("Las liberaciones devuelven cupo y no inicializan contadores")
+    void testLiberarDevuelveCupo() {
+        when(ticketRepository.countTicketsByClienteAndTipoTicket(7, 1)).thenReturn(4);
+        when(indiceCatalogo.buscar(1)).thenReturn(Optional.of(entrada(4)));
+        limiteCompraService.comprados(1, 7);
+
+        limiteCompraService.liberar(1, 8, 2);
+        limiteCompraService.liberar(1, 7, 2);
+        limiteCompraService.reservar(tipoTicket, 7, 2);
+
+        assertThat(limiteCompraService.comprados(1, 7)).isEqualTo(4);
+        verify(ticketRepository, never()).countTicketsByClienteAndTipoTicket(8, 1);
+    }
+
+    @Test
+    @DisplayName("Sin límite por persona, reservar y liberar no cuentan nada")
+    void testSinLimiteNoCuenta() {
+        tipoTicket.setLimitePorPersona(null);
+        when(indiceCatalogo.buscar(1)).thenReturn(Optional.of(entrada(0)));
+
+        limiteCompraService.reservar(tipoTicket, 7, 50);
+        limiteCompraService.liberar(1, 7, 50);
+
+        verifyNoInteractions(ticketRepository);
+    }
+
+    @Test
+    @DisplayName("Compras simultáneas del mismo cliente no superan juntas el límite")
+    void testComprasSimultaneasRespetanLimite() throws Exception {
+        when(ticketRepository.countTicketsByClienteAndTipoTicket(7, 1)).thenReturn(0);
+        limiteCompraService.comprados(1, 7);
+
+        ExecutorService hilos = Executors.newFixedThreadPool(8);
+        try {
+            List<Callable<Boolean>> compras = new ArrayList<>();
+            for (int i = 0; i < 20; i++) {
+                compras.add(() -> {
+                    try {
+                        limiteCompraService.reservar(tipoTicket, 7, 1);
+                        return true;
+                    } catch (BusinessException e) {
+                        return false;
+                    }
+                });
+            }
+            int aceptadas = 0;
+            for (Future<Boolean> compra : hilos.invokeAll(compras)) {
+                aceptadas += compra.get() ? 1 : 0;
+            }
+
+            assertThat(aceptadas).isEqualTo(4);
+            assertThat(limiteCompraService.comprados(1, 7)).isEqualTo(4);
+        } finally {
+            hilos.shutdownNow();
+        }
+    }
+
+    @Test
+    @DisplayName("Si la transacción se revierte, la reserva deja de contar")
+    void testRollbackCompensa() {
+        when(ticketRepository.countTicketsByClienteAndTipoTicket(7, 1)).thenReturn(0);
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            limiteCompraService.reservar(tipoTicket, 7, 3);
+            assertThat(limiteCompraService.comprados(1, 7)).isEqualTo(3);
+
+            TransactionSynchronizationManager.getSynchronizations()
+                    .forEach(s -> s.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        assertThat(limiteCompraService.comprados(1, 7)).isZero();
+    }
+
+    @Test
+    @DisplayName("Un contador sin uso vence y se vuelve a contar en la base de datos")
+    void testContadorVencidoSeRecuenta() {
+        when(ticketRepository.countTicketsByClienteAndTipoTicket(7, 1)).thenReturn(3, 1);
+        limiteCompraService.reservar(tipoTicket, 7, 1);
+
+        reloj[0] = Clock.offset(reloj[0], Duration.ofMinutes(29));
+        assertThat(limiteCompraService.comprados(1, 7)).isEqualTo(4);
+
+        reloj[0] = Clock.offset(reloj[0], Duration.ofMinutes(31));
+        limiteCompraService.reservar(tipoTicket, 7, 3);
+
+        assertThat(limiteCompraService.comprados(1, 7)).isEqualTo(4);
+        verify(ticketRepository, times(2)).countTicketsByClienteAndTipoTicket(7, 1);
+    }
+
+    @Test
+    @DisplayName("El almacén en memoria descarta los contadores menos usados al llenarse")
+    void testCapacidadAcotada() {
+        limiteCompraService = new LimiteCompraService(ticketRepository, almacen(2), indiceCatalogo);
+        when(ticketRepository.countTicketsByClienteAndTipoTicket(7, 1)).thenReturn(0);
+        when(ticketRepository.countTicketsByClienteAndTipoTicket(8, 1)).thenReturn(0);
+        when(ticketRepository.countTicketsByClienteAndTipoTicket(9, 1)).thenReturn(0);
+
+        limiteCompraService.reservar(tipoTicket, 7, 1);
+        limiteCompraService.reservar(tipoTicket, 8, 1);
+        limiteCompraService.reservar(tipoTicket, 7, 1);
+        limiteCompraService.reservar(tipoTicket, 9, 1);
+        limiteCompraService.comprados(1, 8);
+
+        verify(ticketRepository, times(1)).countTicketsByClienteAndTipoTicket(7, 1);
+        verify(ticketRepository, times(2)).countTicketsByClienteAndTipoTicket(8, 1);
+    }
+
+    private MemoriaAlmacenLimiteCompra almacen(int capacidad) {
+        return new MemoriaAlmacenLimiteCompra(capacidad, Duration.ofMinutes(30), new Clock() {
+            @Override public ZoneOffset getZone() { return ZoneOffset.UTC; }
+            @Override public Clock withZone(ZoneId zone) { return this; }
+            @Override public Instant instant() { return reloj[0].instant(); }
+        });
+    }
+
+    private static EntradaCatalogo entrada(Integer limitePorPersona) {
+        return new EntradaCatalogo(1, "VIP", 100.0, limitePorPersona, 1, 1, "Evento", null, null, null, false, 1, "Local");
+    }
+}
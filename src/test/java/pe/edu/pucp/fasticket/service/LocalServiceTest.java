@@ -1,5 +1,6 @@
 package pe.edu.pucp.fasticket.service;
 
+import java.util.ArrayList;
 import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
@@ -16,6 +17,7 @@ import org.springframework.test.context.ActiveProfiles;
 import org.springframework.transaction.annotation.Transactional;
 
 import pe.edu.pucp.fasticket.config.TestConfig;
+import pe.edu.pucp.fasticket.dto.PaginaCursor;
 import pe.edu.pucp.fasticket.dto.eventos.LocalCreateDTO;
 import pe.edu.pucp.fasticket.dto.eventos.LocalResponseDTO;
 import pe.edu.pucp.fasticket.exception.BusinessException;
@@ -126,12 +128,38 @@ public class LocalServiceTest {
         localService.crear(dto2);
 
         // Act
-        List<LocalResponseDTO> locales = localService.listarTodos();
+        List<LocalResponseDTO> locales = localService.listarTodos(null, null).elementos();
 
         // Assert
         assertTrue(locales.size() >= 2);
     }
 
+    @Test
+    void testListarLocales_PaginadoPorCursor() {
+        // Arrange - Crear tres locales
+        for (int i = 1; i <= 3; i++) {
+            LocalCreateDTO dto = new LocalCreateDTO();
+            dto.setNombre("Local Paginado " + i);
+            dto.setAforoTotal(1000 * i);
+            localService.crear(dto);
+        }
+
+        // Act - Recorrer todas las páginas de a dos
+        List<Integer> ids = new ArrayList<>();
+        String cursor = null;
+        do {
+            PaginaCursor<LocalResponseDTO> pagina = localService.listarTodos(cursor, 2);
+            assertTrue(pagina.elementos().size() <= 2);
+            pagina.elementos().forEach(local -> ids.add(local.getIdLocal()));
+            cursor = pagina.siguienteCursor();
+        } while (cursor != null);
+
+        // Assert - Cada local aparece una sola vez, en orden de ID
+        assertEquals(ids.stream().sorted().distinct().toList(), ids);
+        assertTrue(ids.size() >= 3);
+        assertThrows(IllegalArgumentException.class, () -> localService.listarTodos("no-es-un-cursor", 2));
+    }
+
     @Test
     void testActualizarLocal_Exitoso() {
         // Arrange - Crear local
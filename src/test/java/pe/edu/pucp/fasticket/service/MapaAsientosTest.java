@@ -0,0 +1,114 @@
+package pe.edu.pucp.fasticket.service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import lombok.extern.slf4j.Slf4j;
+import pe.edu.pucp.fasticket.services.asientos.MapaAsientos;
+import pe.edu.pucp.fasticket.services.asientos.MapaAsientos.Asiento;
+
+@DisplayName("Tests de MapaAsientos")
+@Slf4j(topic = "fasticket.benchmark")
+class MapaAsientosTest {
+
+    // idTicket = fila * 100 + asiento, con filas 1..filas y asientos 1..asientosPorFila
+    private static List<Asiento> sala(int filas, int asientosPorFila, List<Integer> ocupados) {
+        List<Asiento> asientos = new ArrayList<>();
+        for (int fila = filas; fila >= 1; fila--) {
+            for (int asiento = asientosPorFila; asiento >= 1; asiento--) {
+                int id = fila * 100 + asiento;
+                asientos.add(new Asiento(id, String.valueOf(fila), String.valueOf(asiento), !ocupados.contains(id)));
+            }
+        }
+        return asientos;
+    }
+
+    @Test
+    @DisplayName("Elige el bloque contiguo más centrado de la primera fila que lo tiene")
+    void testBloqueCentradoEnPrimeraFila() {
+        MapaAsientos mapa = MapaAsientos.construir(sala(3, 10, List.of(105, 106)));
+
+        assertThat(mapa.buscarMejores(2)).containsExactly(103, 104);
+        assertThat(mapa.buscarMejores(4)).containsExactly(101, 102, 103, 104);
+        assertThat(mapa.buscarMejores(5)).containsExactly(203, 204, 205, 206, 207);
+    }
+
+    @Test
+    @DisplayName("Ordena filas y asientos numéricos como números")
+    void testOrdenNumerico() {
+        MapaAsientos mapa = MapaAsientos.construir(List.of(
+                new Asiento(1, "10", "1", true),
+                new Asiento(2, "2", "10", true),
+                new Asiento(3, "2", "9", true)));
+
+        assertThat(mapa.buscarMejores(2)).containsExactly(3, 2);
+    }
+
+    @Test
+    @DisplayName("Reservar ocupa los asientos y liberar los devuelve")
+    void testReservarYLiberar() {
+        MapaAsientos mapa = MapaAsientos.construir(sala(1, 4, List.of()));
+
+        List<Integer> primeros = mapa.reservarMejores(2);
+        List<Integer> segundos = mapa.reservarMejores(2);
+
+        assertThat(primeros).containsExactly(102, 103);
+        assertThat(segundos).containsExactly(101, 104);
+        assertThat(mapa.disponibles()).isZero();
+        assertThat(mapa.reservarMejores(1)).isEmpty();
+
+        mapa.liberar(primeros);
+        assertThat(mapa.disponibles()).isEqualTo(2);
+        assertThat(mapa.reservarMejores(2)).containsExactly(102, 103);
+    }
+
+    @Test
+    @DisplayName("Sin bloque contiguo entrega los primeros libres; sin fila ni asiento, por ID")
+    void testSinBloqueContiguoYEntradaGeneral() {
+        MapaAsientos mapa = MapaAsientos.construir(sala(2, 3, List.of(102, 202)));
+        assertThat(mapa.buscarMejores(3)).containsExactly(101, 103, 201);
+
+        MapaAsientos general = MapaAsientos.construir(List.of(
+                new Asiento(9, null, null, true),
+                new Asiento(7, null, null, true),
+                new Asiento(8, null, null, false)));
+        assertThat(general.buscarMejores(2)).containsExactly(7, 9);
+    }
+
+    /**
+     * Mide la búsqueda de mejores asientos en una arena de 100 filas por 200 asientos con un 25% de asientos libres.
+     * Ejecutar con: mvn test -Pbenchmark -Dtest=MapaAsientosTest
+     */
+    @Test
+    @Tag("benchmark")
+    @DisplayName("Benchmark: mejores asientos en una arena de 20k asientos")
+    void benchmarkArena20k() {
+        Random aleatorio = new Random(42);
+        List<Asiento> asientos = new ArrayList<>();
+        for (int fila = 1; fila <= 100; fila++) {
+            for (int asiento = 1; asiento <= 200; asiento++) {
+                asientos.add(new Asiento(fila * 1000 + asiento, String.valueOf(fila), String.valueOf(asiento),
+                        aleatorio.nextInt(100) < 25));
+            }
+        }
+        MapaAsientos mapa = MapaAsientos.construir(asientos);
+        int consultas = 100_000;
+        for (int i = 0; i < consultas; i++) {
+            mapa.buscarMejores(4);
+        }
+        long inicio = System.nanoTime();
+        for (int i = 0; i < consultas; i++) {
+            mapa.buscarMejores(1 + i % 6);
+        }
+        long porConsulta = (System.nanoTime() - inicio) / consultas;
+        log.info("[benchmark] {} asientos ({} libres): {} ns por consulta",
+                mapa.capacidad(), mapa.disponibles(), porConsulta);
+        assertThat(porConsulta).isLessThan(100_000);
+    }
+}
@@ -0,0 +1,117 @@
+package pe.edu.pucp.fasticket.service;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import pe.edu.pucp.fasticket.services.reservas.MemoriaRegistroReservas;
+
+@DisplayName("Tests del registro de retenciones en memoria")
+class MemoriaRegistroReservasTest {
+
+    private static final Duration TTL = Duration.ofMinutes(15);
+
+    private RelojManual reloj;
+    private MemoriaRegistroReservas registro;
+
+    @BeforeEach
+    void setUp() {
+        reloj = new RelojManual();
+        registro = new MemoriaRegistroReservas(reloj);
+    }
+
+    @Test
+    @DisplayName("Un ticket retenido no puede ser retenido por otro titular")
+    void testRetener_Exclusivo() {
+        assertThat(registro.retener(1, 100, "cliente:1", TTL)).isTrue();
+        assertThat(registro.retener(1, 100, "cliente:2", TTL)).isFalse();
+        assertThat(registro.titular(1, 100)).contains("cliente:1");
+        assertThat(registro.retenidos(1)).containsExactly(100);
+    }
+
+    @Test
+    @DisplayName("La retención expira al vencer su TTL")
+    void testRetener_Expira() {
+        registro.retener(1, 100, "cliente:1", TTL);
+
+        reloj.avanzar(TTL);
+
+        assertThat(registro.titular(1, 100)).isEmpty();
+        assertThat(registro.retenidos(1)).isEmpty();
+        assertThat(registro.retener(1, 100, "cliente:2", TTL)).isTrue();
+    }
+
+    @Test
+    @DisplayName("Solo el titular puede renovar o liberar su retención")
+    void testRenovarYLiberar_SoloTitular() {
+        registro.retener(1, 100, "cliente:1", TTL);
+
+        assertThat(registro.renovar(1, 100, "cliente:2", TTL)).isFalse();
+        assertThat(registro.liberar(1, 100, "cliente:2")).isFalse();
+
+        reloj.avanzar(Duration.ofMinutes(10));
+        assertThat(registro.renovar(1, 100, "cliente:1", TTL)).isTrue();
+        reloj.avanzar(Duration.ofMinutes(10));
+        assertThat(registro.titular(1, 100)).contains("cliente:1");
+
+        assertThat(registro.liberar(1, 100, "cliente:1")).isTrue();
+        assertThat(registro.retenidos(1)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Retener varios omite los tickets de otro titular y renueva los propios")
+    void testRetenerYLiberarVarios() {
+        registro.retener(1, 100, "cliente:1", TTL);
+        registro.retener(1, 101, "cliente:2", TTL);
+        reloj.avanzar(Duration.ofMinutes(10));
+
+        assertThat(registro.retener(1, List.of(100, 101, 102), "cliente:1", TTL)).containsExactly(100, 102);
+        reloj.avanzar(Duration.ofMinutes(10));
+        assertThat(registro.titular(1, 100)).contains("cliente:1");
+        assertThat(registro.titular(1, 101)).isEmpty();
+
+        assertThat(registro.liberar(1, List.of(100, 101, 102), "cliente:1")).isEqualTo(2);
+        assertThat(registro.retenidos(1)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Las retenciones se separan por tipo de ticket")
+    void testRetenidos_PorTipoTicket() {
+        registro.retener(1, 100, "cliente:1", TTL);
+        registro.retener(2, 200, "cliente:1", TTL);
+
+        assertThat(registro.retenidos(1)).containsExactly(100);
+        assertThat(registro.retenidos(2)).containsExactly(200);
+    }
+
+    private static class RelojManual extends Clock {
+        private Instant ahora = Instant.parse("2025-01-01T00:00:00Z");
+
+        void avanzar(Duration duracion) {
+            ahora = ahora.plus(duracion);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return ahora;
+        }
+    }
+}
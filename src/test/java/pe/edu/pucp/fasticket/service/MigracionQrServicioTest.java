@@ -0,0 +1,121 @@
+package pe.edu.pucp.fasticket.service;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import pe.edu.pucp.fasticket.config.TestConfig;
+import pe.edu.pucp.fasticket.model.eventos.EstadoTicket;
+import pe.edu.pucp.fasticket.model.eventos.Evento;
+import pe.edu.pucp.fasticket.model.eventos.Local;
+import pe.edu.pucp.fasticket.model.eventos.Ticket;
+import pe.edu.pucp.fasticket.repository.eventos.EventosRepositorio;
+import pe.edu.pucp.fasticket.repository.eventos.LocalesRepositorio;
+import pe.edu.pucp.fasticket.repository.eventos.TicketRepository;
+import pe.edu.pucp.fasticket.services.almacenamiento.AlmacenQr;
+import pe.edu.pucp.fasticket.services.almacenamiento.MigracionQrServicio;
+
+/**
+ * Simula una base anterior al cambio agregando la columna ticket.qr_image con imágenes,
+ * y verifica que la migración las mueva al almacén. No es @Transactional porque
+ * la columna se agrega y se elimina con DDL.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@Import(TestConfig.class)
+@DisplayName("Tests de MigracionQrServicio")
+class MigracionQrServicioTest {
+
+    @Autowired private MigracionQrServicio migracionQrServicio;
+    @Autowired private AlmacenQr almacenQr;
+    @Autowired private JdbcTemplate jdbcTemplate;
+    @Autowired private TicketRepository ticketRepository;
+    @Autowired private EventosRepositorio eventosRepositorio;
+    @Autowired private LocalesRepositorio localesRepositorio;
+
+    private Local local;
+    private Evento evento;
+    private final List<Ticket> tickets = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate.execute("ALTER TABLE ticket ADD COLUMN IF NOT EXISTS qr_image BLOB");
+
+        local = new Local();
+        local.setNombre("Arena Migración");
+        local.setDireccion("Av. Lotes 123");
+        local.setAforoTotal(100);
+        local.setActivo(true);
+        local = localesRepositorio.save(local);
+
+        evento = new Evento();
+        evento.setNombre("Evento Migración QR");
+        evento.setFechaEvento(LocalDate.now().plusMonths(1));
+        evento.setHoraInicio(LocalTime.of(20, 0));
+        evento.setActivo(true);
+        evento.setLocal(local);
+        evento = eventosRepositorio.save(evento);
+
+        for (int i = 0; i < 5; i++) {
+            Ticket ticket = new Ticket();
+            ticket.setEvento(evento);
+            ticket.setEstado(EstadoTicket.VENDIDA);
+            ticket.setPrecio(50.0);
+            ticket.setActivo(true);
+            ticket.setCodigoQr("migracion-" + i);
+            tickets.add(ticketRepository.save(ticket));
+        }
+        for (Ticket ticket : tickets) {
+            jdbcTemplate.update("UPDATE ticket SET qr_image = ? WHERE id_ticket = ?",
+                    ("png-" + ticket.getCodigoQr()).getBytes(), ticket.getIdTicket());
+        }
+    }
+
+    @AfterEach
+    void tearDown() {
+        ticketRepository.deleteAll(tickets);
+        eventosRepositorio.deleteById(evento.getIdEvento());
+        localesRepositorio.deleteById(local.getIdLocal());
+        jdbcTemplate.execute("ALTER TABLE ticket DROP COLUMN IF EXISTS qr_image");
+    }
+
+    @Test
+    @DisplayName("Las imágenes antiguas pasan al almacén y la fila solo conserva la referencia")
+    void testMigrarPendientes() {
+        migracionQrServicio.migrarPendientes();
+
+        for (Ticket ticket : tickets) {
+            String referencia = ticketRepository.findById(ticket.getIdTicket()).orElseThrow().getQrRef();
+            assertThat(referencia).isNotNull();
+            assertThat(almacenQr.leer(referencia)).hasValue(("png-" + ticket.getCodigoQr()).getBytes());
+        }
+        assertThat(jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM ticket WHERE qr_image IS NOT NULL", Integer.class)).isZero();
+        assertThat(migracionQrServicio.migrarLote()).isZero();
+    }
+
+    @Test
+    @DisplayName("Los tickets que ya tienen referencia conservan la suya y pierden la imagen antigua")
+    void testVaciaImagenConReferencia() {
+        Ticket conReferencia = tickets.get(0);
+        jdbcTemplate.update("UPDATE ticket SET qr_ref = ? WHERE id_ticket = ?", "ref-previa", conReferencia.getIdTicket());
+
+        migracionQrServicio.migrarPendientes();
+
+        assertThat(ticketRepository.findById(conReferencia.getIdTicket()).orElseThrow().getQrRef()).isEqualTo("ref-previa");
+        assertThat(jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM ticket WHERE qr_image IS NOT NULL", Integer.class)).isZero();
+    }
+}
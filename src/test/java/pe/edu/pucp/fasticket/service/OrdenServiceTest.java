@@ -1,5 +1,6 @@
 package pe.edu.pucp.fasticket.service;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.Collections;
@@ -14,17 +15,19 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.eq;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import static org.mockito.Mockito.doNothing;
+import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.context.ApplicationEventPublisher;
-import org.springframework.data.domain.PageRequest;
 
 import pe.edu.pucp.fasticket.dto.compra.CrearOrdenDTO;
 import pe.edu.pucp.fasticket.dto.compra.DatosAsistenteDTO;
@@ -48,10 +51,17 @@ import pe.edu.pucp.fasticket.repository.compra.CarroComprasRepository;
 import pe.edu.pucp.fasticket.repository.compra.ItemCarritoRepository;
 import pe.edu.pucp.fasticket.repository.compra.OrdenCompraRepositorio;
 import pe.edu.pucp.fasticket.repository.eventos.TicketRepository;
-import pe.edu.pucp.fasticket.repository.eventos.TipoTicketRepositorio;
 import pe.edu.pucp.fasticket.repository.usuario.ClienteRepository;
 import pe.edu.pucp.fasticket.services.compra.OrdenServicio;
+import pe.edu.pucp.fasticket.services.eventos.EntradaCatalogo;
+import pe.edu.pucp.fasticket.services.eventos.IndiceCatalogo;
+import pe.edu.pucp.fasticket.services.expiracion.ExpiracionReservas;
 import pe.edu.pucp.fasticket.services.fidelizacion.FidelizacionService;
+import pe.edu.pucp.fasticket.services.inventario.InventarioService;
+import pe.edu.pucp.fasticket.services.inventario.LimiteCompraService;
+import pe.edu.pucp.fasticket.services.reservas.ReservaAsientosService;
+import pe.edu.pucp.fasticket.services.tickets.EmisionTicketService;
+import pe.edu.pucp.fasticket.services.tickets.QrTicketService;
 
 @ExtendWith(MockitoExtension.class)
 class OrdenServiceTest {
@@ -59,8 +69,6 @@ class OrdenServiceTest {
     @Mock
     private OrdenCompraRepositorio ordenCompraRepositorio;
     @Mock
-    private TipoTicketRepositorio tipoTicketRepositorio;
-    @Mock
     private ClienteRepository clienteRepository;
     @Mock
     private TicketRepository ticketRepository;
@@ -72,6 +80,20 @@ class OrdenServiceTest {
     private CarroComprasRepository carroComprasRepository;
     @Mock
     private FidelizacionService fidelizacionService;
+    @Mock
+    private InventarioService inventarioService;
+    @Mock
+    private ReservaAsientosService reservaAsientosService;
+    @Mock
+    private EmisionTicketService emisionTicketService;
+    @Mock
+    private QrTicketService qrTicketService;
+    @Mock
+    private ExpiracionReservas expiracionReservas;
+    @Mock
+    private IndiceCatalogo indiceCatalogo;
+    @Mock
+    private LimiteCompraService limiteCompraService;
 
     // --- Instancia del Servicio a probar ---
     @InjectMocks // Crea una instancia de OrdenServicio e inyecta los mocks
@@ -143,23 +165,23 @@ class OrdenServiceTest {
         // Arrange: Configura el comportamiento de los mocks
         // 1. Simula que el cliente existe
         when(clienteRepository.findById(1)).thenReturn(Optional.of(clienteMock));
-        // 2. Simula que el tipo de ticket existe
-        when(tipoTicketRepositorio.findById(1)).thenReturn(Optional.of(tipoTicketMock));
-        // 2.1. Simula que se encuentra el evento asociado al tipo de ticket
+        // 2. Simula que el tipo de ticket y su evento están en el índice de catálogo
+        when(indiceCatalogo.tipoTicket(1)).thenReturn(tipoTicketMock);
         Evento eventoMock = new Evento();
         eventoMock.setIdEvento(1);
         eventoMock.setNombre("Evento de Prueba");
         eventoMock.setEdadMinima(18);
-        when(tipoTicketRepositorio.findEventoByTipoTicket(1)).thenReturn(Optional.of(eventoMock));
+        when(indiceCatalogo.buscar(1)).thenReturn(Optional.of(entradaDe(eventoMock)));
+        when(indiceCatalogo.evento(1)).thenReturn(eventoMock);
         // 3. Simula que hay tickets disponibles
         List<Ticket> ticketsDisponibles = new ArrayList<>();
         for (int i = 0; i < 2; i++) {
             Ticket t = new Ticket(); t.setIdTicket(i+1); t.setEstado(EstadoTicket.DISPONIBLE);
             ticketsDisponibles.add(t);
         }
-        when(ticketRepository.findAvailableTicketsByTypeAndState(
-                eq(tipoTicketMock), eq(EstadoTicket.DISPONIBLE), any(PageRequest.class))
-        ).thenReturn(ticketsDisponibles);
+        when(inventarioService.intentarReservar(any(TipoTicket.class), anyInt(), anyBoolean())).thenReturn(true);
+        when(emisionTicketService.obtenerParaReserva(eq(tipoTicketMock), any(Evento.class), eq(false), eq(2), eq(1), any(Duration.class)))
+                .thenReturn(ticketsDisponibles);
         // 4. Simula la respuesta del save (devuelve el mismo objeto)
         when(ordenCompraRepositorio.save(any(OrdenCompra.class))).thenAnswer(invocation -> invocation.getArgument(0));
         
@@ -186,6 +208,11 @@ class OrdenServiceTest {
         Ticket ticketReservado = itemCreado.getTickets().get(0);
         assertThat(ticketReservado.getEstado()).isEqualTo(EstadoTicket.RESERVADA);
         assertThat(ticketReservado.getNombreAsistente()).isEqualTo("Asis");
+        // El checkout solo guarda el código; la imagen se renderiza después del commit
+        assertThat(ticketReservado.getCodigoQr()).isNotNull();
+        assertThat(ticketReservado.getQrRef()).isNull();
+        verify(qrTicketService).programarRenderizado(itemCreado.getTickets());
+        verify(expiracionReservas).programarOrden(any(), eq(ordenCreada.getFechaExpiracion()));
 
         // Verifica que se llamó al save del repositorio de órdenes
         verify(ordenCompraRepositorio, times(1)).save(any(OrdenCompra.class));
@@ -209,7 +236,7 @@ class OrdenServiceTest {
     void testCrearOrden_TipoTicketNoEncontrado() {
         // Arrange
         when(clienteRepository.findById(1)).thenReturn(Optional.of(clienteMock));
-        when(tipoTicketRepositorio.findById(1)).thenReturn(Optional.empty());
+        when(indiceCatalogo.buscar(1)).thenReturn(Optional.empty());
 
         // Act & Assert
         assertThatThrownBy(() -> ordenServicio.crearOrden(crearOrdenDTO))
@@ -222,13 +249,14 @@ class OrdenServiceTest {
     void testCrearOrden_SinStockSuficiente() {
         // Arrange
         when(clienteRepository.findById(1)).thenReturn(Optional.of(clienteMock));
-        when(tipoTicketRepositorio.findById(1)).thenReturn(Optional.of(tipoTicketMock));
-        when(tipoTicketRepositorio.findEventoByTipoTicket(1)).thenReturn(Optional.of(eventoMock));
+        when(indiceCatalogo.tipoTicket(1)).thenReturn(tipoTicketMock);
+        when(indiceCatalogo.buscar(1)).thenReturn(Optional.of(entradaDe(eventoMock)));
+        when(indiceCatalogo.evento(1)).thenReturn(eventoMock);
         // Simula que solo hay 1 ticket disponible cuando se piden 2
         List<Ticket> ticketsDisponibles = List.of(new Ticket());
-        when(ticketRepository.findAvailableTicketsByTypeAndState(
-                eq(tipoTicketMock), eq(EstadoTicket.DISPONIBLE), any(PageRequest.class))
-        ).thenReturn(ticketsDisponibles);
+        when(inventarioService.intentarReservar(any(TipoTicket.class), anyInt(), anyBoolean())).thenReturn(true);
+        when(emisionTicketService.obtenerParaReserva(eq(tipoTicketMock), any(Evento.class), eq(false), eq(2), eq(1), any(Duration.class)))
+                .thenReturn(ticketsDisponibles);
 
         // Act & Assert
         assertThatThrownBy(() -> ordenServicio.crearOrden(crearOrdenDTO))
@@ -239,6 +267,24 @@ class OrdenServiceTest {
         assertThat(tipoTicketMock.getCantidadDisponible()).isEqualTo(10);
     }
 
+    @Test
+    void testCrearOrden_InventarioAgotado_NoConsultaTickets() {
+        // Arrange
+        when(clienteRepository.findById(1)).thenReturn(Optional.of(clienteMock));
+        when(indiceCatalogo.tipoTicket(1)).thenReturn(tipoTicketMock);
+        when(indiceCatalogo.buscar(1)).thenReturn(Optional.of(entradaDe(eventoMock)));
+        when(indiceCatalogo.evento(1)).thenReturn(eventoMock);
+        when(inventarioService.intentarReservar(tipoTicketMock, 2, false)).thenReturn(false);
+
+        // Act & Assert
+        assertThatThrownBy(() -> ordenServicio.crearOrden(crearOrdenDTO))
+                .isInstanceOf(RuntimeException.class)
+                .hasMessageContaining("No hay suficientes tickets disponibles");
+        // El contador en memoria rechaza antes de bloquear filas de Ticket
+        verify(emisionTicketService, never()).obtenerParaReserva(any(), any(), anyBoolean(), anyInt(), any(), any());
+        verify(ordenCompraRepositorio, never()).save(any(OrdenCompra.class));
+    }
+
     // --- Tests para confirmarPagoOrden --- (Ejemplo básico)
 
     @Test
@@ -258,7 +304,6 @@ class OrdenServiceTest {
         ordenPendiente.setCliente(clienteMock);
 
         when(ordenCompraRepositorio.findById(1)).thenReturn(Optional.of(ordenPendiente));
-        when(tipoTicketRepositorio.findEventoByTipoTicket(1)).thenReturn(Optional.of(eventoMock));
         when(ordenCompraRepositorio.save(any(OrdenCompra.class))).thenReturn(ordenPendiente); // Devuelve la orden guardada
         doNothing().when(fidelizacionService).generarPuntosPorCompra(any(), any(), any());
 
@@ -269,6 +314,7 @@ class OrdenServiceTest {
         assertThat(ordenPendiente.getEstado()).isEqualTo(EstadoCompra.APROBADO);
         assertThat(ticket.getEstado()).isEqualTo(EstadoTicket.VENDIDA);
         verify(ordenCompraRepositorio, times(1)).save(ordenPendiente);
+        verify(inventarioService).registrarVenta(tipoTicketMock, 1);
     }
 
     // --- Tests para cancelarOrden --- (Ejemplo básico)
@@ -284,7 +330,7 @@ class OrdenServiceTest {
         item.setTickets(List.of(ticket, ticket)); // 2 tickets
         ordenPendiente.setItems(List.of(item));
 
-        when(ordenCompraRepositorio.findById(1)).thenReturn(Optional.of(ordenPendiente));
+        when(ordenCompraRepositorio.findByIdParaActualizar(1)).thenReturn(Optional.of(ordenPendiente));
         when(ordenCompraRepositorio.save(any(OrdenCompra.class))).thenReturn(ordenPendiente);
 
         // Act
@@ -292,11 +338,12 @@ class OrdenServiceTest {
 
         // Assert
         assertThat(ordenPendiente.getEstado()).isEqualTo(EstadoCompra.RECHAZADO); // O RECHAZADO
-        assertThat(ticket.getEstado()).isEqualTo(EstadoTicket.DISPONIBLE);
-        // Verifica que se devolvió el stock
-        assertThat(tipoTicketMock.getCantidadDisponible()).isEqualTo(12); // 10 + 2
-        verify(tipoTicketRepositorio, times(1)).save(tipoTicketMock); // Verifica que se guardó el TipoTicket
+        assertThat(ticket.getActivo()).isFalse();
+        verify(emisionTicketService, times(2)).liberar(ticket);
+        // Verifica que se devolvió el stock al inventario
+        verify(inventarioService, times(1)).liberar(tipoTicketMock, 2);
         verify(ordenCompraRepositorio, times(1)).save(ordenPendiente);
+        verify(expiracionReservas).cancelarOrden(1);
     }
 
     // --- Tests para anularCompra --- (Ejemplo básico)
@@ -307,7 +354,7 @@ class OrdenServiceTest {
     @Test
     void testGenerarResumenOrden() {
         // Arrange
-        when(tipoTicketRepositorio.findById(1)).thenReturn(Optional.of(tipoTicketMock));
+        when(indiceCatalogo.obtener(1)).thenReturn(entradaDe(eventoMock));
 
         // Act
         OrdenResumenDTO resumen = ordenServicio.generarResumenOrden(crearOrdenDTO);
@@ -325,12 +372,14 @@ class OrdenServiceTest {
     void testCrearOrden_ExcedeLimitePorPersona() {
         // Configurar tipo de ticket con límite por persona
         tipoTicketMock.setLimitePorPersona(2);
-        when(tipoTicketRepositorio.findById(1)).thenReturn(Optional.of(tipoTicketMock));
+        when(indiceCatalogo.tipoTicket(1)).thenReturn(tipoTicketMock);
         when(clienteRepository.findById(1)).thenReturn(Optional.of(clienteMock));
-        when(tipoTicketRepositorio.findEventoByTipoTicket(1)).thenReturn(Optional.of(eventoMock));
+        when(indiceCatalogo.buscar(1)).thenReturn(Optional.of(entradaDe(eventoMock)));
+        when(indiceCatalogo.evento(1)).thenReturn(eventoMock);
         
         // Simular que el cliente ya compró 2 tickets de este tipo
-        when(ticketRepository.countTicketsByClienteAndTipoTicket(1, 1)).thenReturn(2);
+        doThrow(new BusinessException("El límite de tickets por persona para 'VIP' es de 2. Ya has comprado 2 tickets de este tipo."))
+                .when(limiteCompraService).reservar(any(EntradaCatalogo.class), eq(1), eq(1));
 
         // Crear DTO de orden que excede el límite
         CrearOrdenDTO ordenDTO = new CrearOrdenDTO();
@@ -352,14 +401,16 @@ class OrdenServiceTest {
         // Ejecutar y verificar que lanza BusinessException
         BusinessException exception = assertThrows(BusinessException.class, () -> ordenServicio.crearOrden(ordenDTO));
         assertTrue(exception.getMessage().contains("límite de tickets por persona"));
+        verify(inventarioService, never()).intentarReservar(any(), anyInt(), anyBoolean());
     }
 
     @Test
     void testCrearOrden_CreaTicketsCorrectamente() {
         // Configurar mocks
-        when(tipoTicketRepositorio.findById(1)).thenReturn(Optional.of(tipoTicketMock));
+        when(indiceCatalogo.tipoTicket(1)).thenReturn(tipoTicketMock);
         when(clienteRepository.findById(1)).thenReturn(Optional.of(clienteMock));
-        when(tipoTicketRepositorio.findEventoByTipoTicket(1)).thenReturn(Optional.of(eventoMock));
+        when(indiceCatalogo.buscar(1)).thenReturn(Optional.of(entradaDe(eventoMock)));
+        when(indiceCatalogo.evento(1)).thenReturn(eventoMock);
         
         // Crear tickets disponibles
         List<Ticket> ticketsDisponibles = new ArrayList<>();
@@ -375,15 +426,14 @@ class OrdenServiceTest {
         ticket2.setTipoTicket(tipoTicketMock);
         ticketsDisponibles.add(ticket2);
         
-        when(ticketRepository.findAvailableTicketsByTypeAndState(any(), any(), any()))
+        when(inventarioService.intentarReservar(any(TipoTicket.class), anyInt(), anyBoolean())).thenReturn(true);
+        when(emisionTicketService.obtenerParaReserva(any(), any(), anyBoolean(), anyInt(), any(), any()))
                 .thenReturn(ticketsDisponibles);
         when(ordenCompraRepositorio.save(any(OrdenCompra.class))).thenAnswer(invocation -> {
             OrdenCompra orden = invocation.getArgument(0);
             orden.setIdOrdenCompra(1);
             return orden;
         });
-        when(ticketRepository.save(any(Ticket.class))).thenAnswer(invocation -> invocation.getArgument(0));
-        when(clienteRepository.save(any(Cliente.class))).thenAnswer(invocation -> invocation.getArgument(0));
         when(fidelizacionService.calcularDescuentoPorMembresia(any(TipoMembresia.class), any(Integer.class))).thenReturn(0.0);
 
         // Crear DTO de orden
@@ -426,8 +476,16 @@ class OrdenServiceTest {
             assertThat(ticket.getCodigoQr()).isNotNull();
         }
         
-        // Verificar que se guardaron los tickets
-        verify(ticketRepository, times(2)).save(any(Ticket.class));
-        verify(clienteRepository, times(1)).save(any(Cliente.class));
+        // Los tickets se guardan en cascada con la orden y el cliente no se vuelve a guardar
+        verify(ticketRepository, never()).save(any(Ticket.class));
+        verify(clienteRepository, never()).save(any(Cliente.class));
+    }
+
+    private EntradaCatalogo entradaDe(Evento evento) {
+        Local local = evento.getLocal();
+        return new EntradaCatalogo(tipoTicketMock.getIdTipoTicket(), tipoTicketMock.getNombre(), tipoTicketMock.getPrecio(),
+                tipoTicketMock.getLimitePorPersona(), tipoTicketMock.getZona().getIdZona(), evento.getIdEvento(),
+                evento.getNombre(), evento.getFechaEvento(), evento.getHoraInicio(), evento.getEdadMinima(), false,
+                local != null ? local.getIdLocal() : null, local != null ? local.getNombre() : null);
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,197 @@
+package pe.edu.pucp.fasticket.service;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Transactional;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import pe.edu.pucp.fasticket.config.TestConfig;
+import pe.edu.pucp.fasticket.dto.compra.CrearOrdenDTO;
+import pe.edu.pucp.fasticket.dto.compra.DatosAsistenteDTO;
+import pe.edu.pucp.fasticket.dto.compra.ItemSeleccionadoDTO;
+import pe.edu.pucp.fasticket.model.compra.OrdenCompra;
+import pe.edu.pucp.fasticket.model.eventos.EstadoTicket;
+import pe.edu.pucp.fasticket.model.eventos.Evento;
+import pe.edu.pucp.fasticket.model.eventos.Local;
+import pe.edu.pucp.fasticket.model.eventos.Ticket;
+import pe.edu.pucp.fasticket.model.eventos.TipoTicket;
+import pe.edu.pucp.fasticket.model.eventos.Zona;
+import pe.edu.pucp.fasticket.model.fidelizacion.TipoMembresia;
+import pe.edu.pucp.fasticket.model.usuario.Cliente;
+import pe.edu.pucp.fasticket.model.usuario.TipoDocumento;
+import pe.edu.pucp.fasticket.repository.eventos.EventosRepositorio;
+import pe.edu.pucp.fasticket.repository.eventos.LocalesRepositorio;
+import pe.edu.pucp.fasticket.repository.eventos.TicketRepository;
+import pe.edu.pucp.fasticket.repository.eventos.TipoTicketRepositorio;
+import pe.edu.pucp.fasticket.repository.eventos.ZonaRepositorio;
+import pe.edu.pucp.fasticket.repository.usuario.ClienteRepository;
+import pe.edu.pucp.fasticket.services.compra.OrdenServicio;
+
+/**
+ * Cuenta las sentencias JDBC que ejecuta {@link OrdenServicio#crearOrden}.
+ * Con inserciones y actualizaciones por lotes, una orden de 10 tickets debe costar
+ * las mismas sentencias que una de 1 ticket: lecturas de cliente, carrito y tickets disponibles,
+ * un INSERT de orden, uno de item, uno del movimiento de inventario y un lote de UPDATE de tickets.
+ * El tipo de ticket y el evento salen del índice de catálogo, sin consulta.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@Import(TestConfig.class)
+@Transactional
+@DisplayName("Tests de sentencias JDBC de OrdenServicio.crearOrden")
+class OrdenServicioSentenciasTest {
+
+    private static final int MAXIMO_SENTENCIAS = 7;
+
+    @Autowired private OrdenServicio ordenServicio;
+    @Autowired private EntityManager entityManager;
+    @Autowired private EntityManagerFactory entityManagerFactory;
+    @Autowired private ClienteRepository clienteRepository;
+    @Autowired private LocalesRepositorio localesRepositorio;
+    @Autowired private EventosRepositorio eventosRepositorio;
+    @Autowired private ZonaRepositorio zonaRepositorio;
+    @Autowired private TipoTicketRepositorio tipoTicketRepositorio;
+    @Autowired private TicketRepository ticketRepository;
+
+    private Statistics estadisticas;
+    private Cliente cliente;
+    private TipoTicket tipoTicket;
+
+    @BeforeEach
+    void setUp() {
+        estadisticas = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        estadisticas.setStatisticsEnabled(true);
+
+        cliente = new Cliente();
+        cliente.setNombres("Cliente");
+        cliente.setApellidos("Lotes");
+        cliente.setEmail("lotes" + System.nanoTime() + "@example.com");
+        cliente.setTipoDocumento(TipoDocumento.DNI);
+        cliente.setDocIdentidad("45678912");
+        cliente.setContrasena("password");
+        cliente.setActivo(true);
+        cliente.setNivel(TipoMembresia.BRONCE);
+        cliente = clienteRepository.save(cliente);
+
+        Local local = new Local();
+        local.setNombre("Local Lotes");
+        local.setDireccion("Av. Lotes 123");
+        local.setAforoTotal(1000);
+        local.setActivo(true);
+        local = localesRepositorio.save(local);
+
+        Evento evento = new Evento();
+        evento.setNombre("Evento Lotes");
+        evento.setFechaEvento(LocalDate.now().plusMonths(1));
+        evento.setHoraInicio(LocalTime.of(20, 0));
+        evento.setActivo(true);
+        evento.setLocal(local);
+        evento = eventosRepositorio.save(evento);
+
+        Zona zona = new Zona();
+        zona.setNombre("Zona Lotes");
+        zona.setAforoMax(100);
+        zona.setActivo(true);
+        zona.setLocal(local);
+        zona = zonaRepositorio.save(zona);
+
+        tipoTicket = new TipoTicket();
+        tipoTicket.setNombre("General Lotes");
+        tipoTicket.setPrecio(50.0);
+        tipoTicket.setStock(100);
+        tipoTicket.setCantidadDisponible(40);
+        tipoTicket.setZona(zona);
+        tipoTicket.setActivo(true);
+        tipoTicket = tipoTicketRepositorio.save(tipoTicket);
+
+        for (int i = 0; i < 40; i++) {
+            Ticket ticket = new Ticket();
+            ticket.setTipoTicket(tipoTicket);
+            ticket.setEvento(evento);
+            ticket.setEstado(EstadoTicket.DISPONIBLE);
+            ticket.setPrecio(tipoTicket.getPrecio());
+            ticket.setActivo(true);
+            ticketRepository.save(ticket);
+        }
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @AfterEach
+    void tearDown() {
+        estadisticas.setStatisticsEnabled(false);
+    }
+
+    @Test
+    @DisplayName("Una orden de 10 tickets ejecuta las mismas sentencias que una de 1")
+    void testSentenciasNoCrecenConLosTickets() {
+        long sentenciasUnTicket = minimoDeTres(1);
+        long sentenciasDiezTickets = minimoDeTres(10);
+
+        assertThat(sentenciasDiezTickets).isEqualTo(sentenciasUnTicket);
+        assertThat(sentenciasDiezTickets).isLessThanOrEqualTo(MAXIMO_SENTENCIAS);
+    }
+
+    @Test
+    @DisplayName("Crear la orden no carga ni guarda el historial de órdenes del cliente")
+    void testNoGuardaHistorialDelCliente() {
+        estadisticas.clear();
+        OrdenCompra orden = ordenServicio.crearOrden(solicitud(2));
+        entityManager.flush();
+
+        assertThat(orden.getIdOrdenCompra()).isNotNull();
+        assertThat(estadisticas.getCollectionLoadCount()).isZero();
+        assertThat(estadisticas.getEntityUpdateCount()).isEqualTo(2);
+    }
+
+    // Cada secuencia pide un bloque de ids nuevo como mucho una vez cada 50 órdenes, así que
+    // en tres órdenes seguidas al menos una medición no incluye sentencias de secuencia
+    private long minimoDeTres(int cantidad) {
+        return Math.min(crearYContar(cantidad), Math.min(crearYContar(cantidad), crearYContar(cantidad)));
+    }
+
+    private long crearYContar(int cantidad) {
+        estadisticas.clear();
+        ordenServicio.crearOrden(solicitud(cantidad));
+        entityManager.flush();
+        long sentencias = estadisticas.getPrepareStatementCount();
+        entityManager.clear();
+        return sentencias;
+    }
+
+    private CrearOrdenDTO solicitud(int cantidad) {
+        List<DatosAsistenteDTO> asistentes = new ArrayList<>();
+        for (int i = 0; i < cantidad; i++) {
+            DatosAsistenteDTO asistente = new DatosAsistenteDTO();
+            asistente.setTipoDocumento(TipoDocumento.DNI);
+            asistente.setNumeroDocumento(String.valueOf(10_000_000 + i));
+            asistente.setNombres("Asistente");
+            asistente.setApellidos("Lote " + i);
+            asistentes.add(asistente);
+        }
+        ItemSeleccionadoDTO item = new ItemSeleccionadoDTO();
+        item.setIdTipoTicket(tipoTicket.getIdTipoTicket());
+        item.setCantidad(cantidad);
+        item.setAsistentes(asistentes);
+
+        CrearOrdenDTO dto = new CrearOrdenDTO();
+        dto.setIdCliente(cliente.getIdPersona());
+        dto.setItems(List.of(item));
+        return dto;
+    }
+}
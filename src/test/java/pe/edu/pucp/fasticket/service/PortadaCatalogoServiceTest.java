@@ -0,0 +1,164 @@
+package pe.edu.pucp.fasticket.service;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import pe.edu.pucp.fasticket.events.CatalogoModificadoEvent;
+import pe.edu.pucp.fasticket.mapper.EventoMapper;
+import pe.edu.pucp.fasticket.model.eventos.Evento;
+import pe.edu.pucp.fasticket.model.eventos.Local;
+import pe.edu.pucp.fasticket.model.geografia.Distrito;
+import pe.edu.pucp.fasticket.repository.eventos.EventosRepositorio;
+import pe.edu.pucp.fasticket.services.eventos.AlmacenCatalogo;
+import pe.edu.pucp.fasticket.services.portada.PortadaCatalogoService;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Tests de la portada materializada del catálogo")
+class PortadaCatalogoServiceTest {
+
+    @Mock
+    private EventosRepositorio eventosRepositorio;
+    @Mock
+    private AlmacenCatalogo almacen;
+
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+    private final List<Evento> eventos = new ArrayList<>();
+    private SimpleMeterRegistry metricas;
+    private PortadaCatalogoService portada;
+    private Runnable alInvalidarRemoto;
+
+    @BeforeEach
+    void setUp() {
+        Distrito miraflores = distrito(1, "Miraflores");
+        Distrito barranco = distrito(2, "Barranco");
+        eventos.add(evento(1, miraflores, "a.jpg", 100));
+        eventos.add(evento(2, barranco, null, 100));
+        eventos.add(evento(3, miraflores, "c.jpg", 0));
+        eventos.add(evento(4, miraflores, "d.jpg", 50));
+        lenient().when(eventosRepositorio.findPortada(any())).thenReturn(eventos);
+        lenient().when(almacen.version()).thenReturn("7");
+
+        metricas = new SimpleMeterRegistry();
+        portada = new PortadaCatalogoService(eventosRepositorio, new EventoMapper(), almacen, objectMapper,
+                metricas, 60_000, 3, 6, 2);
+        ArgumentCaptor<Runnable> captor = ArgumentCaptor.forClass(Runnable.class);
+        verify(almacen).alInvalidarRemoto(captor.capture());
+        alInvalidarRemoto = captor.getValue();
+    }
+
+    @Test
+    @DisplayName("Arma próximos, destacados y eventos por distrito con una consulta")
+    void testArmado() throws Exception {
+        JsonNode data = objectMapper.readTree(portada.obtener().json()).get("data");
+
+        assertThat(data.get("proximos").findValuesAsText("idEvento")).containsExactly("1", "2", "3");
+        assertThat(data.get("destacados").findValuesAsText("idEvento")).containsExactly("1", "4");
+        assertThat(data.get("porDistrito").findValuesAsText("nombreDistrito")).containsExactly("Barranco", "Miraflores");
+        assertThat(data.get("porDistrito").get(1).get("eventos").findValuesAsText("idEvento")).containsExactly("1", "3");
+        verify(eventosRepositorio, times(1)).findPortada(LocalDate.now());
+    }
+
+    @Test
+    @DisplayName("Los pedidos reciben los mismos bytes sin volver a armar la portada")
+    void testSinTrabajoPorPedido() {
+        PortadaCatalogoService.Documento primera = portada.obtener();
+        PortadaCatalogoService.Documento segunda = portada.obtener();
+        portada.actualizar();
+
+        assertThat(segunda).isSameAs(primera);
+        assertThat(primera.etag()).startsWith("\"").endsWith("\"");
+        verify(eventosRepositorio, times(1)).findPortada(any());
+        verify(almacen).escribirDocumento(eq("7"), anyString(), eq(primera.json()), eq(Duration.ofMinutes(1)));
+        assertThat(metricas.get("fasticket.portada.reconstruccion").tag("origen", "base").timer().count()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Un cambio de catálogo en esta instancia vuelve a armar la portada desde la base")
+    void testCambioLocal() throws Exception {
+        portada.obtener();
+        eventos.get(0).setNombre("Renombrado");
+        lenient().when(almacen.leerDocumento(anyString(), anyString()))
+                .thenReturn(Optional.of("{\"viejo\":true}".getBytes(StandardCharsets.UTF_8)));
+
+        portada.alModificarCatalogo(new CatalogoModificadoEvent("prueba"));
+        portada.actualizar();
+        portada.actualizar();
+
+        JsonNode proximos = objectMapper.readTree(portada.obtener().json()).get("data").get("proximos");
+        assertThat(proximos.get(0).get("nombre").asText()).isEqualTo("Renombrado");
+        verify(eventosRepositorio, times(2)).findPortada(any());
+    }
+
+    @Test
+    @DisplayName("Tras una invalidación remota toma la portada compartida sin consultar la base")
+    void testCambioRemoto() {
+        byte[] compartida = "{\"ok\":true}".getBytes(StandardCharsets.UTF_8);
+        lenient().when(almacen.version()).thenReturn("8");
+        lenient().when(almacen.leerDocumento(eq("8"), anyString())).thenReturn(Optional.of(compartida));
+
+        alInvalidarRemoto.run();
+        portada.actualizar();
+
+        assertThat(portada.obtener().json()).isEqualTo(compartida);
+        verify(eventosRepositorio, never()).findPortada(any());
+        assertThat(metricas.get("fasticket.portada.reconstruccion").tag("origen", "compartido").timer().count()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Cuenta los bytes de cada portada enviada")
+    void testBytesEnviados() {
+        PortadaCatalogoService.Documento documento = portada.obtener();
+        portada.registrarEnvio(documento);
+        portada.registrarEnvio(documento);
+
+        assertThat(metricas.get("fasticket.portada.bytes").summary().totalAmount())
+                .isEqualTo(2.0 * documento.json().length);
+    }
+
+    private static Distrito distrito(int id, String nombre) {
+        Distrito distrito = new Distrito();
+        distrito.setIdDistrito(id);
+        distrito.setNombre(nombre);
+        return distrito;
+    }
+
+    private static Evento evento(int id, Distrito distrito, String imagenUrl, int aforoDisponible) {
+        Local local = new Local();
+        local.setIdLocal(id * 10);
+        local.setNombre("Local " + id);
+        local.setDistrito(distrito);
+        Evento evento = new Evento();
+        evento.setIdEvento(id);
+        evento.setNombre("Evento " + id);
+        evento.setFechaEvento(LocalDate.now().plusDays(id));
+        evento.setImagenUrl(imagenUrl);
+        evento.setAforoDisponible(aforoDisponible);
+        evento.setActivo(true);
+        evento.setLocal(local);
+        return evento;
+    }
+}
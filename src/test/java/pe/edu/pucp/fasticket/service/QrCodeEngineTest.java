@@ -0,0 +1,92 @@
+package pe.edu.pucp.fasticket.service;
+
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import javax.imageio.ImageIO;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import com.google.zxing.BinaryBitmap;
+import com.google.zxing.DecodeHintType;
+import com.google.zxing.client.j2se.BufferedImageLuminanceSource;
+import com.google.zxing.common.HybridBinarizer;
+import com.google.zxing.qrcode.QRCodeReader;
+
+import pe.edu.pucp.fasticket.services.tickets.QrCodeEngine;
+
+@DisplayName("Tests de QrCodeEngine")
+class QrCodeEngineTest {
+
+    private final QrCodeEngine engine = new QrCodeEngine(6);
+
+    @Test
+    @DisplayName("El PNG generado es legible y decodifica al mismo contenido")
+    void testPng_SeDecodifica() throws Exception {
+        String codigo = UUID.randomUUID().toString();
+
+        BufferedImage imagen = ImageIO.read(new ByteArrayInputStream(engine.png(codigo)));
+
+        assertThat(imagen).isNotNull();
+        assertThat(imagen.getWidth()).isEqualTo(imagen.getHeight());
+        assertThat(imagen.getWidth() % engine.getModuloPx()).isZero();
+        assertThat(decodificar(imagen)).isEqualTo(codigo);
+    }
+
+    @Test
+    @DisplayName("Los buffers por hilo no mezclan imágenes de tamaños distintos")
+    void testPng_ReutilizaBuffers() throws Exception {
+        String largo = "x".repeat(300);
+        String corto = "corto";
+
+        engine.png(largo);
+        byte[] png = engine.png(corto);
+
+        assertThat(decodificar(ImageIO.read(new ByteArrayInputStream(png)))).isEqualTo(corto);
+    }
+
+    @Test
+    @DisplayName("Hilos concurrentes generan imágenes correctas")
+    void testPng_Concurrente() throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(4);
+        try {
+            for (int i = 0; i < 20; i++) {
+                String codigo = "ticket-" + i;
+                Future<byte[]> png = pool.submit(() -> engine.png(codigo));
+                assertThat(decodificar(ImageIO.read(new ByteArrayInputStream(png.get())))).isEqualTo(codigo);
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    @DisplayName("El SVG usa un módulo por unidad del viewBox")
+    void testSvg() {
+        String svg = engine.svg("codigo-svg");
+
+        assertThat(svg).startsWith("<svg").endsWith("</svg>");
+        assertThat(svg).contains("viewBox=\"0 0 29 29\"").contains("shape-rendering=\"crispEdges\"");
+    }
+
+    @Test
+    @DisplayName("Un tamaño de módulo inválido se rechaza")
+    void testModuloInvalido() {
+        assertThatThrownBy(() -> new QrCodeEngine(0)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private static String decodificar(BufferedImage imagen) throws Exception {
+        BinaryBitmap bitmap = new BinaryBitmap(new HybridBinarizer(new BufferedImageLuminanceSource(imagen)));
+        // La imagen es solo el código con su margen; el detector de patrones de ZXing falla con
+        // algunos contenidos aunque la imagen sea correcta (también con la de MatrixToImageWriter)
+        return new QRCodeReader().decode(bitmap, Map.of(DecodeHintType.PURE_BARCODE, true)).getText();
+    }
+}
@@ -0,0 +1,141 @@
+package pe.edu.pucp.fasticket.service;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.security.authorization.AuthorizationDeniedException;
+
+import pe.edu.pucp.fasticket.exception.BusinessException;
+import pe.edu.pucp.fasticket.model.eventos.EstadoTicket;
+import pe.edu.pucp.fasticket.model.eventos.Ticket;
+import pe.edu.pucp.fasticket.model.usuario.Cliente;
+import pe.edu.pucp.fasticket.repository.eventos.TicketRepository;
+import pe.edu.pucp.fasticket.services.almacenamiento.AlmacenQr;
+import pe.edu.pucp.fasticket.services.tickets.QrCodeEngine;
+import pe.edu.pucp.fasticket.services.tickets.QrTicketService;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Tests de QrTicketService")
+class QrTicketServiceTest {
+
+    private static final byte[] FIRMA_PNG = {(byte) 0x89, 'P', 'N', 'G'};
+
+    @Mock
+    private TicketRepository ticketRepository;
+    @Mock
+    private AlmacenQr almacenQr;
+
+    private QrTicketService qrTicketService;
+    private Ticket ticket;
+
+    @BeforeEach
+    void setUp() {
+        // Executor síncrono: la tarea corre en el hilo del test
+        qrTicketService = new QrTicketService(ticketRepository, Runnable::run, new QrCodeEngine(6), almacenQr);
+
+        Cliente cliente = new Cliente();
+        cliente.setIdPersona(7);
+        ticket = new Ticket();
+        ticket.setIdTicket(1);
+        ticket.setCliente(cliente);
+        ticket.setCodigoQr("codigo-1");
+        ticket.setEstado(EstadoTicket.VENDIDA);
+    }
+
+    @Test
+    @DisplayName("Sin imagen guardada se renderiza el PNG, se sube al almacén y se guarda la referencia")
+    void testObtenerPng_RenderizaYGuarda() {
+        when(ticketRepository.findById(1)).thenReturn(Optional.of(ticket));
+        when(almacenQr.guardar(any())).thenReturn("ref-1");
+
+        byte[] png = qrTicketService.obtenerPng(1, 7, false);
+
+        assertThat(png).startsWith(FIRMA_PNG);
+        verify(almacenQr).guardar(png);
+        verify(ticketRepository).guardarQrRef(1, "codigo-1", "ref-1");
+    }
+
+    @Test
+    @DisplayName("Con imagen guardada se lee del almacén sin renderizar")
+    void testObtenerPng_UsaImagenGuardada() {
+        byte[] guardada = {1, 2, 3};
+        ticket.setQrRef("ref-1");
+        when(ticketRepository.findById(1)).thenReturn(Optional.of(ticket));
+        when(almacenQr.leer("ref-1")).thenReturn(Optional.of(guardada));
+
+        assertThat(qrTicketService.obtenerPng(1, 7, false)).isSameAs(guardada);
+        verify(almacenQr, never()).guardar(any());
+        verify(ticketRepository, never()).guardarQrRef(any(), any(), any());
+    }
+
+    @Test
+    @DisplayName("Si la imagen falta en el almacén se vuelve a generar sin cambiar la referencia")
+    void testObtenerPng_ImagenPerdida() {
+        ticket.setQrRef("ref-1");
+        when(ticketRepository.findById(1)).thenReturn(Optional.of(ticket));
+        when(almacenQr.leer("ref-1")).thenReturn(Optional.empty());
+        when(almacenQr.guardar(any())).thenReturn("ref-1");
+
+        assertThat(qrTicketService.obtenerPng(1, 7, false)).startsWith(FIRMA_PNG);
+        verify(ticketRepository, never()).guardarQrRef(any(), any(), any());
+    }
+
+    @Test
+    @DisplayName("Un ticket reservado y sin pagar no entrega QR")
+    void testObtenerQr_SoloVendido() {
+        ticket.setEstado(EstadoTicket.RESERVADA);
+        when(ticketRepository.findById(1)).thenReturn(Optional.of(ticket));
+
+        assertThatThrownBy(() -> qrTicketService.obtenerPng(1, 7, false)).isInstanceOf(BusinessException.class);
+        assertThatThrownBy(() -> qrTicketService.obtenerSvg(1, 7, true)).isInstanceOf(BusinessException.class);
+        verify(almacenQr, never()).guardar(any());
+    }
+
+    @Test
+    @DisplayName("Otro cliente no puede ver el QR; un administrador sí")
+    void testObtenerPng_ValidaDueno() {
+        when(ticketRepository.findById(1)).thenReturn(Optional.of(ticket));
+        when(almacenQr.guardar(any())).thenReturn("ref-1");
+
+        assertThatThrownBy(() -> qrTicketService.obtenerPng(1, 8, false))
+                .isInstanceOf(AuthorizationDeniedException.class);
+        assertThat(qrTicketService.obtenerPng(1, 8, true)).startsWith(FIRMA_PNG);
+    }
+
+    @Test
+    @DisplayName("El renderizado en segundo plano solo procesa tickets sin imagen")
+    void testProgramarRenderizado_SoloPendientes() {
+        Ticket conImagen = new Ticket();
+        conImagen.setIdTicket(2);
+        when(ticketRepository.findCodigosQrSinImagen(List.of(1, 2)))
+                .thenReturn(List.<Object[]>of(new Object[] {1, "codigo-1"}));
+        when(almacenQr.guardar(any())).thenReturn("ref-1");
+
+        qrTicketService.programarRenderizado(List.of(ticket, conImagen));
+
+        verify(ticketRepository).guardarQrRef(1, "codigo-1", "ref-1");
+        verify(ticketRepository, never()).guardarQrRef(eq(2), any(), any());
+    }
+
+    @Test
+    @DisplayName("Tickets aún sin ID no se encolan")
+    void testProgramarRenderizado_SinIds() {
+        qrTicketService.programarRenderizado(List.of(new Ticket()));
+
+        verify(ticketRepository, never()).findCodigosQrSinImagen(anyList());
+    }
+}
@@ -0,0 +1,118 @@
+package pe.edu.pucp.fasticket.service;
+
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import static org.mockito.Mockito.when;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import pe.edu.pucp.fasticket.exception.BusinessException;
+import pe.edu.pucp.fasticket.model.eventos.Evento;
+import pe.edu.pucp.fasticket.model.eventos.TipoTicket;
+import pe.edu.pucp.fasticket.services.concurrencia.ReintentarConflicto;
+import pe.edu.pucp.fasticket.services.concurrencia.ReintentoConflictosAspect;
+import pe.edu.pucp.fasticket.services.eventos.EntradaCatalogo;
+import pe.edu.pucp.fasticket.services.eventos.IndiceCatalogo;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Tests de ReintentoConflictosAspect")
+class ReintentoConflictosAspectTest {
+
+    static class Operacion {
+        final AtomicInteger llamadas = new AtomicInteger();
+        int conflictos;
+        Class<?> entidad = Evento.class;
+
+        @ReintentarConflicto
+        public String ejecutar() {
+            if (llamadas.incrementAndGet() <= conflictos) {
+                throw new ObjectOptimisticLockingFailureException(entidad, 9);
+            }
+            return "ok";
+        }
+    }
+
+    @Mock
+    private IndiceCatalogo indiceCatalogo;
+
+    private SimpleMeterRegistry metricas;
+    private Operacion operacion;
+    private Operacion proxy;
+
+    @BeforeEach
+    void setUp() {
+        metricas = new SimpleMeterRegistry();
+        operacion = new Operacion();
+        AspectJProxyFactory fabrica = new AspectJProxyFactory(operacion);
+        fabrica.setProxyTargetClass(true);
+        fabrica.addAspect(new ReintentoConflictosAspect(metricas, indiceCatalogo, 4, 0, 0));
+        proxy = fabrica.getProxy();
+    }
+
+    private double contador(String nombre, String entidad, String evento) {
+        var contador = metricas.find(nombre).tag("entidad", entidad).tag("evento", evento)
+                .tag("operacion", "Operacion.ejecutar").counter();
+        return contador == null ? 0 : contador.count();
+    }
+
+    @Test
+    @DisplayName("Reintenta hasta que la operación termina sin conflicto")
+    void testReintentaHastaTenerExito() {
+        operacion.conflictos = 2;
+
+        assertThat(proxy.ejecutar()).isEqualTo("ok");
+        assertThat(operacion.llamadas).hasValue(3);
+        assertThat(contador("fasticket.conflictos.reintentos", "Evento", "9")).isEqualTo(2);
+        assertThat(contador("fasticket.conflictos.agotados", "Evento", "9")).isZero();
+    }
+
+    @Test
+    @DisplayName("Agotados los intentos responde con BusinessException")
+    void testAgotaIntentos() {
+        operacion.conflictos = 10;
+
+        assertThatThrownBy(proxy::ejecutar)
+                .isInstanceOf(BusinessException.class)
+                .hasCauseInstanceOf(ObjectOptimisticLockingFailureException.class);
+        assertThat(operacion.llamadas).hasValue(4);
+        assertThat(contador("fasticket.conflictos.reintentos", "Evento", "9")).isEqualTo(3);
+        assertThat(contador("fasticket.conflictos.agotados", "Evento", "9")).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Dentro de una transacción abierta no reintenta")
+    void testNoReintentaDentroDeTransaccion() {
+        operacion.conflictos = 1;
+        TransactionSynchronizationManager.setActualTransactionActive(true);
+        try {
+            assertThatThrownBy(proxy::ejecutar).isInstanceOf(ObjectOptimisticLockingFailureException.class);
+        } finally {
+            TransactionSynchronizationManager.setActualTransactionActive(false);
+        }
+        assertThat(operacion.llamadas).hasValue(1);
+    }
+
+    @Test
+    @DisplayName("Los conflictos en un tipo de ticket se cuentan en su evento")
+    void testEventoDeTipoTicket() {
+        operacion.conflictos = 1;
+        operacion.entidad = TipoTicket.class;
+        when(indiceCatalogo.buscar(9)).thenReturn(Optional.of(new EntradaCatalogo(9, "VIP", 100.0, 4, 2, 15,
+                "Concierto", null, null, 0, false, 3, "Estadio")));
+
+        proxy.ejecutar();
+
+        assertThat(contador("fasticket.conflictos.reintentos", "TipoTicket", "15")).isEqualTo(1);
+    }
+}
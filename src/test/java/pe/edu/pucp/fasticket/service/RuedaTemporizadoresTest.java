@@ -0,0 +1,98 @@
+package pe.edu.pucp.fasticket.service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import pe.edu.pucp.fasticket.services.expiracion.RuedaTemporizadores;
+
+@DisplayName("Tests de RuedaTemporizadores")
+class RuedaTemporizadoresTest {
+
+    private static final long TICK = 1_000;
+    private static final long INICIO = 1_700_000_000_000L;
+
+    @Test
+    @DisplayName("Una clave vence en el primer tick posterior a su vencimiento, no antes")
+    void testVencimientoCercano() {
+        RuedaTemporizadores<String> rueda = new RuedaTemporizadores<>(TICK, INICIO);
+        rueda.programar("orden-1", INICIO + 2_500);
+
+        assertThat(rueda.avanzar(INICIO + 2_000)).isEmpty();
+        assertThat(rueda.avanzar(INICIO + 3_000)).containsExactly("orden-1");
+        assertThat(rueda.avanzar(INICIO + 10_000)).isEmpty();
+        assertThat(rueda.tamano()).isZero();
+    }
+
+    @Test
+    @DisplayName("Vencimientos en los niveles superiores y en el desborde llegan a tiempo")
+    void testVencimientosLejanos() {
+        RuedaTemporizadores<String> rueda = new RuedaTemporizadores<>(TICK, INICIO);
+        rueda.programar("15min", INICIO + 15 * 60_000);
+        rueda.programar("3h", INICIO + 3 * 3_600_000);
+        rueda.programar("5dias", INICIO + 5 * 86_400_000L);
+
+        assertThat(rueda.avanzar(INICIO + 15 * 60_000 - TICK)).isEmpty();
+        assertThat(rueda.avanzar(INICIO + 15 * 60_000)).containsExactly("15min");
+        assertThat(rueda.avanzar(INICIO + 3 * 3_600_000 - TICK)).isEmpty();
+        assertThat(rueda.avanzar(INICIO + 3 * 3_600_000)).containsExactly("3h");
+        assertThat(rueda.avanzar(INICIO + 5 * 86_400_000L - TICK)).isEmpty();
+        assertThat(rueda.avanzar(INICIO + 5 * 86_400_000L)).containsExactly("5dias");
+    }
+
+    @Test
+    @DisplayName("Cancelar y reprogramar reemplazan el vencimiento anterior")
+    void testCancelarYReprogramar() {
+        RuedaTemporizadores<String> rueda = new RuedaTemporizadores<>(TICK, INICIO);
+        rueda.programar("cancelada", INICIO + 5_000);
+        rueda.programar("extendida", INICIO + 5_000);
+        rueda.cancelar("cancelada");
+        rueda.programar("extendida", INICIO + 20_000);
+
+        assertThat(rueda.avanzar(INICIO + 10_000)).isEmpty();
+        assertThat(rueda.avanzar(INICIO + 20_000)).containsExactly("extendida");
+    }
+
+    @Test
+    @DisplayName("Un vencimiento ya pasado se entrega en el siguiente avance")
+    void testVencimientoPasado() {
+        RuedaTemporizadores<String> rueda = new RuedaTemporizadores<>(TICK, INICIO);
+        rueda.programar("atrasada", INICIO - 60_000);
+
+        assertThat(rueda.avanzar(INICIO)).containsExactly("atrasada");
+    }
+
+    @Test
+    @DisplayName("Con vencimientos aleatorios, cada clave vence una sola vez y dentro de su tick")
+    void testVencimientosAleatorios() {
+        RuedaTemporizadores<Integer> rueda = new RuedaTemporizadores<>(TICK, INICIO);
+        Random random = new Random(42);
+        long[] vencimientos = new long[2_000];
+        for (int i = 0; i < vencimientos.length; i++) {
+            vencimientos[i] = INICIO + 1 + random.nextInt(20 * 3_600_000);
+            rueda.programar(i, vencimientos[i]);
+        }
+
+        List<Integer> vencidas = new ArrayList<>();
+        for (long ahora = INICIO; ahora <= INICIO + 20 * 3_600_000 + TICK; ahora += 7 * TICK) {
+            for (Integer clave : rueda.avanzar(ahora)) {
+                assertThat(ahora).isGreaterThanOrEqualTo(vencimientos[clave]);
+                assertThat(ahora - vencimientos[clave]).isLessThan(8 * TICK);
+                vencidas.add(clave);
+            }
+        }
+        assertThat(vencidas).hasSize(vencimientos.length).doesNotHaveDuplicates();
+    }
+
+    @Test
+    @DisplayName("Un tick inválido se rechaza")
+    void testTickInvalido() {
+        assertThatThrownBy(() -> new RuedaTemporizadores<String>(0, INICIO))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,113 @@
+package pe.edu.pucp.fasticket.service;
+
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import pe.edu.pucp.fasticket.services.salaespera.SalaEspera;
+
+@DisplayName("Tests de la cola de admisión de la sala de espera")
+class SalaEsperaTest {
+
+    private static final long VENTANA = 600_000;
+    private static final long ABANDONO = 120_000;
+    private static final Integer CLIENTE = 3;
+
+    private SalaEspera sala;
+
+    @BeforeEach
+    void setUp() {
+        sala = new SalaEspera(7, 2, Set.of(1, 2), VENTANA, ABANDONO);
+    }
+
+    @Test
+    @DisplayName("Admite en orden de llegada hasta la capacidad")
+    void testIngresar_FifoHastaCapacidad() {
+        SalaEspera.Turno primero = sala.ingresar(CLIENTE, 0);
+        SalaEspera.Turno segundo = sala.ingresar(CLIENTE, 0);
+        SalaEspera.Turno tercero = sala.ingresar(CLIENTE, 0);
+        SalaEspera.Turno cuarto = sala.ingresar(CLIENTE, 0);
+
+        assertThat(primero.isAdmitido()).isTrue();
+        assertThat(segundo.isAdmitido()).isTrue();
+        assertThat(tercero.isAdmitido()).isFalse();
+        assertThat(sala.posicion(tercero)).isEqualTo(1);
+        assertThat(sala.posicion(cuarto)).isEqualTo(2);
+        assertThat(sala.estaAdmitido(primero.getToken(), CLIENTE, 0)).isTrue();
+        assertThat(sala.estaAdmitido(tercero.getToken(), CLIENTE, 0)).isFalse();
+        assertThat(primero.getToken()).startsWith("7.");
+    }
+
+    @Test
+    @DisplayName("Liberar un turno admitido admite al siguiente de la cola")
+    void testLiberar_AdmiteSiguiente() {
+        SalaEspera.Turno primero = sala.ingresar(CLIENTE, 0);
+        sala.ingresar(CLIENTE, 0);
+        SalaEspera.Turno tercero = sala.ingresar(CLIENTE, 0);
+
+        sala.liberar(primero.getToken(), CLIENTE, 1_000);
+
+        assertThat(tercero.isAdmitido()).isTrue();
+        assertThat(sala.estaAdmitido(primero.getToken(), CLIENTE, 1_000)).isFalse();
+        assertThat(sala.admitidos()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("La admisión vence al terminar la ventana y cede el cupo")
+    void testAdmitir_VentanaExpirada() {
+        SalaEspera.Turno primero = sala.ingresar(CLIENTE, 0);
+        sala.ingresar(CLIENTE, 0);
+        SalaEspera.Turno tercero = sala.ingresar(CLIENTE, 0);
+        sala.consultar(tercero.getToken(), CLIENTE, VENTANA);
+
+        sala.admitir(VENTANA);
+
+        assertThat(sala.estaAdmitido(primero.getToken(), CLIENTE, VENTANA)).isFalse();
+        assertThat(sala.consultar(primero.getToken(), CLIENTE, VENTANA)).isEmpty();
+        assertThat(tercero.isAdmitido()).isTrue();
+    }
+
+    @Test
+    @DisplayName("Los turnos que dejan de consultar se saltan al admitir")
+    void testAdmitir_SaltaAbandonados() {
+        SalaEspera.Turno primero = sala.ingresar(CLIENTE, 0);
+        SalaEspera.Turno segundo = sala.ingresar(CLIENTE, 0);
+        SalaEspera.Turno abandonado = sala.ingresar(CLIENTE, 0);
+        SalaEspera.Turno activo = sala.ingresar(CLIENTE, 0);
+        sala.consultar(activo.getToken(), CLIENTE, ABANDONO + 1_000);
+
+        sala.liberar(primero.getToken(), CLIENTE, ABANDONO + 1_000);
+
+        assertThat(abandonado.isAdmitido()).isFalse();
+        assertThat(sala.consultar(abandonado.getToken(), CLIENTE, ABANDONO + 1_000)).isEmpty();
+        assertThat(activo.isAdmitido()).isTrue();
+        assertThat(segundo.isAdmitido()).isTrue();
+    }
+
+    @Test
+    @DisplayName("El tiempo estimado crece por tandas de capacidad")
+    void testEta_PorTandas() {
+        sala.ingresar(CLIENTE, 0);
+        sala.ingresar(CLIENTE, 0);
+        SalaEspera.Turno tercero = sala.ingresar(CLIENTE, 0);
+        sala.ingresar(CLIENTE, 0);
+        SalaEspera.Turno quinto = sala.ingresar(CLIENTE, 0);
+
+        assertThat(sala.etaSegundos(tercero)).isEqualTo(VENTANA / 1000);
+        assertThat(sala.etaSegundos(quinto)).isEqualTo(2 * VENTANA / 1000);
+    }
+
+    @Test
+    @DisplayName("Un turno solo sirve a la persona que lo pidió")
+    void testTurno_SoloSuTitular() {
+        SalaEspera.Turno primero = sala.ingresar(CLIENTE, 0);
+
+        assertThat(sala.estaAdmitido(primero.getToken(), 4, 0)).isFalse();
+        assertThat(sala.consultar(primero.getToken(), 4, 0)).isEmpty();
+        sala.liberar(primero.getToken(), 4, 0);
+        assertThat(sala.estaAdmitido(primero.getToken(), CLIENTE, 0)).isTrue();
+    }
+}
@@ -0,0 +1,91 @@
+package pe.edu.pucp.fasticket.service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import pe.edu.pucp.fasticket.model.compra.EstadoCompra;
+import pe.edu.pucp.fasticket.repository.compra.CarroComprasRepository;
+import pe.edu.pucp.fasticket.repository.compra.OrdenCompraRepositorio;
+import pe.edu.pucp.fasticket.services.CarroComprasService;
+import pe.edu.pucp.fasticket.services.compra.TareaProgramadaServicio;
+import pe.edu.pucp.fasticket.services.expiracion.ExpiracionReservas;
+import pe.edu.pucp.fasticket.services.expiracion.ExpiracionReservas.Reserva;
+import pe.edu.pucp.fasticket.services.expiracion.ExpiracionReservas.TipoReserva;
+import pe.edu.pucp.fasticket.services.expiracion.LiberacionReservasService;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Tests de TareaProgramadaServicio")
+class TareaProgramadaServicioTest {
+
+    @Mock private ExpiracionReservas expiracionReservas;
+    @Mock private LiberacionReservasService liberacionReservasService;
+    @Mock private CarroComprasService carroComprasService;
+    @Mock private OrdenCompraRepositorio ordenCompraRepositorio;
+    @Mock private CarroComprasRepository carroComprasRepository;
+
+    private TareaProgramadaServicio tarea;
+
+    @BeforeEach
+    void setUp() {
+        tarea = new TareaProgramadaServicio(expiracionReservas, liberacionReservasService, carroComprasService,
+                ordenCompraRepositorio, carroComprasRepository, 2);
+    }
+
+    @Test
+    @DisplayName("Cada tick libera como máximo un lote y deja el resto para el siguiente")
+    void testLiberarEnLotes() {
+        List<Reserva> vencidas = new ArrayList<>();
+        for (int i = 1; i <= 3; i++) {
+            vencidas.add(new Reserva(TipoReserva.ORDEN, i));
+        }
+        when(expiracionReservas.vencidas())
+                .thenReturn(vencidas)
+                .thenReturn(List.of(new Reserva(TipoReserva.CARRITO, 9)));
+
+        tarea.liberarReservasExpiradas();
+        verify(liberacionReservasService).liberarOrdenesExpiradas(List.of(1, 2));
+
+        tarea.liberarReservasExpiradas();
+        verify(liberacionReservasService).liberarOrdenesExpiradas(List.of(3));
+        verify(carroComprasService).expirarCarrito(9);
+    }
+
+    @Test
+    @DisplayName("Un error al liberar las órdenes no detiene los carritos del lote")
+    void testErrorNoDetieneLote() {
+        when(expiracionReservas.vencidas()).thenReturn(
+                List.of(new Reserva(TipoReserva.ORDEN, 1), new Reserva(TipoReserva.CARRITO, 2)));
+        when(liberacionReservasService.liberarOrdenesExpiradas(List.of(1))).thenThrow(new IllegalStateException("fallo"));
+
+        tarea.liberarReservasExpiradas();
+
+        verify(carroComprasService).expirarCarrito(2);
+    }
+
+    @Test
+    @DisplayName("Los vencimientos se cargan desde la base de datos")
+    void testCargarVencimientos() {
+        LocalDateTime vence = LocalDateTime.now().plusMinutes(10);
+        List<Object[]> ordenes = new ArrayList<>();
+        ordenes.add(new Object[] {7, vence});
+        List<Object[]> carritos = new ArrayList<>();
+        carritos.add(new Object[] {3, vence});
+        when(ordenCompraRepositorio.findVencimientosByEstado(EstadoCompra.PENDIENTE)).thenReturn(ordenes);
+        when(carroComprasRepository.findVencimientos()).thenReturn(carritos);
+
+        tarea.cargarVencimientos();
+
+        verify(expiracionReservas).programarOrden(7, vence);
+        verify(expiracionReservas).programarCarrito(3, vence);
+    }
+}